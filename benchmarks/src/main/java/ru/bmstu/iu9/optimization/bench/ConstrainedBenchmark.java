@@ -0,0 +1,182 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.gpc.GradientProjectionConfig;
+import ru.bmstu.iu9.optimization.conf.mlc.ModifiedLagrangianConfig;
+import ru.bmstu.iu9.optimization.conf.msc.MultiStartConfig;
+import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+import ru.bmstu.iu9.optimization.md.OptimizationMethod;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.md.gpm.GradientProjectionMethod;
+import ru.bmstu.iu9.optimization.md.ml.ModifiedLagrangianMethod;
+import ru.bmstu.iu9.optimization.md.ms.MultiStartMethod;
+import ru.bmstu.iu9.optimization.md.ms.StartPointsType;
+import ru.bmstu.iu9.optimization.md.pm.CombinedPenaltyMethod;
+import ru.bmstu.iu9.optimization.md.pm.ExternalPenaltyMethod;
+import ru.bmstu.iu9.optimization.md.pm.InternalPenaltyMethod;
+import ru.bmstu.iu9.optimization.md.pm.PenaltyType;
+import ru.bmstu.iu9.optimization.od.LineSearch;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Методы условной оптимизации из lab5 на пересечении шара |x|^2 <= 0.8 и ортанта x >= -0.5,
+ * то есть на многомерном аналоге области из лабораторной. Ортант сдвинут, чтобы минимумы квадратичной функции
+ * и функции Растригина не лежали на его границе, где логарифмический штраф не определен.
+ * Параметры методов совпадают с optimization.properties lab5.
+ */
+public class ConstrainedBenchmark extends ProblemBenchmark {
+
+    private static final double RADIUS_SQUARED = 0.8, LOWER_BOUND = -0.5;
+
+    private RealVector internalPoint, externalPoint;
+    private OptimizationMethod gradientProjection, multiStart, modifiedLagrangian,
+            externalPenalty, hyperbolicPenalty, logPenalty, combinedPenalty;
+
+    @Override
+    protected void setUpMethods() {
+        int n = dimension, m = n + 1;
+        internalPoint = new ArrayRealVector(n, 0.1);
+        externalPoint = new ArrayRealVector(n, -1.0);
+
+        List<Function<RealVector, Double>> constraints = new ArrayList<>();
+        constraints.add((x) -> x.dotProduct(x) - RADIUS_SQUARED);
+        for (int i = 0; i < n; i++) {
+            int idx = i;
+            constraints.add((x) -> LOWER_BOUND - x.getEntry(idx));
+        }
+        Function<RealVector, RealMatrix> constraintsDerivatives = (x) -> {
+            RealMatrix a = MatrixUtils.createRealMatrix(m, n);
+            a.setRowVector(0, x.mapMultiply(2.0));
+            for (int i = 0; i < n; i++) {
+                a.setEntry(i + 1, i, -1.0);
+            }
+            return a;
+        };
+
+        double[] steps = new double[n];
+        Arrays.fill(steps, 1.0);
+        double[] weights = new double[m];
+        Arrays.fill(weights, 1.0);
+
+        DichotomyMethodConfig dmc = new DichotomyMethodConfig() {
+            public double start() { return -20.0; }
+            public double end() { return 20.0; }
+            public double eps() { return 0.001; }
+        };
+        PatternSearchConfig psc = new PatternSearchConfig() {
+            public double[] steps() { return steps; }
+            public double eps() { return 0.001; }
+            public double beta() { return 0.5; }
+            public int cacheCapacity() { return 1024; }
+            public LineSearch lineSearch() { return LineSearch.BRENT; }
+        };
+        PenaltyMethodConfig pmc = new PenaltyMethodConfig() {
+            public double[] weights() { return weights; }
+            public RealVector internalPoint() { return internalPoint; }
+            public RealVector externalPoint() { return externalPoint; }
+            public double r0() { return 1.0; }
+            public double betaInternal() { return 0.1; }
+            public double betaExternal() { return 5.0; }
+            public double eps() { return 0.0001; }
+            public RealVector combinedPenaltyPoint() { return externalPoint; }
+        };
+        ModifiedLagrangianConfig mlc = new ModifiedLagrangianConfig() {
+            public RealVector muVector() { return new ArrayRealVector(m); }
+            public RealVector x0() { return internalPoint; }
+            public RealVector weights() { return new ArrayRealVector(weights); }
+            public double r0() { return 1.0; }
+            public double beta() { return 0.1; }
+            public double eps() { return 0.001; }
+        };
+        GradientProjectionConfig gpc = new GradientProjectionConfig() {
+            public RealVector x0() { return internalPoint; }
+            public double eps1() { return -0.001; }
+            public double eps2() { return 0.00001; }
+            public double sigma() { return 0.0000001; }
+            public double alphaPrecision() { return 0.0001; }
+            public int maxIterations() { return 1000; }
+            public double alpha0() { return 0.000001; }
+        };
+        double upperBound = Math.sqrt(RADIUS_SQUARED / n);
+        MultiStartConfig msc = new MultiStartConfig() {
+            public int startsCount() { return 16; }
+            public double[] lowerBounds() {
+                double[] lower = new double[n];
+                Arrays.fill(lower, LOWER_BOUND);
+                return lower;
+            }
+            public double[] upperBounds() {
+                double[] upper = new double[n];
+                Arrays.fill(upper, upperBound);
+                return upper;
+            }
+            public StartPointsType startPoints() { return StartPointsType.SOBOL; }
+            public int parallelism() { return 1; }
+        };
+
+        gradientProjection = new GradientProjectionMethod(objective, gradient, constraints, constraintsDerivatives, gpc);
+        multiStart = new MultiStartMethod(gradientProjection, msc);
+        modifiedLagrangian = new ModifiedLagrangianMethod(objective, constraints, psc, dmc, mlc);
+        externalPenalty = new ExternalPenaltyMethod(objective, constraints, psc, dmc, pmc);
+        hyperbolicPenalty = new InternalPenaltyMethod(objective, constraints, psc, dmc, pmc, PenaltyType.HYPERBOLIC);
+        logPenalty = new InternalPenaltyMethod(objective, constraints, psc, dmc, pmc, PenaltyType.LOG_NEGATIVE);
+        combinedPenalty = new CombinedPenaltyMethod(objective, constraints, psc, dmc, pmc);
+    }
+
+    @Benchmark
+    public OptimizationResult gradientProjection(EvaluationCounters counters) {
+        solve(counters);
+        return gradientProjection.optimize(internalPoint);
+    }
+
+    /**
+     * Мультистарт в один поток, чтобы число вычислений на запуск было сравнимо с остальными методами.
+     * Проверка допустимости найденных точек не выполняется: замеряется только стоимость запусков.
+     */
+    @Benchmark
+    public OptimizationResult multiStartGradientProjection(EvaluationCounters counters) {
+        solve(counters);
+        return multiStart.optimize();
+    }
+
+    @Benchmark
+    public OptimizationResult modifiedLagrangian(EvaluationCounters counters) {
+        solve(counters);
+        return modifiedLagrangian.optimize(internalPoint);
+    }
+
+    @Benchmark
+    public OptimizationResult externalPenalty(EvaluationCounters counters) {
+        solve(counters);
+        return externalPenalty.optimize(externalPoint);
+    }
+
+    @Benchmark
+    public OptimizationResult hyperbolicPenalty(EvaluationCounters counters) {
+        solve(counters);
+        return hyperbolicPenalty.optimize(internalPoint);
+    }
+
+    @Benchmark
+    public OptimizationResult logPenalty(EvaluationCounters counters) {
+        solve(counters);
+        return logPenalty.optimize(internalPoint);
+    }
+
+    @Benchmark
+    public OptimizationResult combinedPenalty(EvaluationCounters counters) {
+        solve(counters);
+        return combinedPenalty.optimize(externalPoint);
+    }
+
+}
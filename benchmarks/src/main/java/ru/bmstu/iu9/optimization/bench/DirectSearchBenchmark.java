@@ -0,0 +1,67 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import ru.bmstu.iu9.optimization.hj.HookeJeevesConf;
+import ru.bmstu.iu9.optimization.hj.HookeJeevesMethod;
+import ru.bmstu.iu9.optimization.nm.NelderMeadConf;
+import ru.bmstu.iu9.optimization.nm.NelderMeadMethod;
+import ru.bmstu.iu9.optimization.onedim.GoldenSectionMethod;
+import ru.bmstu.iu9.optimization.onedim.conf.GoldenSectionConf;
+
+import java.util.Arrays;
+
+/**
+ * Методы прямого поиска из lab4-1. Параметры совпадают с optimization.properties лабораторной.
+ */
+public class DirectSearchBenchmark extends ProblemBenchmark {
+
+    private NelderMeadConf nelderMeadConf;
+    private HookeJeevesConf hookeJeevesConf;
+
+    @Override
+    protected void setUpMethods() {
+        nelderMeadConf = new NelderMeadConf();
+        nelderMeadConf.edgeLen = 1.0;
+        nelderMeadConf.alpha = 1.0;
+        nelderMeadConf.gamma = 2.0;
+        nelderMeadConf.beta = 0.5;
+        nelderMeadConf.mu = 0.5;
+        nelderMeadConf.psi = 0.001;
+        nelderMeadConf.sigma = 0.0001;
+        nelderMeadConf.eps = 0.0000001;
+        nelderMeadConf.repairStep = 10;
+        nelderMeadConf.maxIterationsCount = 1000;
+        nelderMeadConf.cacheCapacity = 1024;
+        nelderMeadConf.startVector = x0;
+
+        GoldenSectionConf lineSearchConf = new GoldenSectionConf();
+        lineSearchConf.start = -5;
+        lineSearchConf.end = 5;
+        lineSearchConf.eps = 0.01;
+
+        hookeJeevesConf = new HookeJeevesConf();
+        hookeJeevesConf.eps = 0.001;
+        hookeJeevesConf.beta = 0.5;
+        hookeJeevesConf.lambda = 2.0;
+        hookeJeevesConf.steps = new double[dimension];
+        Arrays.fill(hookeJeevesConf.steps, 1.0);
+        hookeJeevesConf.cacheCapacity = 1024;
+        hookeJeevesConf.startVector = x0;
+        hookeJeevesConf.oneDimOptimization = new GoldenSectionMethod();
+        hookeJeevesConf.oneDimOptimizationConf = lineSearchConf;
+    }
+
+    @Benchmark
+    public RealVector nelderMead(EvaluationCounters counters) {
+        solve(counters);
+        return NelderMeadMethod.optimize(objective, x0, nelderMeadConf);
+    }
+
+    @Benchmark
+    public RealVector hookeJeeves(EvaluationCounters counters) {
+        solve(counters);
+        return HookeJeevesMethod.optimize(objective, x0, hookeJeevesConf);
+    }
+
+}
@@ -0,0 +1,34 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Счетчики вычислений целевой функции и градиента. JMH выводит их рядом с основной метрикой
+ * как число вычислений на один запуск метода.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+public class EvaluationCounters {
+
+    long objective;
+    long gradient;
+    long solves;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        objective = gradient = solves = 0;
+    }
+
+    public double objectivePerSolve() {
+        return solves == 0 ? 0.0 : (double) objective / solves;
+    }
+
+    public double gradientPerSolve() {
+        return solves == 0 ? 0.0 : (double) gradient / solves;
+    }
+
+}
@@ -0,0 +1,137 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import ru.bmstu.iu9.optimization.conf.DavidFletcherPaulConf;
+import ru.bmstu.iu9.optimization.conf.GoldenSectionConf;
+import ru.bmstu.iu9.optimization.conf.GradientDescendConf;
+import ru.bmstu.iu9.optimization.conf.LevenbergMarquardtConf;
+import ru.bmstu.iu9.optimization.conf.LimitedMemoryBfgsConf;
+import ru.bmstu.iu9.optimization.conf.NonlinearConjugateGradientConf;
+import ru.bmstu.iu9.optimization.conf.WolfeConf;
+import ru.bmstu.iu9.optimization.dfpm.DavidFletcherPaulMethod;
+import ru.bmstu.iu9.optimization.gdm.GradientDescendMethod;
+import ru.bmstu.iu9.optimization.lbfgsm.LimitedMemoryBfgsMethod;
+import ru.bmstu.iu9.optimization.lmm.LevenbergMarquardtMethod;
+import ru.bmstu.iu9.optimization.ncgm.NonlinearConjugateGradientMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+
+/**
+ * Градиентные методы из lab4-2. Параметры совпадают с optimization.properties лабораторной,
+ * способ одномерного поиска задается параметром lineSearch.
+ */
+public class GradientBenchmark extends ProblemBenchmark {
+
+    @Param({"EXACT", "STRONG_WOLFE"})
+    public LineSearchType lineSearch;
+
+    private GoldenSectionConf lineSearchConf;
+    private GradientDescendConf gradientDescendConf;
+    private NonlinearConjugateGradientConf conjugateGradientConf;
+    private DavidFletcherPaulConf davidFletcherPaulConf;
+    private LimitedMemoryBfgsConf limitedMemoryBfgsConf;
+    private LevenbergMarquardtConf levenbergMarquardtConf;
+
+    @Override
+    protected void setUpMethods() {
+        lineSearchConf = new GoldenSectionConf();
+        lineSearchConf.start = -5;
+        lineSearchConf.end = 5;
+        lineSearchConf.eps = 0.001;
+
+        WolfeConf wolfeConf = new WolfeConf();
+        wolfeConf.c1 = 1e-4;
+        wolfeConf.c2 = 0.9;
+        wolfeConf.maxAlpha = 10.0;
+        wolfeConf.maxIterations = 20;
+
+        gradientDescendConf = new GradientDescendConf();
+        gradientDescendConf.eps = 0.0001;
+        gradientDescendConf.sigma = 0.001;
+        gradientDescendConf.maxIterations = 1000;
+        gradientDescendConf.startAlpha = 2.0;
+        gradientDescendConf.startVector = x0;
+        gradientDescendConf.cacheCapacity = 0;
+        gradientDescendConf.lineSearch = lineSearch;
+        gradientDescendConf.wolfeConf = wolfeConf;
+
+        conjugateGradientConf = new NonlinearConjugateGradientConf();
+        conjugateGradientConf.eps = 0.001;
+        conjugateGradientConf.sigma = 0.001;
+        conjugateGradientConf.maxIterations = 1000;
+        conjugateGradientConf.startAlpha = 2.0;
+        conjugateGradientConf.startVector = x0;
+        conjugateGradientConf.cacheCapacity = 0;
+        conjugateGradientConf.lineSearch = lineSearch;
+        conjugateGradientConf.wolfeConf = wolfeConf;
+
+        davidFletcherPaulConf = new DavidFletcherPaulConf();
+        davidFletcherPaulConf.startAlpha = 2.0;
+        davidFletcherPaulConf.funcEps = 0.001;
+        davidFletcherPaulConf.gradEps = 0.001;
+        davidFletcherPaulConf.sigma = 0.001;
+        davidFletcherPaulConf.maxIterations = 100;
+        davidFletcherPaulConf.updateGMatrixIteration = 10;
+        davidFletcherPaulConf.startVector = x0;
+        davidFletcherPaulConf.cacheCapacity = 0;
+        davidFletcherPaulConf.lineSearch = lineSearch;
+        davidFletcherPaulConf.wolfeConf = wolfeConf;
+
+        limitedMemoryBfgsConf = new LimitedMemoryBfgsConf();
+        limitedMemoryBfgsConf.historySize = 5;
+        limitedMemoryBfgsConf.gradEps = 0.0001;
+        limitedMemoryBfgsConf.funcEps = 0.0000001;
+        limitedMemoryBfgsConf.sigma = 0.000001;
+        limitedMemoryBfgsConf.maxIterations = 1000;
+        limitedMemoryBfgsConf.startVector = x0;
+        limitedMemoryBfgsConf.cacheCapacity = 0;
+        limitedMemoryBfgsConf.wolfeConf = wolfeConf;
+
+        levenbergMarquardtConf = new LevenbergMarquardtConf();
+        levenbergMarquardtConf.startMu = 10000.0;
+        levenbergMarquardtConf.gradEps = 0.0001;
+        levenbergMarquardtConf.funcEps = 0.0001;
+        levenbergMarquardtConf.sigma = 0.0001;
+        levenbergMarquardtConf.maxIterations = 1000;
+        levenbergMarquardtConf.startVector = x0;
+        levenbergMarquardtConf.cacheCapacity = 0;
+    }
+
+    @Benchmark
+    public RealVector gradientDescend(EvaluationCounters counters) {
+        solve(counters);
+        return GradientDescendMethod.optimize(objective, gradient, x0, gradientDescendConf, lineSearchConf);
+    }
+
+    @Benchmark
+    public RealVector nonlinearConjugateGradient(EvaluationCounters counters) {
+        solve(counters);
+        return NonlinearConjugateGradientMethod.optimize(objective, gradient, x0, conjugateGradientConf, lineSearchConf);
+    }
+
+    @Benchmark
+    public RealVector davidFletcherPaul(EvaluationCounters counters) {
+        solve(counters);
+        return DavidFletcherPaulMethod.optimize(objective, gradient, x0, davidFletcherPaulConf, lineSearchConf);
+    }
+
+    /**
+     * L-BFGS всегда использует сильные условия Вульфа, параметр lineSearch на него не влияет.
+     */
+    @Benchmark
+    public RealVector limitedMemoryBfgs(EvaluationCounters counters) {
+        solve(counters);
+        return LimitedMemoryBfgsMethod.optimize(objective, gradient, x0, limitedMemoryBfgsConf);
+    }
+
+    /**
+     * Метод Левенберга-Марквардта не использует одномерный поиск, параметр lineSearch на него не влияет.
+     */
+    @Benchmark
+    public RealVector levenbergMarquardt(EvaluationCounters counters) {
+        solve(counters);
+        return LevenbergMarquardtMethod.optimize(objective, gradient, hessian, x0, levenbergMarquardtConf);
+    }
+
+}
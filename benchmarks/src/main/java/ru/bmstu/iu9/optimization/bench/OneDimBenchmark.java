@@ -0,0 +1,179 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import ru.bmstu.iu9.optimization.conf.BrentConf;
+import ru.bmstu.iu9.optimization.conf.WolfeConf;
+import ru.bmstu.iu9.optimization.core.algo.OneDimAlgorithms;
+import ru.bmstu.iu9.optimization.core.algo.OneDimAlgorithms.Interval;
+import ru.bmstu.iu9.optimization.od.LineSearch;
+import ru.bmstu.iu9.optimization.onedim.BrentMethod;
+import ru.bmstu.iu9.optimization.onedim.DichotomyMethod;
+import ru.bmstu.iu9.optimization.onedim.FibonacciMethod;
+import ru.bmstu.iu9.optimization.onedim.GoldenSectionMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+import ru.bmstu.iu9.optimization.onedim.conf.BrentMethodConf;
+import ru.bmstu.iu9.optimization.onedim.conf.DichotomyMethodConf;
+import ru.bmstu.iu9.optimization.onedim.conf.FibonacciMethodConf;
+import ru.bmstu.iu9.optimization.onedim.conf.GoldenSectionConf;
+import ru.bmstu.iu9.optimization.onedim.wolfe.WolfeLineSearch;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.dot;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
+
+/**
+ * Одномерный поиск вдоль нормированного антиградиента в начальной точке тестовой функции.
+ */
+public class OneDimBenchmark extends ProblemBenchmark {
+
+    private static final double START = 0.0, END = 2.0, EPS = 1e-3;
+    private static final int MAX_ITERATIONS = 100;
+
+    private double[] x, d, probe;
+    private DoubleUnaryOperator phi, dphi;
+    private double phi0, dphi0;
+
+    private Interval interval;
+    private DichotomyMethodConf dichotomyConf;
+    private GoldenSectionConf goldenSectionConf;
+    private FibonacciMethodConf fibonacciConf;
+    private BrentMethodConf brentConf;
+    private ru.bmstu.iu9.optimization.conf.GoldenSectionConf gradientGoldenSectionConf;
+    private BrentConf gradientBrentConf;
+    private WolfeConf wolfeConf;
+
+    @Override
+    protected void setUpMethods() {
+        x = x0.toArray();
+        d = problem.gradient(x);
+        double gradNorm = norm(d);
+        for (int i = 0; i < d.length; i++) {
+            d[i] = -d[i] / gradNorm;
+        }
+        probe = new double[x.length];
+        phi = (t) -> {
+            counters.objective++;
+            linearCombination(x, t, d, probe);
+            return problem.value(probe);
+        };
+        dphi = (t) -> {
+            counters.gradient++;
+            linearCombination(x, t, d, probe);
+            return dot(problem.gradient(probe), d);
+        };
+        phi0 = problem.value(x);
+        dphi0 = dot(problem.gradient(x), d);
+
+        interval = new Interval(START, END);
+        dichotomyConf = fill(new DichotomyMethodConf());
+        goldenSectionConf = fill(new GoldenSectionConf());
+        fibonacciConf = fill(new FibonacciMethodConf());
+        fibonacciConf.sigma = EPS;
+        brentConf = fill(new BrentMethodConf());
+        brentConf.maxIterations = 100;
+
+        gradientGoldenSectionConf = new ru.bmstu.iu9.optimization.conf.GoldenSectionConf();
+        gradientGoldenSectionConf.start = START;
+        gradientGoldenSectionConf.end = END;
+        gradientGoldenSectionConf.eps = EPS;
+        gradientBrentConf = new BrentConf();
+        gradientBrentConf.start = START;
+        gradientBrentConf.end = END;
+        gradientBrentConf.eps = EPS;
+        gradientBrentConf.maxIterations = 100;
+        wolfeConf = new WolfeConf();
+        wolfeConf.c1 = 1e-4;
+        wolfeConf.c2 = 0.9;
+        wolfeConf.maxAlpha = END;
+        wolfeConf.maxIterations = 20;
+    }
+
+    private static <T extends ru.bmstu.iu9.optimization.onedim.conf.BaseOneDimConfiguration> T fill(T c) {
+        c.start = START;
+        c.end = END;
+        c.eps = EPS;
+        return c;
+    }
+
+    @Benchmark
+    public double lab3Dichotomy(EvaluationCounters counters) {
+        solve(counters);
+        return OneDimAlgorithms.extremaWithDichotomyMethodPrimitive(phi, interval, EPS);
+    }
+
+    @Benchmark
+    public double lab3GoldenSection(EvaluationCounters counters) {
+        solve(counters);
+        return OneDimAlgorithms.extremaWithGoldenSectionMethodPrimitive(phi, interval, EPS);
+    }
+
+    @Benchmark
+    public double lab3Fibonacci(EvaluationCounters counters) {
+        solve(counters);
+        return OneDimAlgorithms.extremaWithFibonacciMethodPrimitive(phi, interval, EPS, EPS);
+    }
+
+    @Benchmark
+    public LineSearchResult lab41Dichotomy(EvaluationCounters counters) {
+        solve(counters);
+        return new DichotomyMethod().search(phi, START, dichotomyConf);
+    }
+
+    @Benchmark
+    public LineSearchResult lab41GoldenSection(EvaluationCounters counters) {
+        solve(counters);
+        return new GoldenSectionMethod().search(phi, START, goldenSectionConf);
+    }
+
+    @Benchmark
+    public LineSearchResult lab41Fibonacci(EvaluationCounters counters) {
+        solve(counters);
+        return new FibonacciMethod().search(phi, START, fibonacciConf);
+    }
+
+    @Benchmark
+    public LineSearchResult lab41Brent(EvaluationCounters counters) {
+        solve(counters);
+        return new BrentMethod().search(phi, START, brentConf);
+    }
+
+    @Benchmark
+    public LineSearchResult lab42GoldenSection(EvaluationCounters counters) {
+        solve(counters);
+        return new ru.bmstu.iu9.optimization.onedim.gsm.GoldenSectionMethod().search(phi, START, gradientGoldenSectionConf);
+    }
+
+    @Benchmark
+    public LineSearchResult lab42Brent(EvaluationCounters counters) {
+        solve(counters);
+        return new ru.bmstu.iu9.optimization.onedim.brent.BrentMethod().search(phi, START, gradientBrentConf);
+    }
+
+    @Benchmark
+    public LineSearchResult lab42Armijo(EvaluationCounters counters) {
+        solve(counters);
+        return new WolfeLineSearch(LineSearchType.ARMIJO, wolfeConf).search(phi, dphi, phi0, dphi0, 1.0);
+    }
+
+    @Benchmark
+    public LineSearchResult lab42StrongWolfe(EvaluationCounters counters) {
+        solve(counters);
+        return new WolfeLineSearch(LineSearchType.STRONG_WOLFE, wolfeConf).search(phi, dphi, phi0, dphi0, 1.0);
+    }
+
+    @Benchmark
+    public LineSearchResult lab5Dichotomy(EvaluationCounters counters) {
+        solve(counters);
+        return LineSearch.DICHOTOMY.search(phi, START, END, EPS, MAX_ITERATIONS);
+    }
+
+    @Benchmark
+    public LineSearchResult lab5Brent(EvaluationCounters counters) {
+        solve(counters);
+        return LineSearch.BRENT.search(phi, START, END, EPS, MAX_ITERATIONS);
+    }
+
+}
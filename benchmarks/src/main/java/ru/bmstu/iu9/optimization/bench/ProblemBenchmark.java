@@ -0,0 +1,73 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Общая часть бенчмарков: тестовая функция, размерность и обертки, считающие вычисления.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public abstract class ProblemBenchmark {
+
+    @Param({"ROSENBROCK", "QUADRATIC", "RASTRIGIN"})
+    public TestProblem problem;
+
+    @Param({"2", "10"})
+    public int dimension;
+
+    protected RealVector x0;
+    protected Function<RealVector, Double> objective;
+    protected Function<RealVector, RealVector> gradient;
+    protected Function<RealVector, RealMatrix> hessian;
+    protected EvaluationCounters counters;
+
+    @Setup(Level.Trial)
+    public void setUpProblem() {
+        x0 = new ArrayRealVector(problem.startPoint(dimension), false);
+        objective = (x) -> {
+            counters.objective++;
+            return problem.value(x);
+        };
+        gradient = (x) -> {
+            counters.gradient++;
+            return problem.gradient(x);
+        };
+        hessian = problem::hessian;
+        setUpMethods();
+    }
+
+    /**
+     * Настройка методов под выбранную задачу. Вызывается после того, как заданы x0 и функции:
+     * порядок методов с @Setup в иерархии классов JMH не гарантирует.
+     */
+    protected abstract void setUpMethods();
+
+    /**
+     * Привязывает счетчики к очередному запуску метода.
+     */
+    protected void solve(EvaluationCounters counters) {
+        this.counters = counters;
+        counters.solves++;
+    }
+
+}
@@ -0,0 +1,163 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.Arrays;
+
+import static java.lang.Math.PI;
+import static java.lang.Math.cos;
+import static java.lang.Math.sin;
+
+/**
+ * Тестовые функции произвольной размерности вместе с градиентом и гессианом.
+ */
+public enum TestProblem {
+
+    /**
+     * Расширенная функция Розенброка: сумма 100 * (x[2i+1] - x[2i]^2)^2 + (1 - x[2i])^2, минимум в (1, ..., 1).
+     */
+    ROSENBROCK {
+        @Override
+        public double value(double[] x) {
+            double s = 0.0;
+            for (int i = 0; i + 1 < x.length; i += 2) {
+                double t1 = x[i + 1] - x[i] * x[i], t2 = 1.0 - x[i];
+                s += 100.0 * t1 * t1 + t2 * t2;
+            }
+            return s;
+        }
+
+        @Override
+        public double[] gradient(double[] x) {
+            double[] g = new double[x.length];
+            for (int i = 0; i + 1 < x.length; i += 2) {
+                double t1 = x[i + 1] - x[i] * x[i];
+                g[i] = -400.0 * x[i] * t1 - 2.0 * (1.0 - x[i]);
+                g[i + 1] = 200.0 * t1;
+            }
+            return g;
+        }
+
+        @Override
+        public double[][] hessian(double[] x) {
+            double[][] h = new double[x.length][x.length];
+            for (int i = 0; i + 1 < x.length; i += 2) {
+                h[i][i] = 1200.0 * x[i] * x[i] - 400.0 * x[i + 1] + 2.0;
+                h[i][i + 1] = h[i + 1][i] = -400.0 * x[i];
+                h[i + 1][i + 1] = 200.0;
+            }
+            return h;
+        }
+
+        @Override
+        public double[] startPoint(int n) {
+            double[] x = new double[n];
+            for (int i = 0; i < n; i++) {
+                x[i] = i % 2 == 0 ? -1.2 : 1.0;
+            }
+            return x;
+        }
+    },
+
+    /**
+     * Плохо обусловленная квадратичная функция: сумма (i + 1) * x[i]^2, минимум в нуле.
+     */
+    QUADRATIC {
+        @Override
+        public double value(double[] x) {
+            double s = 0.0;
+            for (int i = 0; i < x.length; i++) {
+                s += (i + 1) * x[i] * x[i];
+            }
+            return s;
+        }
+
+        @Override
+        public double[] gradient(double[] x) {
+            double[] g = new double[x.length];
+            for (int i = 0; i < x.length; i++) {
+                g[i] = 2.0 * (i + 1) * x[i];
+            }
+            return g;
+        }
+
+        @Override
+        public double[][] hessian(double[] x) {
+            double[][] h = new double[x.length][x.length];
+            for (int i = 0; i < x.length; i++) {
+                h[i][i] = 2.0 * (i + 1);
+            }
+            return h;
+        }
+
+        @Override
+        public double[] startPoint(int n) {
+            double[] x = new double[n];
+            Arrays.fill(x, 1.0);
+            return x;
+        }
+    },
+
+    /**
+     * Функция Растригина: 10 * n + сумма x[i]^2 - 10 * cos(2 * pi * x[i]), глобальный минимум в нуле.
+     */
+    RASTRIGIN {
+        @Override
+        public double value(double[] x) {
+            double s = 10.0 * x.length;
+            for (double xi : x) {
+                s += xi * xi - 10.0 * cos(2.0 * PI * xi);
+            }
+            return s;
+        }
+
+        @Override
+        public double[] gradient(double[] x) {
+            double[] g = new double[x.length];
+            for (int i = 0; i < x.length; i++) {
+                g[i] = 2.0 * x[i] + 20.0 * PI * sin(2.0 * PI * x[i]);
+            }
+            return g;
+        }
+
+        @Override
+        public double[][] hessian(double[] x) {
+            double[][] h = new double[x.length][x.length];
+            for (int i = 0; i < x.length; i++) {
+                h[i][i] = 2.0 + 40.0 * PI * PI * cos(2.0 * PI * x[i]);
+            }
+            return h;
+        }
+
+        @Override
+        public double[] startPoint(int n) {
+            double[] x = new double[n];
+            Arrays.fill(x, 0.3);
+            return x;
+        }
+    };
+
+    public abstract double value(double[] x);
+
+    public abstract double[] gradient(double[] x);
+
+    public abstract double[][] hessian(double[] x);
+
+    public abstract double[] startPoint(int n);
+
+    public double value(RealVector x) {
+        return value(x.toArray());
+    }
+
+    public RealVector gradient(RealVector x) {
+        return new ArrayRealVector(gradient(x.toArray()), false);
+    }
+
+    public RealMatrix hessian(RealVector x) {
+        return new Array2DRowRealMatrix(hessian(x.toArray()), false);
+    }
+
+}
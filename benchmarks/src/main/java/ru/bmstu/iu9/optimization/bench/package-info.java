@@ -0,0 +1,13 @@
+/**
+ * JMH-бенчмарки всех методов оптимизации из лабораторных: одномерный поиск (lab3-1, lab4-1, lab4-2, lab5),
+ * прямой поиск (lab4-1), градиентные методы (lab4-2) и методы условной оптимизации (lab5).
+ * <p>
+ * Каждый метод запускается на функциях Розенброка, квадратичной и Растригина разной размерности.
+ * Кроме числа запусков в секунду выводятся счетчики objectivePerSolve и gradientPerSolve,
+ * а с профилировщиком GC еще и объем выделяемой памяти:
+ * <pre>
+ * java -jar target/benchmarks.jar -prof gc
+ * java -jar target/benchmarks.jar GradientBenchmark -p problem=ROSENBROCK -p dimension=10 -prof gc
+ * </pre>
+ */
+package ru.bmstu.iu9.optimization.bench;
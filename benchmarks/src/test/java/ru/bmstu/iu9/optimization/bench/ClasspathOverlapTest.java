@@ -0,0 +1,78 @@
+package ru.bmstu.iu9.optimization.bench;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.jar.JarFile;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Классы всех модулей попадают в один benchmarks.jar, и shade молча оставляет только одну копию
+ * класса с одинаковым именем. Общий код должен жить в модуле common, поэтому совпадение имен
+ * классов разных модулей останавливает сборку до упаковки. Исключения те же, что в фильтре shade:
+ * App каждой лабораторной.
+ */
+public class ClasspathOverlapTest {
+
+    private static final String PACKAGE = "ru/bmstu/iu9/optimization";
+
+    @Test
+    public void testModulesDoNotDefineSameClasses() throws IOException, URISyntaxException {
+        Map<String, List<String>> origins = new HashMap<>();
+        Enumeration<URL> roots = getClass().getClassLoader().getResources(PACKAGE);
+        for (URL root : Collections.list(roots)) {
+            for (String name : classes(root)) {
+                origins.computeIfAbsent(name, key -> new ArrayList<>()).add(root.toString());
+            }
+        }
+
+        Map<String, List<String>> overlaps = new TreeMap<>();
+        origins.forEach((name, sources) -> {
+            if (sources.size() > 1 && !isExcluded(name)) {
+                overlaps.put(name, sources);
+            }
+        });
+        assertTrue("Classes defined by more than one module: " + overlaps, overlaps.isEmpty());
+    }
+
+    private static boolean isExcluded(String name) {
+        return name.equals(PACKAGE + "/App.class") || name.startsWith(PACKAGE + "/App$");
+    }
+
+    private static List<String> classes(URL root) throws IOException, URISyntaxException {
+        List<String> names = new ArrayList<>();
+        if ("jar".equals(root.getProtocol())) {
+            URL jarFile = ((JarURLConnection) root.openConnection()).getJarFileURL();
+            try (JarFile jar = new JarFile(Paths.get(jarFile.toURI()).toFile())) {
+                jar.stream()
+                        .map(entry -> entry.getName())
+                        .filter(name -> name.startsWith(PACKAGE + "/") && name.endsWith(".class"))
+                        .forEach(names::add);
+            }
+        } else {
+            Path dir = Paths.get(root.toURI()), base = dir.getParent().getParent().getParent().getParent();
+            try (Stream<Path> files = Files.walk(dir)) {
+                files.filter(file -> file.toString().endsWith(".class"))
+                        .map(file -> base.relativize(file).toString().replace('\\', '/'))
+                        .forEach(names::add);
+            }
+        }
+        return names;
+    }
+
+}
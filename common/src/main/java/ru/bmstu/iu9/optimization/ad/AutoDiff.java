@@ -0,0 +1,151 @@
+package ru.bmstu.iu9.optimization.ad;
+
+import org.apache.commons.math3.analysis.differentiation.DerivativeStructure;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.util.Decimal64;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Автоматическое дифференцирование функций {@link DifferentiableObjective}: результат - функции
+ * того же вида, что и аналитические производные, которые передаются методам оптимизации.
+ * <p>
+ * Прямой режим ({@link #forwardGradient}, {@link #hessian}) считает производные на
+ * {@link DerivativeStructure}: каждая операция переносит все n (или n(n + 1) / 2) производных,
+ * что выгодно при малом n. Обратный режим ({@link #gradient}, {@link #hessianVector},
+ * {@link #jacobian}) записывает вычисление на ленту и проходит ее один раз в обратном порядке,
+ * поэтому градиент стоит несколько вычислений функции независимо от n. Лента своя у каждого
+ * потока и переиспользуется между вызовами.
+ */
+public final class AutoDiff {
+
+    private static final int TAPE_CAPACITY = 1024;
+
+    private AutoDiff() {
+    }
+
+    public static Function<RealVector, Double> value(DifferentiableObjective func) {
+        return x -> {
+            Decimal64[] args = new Decimal64[x.getDimension()];
+            for (int i = 0; i < args.length; i++) {
+                args[i] = new Decimal64(x.getEntry(i));
+            }
+            return func.value(args).getReal();
+        };
+    }
+
+    /**
+     * Градиент в обратном режиме.
+     */
+    public static Function<RealVector, RealVector> gradient(DifferentiableObjective func) {
+        ThreadLocal<Tape> tapes = ThreadLocal.withInitial(() -> new Tape(TAPE_CAPACITY));
+        return x -> new ArrayRealVector(reverse(func, tapes.get(), x.toArray(), null, null), false);
+    }
+
+    /**
+     * Произведение матрицы Гессе в точке x на вектор v: один проход вперед с производными
+     * по направлению v и один обратный проход, без построения матрицы.
+     */
+    public static BiFunction<RealVector, RealVector, RealVector> hessianVector(DifferentiableObjective func) {
+        ThreadLocal<Tape> tapes = ThreadLocal.withInitial(() -> new Tape(TAPE_CAPACITY));
+        return (x, v) -> {
+            double[] hv = new double[x.getDimension()];
+            reverse(func, tapes.get(), x.toArray(), v.toArray(), hv);
+            return new ArrayRealVector(hv, false);
+        };
+    }
+
+    /**
+     * Матрица Якоби системы функций в обратном режиме: по одному обратному проходу на строку.
+     */
+    public static Function<RealVector, RealMatrix> jacobian(List<DifferentiableObjective> funcs) {
+        ThreadLocal<Tape> tapes = ThreadLocal.withInitial(() -> new Tape(TAPE_CAPACITY));
+        return x -> {
+            double[] point = x.toArray();
+            double[][] rows = new double[funcs.size()][];
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = reverse(funcs.get(i), tapes.get(), point, null, null);
+            }
+            return new Array2DRowRealMatrix(rows, false);
+        };
+    }
+
+    /**
+     * Градиент в прямом режиме.
+     */
+    public static Function<RealVector, RealVector> forwardGradient(DifferentiableObjective func) {
+        return x -> {
+            int n = x.getDimension();
+            DerivativeStructure y = func.value(variables(x, 1));
+            double[] gradient = new double[n];
+            int[] orders = new int[n];
+            for (int i = 0; i < n; i++) {
+                orders[i] = 1;
+                gradient[i] = y.getPartialDerivative(orders);
+                orders[i] = 0;
+            }
+            return new ArrayRealVector(gradient, false);
+        };
+    }
+
+    /**
+     * Матрица Гессе в прямом режиме (производные второго порядка на {@link DerivativeStructure}).
+     */
+    public static Function<RealVector, RealMatrix> hessian(DifferentiableObjective func) {
+        return x -> {
+            int n = x.getDimension();
+            DerivativeStructure y = func.value(variables(x, 2));
+            double[][] hessian = new double[n][n];
+            int[] orders = new int[n];
+            for (int i = 0; i < n; i++) {
+                for (int j = i; j < n; j++) {
+                    orders[i]++;
+                    orders[j]++;
+                    hessian[i][j] = hessian[j][i] = y.getPartialDerivative(orders);
+                    orders[i]--;
+                    orders[j]--;
+                }
+            }
+            return new Array2DRowRealMatrix(hessian, false);
+        };
+    }
+
+    private static DerivativeStructure[] variables(RealVector x, int order) {
+        int n = x.getDimension();
+        DerivativeStructure[] args = new DerivativeStructure[n];
+        for (int i = 0; i < n; i++) {
+            args[i] = new DerivativeStructure(n, order, i, x.getEntry(i));
+        }
+        return args;
+    }
+
+    /**
+     * Запись функции на ленту и обратный проход; возвращает градиент, а если задано
+     * направление direction, записывает в hv произведение матрицы Гессе на него.
+     */
+    private static double[] reverse(DifferentiableObjective func, Tape tape, double[] x, double[] direction, double[] hv) {
+        int n = x.length;
+        tape.reset();
+        TapeVariable[] args = new TapeVariable[n];
+        for (int i = 0; i < n; i++) {
+            args[i] = tape.variable(x[i], direction != null ? direction[i] : 0.0);
+        }
+
+        tape.sweep(func.value(args).index());
+
+        double[] gradient = new double[n];
+        for (int i = 0; i < n; i++) {
+            gradient[i] = tape.adjoint(args[i].index());
+            if (hv != null) {
+                hv[i] = tape.adjointDot(args[i].index());
+            }
+        }
+        return gradient;
+    }
+
+}
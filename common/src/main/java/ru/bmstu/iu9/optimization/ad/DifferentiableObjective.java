@@ -0,0 +1,19 @@
+package ru.bmstu.iu9.optimization.ad;
+
+import org.apache.commons.math3.RealFieldElement;
+
+/**
+ * Целевая функция, записанная через операции {@link RealFieldElement}. Одна и та же запись
+ * вычисляется над разными типами чисел: над {@link org.apache.commons.math3.util.Decimal64}
+ * дает значение, над {@link org.apache.commons.math3.analysis.differentiation.DerivativeStructure}
+ * - производные в прямом режиме, над переменными ленты - градиент в обратном режиме
+ * (см. {@link AutoDiff}).
+ * <p>
+ * Константы получаются из аргументов, например {@code x[0].getField().getOne().multiply(300.0)}
+ * или {@code x[0].subtract(1.0)}. Ветвления допускаются по {@link RealFieldElement#getReal()}.
+ */
+public interface DifferentiableObjective {
+
+    <T extends RealFieldElement<T>> T value(T[] x);
+
+}
@@ -0,0 +1,158 @@
+package ru.bmstu.iu9.optimization.ad;
+
+import org.apache.commons.math3.Field;
+import org.apache.commons.math3.FieldElement;
+
+import java.util.Arrays;
+
+/**
+ * Лента обратного режима: каждая операция записывается в параллельные массивы примитивов
+ * (значение, индексы не более двух аргументов и частные производные по ним), поэтому
+ * запись не создает объектов, кроме самих {@link TapeVariable}. Лента переиспользуется
+ * между вычислениями и растет только при первом вычислении функции.
+ * <p>
+ * Если входам задана производная по направлению v (dot), вместе со значениями вдоль
+ * ленты переносятся производные по направлению, а обратный проход дает не только градиент,
+ * но и произведение матрицы Гессе на v (прямой режим поверх обратного).
+ */
+final class Tape {
+
+    private final Field<TapeVariable> field = new TapeField();
+    private int size;
+    private int[] arg1, arg2;
+    private double[] value, dot, d1, d2, d1Dot, d2Dot, adjoint, adjointDot;
+
+    Tape(int capacity) {
+        allocate(capacity);
+    }
+
+    void reset() {
+        size = 0;
+    }
+
+    Field<TapeVariable> field() {
+        return field;
+    }
+
+    double value(int index) {
+        return value[index];
+    }
+
+    double adjoint(int index) {
+        return adjoint[index];
+    }
+
+    double adjointDot(int index) {
+        return adjointDot[index];
+    }
+
+    /**
+     * Вход или константа: узел без аргументов.
+     */
+    TapeVariable variable(double v, double direction) {
+        int k = next();
+        value[k] = v;
+        dot[k] = direction;
+        arg1[k] = -1;
+        arg2[k] = -1;
+        return new TapeVariable(this, k);
+    }
+
+    /**
+     * Узел g(a) с первой и второй производными g'(a) = d и g''(a) = dd.
+     */
+    TapeVariable unary(int a, double v, double d, double dd) {
+        int k = next();
+        value[k] = v;
+        dot[k] = d * dot[a];
+        arg1[k] = a;
+        arg2[k] = -1;
+        d1[k] = d;
+        d1Dot[k] = dd * dot[a];
+        return new TapeVariable(this, k);
+    }
+
+    /**
+     * Узел g(a, b) с градиентом (da, db) и матрицей вторых производных ((daa, dab), (dab, dbb)).
+     */
+    TapeVariable binary(int a, int b, double v, double da, double db, double daa, double dab, double dbb) {
+        int k = next();
+        value[k] = v;
+        dot[k] = da * dot[a] + db * dot[b];
+        arg1[k] = a;
+        arg2[k] = b;
+        d1[k] = da;
+        d2[k] = db;
+        d1Dot[k] = daa * dot[a] + dab * dot[b];
+        d2Dot[k] = dab * dot[a] + dbb * dot[b];
+        return new TapeVariable(this, k);
+    }
+
+    /**
+     * Обратный проход от узла output: adjoint[i] = d output / d узел i,
+     * adjointDot[i] - производная adjoint[i] по направлению входов.
+     */
+    void sweep(int output) {
+        Arrays.fill(adjoint, 0, output + 1, 0.0);
+        Arrays.fill(adjointDot, 0, output + 1, 0.0);
+        adjoint[output] = 1.0;
+
+        for (int k = output; k >= 0; k--) {
+            double a = adjoint[k], ad = adjointDot[k];
+            if (a == 0.0 && ad == 0.0) {
+                continue;
+            }
+            int p = arg1[k];
+            if (p >= 0) {
+                adjoint[p] += a * d1[k];
+                adjointDot[p] += ad * d1[k] + a * d1Dot[k];
+                p = arg2[k];
+                if (p >= 0) {
+                    adjoint[p] += a * d2[k];
+                    adjointDot[p] += ad * d2[k] + a * d2Dot[k];
+                }
+            }
+        }
+    }
+
+    private int next() {
+        if (size == value.length) {
+            allocate(2 * size);
+        }
+        return size++;
+    }
+
+    private void allocate(int capacity) {
+        capacity = Math.max(capacity, 16);
+        arg1 = arg1 == null ? new int[capacity] : Arrays.copyOf(arg1, capacity);
+        arg2 = arg2 == null ? new int[capacity] : Arrays.copyOf(arg2, capacity);
+        value = value == null ? new double[capacity] : Arrays.copyOf(value, capacity);
+        dot = dot == null ? new double[capacity] : Arrays.copyOf(dot, capacity);
+        d1 = d1 == null ? new double[capacity] : Arrays.copyOf(d1, capacity);
+        d2 = d2 == null ? new double[capacity] : Arrays.copyOf(d2, capacity);
+        d1Dot = d1Dot == null ? new double[capacity] : Arrays.copyOf(d1Dot, capacity);
+        d2Dot = d2Dot == null ? new double[capacity] : Arrays.copyOf(d2Dot, capacity);
+        adjoint = new double[capacity];
+        adjointDot = new double[capacity];
+    }
+
+    private final class TapeField implements Field<TapeVariable> {
+
+        @Override
+        public TapeVariable getZero() {
+            return variable(0.0, 0.0);
+        }
+
+        @Override
+        public TapeVariable getOne() {
+            return variable(1.0, 0.0);
+        }
+
+        @Override
+        public Class<? extends FieldElement<TapeVariable>> getRuntimeClass() {
+            return TapeVariable.class;
+        }
+
+    }
+
+}
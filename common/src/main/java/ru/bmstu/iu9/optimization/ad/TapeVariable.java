@@ -0,0 +1,370 @@
+package ru.bmstu.iu9.optimization.ad;
+
+import org.apache.commons.math3.Field;
+import org.apache.commons.math3.RealFieldElement;
+
+/**
+ * Переменная обратного режима: индекс узла на ленте. Каждая операция записывает новый узел
+ * с первыми и вторыми частными производными по аргументам.
+ */
+final class TapeVariable implements RealFieldElement<TapeVariable> {
+
+    private final Tape tape;
+    private final int index;
+
+    TapeVariable(Tape tape, int index) {
+        this.tape = tape;
+        this.index = index;
+    }
+
+    int index() {
+        return index;
+    }
+
+    private double v() {
+        return tape.value(index);
+    }
+
+    private TapeVariable unary(double value, double d, double dd) {
+        return tape.unary(index, value, d, dd);
+    }
+
+    private TapeVariable binary(TapeVariable b, double value, double da, double db, double daa, double dab, double dbb) {
+        return tape.binary(index, b.index, value, da, db, daa, dab, dbb);
+    }
+
+    @Override
+    public double getReal() {
+        return v();
+    }
+
+    @Override
+    public Field<TapeVariable> getField() {
+        return tape.field();
+    }
+
+    @Override
+    public TapeVariable add(TapeVariable b) {
+        return binary(b, v() + b.v(), 1.0, 1.0, 0.0, 0.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable add(double c) {
+        return unary(v() + c, 1.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable subtract(TapeVariable b) {
+        return binary(b, v() - b.v(), 1.0, -1.0, 0.0, 0.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable subtract(double c) {
+        return unary(v() - c, 1.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable negate() {
+        return unary(-v(), -1.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable multiply(int n) {
+        return multiply((double) n);
+    }
+
+    @Override
+    public TapeVariable multiply(double c) {
+        return unary(c * v(), c, 0.0);
+    }
+
+    @Override
+    public TapeVariable multiply(TapeVariable b) {
+        double x = v(), y = b.v();
+        return binary(b, x * y, y, x, 0.0, 1.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable divide(double c) {
+        return unary(v() / c, 1.0 / c, 0.0);
+    }
+
+    @Override
+    public TapeVariable divide(TapeVariable b) {
+        double x = v(), y = b.v(), r = 1.0 / y;
+        return binary(b, x * r, r, -x * r * r, 0.0, -r * r, 2.0 * x * r * r * r);
+    }
+
+    @Override
+    public TapeVariable reciprocal() {
+        double x = v(), r = 1.0 / x;
+        return unary(r, -r * r, 2.0 * r * r * r);
+    }
+
+    @Override
+    public TapeVariable remainder(double c) {
+        return unary(Math.IEEEremainder(v(), c), 1.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable remainder(TapeVariable b) {
+        double x = v(), y = b.v(), n = Math.rint(x / y);
+        return binary(b, x - n * y, 1.0, -n, 0.0, 0.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable abs() {
+        double x = v();
+        return x < 0.0 || (x == 0.0 && 1.0 / x < 0.0) ? negate() : this;
+    }
+
+    @Override
+    public TapeVariable ceil() {
+        return unary(Math.ceil(v()), 0.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable floor() {
+        return unary(Math.floor(v()), 0.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable rint() {
+        return unary(Math.rint(v()), 0.0, 0.0);
+    }
+
+    @Override
+    public long round() {
+        return Math.round(v());
+    }
+
+    @Override
+    public TapeVariable signum() {
+        return unary(Math.signum(v()), 0.0, 0.0);
+    }
+
+    @Override
+    public TapeVariable copySign(TapeVariable sign) {
+        return copySign(sign.v());
+    }
+
+    @Override
+    public TapeVariable copySign(double sign) {
+        return Math.copySign(1.0, v()) == Math.copySign(1.0, sign) ? this : negate();
+    }
+
+    @Override
+    public TapeVariable scalb(int n) {
+        return unary(Math.scalb(v(), n), Math.scalb(1.0, n), 0.0);
+    }
+
+    @Override
+    public TapeVariable hypot(TapeVariable b) {
+        double x = v(), y = b.v(), h = Math.hypot(x, y), h3 = h * h * h;
+        return binary(b, h, x / h, y / h, y * y / h3, -x * y / h3, x * x / h3);
+    }
+
+    @Override
+    public TapeVariable sqrt() {
+        double s = Math.sqrt(v());
+        return unary(s, 0.5 / s, -0.25 / (s * s * s));
+    }
+
+    @Override
+    public TapeVariable cbrt() {
+        double c = Math.cbrt(v()), c2 = c * c;
+        return unary(c, 1.0 / (3.0 * c2), -2.0 / (9.0 * c2 * c2 * c));
+    }
+
+    @Override
+    public TapeVariable rootN(int n) {
+        double x = v(), r = x < 0.0 && n % 2 != 0 ? -Math.pow(-x, 1.0 / n) : Math.pow(x, 1.0 / n);
+        double d = r / (n * x);
+        return unary(r, d, d * (1.0 / n - 1.0) / x);
+    }
+
+    @Override
+    public TapeVariable pow(double p) {
+        double x = v();
+        if (p == 0.0) {
+            return unary(1.0, 0.0, 0.0);
+        }
+        double d = p * Math.pow(x, p - 1.0), dd = p == 1.0 ? 0.0 : p * (p - 1.0) * Math.pow(x, p - 2.0);
+        return unary(Math.pow(x, p), d, dd);
+    }
+
+    @Override
+    public TapeVariable pow(int n) {
+        return pow((double) n);
+    }
+
+    @Override
+    public TapeVariable pow(TapeVariable e) {
+        double x = v(), y = e.v(), value = Math.pow(x, y), ln = Math.log(x), px = Math.pow(x, y - 1.0);
+        return binary(
+                e, value,
+                y * px, value * ln,
+                y * (y - 1.0) * Math.pow(x, y - 2.0), px * (1.0 + y * ln), value * ln * ln
+        );
+    }
+
+    @Override
+    public TapeVariable exp() {
+        double e = Math.exp(v());
+        return unary(e, e, e);
+    }
+
+    @Override
+    public TapeVariable expm1() {
+        double e = Math.exp(v());
+        return unary(Math.expm1(v()), e, e);
+    }
+
+    @Override
+    public TapeVariable log() {
+        double r = 1.0 / v();
+        return unary(Math.log(v()), r, -r * r);
+    }
+
+    @Override
+    public TapeVariable log1p() {
+        double r = 1.0 / (1.0 + v());
+        return unary(Math.log1p(v()), r, -r * r);
+    }
+
+    @Override
+    public TapeVariable cos() {
+        double s = Math.sin(v()), c = Math.cos(v());
+        return unary(c, -s, -c);
+    }
+
+    @Override
+    public TapeVariable sin() {
+        double s = Math.sin(v()), c = Math.cos(v());
+        return unary(s, c, -s);
+    }
+
+    @Override
+    public TapeVariable tan() {
+        double t = Math.tan(v()), d = 1.0 + t * t;
+        return unary(t, d, 2.0 * t * d);
+    }
+
+    @Override
+    public TapeVariable acos() {
+        double x = v(), q = 1.0 - x * x, s = Math.sqrt(q);
+        return unary(Math.acos(x), -1.0 / s, -x / (q * s));
+    }
+
+    @Override
+    public TapeVariable asin() {
+        double x = v(), q = 1.0 - x * x, s = Math.sqrt(q);
+        return unary(Math.asin(x), 1.0 / s, x / (q * s));
+    }
+
+    @Override
+    public TapeVariable atan() {
+        double x = v(), r = 1.0 / (1.0 + x * x);
+        return unary(Math.atan(x), r, -2.0 * x * r * r);
+    }
+
+    /**
+     * atan2(this, x): this - ордината, аргумент - абсцисса.
+     */
+    @Override
+    public TapeVariable atan2(TapeVariable b) {
+        double y = v(), x = b.v(), r2 = x * x + y * y, q = r2 * r2;
+        return binary(b, Math.atan2(y, x), x / r2, -y / r2, -2.0 * x * y / q, (y * y - x * x) / q, 2.0 * x * y / q);
+    }
+
+    @Override
+    public TapeVariable cosh() {
+        double x = v();
+        return unary(Math.cosh(x), Math.sinh(x), Math.cosh(x));
+    }
+
+    @Override
+    public TapeVariable sinh() {
+        double x = v();
+        return unary(Math.sinh(x), Math.cosh(x), Math.sinh(x));
+    }
+
+    @Override
+    public TapeVariable tanh() {
+        double t = Math.tanh(v()), d = 1.0 - t * t;
+        return unary(t, d, -2.0 * t * d);
+    }
+
+    @Override
+    public TapeVariable acosh() {
+        double x = v(), q = x * x - 1.0, s = Math.sqrt(q);
+        return unary(Math.log(x + s), 1.0 / s, -x / (q * s));
+    }
+
+    @Override
+    public TapeVariable asinh() {
+        double x = v(), q = x * x + 1.0, s = Math.sqrt(q);
+        return unary(Math.log(x + s), 1.0 / s, -x / (q * s));
+    }
+
+    @Override
+    public TapeVariable atanh() {
+        double x = v(), r = 1.0 / (1.0 - x * x);
+        return unary(0.5 * Math.log((1.0 + x) / (1.0 - x)), r, 2.0 * x * r * r);
+    }
+
+    @Override
+    public TapeVariable linearCombination(TapeVariable[] a, TapeVariable[] b) {
+        TapeVariable sum = a[0].multiply(b[0]);
+        for (int i = 1; i < a.length; i++) {
+            sum = sum.add(a[i].multiply(b[i]));
+        }
+        return sum;
+    }
+
+    @Override
+    public TapeVariable linearCombination(double[] a, TapeVariable[] b) {
+        TapeVariable sum = b[0].multiply(a[0]);
+        for (int i = 1; i < a.length; i++) {
+            sum = sum.add(b[i].multiply(a[i]));
+        }
+        return sum;
+    }
+
+    @Override
+    public TapeVariable linearCombination(TapeVariable a1, TapeVariable b1, TapeVariable a2, TapeVariable b2) {
+        return linearCombination(new TapeVariable[]{a1, a2}, new TapeVariable[]{b1, b2});
+    }
+
+    @Override
+    public TapeVariable linearCombination(double a1, TapeVariable b1, double a2, TapeVariable b2) {
+        return linearCombination(new double[]{a1, a2}, new TapeVariable[]{b1, b2});
+    }
+
+    @Override
+    public TapeVariable linearCombination(
+            TapeVariable a1, TapeVariable b1, TapeVariable a2, TapeVariable b2, TapeVariable a3, TapeVariable b3) {
+        return linearCombination(new TapeVariable[]{a1, a2, a3}, new TapeVariable[]{b1, b2, b3});
+    }
+
+    @Override
+    public TapeVariable linearCombination(
+            double a1, TapeVariable b1, double a2, TapeVariable b2, double a3, TapeVariable b3) {
+        return linearCombination(new double[]{a1, a2, a3}, new TapeVariable[]{b1, b2, b3});
+    }
+
+    @Override
+    public TapeVariable linearCombination(
+            TapeVariable a1, TapeVariable b1, TapeVariable a2, TapeVariable b2,
+            TapeVariable a3, TapeVariable b3, TapeVariable a4, TapeVariable b4) {
+        return linearCombination(new TapeVariable[]{a1, a2, a3, a4}, new TapeVariable[]{b1, b2, b3, b4});
+    }
+
+    @Override
+    public TapeVariable linearCombination(
+            double a1, TapeVariable b1, double a2, TapeVariable b2,
+            double a3, TapeVariable b3, double a4, TapeVariable b4) {
+        return linearCombination(new double[]{a1, a2, a3, a4}, new TapeVariable[]{b1, b2, b3, b4});
+    }
+
+}
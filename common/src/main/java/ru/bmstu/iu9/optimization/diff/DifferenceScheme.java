@@ -0,0 +1,20 @@
+package ru.bmstu.iu9.optimization.diff;
+
+/**
+ * Разностная схема для первых производных.
+ */
+public enum DifferenceScheme {
+    /**
+     * (f(x + h e_i) - f(x)) / h: n + 1 вычислений функции, погрешность O(h).
+     */
+    FORWARD,
+    /**
+     * (f(x + h e_i) - f(x - h e_i)) / 2h: 2n вычислений функции, погрешность O(h^2).
+     */
+    CENTRAL,
+    /**
+     * Экстраполяция Ричардсона центральных разностей с шагами h и h / 2:
+     * 4n вычислений функции, погрешность O(h^4).
+     */
+    RICHARDSON
+}
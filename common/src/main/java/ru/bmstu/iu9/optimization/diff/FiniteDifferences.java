@@ -0,0 +1,271 @@
+package ru.bmstu.iu9.optimization.diff;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.Math.pow;
+import static java.lang.Math.ulp;
+
+/**
+ * Численное дифференцирование функций, заданных только значениями: градиент, матрица Якоби
+ * системы функций и матрица Гессе в виде функций, которые можно передать методам вместо
+ * аналитических производных.
+ * <p>
+ * Все пробные точки одной производной известны заранее, поэтому они укладываются подряд
+ * в один массив и вычисляются одной партией (матрица Гессе - партией на строку): функцией,
+ * реализующей {@link BatchObjective}, либо на executor, разбитыми на parallelism частей. Значение в самой точке x вычисляется
+ * один раз и используется всеми разностями, которым оно нужно.
+ * <p>
+ * Шаг по i-й координате h_i = r * max(|x_i|, 1), где r - оптимальный относительный шаг схемы
+ * (eps^(1/2) для правых разностей, eps^(1/3) для центральных, eps^(1/5) для экстраполяции
+ * Ричардсона, eps^(1/4) для вторых производных), затем уточняется до (x_i + h_i) - x_i,
+ * чтобы шаг точно представлялся в арифметике с плавающей точкой.
+ */
+public final class FiniteDifferences {
+
+    private static final double EPS = ulp(1.0);
+
+    private final DifferenceScheme scheme;
+    private final Executor executor;
+    private final int parallelism;
+
+    /**
+     * Последовательные вычисления в вызывающем потоке.
+     */
+    public FiniteDifferences(DifferenceScheme scheme) {
+        this(scheme, null, 1);
+    }
+
+    /**
+     * @param executor    исполнитель, на котором вычисляются пробные точки; функция должна быть потокобезопасной
+     * @param parallelism число частей, на которые делится партия точек
+     */
+    public FiniteDifferences(DifferenceScheme scheme, Executor executor, int parallelism) {
+        this.scheme = scheme;
+        this.executor = executor;
+        this.parallelism = max(parallelism, 1);
+    }
+
+    public Function<RealVector, RealVector> gradient(Function<RealVector, Double> func) {
+        return gradientPrimitive(VectorObjective.of(func));
+    }
+
+    public Function<RealVector, RealVector> gradientPrimitive(VectorObjective func) {
+        return x -> new ArrayRealVector(gradient(func, x.toArray()), false);
+    }
+
+    /**
+     * Матрица Якоби системы функций: строка i - градиент i-й функции. Все функции
+     * вычисляются в одних и тех же пробных точках.
+     */
+    public Function<RealVector, RealMatrix> jacobian(List<Function<RealVector, Double>> funcs) {
+        VectorObjective[] objectives = new VectorObjective[funcs.size()];
+        for (int i = 0; i < objectives.length; i++) {
+            objectives[i] = VectorObjective.of(funcs.get(i));
+        }
+        return x -> new Array2DRowRealMatrix(jacobian(objectives, x.toArray()), false);
+    }
+
+    /**
+     * Матрица Гессе по вторым центральным разностям: 2n^2 + 1 вычислений функции.
+     */
+    public Function<RealVector, RealMatrix> hessian(Function<RealVector, Double> func) {
+        return hessianPrimitive(VectorObjective.of(func));
+    }
+
+    public Function<RealVector, RealMatrix> hessianPrimitive(VectorObjective func) {
+        return x -> new Array2DRowRealMatrix(hessian(func, x.toArray()), false);
+    }
+
+    double[] gradient(VectorObjective func, double[] x) {
+        return jacobian(new VectorObjective[]{func}, x)[0];
+    }
+
+    double[][] jacobian(VectorObjective[] funcs, double[] x) {
+        int n = x.length, m = funcs.length;
+        double[] h = steps(x, relativeStep()), points;
+        double[][] values = new double[m][], rows = new double[m][n];
+
+        switch (scheme) {
+            case FORWARD:
+                // точки x + h_i e_i, последней - сама точка x
+                points = new double[(n + 1) * n];
+                for (int i = 0; i < n; i++) {
+                    put(points, x, i)[i * n + i] += h[i];
+                }
+                put(points, x, n);
+                evaluate(funcs, points, n, n + 1, values);
+                for (int k = 0; k < m; k++) {
+                    for (int i = 0; i < n; i++) {
+                        rows[k][i] = (values[k][i] - values[k][n]) / h[i];
+                    }
+                }
+                break;
+            case CENTRAL:
+                points = new double[2 * n * n];
+                for (int i = 0; i < n; i++) {
+                    put(points, x, 2 * i)[2 * i * n + i] += h[i];
+                    put(points, x, 2 * i + 1)[(2 * i + 1) * n + i] -= h[i];
+                }
+                evaluate(funcs, points, n, 2 * n, values);
+                for (int k = 0; k < m; k++) {
+                    for (int i = 0; i < n; i++) {
+                        rows[k][i] = (values[k][2 * i] - values[k][2 * i + 1]) / (2.0 * h[i]);
+                    }
+                }
+                break;
+            default:
+                // центральные разности с шагами h и h / 2, D = (4 D(h / 2) - D(h)) / 3
+                double[] half = new double[n];
+                points = new double[4 * n * n];
+                for (int i = 0; i < n; i++) {
+                    half[i] = (x[i] + h[i] / 2.0) - x[i];
+                    put(points, x, 4 * i)[4 * i * n + i] += h[i];
+                    put(points, x, 4 * i + 1)[(4 * i + 1) * n + i] -= h[i];
+                    put(points, x, 4 * i + 2)[(4 * i + 2) * n + i] += half[i];
+                    put(points, x, 4 * i + 3)[(4 * i + 3) * n + i] -= half[i];
+                }
+                evaluate(funcs, points, n, 4 * n, values);
+                for (int k = 0; k < m; k++) {
+                    double[] v = values[k];
+                    for (int i = 0; i < n; i++) {
+                        double full = (v[4 * i] - v[4 * i + 1]) / (2.0 * h[i]);
+                        double refined = (v[4 * i + 2] - v[4 * i + 3]) / (2.0 * half[i]);
+                        rows[k][i] = (4.0 * refined - full) / 3.0;
+                    }
+                }
+        }
+
+        return rows;
+    }
+
+    /**
+     * Пробные точки вычисляются партиями: сначала x и x ± h_i e_i, затем для каждой строки i -
+     * точки x ± h_i e_i ± h_j e_j при j > i. Так в памяти одновременно не больше 4n точек,
+     * а не все 2n^2 + 1.
+     * <p>
+     * Шаг фиксированный (eps^(1/4)), а не подбираемый по оценке ошибки экстраполяцией
+     * Ричардсона (метод Риддерса): такой подбор требует нескольких уровней таблицы, то есть
+     * в несколько раз больше вычислений функции на каждый элемент, а матрица Гессе здесь
+     * пересчитывается на каждой итерации метода.
+     */
+    double[][] hessian(VectorObjective func, double[] x) {
+        int n = x.length;
+        double[] h = steps(x, pow(EPS, 0.25)), points = new double[max(2 * n + 1, 4 * (n - 1)) * n];
+        VectorObjective[] funcs = {func};
+        double[][] values = new double[1][];
+        double[][] hessian = new double[n][n];
+
+        // точка 0 - x, затем x ± h_i e_i
+        put(points, x, 0);
+        for (int i = 0; i < n; i++) {
+            put(points, x, 2 * i + 1)[(2 * i + 1) * n + i] += h[i];
+            put(points, x, 2 * i + 2)[(2 * i + 2) * n + i] -= h[i];
+        }
+        evaluate(funcs, points, n, 2 * n + 1, values);
+        double[] v = values[0];
+        for (int i = 0; i < n; i++) {
+            hessian[i][i] = (v[2 * i + 1] - 2.0 * v[0] + v[2 * i + 2]) / (h[i] * h[i]);
+        }
+
+        // по четыре точки x ± h_i e_i ± h_j e_j для каждого j > i
+        for (int i = 0; i < n - 1; i++) {
+            int p = 0;
+            for (int j = i + 1; j < n; j++) {
+                for (int s = 0; s < 4; s++) {
+                    int offset = (p + s) * n;
+                    put(points, x, p + s);
+                    points[offset + i] += s < 2 ? h[i] : -h[i];
+                    points[offset + j] += s % 2 == 0 ? h[j] : -h[j];
+                }
+                p += 4;
+            }
+            evaluate(funcs, points, n, p, values);
+
+            v = values[0];
+            for (int j = i + 1, q = 0; j < n; j++, q += 4) {
+                hessian[i][j] = hessian[j][i] = (v[q] - v[q + 1] - v[q + 2] + v[q + 3]) / (4.0 * h[i] * h[j]);
+            }
+        }
+
+        return hessian;
+    }
+
+    private double relativeStep() {
+        switch (scheme) {
+            case FORWARD:
+                return Math.sqrt(EPS);
+            case CENTRAL:
+                return Math.cbrt(EPS);
+            default:
+                return pow(EPS, 0.2);
+        }
+    }
+
+    private static double[] steps(double[] x, double relativeStep) {
+        double[] h = new double[x.length];
+
+        for (int i = 0; i < x.length; i++) {
+            double hi = relativeStep * max(abs(x[i]), 1.0);
+            h[i] = (x[i] + hi) - x[i];
+        }
+
+        return h;
+    }
+
+    /**
+     * Копирует x в позицию slot массива точек и возвращает сам массив.
+     */
+    private static double[] put(double[] points, double[] x, int slot) {
+        System.arraycopy(x, 0, points, slot * x.length, x.length);
+        return points;
+    }
+
+    /**
+     * Вычисляет каждую функцию во всех count точках; values[k] - значения k-й функции.
+     */
+    private void evaluate(VectorObjective[] funcs, double[] points, int n, int count, double[][] values) {
+        int chunks = executor == null ? 1 : min(parallelism, count);
+        List<CompletableFuture<?>> tasks = new ArrayList<>();
+
+        for (int k = 0; k < funcs.length; k++) {
+            VectorObjective func = funcs[k];
+            double[] result = values[k] = new double[count];
+            if (func instanceof BatchObjective) {
+                // пакетная функция вычисляется одним вызовом и сама распоряжается параллелизмом
+                ((BatchObjective) func).values(points, n, count, result);
+            } else if (chunks == 1) {
+                evaluateRange(func, points, n, 0, count, result);
+            } else {
+                for (int c = 0; c < chunks; c++) {
+                    int from = c * count / chunks, to = (c + 1) * count / chunks;
+                    tasks.add(CompletableFuture.runAsync(() -> evaluateRange(func, points, n, from, to, result), executor));
+                }
+            }
+        }
+        CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+    private static void evaluateRange(VectorObjective func, double[] points, int n, int from, int to, double[] values) {
+        double[] x = new double[n];
+
+        for (int i = from; i < to; i++) {
+            System.arraycopy(points, i * n, x, 0, n);
+            values[i] = func.value(x);
+        }
+    }
+
+}
@@ -0,0 +1,345 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Генерация класса по графу выражений. Код метода линейный (без переходов), поэтому
+ * достаточно формата class-файла Java 8 без StackMapTable.
+ * <p>
+ * Для одного выражения генерируется {@link VectorObjective#value(double[])}, для нескольких -
+ * {@link VectorFunction#values(double[], double[])}. Узел, на который ссылаются несколько
+ * родителей (в том числе в разных выражениях), вычисляется один раз и хранится в локальной
+ * переменной; так же один раз читаются из массива переменные, используемые повторно.
+ * <p>
+ * Каждый класс определяется своим загрузчиком и выгружается вместе с функцией. Если метод
+ * не укладывается в ограничения class-файла (64 КБ кода, 65535 слотов локальных переменных
+ * и стека, 65535 констант), вместо класса возвращается {@link GraphEvaluator}, вычисляющий тот же граф.
+ */
+final class BytecodeCompiler {
+
+    private static final int MAX_CODE_LENGTH = 65535, MAX_SLOTS = 65535, MAX_CONSTANTS = 65535;
+
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    private static final String PACKAGE = BytecodeCompiler.class.getPackage().getName().replace('.', '/');
+
+    private static final int ALOAD_0 = 0x2a, ALOAD_1 = 0x2b, ALOAD_2 = 0x2c, BIPUSH = 0x10, SIPUSH = 0x11,
+            LDC2_W = 0x14, DLOAD = 0x18, DSTORE = 0x39, DALOAD = 0x31, DASTORE = 0x52, DUP2 = 0x5c,
+            DADD = 0x63, DSUB = 0x67, DMUL = 0x6b, DDIV = 0x6f, DNEG = 0x77, DRETURN = 0xaf, RETURN = 0xb1,
+            INVOKESPECIAL = 0xb7, INVOKESTATIC = 0xb8, WIDE = 0xc4;
+
+    private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+    private final DataOutputStream pool = new DataOutputStream(poolBytes);
+    private final Map<String, Integer> poolIndex = new HashMap<>();
+    private int poolCount = 1;
+
+    private final ByteArrayOutputStream codeBytes = new ByteArrayOutputStream();
+    private int stack, maxStack, nextLocal;
+    private int[] uses, locals;
+    private boolean operandOverflow;
+
+    static VectorObjective compileObjective(Node root, int nodeCount) {
+        Object compiled = new BytecodeCompiler().compile(List.of(root), nodeCount, true);
+        return compiled != null ? (VectorObjective) compiled : new GraphEvaluator(List.of(root), nodeCount);
+    }
+
+    static VectorFunction compileFunction(List<Node> roots, int nodeCount) {
+        Object compiled = new BytecodeCompiler().compile(roots, nodeCount, false);
+        return compiled != null ? (VectorFunction) compiled : new GraphEvaluator(roots, nodeCount);
+    }
+
+    /**
+     * @return экземпляр сгенерированного класса или null, если метод превышает ограничения class-файла
+     */
+    private Object compile(List<Node> roots, int nodeCount, boolean single) {
+        String name = PACKAGE + "/CompiledExpression$" + COUNTER.incrementAndGet();
+        String iface = single
+                ? VectorObjective.class.getName().replace('.', '/')
+                : VectorFunction.class.getName().replace('.', '/');
+
+        uses = new int[nodeCount];
+        locals = new int[nodeCount];
+        for (Node root : roots) {
+            countUses(root);
+        }
+
+        // 0 - this, 1 - x, 2 - out; временные значения занимают по два слота
+        nextLocal = single ? 2 : 3;
+        if (single) {
+            emit(roots.get(0));
+            op(DRETURN, -2);
+        } else {
+            for (int i = 0; i < roots.size(); i++) {
+                op(ALOAD_2, 1);
+                pushInt(i);
+                emit(roots.get(i));
+                op(DASTORE, -4);
+            }
+            op(RETURN, 0);
+        }
+
+        if (operandOverflow || codeBytes.size() > MAX_CODE_LENGTH || nextLocal > MAX_SLOTS || maxStack > MAX_SLOTS
+                // в пул еще добавятся классы, имена методов и Code: не больше 16 записей
+                || poolCount + 16 > MAX_CONSTANTS) {
+            return null;
+        }
+
+        byte[] bytes = classFile(name, iface, single ? "value" : "values", single ? "([D)D" : "([D[D)V");
+        try {
+            return new ExpressionClassLoader().define(name.replace('/', '.'), bytes)
+                    .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to define compiled expression class", e);
+        }
+    }
+
+    private void countUses(Node node) {
+        if (uses[node.id]++ > 0) {
+            return;
+        }
+        if (node.a != null) {
+            countUses(node.a);
+        }
+        if (node.b != null) {
+            countUses(node.b);
+        }
+    }
+
+    private void emit(Node node) {
+        if (locals[node.id] > 0) {
+            load(locals[node.id]);
+            return;
+        }
+
+        switch (node.kind) {
+            case CONST:
+                op(LDC2_W, 2);
+                u2(doubleConstant(node.value));
+                return;
+            case VAR:
+                op(ALOAD_1, 1);
+                pushInt(node.variable);
+                op(DALOAD, 0);
+                break;
+            case NEG:
+                emit(node.a);
+                op(DNEG, 0);
+                break;
+            case ADD:
+            case SUB:
+            case MUL:
+            case DIV:
+                emit(node.a);
+                emit(node.b);
+                op(node.kind == Node.Kind.ADD ? DADD
+                        : node.kind == Node.Kind.SUB ? DSUB
+                        : node.kind == Node.Kind.MUL ? DMUL : DDIV, -2);
+                break;
+            case POW:
+                emit(node.a);
+                emit(node.b);
+                invokeMath("pow", 2);
+                break;
+            default:
+                emit(node.a);
+                if (node.b != null) {
+                    emit(node.b);
+                }
+                invokeMath(node.function, node.b != null ? 2 : 1);
+        }
+
+        if (uses[node.id] > 1) {
+            op(DUP2, 2);
+            locals[node.id] = nextLocal;
+            store(nextLocal);
+            nextLocal += 2;
+        }
+    }
+
+    private void invokeMath(String function, int arity) {
+        op(INVOKESTATIC, 2 - 2 * arity);
+        u2(methodRef("java/lang/Math", function, arity == 1 ? "(D)D" : "(DD)D"));
+    }
+
+    private void load(int local) {
+        if (local < 256) {
+            op(DLOAD, 2);
+            u1(local);
+        } else {
+            op(WIDE, 0);
+            u1(DLOAD);
+            stack += 2;
+            maxStack = Math.max(maxStack, stack);
+            u2(local);
+        }
+    }
+
+    private void store(int local) {
+        if (local < 256) {
+            op(DSTORE, -2);
+            u1(local);
+        } else {
+            op(WIDE, 0);
+            u1(DSTORE);
+            stack -= 2;
+            u2(local);
+        }
+    }
+
+    private void pushInt(int value) {
+        if (value > Short.MAX_VALUE) {
+            operandOverflow = true;
+        }
+        if (value < 128) {
+            op(BIPUSH, 1);
+            u1(value);
+        } else {
+            op(SIPUSH, 1);
+            u2(value);
+        }
+    }
+
+    private void op(int opcode, int stackDelta) {
+        u1(opcode);
+        stack += stackDelta;
+        maxStack = Math.max(maxStack, stack);
+    }
+
+    private void u1(int value) {
+        codeBytes.write(value);
+    }
+
+    private void u2(int value) {
+        codeBytes.write(value >>> 8);
+        codeBytes.write(value);
+    }
+
+    private byte[] classFile(String name, String iface, String method, String descriptor) {
+        int thisClass = classRef(name), superClass = classRef("java/lang/Object"), ifaceClass = classRef(iface);
+        int objectInit = methodRef("java/lang/Object", "<init>", "()V");
+        int codeName = utf8("Code"), initName = utf8("<init>"), initDesc = utf8("()V");
+        int methodName = utf8(method), methodDesc = utf8(descriptor);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(52);
+            out.writeShort(poolCount);
+            pool.flush();
+            poolBytes.writeTo(out);
+            // public final super
+            out.writeShort(0x0031);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(1);
+            out.writeShort(ifaceClass);
+            out.writeShort(0);
+            out.writeShort(2);
+
+            byte[] init = {(byte) ALOAD_0, (byte) INVOKESPECIAL, (byte) (objectInit >>> 8), (byte) objectInit, (byte) RETURN};
+            writeMethod(out, initName, initDesc, codeName, 1, 1, init);
+            writeMethod(out, methodName, methodDesc, codeName, maxStack, nextLocal, codeBytes.toByteArray());
+            out.writeShort(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(DataOutputStream out, int name, int descriptor, int codeName,
+                                    int maxStack, int maxLocals, byte[] code) throws IOException {
+        out.writeShort(0x0001);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0);
+        out.writeShort(0);
+    }
+
+    private int utf8(String value) {
+        return constant("U" + value, 1, () -> {
+            pool.writeByte(1);
+            pool.writeUTF(value);
+        });
+    }
+
+    private int classRef(String internalName) {
+        int nameIndex = utf8(internalName);
+        return constant("C" + internalName, 1, () -> {
+            pool.writeByte(7);
+            pool.writeShort(nameIndex);
+        });
+    }
+
+    private int methodRef(String owner, String name, String descriptor) {
+        int ownerIndex = classRef(owner), nameIndex = utf8(name), descIndex = utf8(descriptor);
+        int nameAndType = constant("N" + name + descriptor, 1, () -> {
+            pool.writeByte(12);
+            pool.writeShort(nameIndex);
+            pool.writeShort(descIndex);
+        });
+        return constant("M" + owner + "." + name + descriptor, 1, () -> {
+            pool.writeByte(10);
+            pool.writeShort(ownerIndex);
+            pool.writeShort(nameAndType);
+        });
+    }
+
+    private int doubleConstant(double value) {
+        return constant("D" + Double.doubleToRawLongBits(value), 2, () -> {
+            pool.writeByte(6);
+            pool.writeDouble(value);
+        });
+    }
+
+    private int constant(String key, int slots, PoolWriter writer) {
+        Integer index = poolIndex.get(key);
+        if (index != null) {
+            return index;
+        }
+        try {
+            writer.write();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        poolIndex.put(key, poolCount);
+        poolCount += slots;
+        return poolCount - slots;
+    }
+
+    @FunctionalInterface
+    private interface PoolWriter {
+        void write() throws IOException;
+    }
+
+    /**
+     * Загрузчик одного сгенерированного класса: класс выгружается, когда на функцию не остается ссылок.
+     */
+    private static final class ExpressionClassLoader extends ClassLoader {
+
+        ExpressionClassLoader() {
+            super(BytecodeCompiler.class.getClassLoader());
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+    }
+
+}
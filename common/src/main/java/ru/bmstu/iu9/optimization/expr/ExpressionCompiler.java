@@ -0,0 +1,189 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import org.apache.commons.math3.RealFieldElement;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.ad.DifferentiableObjective;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Компилятор выражений вида {@code 50 * (x^2 - y)^2 + 2 * (x - 1)^2 + 300}, например целевых
+ * функций и ограничений из файла настроек.
+ * <p>
+ * Выражение разбирается один раз и компилируется в байт-код класса, реализующего функцию,
+ * поэтому вычисление стоит столько же, сколько написанная вручную лямбда. Одинаковые
+ * подвыражения вычисляются один раз, в том числе между выражениями одной системы
+ * (например, компонентами градиента). Поддерживаются + - * / ^, унарный минус, константы
+ * pi и e, функции sin, cos, tan, asin, acos, atan, sinh, cosh, tanh, exp, expm1, log, log1p,
+ * log10, sqrt, cbrt, abs, pow, atan2, hypot, min, max. Если выражение не удается разобрать,
+ * методы компиляции бросают {@link IllegalArgumentException} с позицией ошибки.
+ */
+public final class ExpressionCompiler {
+
+    private final List<String> variables;
+
+    /**
+     * @param variables имена переменных в порядке координат точки
+     */
+    public ExpressionCompiler(List<String> variables) {
+        this.variables = new ArrayList<>(variables);
+    }
+
+    public ExpressionCompiler(String... variables) {
+        this(Arrays.asList(variables));
+    }
+
+    /**
+     * Разбивает список выражений, разделенных ';' (запятая встречается в аргументах функций).
+     */
+    public static List<String> split(String expressions) {
+        return Arrays.stream(expressions.split(";"))
+                .map(String::trim)
+                .filter(e -> !e.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    public VectorObjective objective(String expression) {
+        ExpressionParser.Interner interner = new ExpressionParser.Interner();
+        Node root = new ExpressionParser(variables, interner).parse(expression);
+        return BytecodeCompiler.compileObjective(root, interner.size());
+    }
+
+    public Function<RealVector, Double> function(String expression) {
+        VectorObjective objective = objective(expression);
+        return x -> objective.value(x.toArray());
+    }
+
+    public List<Function<RealVector, Double>> functions(List<String> expressions) {
+        List<Function<RealVector, Double>> functions = new ArrayList<>(expressions.size());
+        for (String expression : expressions) {
+            functions.add(function(expression));
+        }
+        return functions;
+    }
+
+    /**
+     * Система выражений, скомпилированная в один метод, например градиент по компонентам.
+     */
+    public Function<RealVector, RealVector> vectorFunction(List<String> expressions) {
+        VectorFunction function = compileSystem(expressions);
+        int m = expressions.size();
+        return x -> {
+            double[] out = new double[m];
+            function.values(x.toArray(), out);
+            return new ArrayRealVector(out, false);
+        };
+    }
+
+    /**
+     * Система ограничений g_i(x) <= 0: все значения вычисляются одним скомпилированным методом
+     * с общими подвыражениями, а для проверки допустимости по одному ограничению каждое
+     * скомпилировано и отдельно.
+     */
+    public ConstraintSet constraints(List<String> expressions) {
+        VectorFunction function = compileSystem(expressions);
+        VectorObjective[] single = new VectorObjective[expressions.size()];
+        for (int i = 0; i < single.length; i++) {
+            single[i] = objective(expressions.get(i));
+        }
+
+        return new ConstraintSet() {
+            @Override
+            public int size() {
+                return single.length;
+            }
+
+            @Override
+            public double value(int i, double[] x) {
+                return single[i].value(x);
+            }
+
+            @Override
+            public void values(double[] x, double[] values) {
+                function.values(x, values);
+            }
+        };
+    }
+
+    private VectorFunction compileSystem(List<String> expressions) {
+        ExpressionParser.Interner interner = new ExpressionParser.Interner();
+        ExpressionParser parser = new ExpressionParser(variables, interner);
+        List<Node> roots = new ArrayList<>(expressions.size());
+        for (String expression : expressions) {
+            roots.add(parser.parse(expression));
+        }
+        return BytecodeCompiler.compileFunction(roots, interner.size());
+    }
+
+    /**
+     * То же выражение для автоматического дифференцирования: граф выражения обходится
+     * над числами {@link RealFieldElement}, общие подвыражения вычисляются один раз.
+     */
+    public DifferentiableObjective differentiable(String expression) {
+        ExpressionParser.Interner interner = new ExpressionParser.Interner();
+        Node root = new ExpressionParser(variables, interner).parse(expression);
+        int nodeCount = interner.size();
+
+        return new DifferentiableObjective() {
+            @Override
+            public <T extends RealFieldElement<T>> T value(T[] x) {
+                List<T> memo = new ArrayList<>(nodeCount);
+                for (int i = 0; i < nodeCount; i++) {
+                    memo.add(null);
+                }
+                return evaluate(root, x, memo);
+            }
+        };
+    }
+
+    private static <T extends RealFieldElement<T>> T evaluate(Node node, T[] x, List<T> memo) {
+        T result = memo.get(node.id);
+        if (result != null) {
+            return result;
+        }
+
+        switch (node.kind) {
+            case CONST:
+                result = x[0].getField().getZero().add(node.value);
+                break;
+            case VAR:
+                result = x[node.variable];
+                break;
+            case NEG:
+                result = evaluate(node.a, x, memo).negate();
+                break;
+            case ADD:
+                result = evaluate(node.a, x, memo).add(evaluate(node.b, x, memo));
+                break;
+            case SUB:
+                result = evaluate(node.a, x, memo).subtract(evaluate(node.b, x, memo));
+                break;
+            case MUL:
+                result = evaluate(node.a, x, memo).multiply(evaluate(node.b, x, memo));
+                break;
+            case DIV:
+                result = evaluate(node.a, x, memo).divide(evaluate(node.b, x, memo));
+                break;
+            case POW:
+                result = node.b.isConst()
+                        ? evaluate(node.a, x, memo).pow(node.b.value)
+                        : evaluate(node.a, x, memo).pow(evaluate(node.b, x, memo));
+                break;
+            default:
+                result = node.b == null
+                        ? Functions.apply(node.function, evaluate(node.a, x, memo))
+                        : Functions.apply(node.function, evaluate(node.a, x, memo), evaluate(node.b, x, memo));
+        }
+
+        memo.set(node.id, result);
+        return result;
+    }
+
+}
@@ -0,0 +1,261 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Рекурсивный спуск по грамматике
+ * <pre>
+ * expr    := term (('+' | '-') term)*
+ * term    := unary (('*' | '/') unary)*
+ * unary   := '-' unary | power
+ * power   := primary ('^' unary)?
+ * primary := number | name | name '(' expr (',' expr)* ')' | '(' expr ')'
+ * </pre>
+ * Константные подвыражения вычисляются при разборе, x^2 и x^3 заменяются умножениями.
+ */
+final class ExpressionParser {
+
+    static final Set<String> UNARY_FUNCTIONS = new HashSet<>(Arrays.asList(
+            "sin", "cos", "tan", "asin", "acos", "atan", "sinh", "cosh", "tanh",
+            "exp", "expm1", "log", "log1p", "log10", "sqrt", "cbrt", "abs"
+    ));
+    static final Set<String> BINARY_FUNCTIONS = new HashSet<>(Arrays.asList("pow", "atan2", "hypot", "min", "max"));
+
+    private final Interner interner;
+    private final Map<String, Integer> variables;
+    private String text;
+    private int pos;
+
+    ExpressionParser(List<String> variables, Interner interner) {
+        this.interner = interner;
+        this.variables = new HashMap<>();
+        for (int i = 0; i < variables.size(); i++) {
+            this.variables.put(variables.get(i).trim(), i);
+        }
+    }
+
+    Node parse(String expression) {
+        text = expression;
+        pos = 0;
+        Node node = expr();
+        skipSpaces();
+        if (pos < text.length()) {
+            throw error("Unexpected symbol '" + text.charAt(pos) + "'");
+        }
+        return node;
+    }
+
+    private Node expr() {
+        Node node = term();
+        while (true) {
+            if (accept('+')) {
+                node = interner.binary(Node.Kind.ADD, node, term());
+            } else if (accept('-')) {
+                node = interner.binary(Node.Kind.SUB, node, term());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node term() {
+        Node node = unary();
+        while (true) {
+            if (accept('*')) {
+                node = interner.binary(Node.Kind.MUL, node, unary());
+            } else if (accept('/')) {
+                node = interner.binary(Node.Kind.DIV, node, unary());
+            } else {
+                return node;
+            }
+        }
+    }
+
+    private Node unary() {
+        if (accept('-')) {
+            return interner.unary(Node.Kind.NEG, null, unary());
+        }
+        return power();
+    }
+
+    private Node power() {
+        Node base = primary();
+        return accept('^') ? interner.binary(Node.Kind.POW, base, unary()) : base;
+    }
+
+    private Node primary() {
+        skipSpaces();
+        if (accept('(')) {
+            Node node = expr();
+            expect(')');
+            return node;
+        }
+        if (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+            return number();
+        }
+
+        String name = name();
+        if (accept('(')) {
+            List<Node> args = new ArrayList<>();
+            do {
+                args.add(expr());
+            } while (accept(','));
+            expect(')');
+            return call(name, args);
+        }
+
+        Integer variable = variables.get(name);
+        if (variable != null) {
+            return interner.variable(variable);
+        }
+        switch (name) {
+            case "pi":
+                return interner.constant(Math.PI);
+            case "e":
+                return interner.constant(Math.E);
+            default:
+                throw error("Unknown variable '" + name + "'");
+        }
+    }
+
+    private Node call(String name, List<Node> args) {
+        if (UNARY_FUNCTIONS.contains(name) && args.size() == 1) {
+            return interner.unary(Node.Kind.CALL, name, args.get(0));
+        }
+        if (BINARY_FUNCTIONS.contains(name) && args.size() == 2) {
+            return name.equals("pow")
+                    ? interner.binary(Node.Kind.POW, args.get(0), args.get(1))
+                    : interner.call(name, args.get(0), args.get(1));
+        }
+        throw error("Unknown function '" + name + "' of " + args.size() + " arguments");
+    }
+
+    private Node number() {
+        int start = pos;
+        while (pos < text.length()) {
+            char ch = text.charAt(pos);
+            boolean exponentSign = (ch == '+' || ch == '-') && (text.charAt(pos - 1) == 'e' || text.charAt(pos - 1) == 'E');
+            if (!Character.isDigit(ch) && ch != '.' && ch != 'e' && ch != 'E' && !exponentSign) {
+                break;
+            }
+            pos++;
+        }
+        try {
+            return interner.constant(Double.parseDouble(text.substring(start, pos)));
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + text.substring(start, pos) + "'");
+        }
+    }
+
+    private String name() {
+        int start = pos;
+        while (pos < text.length() && (Character.isLetterOrDigit(text.charAt(pos)) || text.charAt(pos) == '_')) {
+            pos++;
+        }
+        if (start == pos) {
+            throw error(pos < text.length() ? "Unexpected symbol '" + text.charAt(pos) + "'" : "Unexpected end of expression");
+        }
+        return text.substring(start, pos);
+    }
+
+    private boolean accept(char ch) {
+        skipSpaces();
+        if (pos < text.length() && text.charAt(pos) == ch) {
+            pos++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char ch) {
+        if (!accept(ch)) {
+            throw error("'" + ch + "' expected");
+        }
+    }
+
+    private void skipSpaces() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+            pos++;
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos + " in expression: " + text);
+    }
+
+    /**
+     * Таблица узлов: структурно равные узлы создаются один раз, что и дает исключение общих
+     * подвыражений во всех выражениях, разобранных с одной таблицей.
+     */
+    static final class Interner {
+
+        private final Map<Node, Node> nodes = new HashMap<>();
+
+        int size() {
+            return nodes.size();
+        }
+
+        Node constant(double value) {
+            return intern(Node.Kind.CONST, value, -1, null, null, null);
+        }
+
+        Node variable(int index) {
+            return intern(Node.Kind.VAR, 0.0, index, null, null, null);
+        }
+
+        Node unary(Node.Kind kind, String function, Node a) {
+            if (a.isConst()) {
+                return constant(kind == Node.Kind.NEG ? -a.value : Functions.apply(function, a.value));
+            }
+            return intern(kind, 0.0, -1, function, a, null);
+        }
+
+        Node call(String function, Node a, Node b) {
+            if (a.isConst() && b.isConst()) {
+                return constant(Functions.apply(function, a.value, b.value));
+            }
+            return intern(Node.Kind.CALL, 0.0, -1, function, a, b);
+        }
+
+        Node binary(Node.Kind kind, Node a, Node b) {
+            if (a.isConst() && b.isConst()) {
+                return constant(fold(kind, a.value, b.value));
+            }
+            if (kind == Node.Kind.POW && b.isConst() && (b.value == 2.0 || b.value == 3.0)) {
+                // умножение быстрее Math.pow, а основание вычисляется один раз
+                Node square = intern(Node.Kind.MUL, 0.0, -1, null, a, a);
+                return b.value == 2.0 ? square : intern(Node.Kind.MUL, 0.0, -1, null, square, a);
+            }
+            return intern(kind, 0.0, -1, null, a, b);
+        }
+
+        private static double fold(Node.Kind kind, double a, double b) {
+            switch (kind) {
+                case ADD:
+                    return a + b;
+                case SUB:
+                    return a - b;
+                case MUL:
+                    return a * b;
+                case DIV:
+                    return a / b;
+                default:
+                    return Math.pow(a, b);
+            }
+        }
+
+        private Node intern(Node.Kind kind, double value, int variable, String function, Node a, Node b) {
+            Node node = new Node(kind, value, variable, function, a, b, nodes.size());
+            Node existing = nodes.putIfAbsent(node, node);
+            return existing != null ? existing : node;
+        }
+
+    }
+
+}
@@ -0,0 +1,83 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import org.apache.commons.math3.RealFieldElement;
+
+/**
+ * Элементарные функции выражений: вычисление над double (свертка констант) и над
+ * {@link RealFieldElement} (автоматическое дифференцирование). В байт-коде все они,
+ * кроме одноименных операций, - вызовы статических методов {@link Math} с тем же именем.
+ */
+final class Functions {
+
+    private static final double LN_10 = Math.log(10.0);
+
+    private Functions() {
+    }
+
+    static double apply(String name, double x) {
+        switch (name) {
+            case "sin": return Math.sin(x);
+            case "cos": return Math.cos(x);
+            case "tan": return Math.tan(x);
+            case "asin": return Math.asin(x);
+            case "acos": return Math.acos(x);
+            case "atan": return Math.atan(x);
+            case "sinh": return Math.sinh(x);
+            case "cosh": return Math.cosh(x);
+            case "tanh": return Math.tanh(x);
+            case "exp": return Math.exp(x);
+            case "expm1": return Math.expm1(x);
+            case "log": return Math.log(x);
+            case "log1p": return Math.log1p(x);
+            case "log10": return Math.log10(x);
+            case "sqrt": return Math.sqrt(x);
+            case "cbrt": return Math.cbrt(x);
+            case "abs": return Math.abs(x);
+            default: throw new IllegalArgumentException("Unknown function: " + name);
+        }
+    }
+
+    static double apply(String name, double x, double y) {
+        switch (name) {
+            case "atan2": return Math.atan2(x, y);
+            case "hypot": return Math.hypot(x, y);
+            case "min": return Math.min(x, y);
+            case "max": return Math.max(x, y);
+            default: throw new IllegalArgumentException("Unknown function: " + name);
+        }
+    }
+
+    static <T extends RealFieldElement<T>> T apply(String name, T x) {
+        switch (name) {
+            case "sin": return x.sin();
+            case "cos": return x.cos();
+            case "tan": return x.tan();
+            case "asin": return x.asin();
+            case "acos": return x.acos();
+            case "atan": return x.atan();
+            case "sinh": return x.sinh();
+            case "cosh": return x.cosh();
+            case "tanh": return x.tanh();
+            case "exp": return x.exp();
+            case "expm1": return x.expm1();
+            case "log": return x.log();
+            case "log1p": return x.log1p();
+            case "log10": return x.log().divide(LN_10);
+            case "sqrt": return x.sqrt();
+            case "cbrt": return x.cbrt();
+            case "abs": return x.abs();
+            default: throw new IllegalArgumentException("Unknown function: " + name);
+        }
+    }
+
+    static <T extends RealFieldElement<T>> T apply(String name, T x, T y) {
+        switch (name) {
+            case "atan2": return x.atan2(y);
+            case "hypot": return x.hypot(y);
+            case "min": return x.getReal() <= y.getReal() ? x : y;
+            case "max": return x.getReal() >= y.getReal() ? x : y;
+            default: throw new IllegalArgumentException("Unknown function: " + name);
+        }
+    }
+
+}
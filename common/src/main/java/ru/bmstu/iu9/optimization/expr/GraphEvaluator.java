@@ -0,0 +1,112 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Вычисление графа выражений без генерации кода - для выражений, метод которых не укладывается
+ * в ограничения class-файла. Узлы упорядочены так, что аргументы вычисляются раньше
+ * использующих их узлов, и каждый узел вычисляется один раз за вызов.
+ */
+final class GraphEvaluator implements VectorObjective, VectorFunction {
+
+    private final Node[] order;
+    private final int[] a, b, roots;
+
+    GraphEvaluator(List<Node> roots, int nodeCount) {
+        int[] slots = new int[nodeCount];
+        List<Node> order = new ArrayList<>();
+        this.roots = new int[roots.size()];
+        for (int i = 0; i < this.roots.length; i++) {
+            this.roots[i] = visit(roots.get(i), slots, order);
+        }
+
+        this.order = order.toArray(new Node[0]);
+        this.a = new int[this.order.length];
+        this.b = new int[this.order.length];
+        for (int i = 0; i < this.order.length; i++) {
+            Node node = this.order[i];
+            a[i] = node.a != null ? slots[node.a.id] - 1 : -1;
+            b[i] = node.b != null ? slots[node.b.id] - 1 : -1;
+        }
+    }
+
+    /**
+     * Обход в глубину с явным стеком: длинные суммы дают цепочки глубиной в тысячи узлов.
+     *
+     * @return индекс узла в порядке вычисления
+     */
+    private static int visit(Node root, int[] slots, List<Node> order) {
+        List<Node> stack = new ArrayList<>();
+        stack.add(root);
+        while (!stack.isEmpty()) {
+            Node node = stack.get(stack.size() - 1);
+            if (slots[node.id] > 0) {
+                stack.remove(stack.size() - 1);
+            } else if (node.a != null && slots[node.a.id] == 0) {
+                stack.add(node.a);
+            } else if (node.b != null && slots[node.b.id] == 0) {
+                stack.add(node.b);
+            } else {
+                stack.remove(stack.size() - 1);
+                order.add(node);
+                slots[node.id] = order.size();
+            }
+        }
+        return slots[root.id] - 1;
+    }
+
+    @Override
+    public double value(double[] x) {
+        return evaluate(x)[roots[0]];
+    }
+
+    @Override
+    public void values(double[] x, double[] out) {
+        double[] v = evaluate(x);
+        for (int i = 0; i < roots.length; i++) {
+            out[i] = v[roots[i]];
+        }
+    }
+
+    private double[] evaluate(double[] x) {
+        double[] v = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            Node node = order[i];
+            switch (node.kind) {
+                case CONST:
+                    v[i] = node.value;
+                    break;
+                case VAR:
+                    v[i] = x[node.variable];
+                    break;
+                case NEG:
+                    v[i] = -v[a[i]];
+                    break;
+                case ADD:
+                    v[i] = v[a[i]] + v[b[i]];
+                    break;
+                case SUB:
+                    v[i] = v[a[i]] - v[b[i]];
+                    break;
+                case MUL:
+                    v[i] = v[a[i]] * v[b[i]];
+                    break;
+                case DIV:
+                    v[i] = v[a[i]] / v[b[i]];
+                    break;
+                case POW:
+                    v[i] = Math.pow(v[a[i]], v[b[i]]);
+                    break;
+                default:
+                    v[i] = b[i] < 0
+                            ? Functions.apply(node.function, v[a[i]])
+                            : Functions.apply(node.function, v[a[i]], v[b[i]]);
+            }
+        }
+        return v;
+    }
+
+}
@@ -0,0 +1,64 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import java.util.Objects;
+
+/**
+ * Узел разобранного выражения. Узлы создаются только через {@link ExpressionParser.Interner},
+ * поэтому одинаковые подвыражения представлены одним объектом, и аргументы сравниваются по ссылке.
+ */
+final class Node {
+
+    enum Kind {
+        CONST, VAR, NEG, ADD, SUB, MUL, DIV, POW, CALL
+    }
+
+    final Kind kind;
+    final double value;
+    final int variable;
+    final String function;
+    final Node a, b;
+    final int id;
+
+    Node(Kind kind, double value, int variable, String function, Node a, Node b, int id) {
+        this.kind = kind;
+        this.value = value;
+        this.variable = variable;
+        this.function = function;
+        this.a = a;
+        this.b = b;
+        this.id = id;
+    }
+
+    boolean isConst() {
+        return kind == Kind.CONST;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof Node)) {
+            return false;
+        }
+        Node other = (Node) o;
+        return kind == other.kind
+                && Double.doubleToLongBits(value) == Double.doubleToLongBits(other.value)
+                && variable == other.variable
+                && Objects.equals(function, other.function)
+                && a == other.a
+                && b == other.b;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = kind.hashCode();
+        h = 31 * h + Double.hashCode(value);
+        h = 31 * h + variable;
+        h = 31 * h + Objects.hashCode(function);
+        h = 31 * h + System.identityHashCode(a);
+        h = 31 * h + System.identityHashCode(b);
+        return h;
+    }
+
+}
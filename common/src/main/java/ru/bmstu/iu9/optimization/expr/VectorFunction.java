@@ -0,0 +1,11 @@
+package ru.bmstu.iu9.optimization.expr;
+
+/**
+ * Система функций, вычисляемая одним сгенерированным методом: out[i] - значение i-й функции в x.
+ * Интерфейс открыт, потому что сгенерированные классы загружаются отдельным загрузчиком.
+ */
+public interface VectorFunction {
+
+    void values(double[] x, double[] out);
+
+}
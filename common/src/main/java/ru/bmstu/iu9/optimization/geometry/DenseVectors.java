@@ -0,0 +1,79 @@
+package ru.bmstu.iu9.optimization.geometry;
+
+import static java.lang.Math.sqrt;
+
+/**
+ * Операции над векторами, хранящимися в {@code double[]}, без выделения памяти:
+ * результат записывается в переданный буфер либо в один из аргументов.
+ */
+public final class DenseVectors {
+
+    private DenseVectors() {
+    }
+
+    /**
+     * y += a * x
+     */
+    public static void axpy(double a, double[] x, double[] y) {
+        for (int i = 0; i < y.length; i++) {
+            y[i] += a * x[i];
+        }
+    }
+
+    /**
+     * x *= a
+     */
+    public static void scale(double a, double[] x) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] *= a;
+        }
+    }
+
+    /**
+     * out = x + a * d
+     */
+    public static void linearCombination(double[] x, double a, double[] d, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] + a * d[i];
+        }
+    }
+
+    /**
+     * out = x - y
+     */
+    public static void subtract(double[] x, double[] y, double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = x[i] - y[i];
+        }
+    }
+
+    public static void copy(double[] src, double[] dst) {
+        System.arraycopy(src, 0, dst, 0, dst.length);
+    }
+
+    public static double dot(double[] x, double[] y) {
+        double sum = 0.0;
+
+        for (int i = 0; i < x.length; i++) {
+            sum += x[i] * y[i];
+        }
+
+        return sum;
+    }
+
+    public static double norm(double[] x) {
+        return sqrt(dot(x, x));
+    }
+
+    public static double distance(double[] x, double[] y) {
+        double sum = 0.0, diff;
+
+        for (int i = 0; i < x.length; i++) {
+            diff = x[i] - y[i];
+            sum += diff * diff;
+        }
+
+        return sqrt(sum);
+    }
+
+}
@@ -0,0 +1,25 @@
+package ru.bmstu.iu9.optimization.geometry;
+
+/**
+ * Набор рабочих буферов одной размерности, выделяемых один раз на запуск метода оптимизации.
+ * Буферы не потокобезопасны: каждый запуск должен создавать собственный экземпляр.
+ */
+public class VectorWorkspace {
+
+    private final int dimension;
+    private final double[][] buffers;
+
+    public VectorWorkspace(int dimension, int buffersCount) {
+        this.dimension = dimension;
+        this.buffers = new double[buffersCount][dimension];
+    }
+
+    public double[] buffer(int index) {
+        return buffers[index];
+    }
+
+    public int dimension() {
+        return dimension;
+    }
+
+}
@@ -0,0 +1,35 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Хранит статистику всех запусков в памяти, сгруппированную по имени метода.
+ */
+public class InMemoryMetricsRegistry implements MetricsSink {
+
+    private final Map<String, List<SolverStats>> runs = new LinkedHashMap<>();
+
+    @Override
+    public synchronized void record(String solver, SolverStats stats) {
+        runs.computeIfAbsent(solver, k -> new ArrayList<>()).add(stats);
+    }
+
+    public synchronized List<SolverStats> runs(String solver) {
+        return new ArrayList<>(runs.getOrDefault(solver, Collections.emptyList()));
+    }
+
+    public synchronized Map<String, List<SolverStats>> snapshot() {
+        Map<String, List<SolverStats>> copy = new LinkedHashMap<>();
+        runs.forEach((solver, list) -> copy.put(solver, new ArrayList<>(list)));
+        return copy;
+    }
+
+    public synchronized void clear() {
+        runs.clear();
+    }
+
+}
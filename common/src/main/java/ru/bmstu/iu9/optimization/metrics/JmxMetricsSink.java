@@ -0,0 +1,124 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Публикует суммарную статистику каждого метода как MBean
+ * {@code ru.bmstu.iu9.optimization:type=Solver,name=<метод>}.
+ */
+public class JmxMetricsSink implements MetricsSink {
+
+    private static final String DOMAIN = "ru.bmstu.iu9.optimization";
+
+    private final MBeanServer server;
+    private final ConcurrentMap<String, SolverMetrics> beans = new ConcurrentHashMap<>();
+
+    public JmxMetricsSink() {
+        this(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    public JmxMetricsSink(MBeanServer server) {
+        this.server = server;
+    }
+
+    @Override
+    public void record(String solver, SolverStats stats) {
+        beans.computeIfAbsent(solver, this::register).add(stats);
+    }
+
+    private SolverMetrics register(String solver) {
+        SolverMetrics bean = new SolverMetrics();
+        try {
+            ObjectName name = new ObjectName(DOMAIN + ":type=Solver,name=" + ObjectName.quote(solver));
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(bean, name);
+        } catch (JMException e) {
+            throw new IllegalStateException("Failed to register MBean for " + solver, e);
+        }
+        return bean;
+    }
+
+    private static final class SolverMetrics implements SolverMetricsMXBean {
+
+        private long runs, iterations, objective, gradient, hessian, lineSearch, cacheHits, cacheMisses;
+        private final long[] nanos = new long[Phase.values().length];
+
+        synchronized void add(SolverStats stats) {
+            runs++;
+            iterations += stats.getIterations();
+            objective += stats.getObjectiveEvaluations();
+            gradient += stats.getGradientEvaluations();
+            hessian += stats.getHessianEvaluations();
+            lineSearch += stats.getLineSearchEvaluations();
+            cacheHits += stats.getCacheHits();
+            cacheMisses += stats.getCacheMisses();
+            for (Phase phase : Phase.values()) {
+                nanos[phase.ordinal()] += stats.getNanos(phase);
+            }
+        }
+
+        @Override
+        public synchronized long getRuns() {
+            return runs;
+        }
+
+        @Override
+        public synchronized long getIterations() {
+            return iterations;
+        }
+
+        @Override
+        public synchronized long getObjectiveEvaluations() {
+            return objective;
+        }
+
+        @Override
+        public synchronized long getGradientEvaluations() {
+            return gradient;
+        }
+
+        @Override
+        public synchronized long getHessianEvaluations() {
+            return hessian;
+        }
+
+        @Override
+        public synchronized long getLineSearchEvaluations() {
+            return lineSearch;
+        }
+
+        @Override
+        public synchronized long getCacheHits() {
+            return cacheHits;
+        }
+
+        @Override
+        public synchronized long getCacheMisses() {
+            return cacheMisses;
+        }
+
+        @Override
+        public synchronized double getLineSearchMillis() {
+            return nanos[Phase.LINE_SEARCH.ordinal()] / 1e6;
+        }
+
+        @Override
+        public synchronized double getDirectionMillis() {
+            return nanos[Phase.DIRECTION.ordinal()] / 1e6;
+        }
+
+        @Override
+        public synchronized double getFactorizationMillis() {
+            return nanos[Phase.FACTORIZATION.ordinal()] / 1e6;
+        }
+
+    }
+
+}
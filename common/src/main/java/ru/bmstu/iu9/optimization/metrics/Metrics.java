@@ -0,0 +1,32 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+/**
+ * Точка подключения получателя статистики. Пока получатель не задан, методы работают
+ * с выключенной статистикой и ничего не считают.
+ */
+public final class Metrics {
+
+    private static volatile MetricsSink sink;
+
+    private Metrics() {
+    }
+
+    public static void setSink(MetricsSink metricsSink) {
+        sink = metricsSink;
+    }
+
+    /**
+     * Статистика для нового запуска: включенная, если задан получатель.
+     */
+    public static SolverStats newStats() {
+        return sink != null ? SolverStats.enabled() : SolverStats.disabled();
+    }
+
+    public static void publish(String solver, SolverStats stats) {
+        MetricsSink s = sink;
+        if (s != null && stats.isEnabled()) {
+            s.record(solver, stats);
+        }
+    }
+
+}
@@ -0,0 +1,11 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+/**
+ * Получатель статистики завершенных запусков.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+
+    void record(String solver, SolverStats stats);
+
+}
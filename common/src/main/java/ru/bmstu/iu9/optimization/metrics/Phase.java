@@ -0,0 +1,23 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+/**
+ * Этапы итерации, время которых измеряется отдельно.
+ */
+public enum Phase {
+
+    /**
+     * Одномерный поиск шага.
+     */
+    LINE_SEARCH,
+
+    /**
+     * Вычисление направления спуска или новых вершин симплекса.
+     */
+    DIRECTION,
+
+    /**
+     * Разложение матрицы и решение линейной системы.
+     */
+    FACTORIZATION
+
+}
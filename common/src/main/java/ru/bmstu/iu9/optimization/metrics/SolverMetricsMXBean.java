@@ -0,0 +1,30 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+/**
+ * Суммарная статистика метода, доступная через JMX.
+ */
+public interface SolverMetricsMXBean {
+
+    long getRuns();
+
+    long getIterations();
+
+    long getObjectiveEvaluations();
+
+    long getGradientEvaluations();
+
+    long getHessianEvaluations();
+
+    long getLineSearchEvaluations();
+
+    long getCacheHits();
+
+    long getCacheMisses();
+
+    double getLineSearchMillis();
+
+    double getDirectionMillis();
+
+    double getFactorizationMillis();
+
+}
@@ -0,0 +1,215 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.EvaluationCache;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Статистика одного запуска метода: число вычислений функции, градиента и гессиана,
+ * вычислений при одномерном поиске, итераций, попаданий в кэш значений и время по этапам.
+ * Методы ничего не печатают сами: статистику выводит вызывающий код.
+ * <p>
+ * Обертки функций можно вызывать из нескольких потоков, остальные поля заполняет один
+ * поток метода. Выключенная статистика
+ * ({@link #disabled()}) ничего не считает: обертки возвращают функции без изменений,
+ * а замер времени не вызывает {@link System#nanoTime()}.
+ */
+public final class SolverStats {
+
+    private static final SolverStats DISABLED = new SolverStats(false);
+
+    private final boolean enabled;
+    private final long[] phaseNanos = new long[Phase.values().length];
+    private final LongAdder objectiveEvaluations = new LongAdder();
+    private final LongAdder gradientEvaluations = new LongAdder();
+    private final LongAdder hessianEvaluations = new LongAdder();
+    private long lineSearchEvaluations;
+    private long iterations;
+    private long cacheHits;
+    private long cacheMisses;
+
+    private SolverStats(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public static SolverStats enabled() {
+        return new SolverStats(true);
+    }
+
+    public static SolverStats disabled() {
+        return DISABLED;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public VectorObjective objectivePrimitive(VectorObjective objective) {
+        if (!enabled) {
+            return objective;
+        }
+        return x -> {
+            objectiveEvaluations.increment();
+            return objective.value(x);
+        };
+    }
+
+    /**
+     * Пакетное вычисление считается как count вычислений функции.
+     */
+    public BatchObjective batch(BatchObjective objective) {
+        if (!enabled) {
+            return objective;
+        }
+        return (points, n, count, values) -> {
+            objectiveEvaluations.add(count);
+            objective.values(points, n, count, values);
+        };
+    }
+
+    public <R> Function<RealVector, R> objective(Function<RealVector, R> objective) {
+        if (!enabled) {
+            return objective;
+        }
+        return x -> {
+            objectiveEvaluations.increment();
+            return objective.apply(x);
+        };
+    }
+
+    public <R> Function<RealVector, R> gradient(Function<RealVector, R> gradient) {
+        if (!enabled) {
+            return gradient;
+        }
+        return x -> {
+            gradientEvaluations.increment();
+            return gradient.apply(x);
+        };
+    }
+
+    public <R> Function<RealVector, R> hessian(Function<RealVector, R> hessian) {
+        if (!enabled) {
+            return hessian;
+        }
+        return x -> {
+            hessianEvaluations.increment();
+            return hessian.apply(x);
+        };
+    }
+
+    /**
+     * Начало замера; результат передается в {@link #stop(Phase, long)}.
+     */
+    public long start() {
+        return enabled ? System.nanoTime() : 0L;
+    }
+
+    public void stop(Phase phase, long start) {
+        if (enabled) {
+            phaseNanos[phase.ordinal()] += System.nanoTime() - start;
+        }
+    }
+
+    public void lineSearch(int evaluations) {
+        if (enabled) {
+            lineSearchEvaluations += evaluations;
+        }
+    }
+
+    public void iterations(long count) {
+        if (enabled) {
+            iterations += count;
+        }
+    }
+
+    /**
+     * Добавляет попадания и промахи кэша функции, если она обернута в {@link CachedObjective}
+     * или {@link CachedFunction}; вызывается один раз в конце запуска.
+     */
+    public void cache(Object function) {
+        if (!enabled) {
+            return;
+        }
+        EvaluationCache<?> cache;
+        if (function instanceof CachedObjective) {
+            cache = ((CachedObjective) function).cache();
+        } else if (function instanceof CachedFunction) {
+            cache = ((CachedFunction<?>) function).cache();
+        } else {
+            return;
+        }
+        cacheHits += cache.hits();
+        cacheMisses += cache.misses();
+    }
+
+    /**
+     * Добавляет статистику вложенного запуска, например внутреннего метода в методах штрафов.
+     * Итерации не складываются: у внешнего метода свой счетчик.
+     */
+    public void add(SolverStats other) {
+        if (!enabled || !other.enabled) {
+            return;
+        }
+        objectiveEvaluations.add(other.getObjectiveEvaluations());
+        gradientEvaluations.add(other.getGradientEvaluations());
+        hessianEvaluations.add(other.getHessianEvaluations());
+        lineSearchEvaluations += other.lineSearchEvaluations;
+        cacheHits += other.cacheHits;
+        cacheMisses += other.cacheMisses;
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] += other.phaseNanos[i];
+        }
+    }
+
+    public long getObjectiveEvaluations() {
+        return objectiveEvaluations.sum();
+    }
+
+    public long getGradientEvaluations() {
+        return gradientEvaluations.sum();
+    }
+
+    public long getHessianEvaluations() {
+        return hessianEvaluations.sum();
+    }
+
+    public long getLineSearchEvaluations() {
+        return lineSearchEvaluations;
+    }
+
+    public long getIterations() {
+        return iterations;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    public long getNanos(Phase phase) {
+        return phaseNanos[phase.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        if (!enabled) {
+            return "SolverStats{disabled}";
+        }
+        return String.format(
+                "SolverStats{iterations=%d, f=%d, grad=%d, hess=%d, lineSearch=%d, cacheHits=%d, cacheMisses=%d, lineSearchMs=%.3f, directionMs=%.3f, factorizationMs=%.3f}",
+                iterations, getObjectiveEvaluations(), getGradientEvaluations(), getHessianEvaluations(), lineSearchEvaluations,
+                cacheHits, cacheMisses,
+                getNanos(Phase.LINE_SEARCH) / 1e6, getNanos(Phase.DIRECTION) / 1e6, getNanos(Phase.FACTORIZATION) / 1e6
+        );
+    }
+
+}
@@ -0,0 +1,36 @@
+package ru.bmstu.iu9.optimization.objective;
+
+/**
+ * Целевая функция, вычисляемая сразу в нескольких точках: позволяет распределить
+ * накладные расходы (вызовы JNI, векторные вычисления, запросы к внешнему процессу)
+ * на всю партию.
+ * <p>
+ * Методы оптимизации пользуются пакетным вычислением там, где точки известны заранее
+ * (сжатие симплекса, полный опрос при исследующем поиске, разностные производные,
+ * отбор начальных точек), если переданная им функция реализует и {@link VectorObjective},
+ * и этот интерфейс. Остальные функции вычисляются по точкам через {@link #pointwise(VectorObjective)}.
+ */
+@FunctionalInterface
+public interface BatchObjective {
+
+    /**
+     * Вычисляет функцию в count точках размерности n, записанных подряд в points
+     * (точка i занимает points[i * n], ..., points[i * n + n - 1]), значения записываются
+     * в values[0], ..., values[count - 1]. Массивы нельзя сохранять после возврата.
+     */
+    void values(double[] points, int n, int count, double[] values);
+
+    /**
+     * Поточечное вычисление: каждая точка копируется в один общий буфер.
+     */
+    static BatchObjective pointwise(VectorObjective objective) {
+        return (points, n, count, values) -> {
+            double[] x = new double[n];
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(points, i * n, x, 0, n);
+                values[i] = objective.value(x);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,39 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.function.Function;
+
+/**
+ * Функция векторного аргумента (целевая функция, градиент, матрица Гессе) с запоминанием значений.
+ * Возвращаемые значения разделяются между вызовами и не должны изменяться вызывающим кодом.
+ */
+public class CachedFunction<V> implements Function<RealVector, V> {
+
+    private final Function<RealVector, V> func;
+    private final EvaluationCache<V> cache;
+
+    public CachedFunction(Function<RealVector, V> func, int capacity) {
+        this.func = func;
+        this.cache = new EvaluationCache<>(capacity);
+    }
+
+    /**
+     * Оборачивает функцию в кэш заданной емкости; при неположительной емкости функция возвращается без изменений.
+     */
+    public static <V> Function<RealVector, V> wrap(Function<RealVector, V> func, int capacity) {
+        return capacity > 0 ? new CachedFunction<>(func, capacity) : func;
+    }
+
+    @Override
+    public V apply(RealVector x) {
+        double[] key = x instanceof ArrayRealVector ? ((ArrayRealVector) x).getDataRef() : x.toArray();
+        return cache.computeIfAbsent(key, values -> func.apply(x));
+    }
+
+    public EvaluationCache<V> cache() {
+        return cache;
+    }
+
+}
@@ -0,0 +1,32 @@
+package ru.bmstu.iu9.optimization.objective;
+
+/**
+ * Целевая функция с запоминанием вычисленных значений.
+ */
+public class CachedObjective implements VectorObjective {
+
+    private final VectorObjective objective;
+    private final EvaluationCache<Double> cache;
+
+    public CachedObjective(VectorObjective objective, int capacity) {
+        this.objective = objective;
+        this.cache = new EvaluationCache<>(capacity);
+    }
+
+    /**
+     * Оборачивает функцию в кэш заданной емкости; при неположительной емкости функция возвращается без изменений.
+     */
+    public static VectorObjective wrap(VectorObjective objective, int capacity) {
+        return capacity > 0 ? new CachedObjective(objective, capacity) : objective;
+    }
+
+    @Override
+    public double value(double[] x) {
+        return cache.computeIfAbsent(x, objective::value);
+    }
+
+    public EvaluationCache<Double> cache() {
+        return cache;
+    }
+
+}
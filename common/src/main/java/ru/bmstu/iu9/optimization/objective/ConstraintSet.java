@@ -0,0 +1,135 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+
+/**
+ * Система ограничений g_i(x) <= 0, i = 0, ..., size() - 1.
+ * <p>
+ * Значения всех ограничений вычисляются одним вызовом в переданный массив, который методы
+ * переиспользуют между вычислениями; реализация может вычислять их совместно (например,
+ * скомпилированная система выражений с общими подвыражениями). Проверка допустимости
+ * прекращается на первом нарушенном ограничении. Как и {@link VectorObjective}, реализация
+ * не должна изменять или сохранять массив точки.
+ */
+public interface ConstraintSet {
+
+    int size();
+
+    /**
+     * Значение i-го ограничения в точке x.
+     */
+    double value(int i, double[] x);
+
+    /**
+     * Значения всех ограничений в точке x записываются в values[0], ..., values[size() - 1].
+     */
+    default void values(double[] x, double[] values) {
+        for (int i = 0; i < size(); i++) {
+            values[i] = value(i, x);
+        }
+    }
+
+    /**
+     * @return true, если все ограничения выполнены; ограничения после первого нарушенного не вычисляются
+     */
+    default boolean isFeasible(double[] x) {
+        for (int i = 0; i < size(); i++) {
+            if (value(i, x) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Адаптер для ограничений вида {@code Function<RealVector, Double>}: массив оборачивается
+     * в {@link ArrayRealVector} без копирования, один раз на вызов {@link #values(double[], double[])}.
+     */
+    static ConstraintSet of(List<Function<RealVector, Double>> constraints) {
+        List<Function<RealVector, Double>> funcs = new ArrayList<>(constraints);
+        return new ConstraintSet() {
+            @Override
+            public int size() {
+                return funcs.size();
+            }
+
+            @Override
+            public double value(int i, double[] x) {
+                return funcs.get(i).apply(new ArrayRealVector(x, false));
+            }
+
+            @Override
+            public void values(double[] x, double[] values) {
+                RealVector vec = new ArrayRealVector(x, false);
+                for (int i = 0; i < funcs.size(); i++) {
+                    values[i] = funcs.get(i).apply(vec);
+                }
+            }
+
+            @Override
+            public boolean isFeasible(double[] x) {
+                RealVector vec = new ArrayRealVector(x, false);
+                for (Function<RealVector, Double> g : funcs) {
+                    if (g.apply(vec) > 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Ограничения вычисляются на executor, разбитыми на parallelism частей; имеет смысл
+     * для дорогих ограничений. Проверка допустимости в этом случае вычисляет все ограничения.
+     * Ограничения должны быть потокобезопасными.
+     */
+    static ConstraintSet parallel(ConstraintSet constraints, Executor executor, int parallelism) {
+        return new ConstraintSet() {
+            @Override
+            public int size() {
+                return constraints.size();
+            }
+
+            @Override
+            public double value(int i, double[] x) {
+                return constraints.value(i, x);
+            }
+
+            @Override
+            public void values(double[] x, double[] values) {
+                int m = size(), chunks = Math.max(1, Math.min(parallelism, m));
+                CompletableFuture<?>[] tasks = new CompletableFuture<?>[chunks];
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int from = chunk * m / chunks, to = (chunk + 1) * m / chunks;
+                    tasks[chunk] = CompletableFuture.runAsync(() -> {
+                        for (int i = from; i < to; i++) {
+                            values[i] = constraints.value(i, x);
+                        }
+                    }, executor);
+                }
+                CompletableFuture.allOf(tasks).join();
+            }
+
+            @Override
+            public boolean isFeasible(double[] x) {
+                double[] values = new double[size()];
+                values(x, values);
+                for (double value : values) {
+                    if (value > 0) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+
+}
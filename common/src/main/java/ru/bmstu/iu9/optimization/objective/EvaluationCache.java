@@ -0,0 +1,110 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Кэш значений функции с вытеснением давно не использованных записей (LRU).
+ * Ключом служит точное содержимое массива аргументов.
+ * Вычисление функции при промахе выполняется вне блокировки, поэтому кэш можно
+ * разделять между потоками, не сериализуя сами вычисления.
+ */
+public class EvaluationCache<V> {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, V> entries;
+    private long hits;
+    private long misses;
+
+    public EvaluationCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive: " + capacity);
+        }
+
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+                return size() > EvaluationCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Возвращает сохраненное значение для точки x либо вычисляет и сохраняет его.
+     * Массив x при сохранении копируется, поэтому вызывающий код может переиспользовать его.
+     */
+    public V computeIfAbsent(double[] x, Function<double[], V> func) {
+        Key key = new Key(x);
+        V value;
+
+        synchronized (this) {
+            value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+        }
+
+        value = func.apply(x);
+
+        synchronized (this) {
+            entries.put(new Key(Arrays.copyOf(x, x.length)), value);
+        }
+
+        return value;
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        hits = 0;
+        misses = 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("hits=%d, misses=%d, size=%d/%d", hits(), misses(), size(), capacity);
+    }
+
+    private static final class Key {
+
+        private final double[] values;
+        private final int hash;
+
+        Key(double[] values) {
+            this.values = values;
+            this.hash = Arrays.hashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof Key && Arrays.equals(values, ((Key) obj).values);
+        }
+
+    }
+
+}
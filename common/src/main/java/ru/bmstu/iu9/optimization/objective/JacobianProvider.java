@@ -0,0 +1,71 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * Матрица Якоби системы ограничений, строка i - градиент i-го ограничения.
+ * <p>
+ * Методы запрашивают только нужные строки (например, активных ограничений) и производные
+ * всех ограничений вдоль направления, не требуя плотной матрицы m x n: разреженная
+ * реализация {@link SparseJacobian} вычисляет только ненулевые элементы строк.
+ * Реализации должны допускать вызовы из нескольких потоков.
+ */
+public interface JacobianProvider {
+
+    /**
+     * Строка i в точке x записывается в row (длины n, вместе с нулями).
+     */
+    void row(int i, double[] x, double[] row);
+
+    /**
+     * Производные ограничений вдоль d: slopes[i] = grad g_i(x) * d.
+     */
+    void directional(double[] x, double[] d, double[] slopes);
+
+    /**
+     * Плотная матрица, заданная функцией: вычисляется один раз на точку и запоминается
+     * (у каждого потока своя последняя точка), так что строки и производные вдоль
+     * направлений в одной точке стоят одного вычисления матрицы.
+     */
+    static JacobianProvider dense(Function<RealVector, RealMatrix> jacobian) {
+        ThreadLocal<double[]> lastPoint = new ThreadLocal<>();
+        ThreadLocal<RealMatrix> lastValue = new ThreadLocal<>();
+
+        return new JacobianProvider() {
+            private RealMatrix at(double[] x) {
+                double[] point = lastPoint.get();
+                if (point == null || !Arrays.equals(point, x)) {
+                    lastValue.set(jacobian.apply(new ArrayRealVector(x)));
+                    lastPoint.set(x.clone());
+                }
+                return lastValue.get();
+            }
+
+            @Override
+            public void row(int i, double[] x, double[] row) {
+                RealMatrix matrix = at(x);
+                for (int j = 0; j < row.length; j++) {
+                    row[j] = matrix.getEntry(i, j);
+                }
+            }
+
+            @Override
+            public void directional(double[] x, double[] d, double[] slopes) {
+                RealMatrix matrix = at(x);
+                for (int i = 0; i < slopes.length; i++) {
+                    double s = 0.0;
+                    for (int j = 0; j < d.length; j++) {
+                        s += matrix.getEntry(i, j) * d[j];
+                    }
+                    slopes[i] = s;
+                }
+            }
+        };
+    }
+
+}
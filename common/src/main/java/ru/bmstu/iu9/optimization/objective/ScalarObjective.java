@@ -0,0 +1,19 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+/**
+ * Целевая функция одной переменной без упаковки аргумента и результата.
+ */
+@FunctionalInterface
+public interface ScalarObjective extends DoubleUnaryOperator {
+
+    /**
+     * Адаптер для функций вида {@code Function<Double, Double>}.
+     */
+    static ScalarObjective of(Function<Double, Double> func) {
+        return func::apply;
+    }
+
+}
@@ -0,0 +1,149 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Разреженная матрица Якоби в формате CSR: для строки i номера столбцов ненулевых элементов
+ * лежат в columns[rowStart[i]], ..., columns[rowStart[i + 1] - 1]. Структура задается
+ * один раз, значения строки вычисляются ее функцией только по запросу, поэтому строка,
+ * зависящая от нескольких переменных, стоит O(nnz) вне зависимости от размерности задачи.
+ * <pre>
+ * SparseJacobian.builder(2)
+ *         .row(new int[]{0, 1}, (x, out, offset) -> { out[offset] = 2 * x[0]; out[offset + 1] = 2 * x[1]; })
+ *         .row(new int[]{0}, (x, out, offset) -> out[offset] = -1)
+ *         .build();
+ * </pre>
+ */
+public final class SparseJacobian implements JacobianProvider {
+
+    /**
+     * Ненулевые элементы строки в точке x в порядке ее столбцов, записываются в out начиная с offset.
+     */
+    @FunctionalInterface
+    public interface RowValues {
+        void values(double[] x, double[] out, int offset);
+    }
+
+    private final int n;
+    private final int[] rowStart;
+    private final int[] columns;
+    private final RowValues[] rows;
+    private final ThreadLocal<double[]> buffer;
+
+    private SparseJacobian(int n, int[] rowStart, int[] columns, RowValues[] rows) {
+        this.n = n;
+        this.rowStart = rowStart;
+        this.columns = columns;
+        this.rows = rows;
+        int maxNonZeros = 0;
+        for (int i = 0; i < rows.length; i++) {
+            maxNonZeros = Math.max(maxNonZeros, rowStart[i + 1] - rowStart[i]);
+        }
+        int size = maxNonZeros;
+        this.buffer = ThreadLocal.withInitial(() -> new double[size]);
+    }
+
+    public static Builder builder(int n) {
+        return new Builder(n);
+    }
+
+    public int rows() {
+        return rows.length;
+    }
+
+    public int nonZeros() {
+        return columns.length;
+    }
+
+    @Override
+    public void row(int i, double[] x, double[] row) {
+        double[] values = buffer.get();
+        Arrays.fill(row, 0.0);
+        rows[i].values(x, values, 0);
+        for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+            row[columns[k]] = values[k - rowStart[i]];
+        }
+    }
+
+    @Override
+    public void directional(double[] x, double[] d, double[] slopes) {
+        double[] values = buffer.get();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i].values(x, values, 0);
+            double s = 0.0;
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                s += values[k - rowStart[i]] * d[columns[k]];
+            }
+            slopes[i] = s;
+        }
+    }
+
+    /**
+     * Значения всех ненулевых элементов в точке x в порядке CSR.
+     */
+    public double[] values(double[] x) {
+        double[] values = new double[columns.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i].values(x, values, rowStart[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Плотная матрица m x n в точке x, например для проверки или небольших задач.
+     */
+    public RealMatrix toDense(double[] x) {
+        double[] values = values(x);
+        double[][] data = new double[rows.length][n];
+        for (int i = 0; i < rows.length; i++) {
+            for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+                data[i][columns[k]] = values[k];
+            }
+        }
+        return new Array2DRowRealMatrix(data, false);
+    }
+
+    public static final class Builder {
+
+        private final int n;
+        private final List<int[]> patterns = new ArrayList<>();
+        private final List<RowValues> rows = new ArrayList<>();
+
+        private Builder(int n) {
+            this.n = n;
+        }
+
+        /**
+         * Следующая строка: номера столбцов ее ненулевых элементов и функция их значений.
+         */
+        public Builder row(int[] columns, RowValues values) {
+            for (int column : columns) {
+                if (column < 0 || column >= n) {
+                    throw new IllegalArgumentException("Column index " + column + " is out of range [0, " + n + ")");
+                }
+            }
+            patterns.add(columns.clone());
+            rows.add(values);
+            return this;
+        }
+
+        public SparseJacobian build() {
+            int[] rowStart = new int[patterns.size() + 1];
+            for (int i = 0; i < patterns.size(); i++) {
+                rowStart[i + 1] = rowStart[i] + patterns.get(i).length;
+            }
+            int[] columns = new int[rowStart[patterns.size()]];
+            for (int i = 0; i < patterns.size(); i++) {
+                System.arraycopy(patterns.get(i), 0, columns, rowStart[i], patterns.get(i).length);
+            }
+            return new SparseJacobian(n, rowStart, columns, rows.toArray(new RowValues[0]));
+        }
+
+    }
+
+}
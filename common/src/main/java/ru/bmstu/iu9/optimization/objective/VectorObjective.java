@@ -0,0 +1,38 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.geometry.DenseVectors;
+
+import java.util.function.Function;
+
+/**
+ * Целевая функция многих переменных, принимающая точку в виде {@code double[]}.
+ * Реализация не должна изменять или сохранять переданный массив: методы оптимизации
+ * переиспользуют его между вычислениями.
+ */
+@FunctionalInterface
+public interface VectorObjective {
+
+    double value(double[] x);
+
+    /**
+     * Сужение функции на луч x + t * d. Точка луча записывается в буфер probe,
+     * поэтому одно вычисление не выделяет памяти.
+     */
+    default ScalarObjective alongRay(double[] x, double[] d, double[] probe) {
+        return t -> {
+            DenseVectors.linearCombination(x, t, d, probe);
+            return value(probe);
+        };
+    }
+
+    /**
+     * Адаптер для функций вида {@code Function<RealVector, Double>}: массив оборачивается
+     * в {@link ArrayRealVector} без копирования.
+     */
+    static VectorObjective of(Function<RealVector, Double> func) {
+        return x -> func.apply(new ArrayRealVector(x, false));
+    }
+
+}
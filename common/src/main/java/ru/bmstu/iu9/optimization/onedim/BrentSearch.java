@@ -0,0 +1,105 @@
+package ru.bmstu.iu9.optimization.onedim;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static java.lang.Math.*;
+
+/**
+ * Метод Брента: параболическая интерполяция по трем лучшим точкам,
+ * а если парабола не дает приемлемого шага - шаг золотого сечения.
+ * Общий для всех лабораторных, их методы Брента только передают параметры из своих конфигураций.
+ */
+public final class BrentSearch {
+
+    private static final double CONST_GS = (3 - sqrt(5)) / 2.0;
+    private static final double SQRT_EPS = sqrt(ulp(1.0));
+
+    private BrentSearch() {
+    }
+
+    public static LineSearchResult brentMethodPrimitive(DoubleUnaryOperator objectiveFunc, double start, double end, double eps, int maxIterations) {
+        double a = min(start, end), b = max(start, end);
+
+        // x - лучшая найденная точка, w - вторая по значению, v - предыдущее значение w
+        double x = a + CONST_GS * (b - a), w = x, v = x,
+                fx = objectiveFunc.applyAsDouble(x), fw = fx, fv = fx,
+                d = 0.0, e = 0.0;
+        int evaluations = 1;
+
+        for (int k = 0; k < maxIterations; k++) {
+            double m = (a + b) / 2.0,
+                    tol = SQRT_EPS * abs(x) + eps / 4.0,
+                    tol2 = 2.0 * tol;
+
+            if (abs(x - m) <= tol2 - (b - a) / 2.0) {
+                break;
+            }
+
+            boolean goldenStep = true;
+            if (abs(e) > tol) {
+                double r = (x - w) * (fx - fv),
+                        q = (x - v) * (fx - fw),
+                        p = (x - v) * q - (x - w) * r;
+                q = 2.0 * (q - r);
+                if (q > 0.0) {
+                    p = -p;
+                } else {
+                    q = -q;
+                }
+
+                double ePrev = e;
+                e = d;
+                // шаг параболы принимается, если он внутри интервала и меньше половины позапрошлого
+                if (abs(p) < abs(0.5 * q * ePrev) && p > q * (a - x) && p < q * (b - x)) {
+                    d = p / q;
+                    double u = x + d;
+                    if (u - a < tol2 || b - u < tol2) {
+                        d = x < m ? tol : -tol;
+                    }
+                    goldenStep = false;
+                }
+            }
+
+            if (goldenStep) {
+                e = (x < m ? b : a) - x;
+                d = CONST_GS * e;
+            }
+
+            double u = abs(d) >= tol ? x + d : x + (d > 0.0 ? tol : -tol),
+                    fu = objectiveFunc.applyAsDouble(u);
+            evaluations++;
+
+            if (fu <= fx) {
+                if (u < x) {
+                    b = x;
+                } else {
+                    a = x;
+                }
+                v = w;
+                fv = fw;
+                w = x;
+                fw = fx;
+                x = u;
+                fx = fu;
+            } else {
+                if (u < x) {
+                    a = u;
+                } else {
+                    b = u;
+                }
+                if (fu <= fw || w == x) {
+                    v = w;
+                    fv = fw;
+                    w = u;
+                    fw = fu;
+                } else if (fu <= fv || v == x || v == w) {
+                    v = u;
+                    fv = fu;
+                }
+            }
+        }
+
+        return new LineSearchResult(x, evaluations);
+    }
+
+}
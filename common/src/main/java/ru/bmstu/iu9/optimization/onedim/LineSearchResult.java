@@ -0,0 +1,29 @@
+package ru.bmstu.iu9.optimization.onedim;
+
+/**
+ * Результат одномерного поиска: найденная точка и число вычислений целевой функции.
+ */
+public class LineSearchResult {
+
+    private final double x;
+    private final int evaluations;
+
+    public LineSearchResult(double x, int evaluations) {
+        this.x = x;
+        this.evaluations = evaluations;
+    }
+
+    public double getX() {
+        return x;
+    }
+
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("x=%.6f, evaluations=%d", x, evaluations);
+    }
+
+}
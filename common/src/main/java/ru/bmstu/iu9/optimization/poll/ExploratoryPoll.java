@@ -0,0 +1,118 @@
+package ru.bmstu.iu9.optimization.poll;
+
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Исследующий поиск, в котором все пробные точки вычисляются одной партией на executor.
+ * <p>
+ * В режиме {@link PollMode#COMPLETE} партия состоит из 2n точек x ± steps[i] * e_i.
+ * В режиме {@link PollMode#SPECULATIVE} к ним добавляются точка xp = x + d, где d - смещение
+ * на предыдущей итерации, и 2n точек вокруг xp: если шаг по образцу снова удачен, исследующий
+ * поиск вокруг него уже выполнен в том же параллельном раунде. Из всей партии выбирается
+ * лучшая точка. Если задана пакетная функция, партия укладывается подряд в один массив
+ * и вычисляется одним ее вызовом вместо задач на executor. Буферы выделяются один раз,
+ * экземпляр используется одним запуском метода.
+ */
+public final class ExploratoryPoll {
+
+    private final PollMode mode;
+    private final Executor executor;
+    private final BatchObjective batch;
+    private final double[][] trials;
+    private final double[] values;
+    private final double[] pattern;
+    private final double[] packed;
+    private boolean hasPattern;
+
+    /**
+     * @param batch пакетное вычисление функции или null, если пробные точки вычисляются на executor
+     */
+    public ExploratoryPoll(int n, PollMode mode, Executor executor, BatchObjective batch) {
+        this.mode = mode;
+        this.executor = executor;
+        this.batch = batch;
+        this.trials = new double[mode == PollMode.SPECULATIVE ? 4 * n + 1 : 2 * n][n];
+        this.values = new double[trials.length];
+        this.pattern = new double[n];
+        this.packed = batch != null ? new double[trials.length * n] : null;
+    }
+
+    /**
+     * Исследующий поиск из точки x, результат записывается в x1.
+     *
+     * @return true, если найдена точка с меньшим значением функции, чем в x;
+     * после неудачного опроса шаг по образцу не повторяется
+     */
+    public boolean search(VectorObjective objectiveFunc, double[] x, double[] x1, double[] steps) {
+        int n = x.length, count = addPoll(x, steps, 0);
+        double fx = objectiveFunc.value(x);
+
+        if (mode == PollMode.SPECULATIVE && hasPattern) {
+            double[] xp = trials[count++];
+            for (int j = 0; j < n; j++) {
+                xp[j] = x[j] + pattern[j];
+            }
+            count = addPoll(xp, steps, count);
+        }
+
+        if (batch != null) {
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(trials[i], 0, packed, i * n, n);
+            }
+            batch.values(packed, n, count, values);
+        } else {
+            CompletableFuture<?>[] tasks = new CompletableFuture<?>[count];
+            for (int i = 0; i < count; i++) {
+                int trial = i;
+                tasks[i] = CompletableFuture.runAsync(() -> values[trial] = objectiveFunc.value(trials[trial]), executor);
+            }
+            CompletableFuture.allOf(tasks).join();
+        }
+
+        int best = 0;
+        for (int i = 1; i < count; i++) {
+            if (values[i] < values[best]) {
+                best = i;
+            }
+        }
+        if (values[best] >= fx) {
+            // как и при последовательном поиске, при неудаче x1 совпадает с x
+            System.arraycopy(x, 0, x1, 0, n);
+            hasPattern = false;
+            return false;
+        }
+
+        System.arraycopy(trials[best], 0, x1, 0, n);
+        return true;
+    }
+
+    /**
+     * Запоминает смещение from -> to для следующего спекулятивного опроса.
+     */
+    public void moved(double[] from, double[] to) {
+        hasPattern = false;
+        for (int j = 0; j < pattern.length; j++) {
+            pattern[j] = to[j] - from[j];
+            hasPattern |= pattern[j] != 0.0;
+        }
+    }
+
+    private int addPoll(double[] x, double[] steps, int offset) {
+        int n = x.length;
+
+        for (int i = 0; i < n; i++) {
+            double[] plus = trials[offset + 2 * i], minus = trials[offset + 2 * i + 1];
+            System.arraycopy(x, 0, plus, 0, n);
+            System.arraycopy(x, 0, minus, 0, n);
+            plus[i] += steps[i];
+            minus[i] -= steps[i];
+        }
+
+        return offset + 2 * n;
+    }
+
+}
@@ -0,0 +1,21 @@
+package ru.bmstu.iu9.optimization.poll;
+
+/**
+ * Способ исследующего поиска. В режимах COMPLETE и SPECULATIVE функция вычисляется
+ * из нескольких потоков одновременно и должна быть потокобезопасной.
+ */
+public enum PollMode {
+    /**
+     * Координаты перебираются по очереди, удачная проба сразу принимается.
+     */
+    SEQUENTIAL,
+    /**
+     * Все 2n пробных точек вычисляются одной партией, выбирается лучшая из них.
+     */
+    COMPLETE,
+    /**
+     * Вместе с полным опросом вокруг текущей точки вычисляются точка повторного шага
+     * по образцу и опрос вокруг нее.
+     */
+    SPECULATIVE
+}
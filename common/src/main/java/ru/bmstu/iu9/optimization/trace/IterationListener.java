@@ -0,0 +1,46 @@
+package ru.bmstu.iu9.optimization.trace;
+
+/**
+ * Получает состояние метода после каждой итерации.
+ * <p>
+ * Метод вызывается из потока, в котором работает оптимизация. Объект состояния
+ * переиспользуется между итерациями, поэтому сохранять его нельзя: нужные значения
+ * следует скопировать (см. {@link TraceRecorder}).
+ */
+@FunctionalInterface
+public interface IterationListener {
+
+    IterationListener NONE = state -> true;
+
+    /**
+     * @return true, чтобы продолжить оптимизацию, false - чтобы остановить ее
+     * и вернуть текущую точку
+     */
+    boolean onIteration(IterationState state);
+
+    /**
+     * Вызывает оба слушателя; оптимизация продолжается, только если этого хотят оба.
+     */
+    default IterationListener and(IterationListener other) {
+        return state -> {
+            boolean proceed = onIteration(state);
+            return other.onIteration(state) && proceed;
+        };
+    }
+
+    /**
+     * Останавливает оптимизацию, когда с момента создания слушателя прошло больше millis мс.
+     */
+    static IterationListener timeBudget(long millis) {
+        long deadline = System.nanoTime() + millis * 1_000_000L;
+        return state -> System.nanoTime() - deadline < 0;
+    }
+
+    /**
+     * Останавливает оптимизацию, как только значение функции станет не больше target.
+     */
+    static IterationListener targetValue(double target) {
+        return state -> state.getValue() > target;
+    }
+
+}
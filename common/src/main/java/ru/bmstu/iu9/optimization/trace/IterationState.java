@@ -0,0 +1,68 @@
+package ru.bmstu.iu9.optimization.trace;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * Состояние метода после итерации: номер итерации, текущая точка, значение функции,
+ * норма градиента, длина шага и коэффициент штрафа. Величины, которых у метода нет,
+ * равны {@link Double#NaN}.
+ * <p>
+ * Один экземпляр переиспользуется методом на всех итерациях, а массив точки - это
+ * рабочий буфер метода, поэтому его нельзя изменять и сохранять после возврата из
+ * {@link IterationListener#onIteration(IterationState)}.
+ */
+public final class IterationState {
+
+    private int iteration;
+    private double[] x;
+    private double value;
+    private double gradientNorm;
+    private double step;
+    private double penalty;
+
+    public IterationState update(int iteration, double[] x, double value, double gradientNorm, double step, double penalty) {
+        this.iteration = iteration;
+        this.x = x;
+        this.value = value;
+        this.gradientNorm = gradientNorm;
+        this.step = step;
+        this.penalty = penalty;
+        return this;
+    }
+
+    public int getIteration() {
+        return iteration;
+    }
+
+    /**
+     * Текущая точка без копирования.
+     */
+    public double[] getX() {
+        return x;
+    }
+
+    /**
+     * Копия текущей точки.
+     */
+    public RealVector getPoint() {
+        return new ArrayRealVector(x);
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    public double getGradientNorm() {
+        return gradientNorm;
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    public double getPenalty() {
+        return penalty;
+    }
+
+}
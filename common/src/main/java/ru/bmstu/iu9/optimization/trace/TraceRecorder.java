@@ -0,0 +1,112 @@
+package ru.bmstu.iu9.optimization.trace;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+/**
+ * Слушатель, хранящий последние capacity состояний в кольцевом буфере.
+ * <p>
+ * Все массивы выделяются в конструкторе, поэтому запись итерации не создает объектов.
+ * Записи нумеруются от самой старой (0) до самой новой ({@code size() - 1}).
+ * Экземпляр не потокобезопасен.
+ */
+public class TraceRecorder implements IterationListener {
+
+    private final int capacity;
+    private final int dimension;
+    private final int[] iterations;
+    private final double[] points;
+    private final double[] values;
+    private final double[] gradientNorms;
+    private final double[] steps;
+    private final double[] penalties;
+    private int next;
+    private int size;
+
+    public TraceRecorder(int capacity, int dimension) {
+        if (capacity <= 0 || dimension <= 0) {
+            throw new IllegalArgumentException("Capacity and dimension must be positive");
+        }
+        this.capacity = capacity;
+        this.dimension = dimension;
+        this.iterations = new int[capacity];
+        this.points = new double[capacity * dimension];
+        this.values = new double[capacity];
+        this.gradientNorms = new double[capacity];
+        this.steps = new double[capacity];
+        this.penalties = new double[capacity];
+    }
+
+    @Override
+    public boolean onIteration(IterationState state) {
+        double[] x = state.getX();
+        if (x.length != dimension) {
+            throw new IllegalArgumentException("Expected point of dimension " + dimension + ", got " + x.length);
+        }
+        iterations[next] = state.getIteration();
+        System.arraycopy(x, 0, points, next * dimension, dimension);
+        values[next] = state.getValue();
+        gradientNorms[next] = state.getGradientNorm();
+        steps[next] = state.getStep();
+        penalties[next] = state.getPenalty();
+        next = (next + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public void clear() {
+        next = 0;
+        size = 0;
+    }
+
+    public int iteration(int i) {
+        return iterations[slot(i)];
+    }
+
+    public double value(int i) {
+        return values[slot(i)];
+    }
+
+    public double gradientNorm(int i) {
+        return gradientNorms[slot(i)];
+    }
+
+    public double step(int i) {
+        return steps[slot(i)];
+    }
+
+    public double penalty(int i) {
+        return penalties[slot(i)];
+    }
+
+    /**
+     * Копирует i-ю сохраненную точку в dst.
+     */
+    public void copyPoint(int i, double[] dst) {
+        System.arraycopy(points, slot(i) * dimension, dst, 0, dimension);
+    }
+
+    public RealVector point(int i) {
+        double[] dst = new double[dimension];
+        copyPoint(i, dst);
+        return new ArrayRealVector(dst, false);
+    }
+
+    private int slot(int i) {
+        if (i < 0 || i >= size) {
+            throw new IndexOutOfBoundsException("Index " + i + " out of trace of size " + size);
+        }
+        return (next - size + i + capacity) % capacity;
+    }
+
+}
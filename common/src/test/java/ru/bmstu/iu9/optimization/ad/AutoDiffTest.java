@@ -0,0 +1,74 @@
+package ru.bmstu.iu9.optimization.ad;
+
+import org.apache.commons.math3.RealFieldElement;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class AutoDiffTest {
+
+    // функция с большинством элементарных операций; прямой режим на DerivativeStructure служит эталоном
+    private static final DifferentiableObjective FUNC = new DifferentiableObjective() {
+        @Override
+        public <T extends RealFieldElement<T>> T value(T[] x) {
+            return x[0].multiply(x[0]).multiply(x[1])
+                    .add(x[2].sin())
+                    .add(x[0].multiply(x[2]).exp())
+                    .add(x[0].divide(x[1]))
+                    .add(x[1].atan2(x[2]))
+                    .add(x[0].hypot(x[1]).log())
+                    .add(x[2].add(2.0).pow(x[0]))
+                    .add(x[1].tanh().multiply(x[2].cbrt()))
+                    .subtract(x[0].reciprocal().sqrt());
+        }
+    };
+
+    private static final RealVector X = new ArrayRealVector(new double[]{0.7, -1.3, 0.4});
+
+    @Test
+    public void testReverseGradientMatchesForwardMode() {
+        RealVector reverse = AutoDiff.gradient(FUNC).apply(X);
+        RealVector forward = AutoDiff.forwardGradient(FUNC).apply(X);
+
+        for (int i = 0; i < X.getDimension(); i++) {
+            assertEquals(forward.getEntry(i), reverse.getEntry(i), 1e-12);
+        }
+    }
+
+    @Test
+    public void testHessianVectorProduct() {
+        RealVector v = new ArrayRealVector(new double[]{1.0, -2.0, 0.5});
+        RealMatrix hessian = AutoDiff.hessian(FUNC).apply(X);
+        RealVector expected = hessian.operate(v);
+        RealVector hv = AutoDiff.hessianVector(FUNC).apply(X, v);
+
+        for (int i = 0; i < X.getDimension(); i++) {
+            assertEquals(expected.getEntry(i), hv.getEntry(i), 1e-10);
+        }
+    }
+
+    @Test
+    public void testJacobianAndValue() {
+        DifferentiableObjective circle = new DifferentiableObjective() {
+            @Override
+            public <T extends RealFieldElement<T>> T value(T[] x) {
+                return x[0].multiply(x[0]).add(x[1].multiply(x[1])).subtract(0.8);
+            }
+        };
+        RealMatrix jacobian = AutoDiff.jacobian(asList(circle, FUNC)).apply(X);
+        RealVector gradient = AutoDiff.gradient(FUNC).apply(X);
+
+        assertEquals(2 * X.getEntry(0), jacobian.getEntry(0, 0), 0.0);
+        assertEquals(2 * X.getEntry(1), jacobian.getEntry(0, 1), 0.0);
+        assertEquals(0.0, jacobian.getEntry(0, 2), 0.0);
+        for (int i = 0; i < X.getDimension(); i++) {
+            assertEquals(gradient.getEntry(i), jacobian.getEntry(1, i), 0.0);
+        }
+        assertEquals(0.49 + 1.69 - 0.8, AutoDiff.value(circle).apply(X), 1e-15);
+    }
+
+}
@@ -0,0 +1,122 @@
+package ru.bmstu.iu9.optimization.diff;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+public class FiniteDifferencesTest {
+
+    // f(x, y, z) = x^2 y + sin(z) + e^(x z)
+    private static final VectorObjective FUNC =
+            x -> x[0] * x[0] * x[1] + Math.sin(x[2]) + Math.exp(x[0] * x[2]);
+
+    private static final double[] X = {0.7, -1.3, 0.4};
+
+    @Test
+    public void testGradientSchemes() {
+        double ex = Math.exp(X[0] * X[2]);
+        double[] expected = {2 * X[0] * X[1] + X[2] * ex, X[0] * X[0], Math.cos(X[2]) + X[0] * ex};
+        double[] tolerance = {1e-6, 1e-9, 1e-11};
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+
+        try {
+            for (DifferenceScheme scheme : DifferenceScheme.values()) {
+                double tol = tolerance[scheme.ordinal()];
+                RealVector sequential = new FiniteDifferences(scheme).gradientPrimitive(FUNC).apply(new ArrayRealVector(X));
+                RealVector parallel = new FiniteDifferences(scheme, executor, 3).gradientPrimitive(FUNC).apply(new ArrayRealVector(X));
+                for (int i = 0; i < X.length; i++) {
+                    assertEquals(scheme.name(), expected[i], sequential.getEntry(i), tol);
+                    assertEquals(scheme.name(), sequential.getEntry(i), parallel.getEntry(i), 0.0);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testForwardGradientEvaluatesBasePointOnce() {
+        AtomicInteger evaluations = new AtomicInteger();
+        VectorObjective counted = x -> {
+            evaluations.incrementAndGet();
+            return FUNC.value(x);
+        };
+
+        new FiniteDifferences(DifferenceScheme.FORWARD).gradientPrimitive(counted).apply(new ArrayRealVector(X));
+        assertEquals(X.length + 1, evaluations.get());
+    }
+
+    @Test
+    public void testHessianAndJacobian() {
+        double ex = Math.exp(X[0] * X[2]);
+        double[][] expected = {
+                {2 * X[1] + X[2] * X[2] * ex, 2 * X[0], ex + X[0] * X[2] * ex},
+                {2 * X[0], 0.0, 0.0},
+                {ex + X[0] * X[2] * ex, 0.0, -Math.sin(X[2]) + X[0] * X[0] * ex}
+        };
+        RealMatrix hessian = new FiniteDifferences(DifferenceScheme.CENTRAL).hessianPrimitive(FUNC).apply(new ArrayRealVector(X));
+        for (int i = 0; i < X.length; i++) {
+            for (int j = 0; j < X.length; j++) {
+                assertEquals(expected[i][j], hessian.getEntry(i, j), 1e-6);
+            }
+        }
+
+        List<Function<RealVector, Double>> constraints = asList(
+                (RealVector x) -> x.getEntry(0) * x.getEntry(0) + x.getEntry(1) * x.getEntry(1) - 0.8,
+                (RealVector x) -> -x.getEntry(2)
+        );
+        RealMatrix jacobian = new FiniteDifferences(DifferenceScheme.RICHARDSON).jacobian(constraints)
+                .apply(new ArrayRealVector(X));
+        assertEquals(2, jacobian.getRowDimension());
+        assertEquals(2 * X[0], jacobian.getEntry(0, 0), 1e-10);
+        assertEquals(2 * X[1], jacobian.getEntry(0, 1), 1e-10);
+        assertEquals(0.0, jacobian.getEntry(0, 2), 1e-10);
+        assertEquals(-1.0, jacobian.getEntry(1, 2), 1e-10);
+    }
+
+    @Test
+    public void testHessianIsEvaluatedInRowBatches() {
+        int n = 6;
+        AtomicInteger evaluations = new AtomicInteger(), largestBatch = new AtomicInteger();
+        class Quadratic implements VectorObjective, BatchObjective {
+            @Override
+            public double value(double[] x) {
+                double sum = 0.0;
+                for (int i = 0; i < x.length; i++) {
+                    sum += (i + 1) * x[i] * x[i] + (i > 0 ? x[i - 1] * x[i] : 0.0);
+                }
+                return sum;
+            }
+
+            @Override
+            public void values(double[] points, int n, int count, double[] values) {
+                evaluations.addAndGet(count);
+                largestBatch.accumulateAndGet(count, Math::max);
+                BatchObjective.pointwise(this).values(points, n, count, values);
+            }
+        }
+
+        double[][] hessian = new FiniteDifferences(DifferenceScheme.CENTRAL).hessian(new Quadratic(), new double[n]);
+        assertEquals(2 * n * n + 1, evaluations.get());
+        assertEquals(4 * (n - 1), largestBatch.get());
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < n; j++) {
+                double expected = i == j ? 2.0 * (i + 1) : Math.abs(i - j) == 1 ? 1.0 : 0.0;
+                assertEquals(expected, hessian[i][j], 1e-6);
+            }
+        }
+    }
+
+}
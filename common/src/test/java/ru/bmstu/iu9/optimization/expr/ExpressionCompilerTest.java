@@ -0,0 +1,99 @@
+package ru.bmstu.iu9.optimization.expr;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.ad.AutoDiff;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ExpressionCompilerTest {
+
+    private static final ExpressionCompiler COMPILER = new ExpressionCompiler("x", "y");
+    private static final double[] X = {1.3, -0.7};
+
+    @Test
+    public void testCompiledValueMatchesJava() {
+        VectorObjective f = COMPILER.objective("sin(x) * cos(y) + atan2(x, y) - -x^3 + exp(-x * y) / 2 + max(x, y) + pi");
+        double x = X[0], y = X[1];
+        double expected = Math.sin(x) * Math.cos(y) + Math.atan2(x, y) + x * x * x + Math.exp(-x * y) / 2 + Math.max(x, y) + Math.PI;
+
+        assertEquals(expected, f.value(X), 1e-12);
+        assertEquals(
+                250 * Math.pow(x * x - y, 2.0) + 2 * Math.pow(x - 1, 2.0) + 300,
+                COMPILER.function("250 * (x^2 - y)^2 + 2 * (x - 1)^2 + 300").apply(new ArrayRealVector(X)),
+                1e-10
+        );
+    }
+
+    @Test
+    public void testCommonSubexpressionsAreShared() {
+        ExpressionParser.Interner interner = new ExpressionParser.Interner();
+        ExpressionParser parser = new ExpressionParser(asList("x", "y"), interner);
+        Node first = parser.parse("(x^2 - y) * sin(x^2 - y)");
+        Node second = parser.parse("sin(x*x - y) + 1");
+
+        assertSame(first.b, second.a);
+        // x, y, показатель 2, x*x, x*x - y, sin(...), произведение, константа 1, сумма
+        assertEquals(9, interner.size());
+
+        RealVector values = COMPILER.vectorFunction(asList("(x^2 - y) * sin(x^2 - y)", "sin(x*x - y) + 1"))
+                .apply(new ArrayRealVector(X));
+        double t = X[0] * X[0] - X[1];
+        assertEquals(t * Math.sin(t), values.getEntry(0), 0.0);
+        assertEquals(Math.sin(t) + 1, values.getEntry(1), 0.0);
+    }
+
+    @Test
+    public void testDifferentiableExpression() {
+        RealVector gradient = AutoDiff.gradient(COMPILER.differentiable("50 * (x^2 - y)^2 + 2 * (x - 1)^2 + 300"))
+                .apply(new ArrayRealVector(X));
+        double x = X[0], y = X[1];
+
+        assertEquals(200 * x * (x * x - y) + 4 * (x - 1), gradient.getEntry(0), 1e-10);
+        assertEquals(-100 * (x * x - y), gradient.getEntry(1), 1e-10);
+    }
+
+    @Test
+    public void testSingleExpressionVectorFunction() {
+        RealVector values = COMPILER.vectorFunction(asList("x * y - 1")).apply(new ArrayRealVector(X));
+
+        assertEquals(1, values.getDimension());
+        assertEquals(X[0] * X[1] - 1, values.getEntry(0), 0.0);
+    }
+
+    @Test
+    public void testOversizedExpressionFallsBackToGraph() {
+        // 5000 слагаемых дают метод длиннее 64 КБ
+        StringBuilder expression = new StringBuilder("0");
+        double expected = 0.0;
+        for (int i = 1; i <= 5000; i++) {
+            expression.append(" + sin(").append(i).append(" * x) * cos(y - ").append(i).append(")");
+            expected += Math.sin(i * X[0]) * Math.cos(X[1] - i);
+        }
+
+        VectorObjective f = COMPILER.objective(expression.toString());
+        assertTrue(f instanceof GraphEvaluator);
+        assertEquals(expected, f.value(X), 1e-9);
+
+        RealVector values = COMPILER.vectorFunction(asList(expression.toString(), "x + y"))
+                .apply(new ArrayRealVector(X));
+        assertEquals(expected, values.getEntry(0), 1e-9);
+        assertEquals(X[0] + X[1], values.getEntry(1), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownVariable() {
+        COMPILER.objective("x + z");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnbalancedParentheses() {
+        COMPILER.objective("x * (y + 1");
+    }
+
+}
@@ -0,0 +1,70 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.expr.ExpressionCompiler;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class ConstraintSetTest {
+
+    private static final double[] X = {0.5, 0.25};
+
+    private static final List<Function<RealVector, Double>> CONSTRAINTS = asList(
+            (x) -> x.getEntry(0) * x.getEntry(0) + x.getEntry(1) * x.getEntry(1) - 0.8,
+            (x) -> -x.getEntry(0),
+            (x) -> -x.getEntry(1),
+            (x) -> x.getEntry(0) + x.getEntry(1) - 1.0
+    );
+
+    @Test
+    public void testFeasibilityCheckStopsAtFirstViolation() {
+        AtomicInteger calls = new AtomicInteger();
+        ConstraintSet constraints = ConstraintSet.of(asList(
+                (x) -> {
+                    calls.incrementAndGet();
+                    return 1.0;
+                },
+                (x) -> {
+                    calls.incrementAndGet();
+                    return -1.0;
+                }
+        ));
+
+        assertFalse(constraints.isFeasible(X));
+        assertEquals(1, calls.get());
+        assertTrue(ConstraintSet.of(CONSTRAINTS).isFeasible(X));
+    }
+
+    @Test
+    public void testParallelAndCompiledValuesMatch() {
+        double[] expected = new double[CONSTRAINTS.size()];
+        ConstraintSet.of(CONSTRAINTS).values(X, expected);
+        assertEquals(0.5 * 0.5 + 0.25 * 0.25 - 0.8, expected[0], 0.0);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            double[] values = new double[CONSTRAINTS.size()];
+            ConstraintSet.parallel(ConstraintSet.of(CONSTRAINTS), executor, 3).values(X, values);
+            assertArrayEquals(expected, values, 0.0);
+        } finally {
+            executor.shutdown();
+        }
+
+        ConstraintSet compiled = new ExpressionCompiler("x", "y")
+                .constraints(asList("x^2 + y^2 - 0.8", "-x", "-y", "x + y - 1"));
+        double[] values = new double[compiled.size()];
+        compiled.values(X, values);
+        assertArrayEquals(expected, values, 0.0);
+        assertEquals(expected[3], compiled.value(3, X), 0.0);
+        assertFalse(compiled.isFeasible(new double[]{1.0, 0.5}));
+    }
+
+}
@@ -0,0 +1,53 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+
+public class EvaluationCacheTest {
+
+    @Test
+    public void testRepeatedPointIsEvaluatedOnce() {
+        AtomicInteger evaluations = new AtomicInteger();
+        CachedObjective objective = new CachedObjective(x -> {
+            evaluations.incrementAndGet();
+            return x[0] * x[0] + x[1];
+        }, 4);
+
+        double[] x = {2.0, 1.0};
+        assertEquals(5.0, objective.value(x), 0.0);
+        // вызывающий код может переиспользовать массив
+        x[0] = 2.0;
+        assertEquals(5.0, objective.value(x), 0.0);
+
+        assertEquals(1, evaluations.get());
+        assertEquals(1, objective.cache().hits());
+        assertEquals(1, objective.cache().misses());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntryIsEvicted() {
+        AtomicInteger evaluations = new AtomicInteger();
+        CachedObjective objective = new CachedObjective(x -> {
+            evaluations.incrementAndGet();
+            return x[0];
+        }, 2);
+
+        objective.value(new double[]{1.0});
+        objective.value(new double[]{2.0});
+        objective.value(new double[]{1.0});
+        objective.value(new double[]{3.0});
+
+        assertEquals(2, objective.cache().size());
+        assertEquals(3, evaluations.get());
+
+        // точка 2.0 вытеснена, точка 1.0 осталась
+        objective.value(new double[]{1.0});
+        assertEquals(3, evaluations.get());
+        objective.value(new double[]{2.0});
+        assertEquals(4, evaluations.get());
+    }
+
+}
@@ -0,0 +1,85 @@
+package ru.bmstu.iu9.optimization.objective;
+
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class SparseJacobianTest {
+
+    private static final double[] X = {0.5, -0.25, 2.0};
+    private static final double[] D = {1.0, 2.0, -0.5};
+
+    private static RealMatrix dense(double[] x) {
+        return MatrixUtils.createRealMatrix(new double[][]{
+                {2 * x[0], 0.0, 2 * x[2]},
+                {-1.0, 0.0, 0.0},
+                {0.0, x[2], x[1]}
+        });
+    }
+
+    private static SparseJacobian sparse(AtomicInteger[] calls) {
+        return SparseJacobian.builder(3)
+                .row(new int[]{0, 2}, (x, out, offset) -> {
+                    calls[0].incrementAndGet();
+                    out[offset] = 2 * x[0];
+                    out[offset + 1] = 2 * x[2];
+                })
+                .row(new int[]{0}, (x, out, offset) -> {
+                    calls[1].incrementAndGet();
+                    out[offset] = -1.0;
+                })
+                .row(new int[]{1, 2}, (x, out, offset) -> {
+                    calls[2].incrementAndGet();
+                    out[offset] = x[2];
+                    out[offset + 1] = x[1];
+                })
+                .build();
+    }
+
+    @Test
+    public void testRowsAndSlopesMatchDenseMatrix() {
+        AtomicInteger[] calls = {new AtomicInteger(), new AtomicInteger(), new AtomicInteger()};
+        SparseJacobian jacobian = sparse(calls);
+        RealMatrix expected = dense(X);
+
+        double[] row = {7.0, 7.0, 7.0};
+        jacobian.row(2, X, row);
+        assertArrayEquals(expected.getRow(2), row, 0.0);
+        // вычислена только запрошенная строка
+        assertEquals(0, calls[0].get());
+        assertEquals(0, calls[1].get());
+        assertEquals(1, calls[2].get());
+
+        assertEquals(5, jacobian.nonZeros());
+        assertArrayEquals(expected.getData(), jacobian.toDense(X).getData());
+
+        double[] slopes = new double[3];
+        jacobian.directional(X, D, slopes);
+        assertArrayEquals(expected.operate(D), slopes, 1e-15);
+    }
+
+    @Test
+    public void testDenseProviderEvaluatesOncePerPoint() {
+        AtomicInteger evaluations = new AtomicInteger();
+        JacobianProvider jacobian = JacobianProvider.dense((x) -> {
+            evaluations.incrementAndGet();
+            return dense(x.toArray());
+        });
+
+        double[] row = new double[3], slopes = new double[3];
+        jacobian.row(0, X, row);
+        jacobian.row(2, X, row);
+        jacobian.directional(X, D, slopes);
+        assertEquals(1, evaluations.get());
+        assertArrayEquals(dense(X).operate(D), slopes, 1e-15);
+
+        jacobian.row(0, D, row);
+        assertEquals(2, evaluations.get());
+        assertArrayEquals(dense(D).getRow(0), row, 0.0);
+    }
+
+}
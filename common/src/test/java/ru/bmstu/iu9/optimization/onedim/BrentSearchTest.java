@@ -0,0 +1,27 @@
+package ru.bmstu.iu9.optimization.onedim;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class BrentSearchTest {
+
+    @Test
+    public void testFindsParabolaMinimum() {
+        LineSearchResult res = BrentSearch.brentMethodPrimitive(x -> (x - 1.0) * (x - 1.0) + 2.0, -20.0, 20.0, 1e-6, 100);
+
+        assertEquals(1.0, res.getX(), 1e-6);
+        // парабола интерполируется точно, золотое сечение потребовало бы десятков вычислений
+        assertTrue(res.getEvaluations() + "", res.getEvaluations() < 10);
+    }
+
+    @Test
+    public void testIterationLimit() {
+        LineSearchResult res = BrentSearch.brentMethodPrimitive(Math::abs, 20.0, -20.0, 1e-12, 5);
+
+        assertEquals(6, res.getEvaluations());
+        assertTrue(res.getX() >= -20.0 && res.getX() <= 20.0);
+    }
+
+}
@@ -1,31 +1,41 @@
 package ru.bmstu.iu9.optimization.core.algo;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
 import java.util.Optional;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 import static java.lang.Math.*;
 
 public final class OneDimAlgorithms {
     private static final double CONST_GS = (3 - sqrt(5)) / 2.0;
-    public static int NO_OF_STEPS = -1;
+    // число итераций последнего вызова хранится отдельно для каждого потока
+    private static final ThreadLocal<Integer> NO_OF_STEPS = ThreadLocal.withInitial(() -> -1);
 
     private OneDimAlgorithms() { }
 
+    /**
+     * @return число итераций последнего метода, вызванного в текущем потоке
+     */
+    public static int getNumberOfSteps() {
+        return NO_OF_STEPS.get();
+    }
+
     public static Optional<Interval> findUnimodalIntervalWithSvennMethod(Function<Double, Double> func, double x0, double t) {
-        if( (func.apply(x0 - t) <= func.apply(x0)) && (func.apply(x0) >= func.apply(x0 + t)) )
+        return findUnimodalIntervalWithSvennMethodPrimitive(ScalarObjective.of(func), x0, t);
+    }
+
+    public static Optional<Interval> findUnimodalIntervalWithSvennMethodPrimitive(DoubleUnaryOperator func, double x0, double t) {
+        if( (func.applyAsDouble(x0 - t) <= func.applyAsDouble(x0)) && (func.applyAsDouble(x0) >= func.applyAsDouble(x0 + t)) )
             return Optional.empty();
 
-        if( (func.apply(x0 - t) >= func.apply(x0)) && (func.apply(x0) <= func.apply(x0 + t)) )
+        if( (func.applyAsDouble(x0 - t) >= func.applyAsDouble(x0)) && (func.applyAsDouble(x0) <= func.applyAsDouble(x0 + t)) )
             return Optional.of(new Interval(x0 - t, x0 + t));
 
         double x1, x2, delta, a = x0 - t, b = x0 + t;
         boolean moveRight = true;
         int k = 1;
 
-        if(func.apply(x0 - t) >= func.apply(x0) && func.apply(x0) >= func.apply(x0 + t)) {
+        if(func.applyAsDouble(x0 - t) >= func.applyAsDouble(x0) && func.applyAsDouble(x0) >= func.applyAsDouble(x0 + t)) {
             delta = t;
             a = x0;
             x1 = x0 + t;
@@ -39,13 +49,13 @@ public final class OneDimAlgorithms {
         do {
             x2 = x1 + pow(2, k) * delta;
 
-            if(delta == t && func.apply(x2) < func.apply(x1)) {
+            if(delta == t && func.applyAsDouble(x2) < func.applyAsDouble(x1)) {
                 a = x1;
-            } else if(delta == -t && func.apply(x2) < func.apply(x1)) {
+            } else if(delta == -t && func.applyAsDouble(x2) < func.applyAsDouble(x1)) {
                 b = x1;
             }
 
-            if(func.apply(x2) >= func.apply(x1))
+            if(func.applyAsDouble(x2) >= func.applyAsDouble(x1))
                 break;
 
             x1 = x2;
@@ -57,28 +67,35 @@ public final class OneDimAlgorithms {
         else
             a = x1;
 
-        NO_OF_STEPS = k;
+        NO_OF_STEPS.set(k);
 
         return Optional.of(new Interval(a, b));
     }
 
     public static double extremaWithDichotomyMethod(Function<Double, Double> func, Interval searchInt, double precision) {
+        return extremaWithDichotomyMethodPrimitive(ScalarObjective.of(func), searchInt, precision);
+    }
+
+    public static double extremaWithDichotomyMethodPrimitive(DoubleUnaryOperator func, Interval searchInt, double precision) {
         double a = searchInt.start, b = searchInt.end,
                 xMiddle = (a + b) / 2.0,
                 l = abs(b - a),
-                y, z;
+                fMiddle = func.applyAsDouble(xMiddle),
+                fy, fz, y, z;
         int k = 0;
         while(l > precision) {
             y = a + l / 4.0;
             z = b - l / 4.0;
 
-            if(func.apply(y) < func.apply(xMiddle)) {
+            if((fy = func.applyAsDouble(y)) < fMiddle) {
                 b = xMiddle;
                 xMiddle = y;
+                fMiddle = fy;
             } else {
-                if(func.apply(z) < func.apply(xMiddle)) {
+                if((fz = func.applyAsDouble(z)) < fMiddle) {
                     a = xMiddle;
                     xMiddle = z;
+                    fMiddle = fz;
                 } else {
                     a = y;
                     b = z;
@@ -89,89 +106,134 @@ public final class OneDimAlgorithms {
             k++;
         }
 
-        NO_OF_STEPS = k;
+        NO_OF_STEPS.set(k);
 
         return (a + b) / 2.0;
     }
 
     public static double extremaWithGoldenSectionMethod(Function<Double, Double> func, Interval searchInt, double precision) {
-        double y, z,
-                a = searchInt.start, b = searchInt.end,
-                delta = abs(b - a);
+        return extremaWithGoldenSectionMethodPrimitive(ScalarObjective.of(func), searchInt, precision);
+    }
 
+    public static double extremaWithGoldenSectionMethodPrimitive(DoubleUnaryOperator func, Interval searchInt, double precision) {
+        double a = searchInt.start, b = searchInt.end;
         int k = 0;
-        while(delta > precision) {
-            y = a + CONST_GS * (b - a);
-            z = a + b - y;
 
-            if(func.apply(y) <= func.apply(z)) {
+        if(abs(b - a) <= precision) {
+            NO_OF_STEPS.set(k);
+            return (a + b) / 2.0;
+        }
+
+        // одна из внутренних точек вместе со значением переходит в новый интервал
+        double y = a + CONST_GS * (b - a),
+                z = a + b - y,
+                fy = func.applyAsDouble(y),
+                fz = func.applyAsDouble(z);
+
+        for(;;) {
+            k++;
+            if(fy <= fz) {
                 b = z;
+                if(abs(b - a) <= precision)
+                    break;
+                z = y;
+                fz = fy;
+                y = a + b - z;
+                fy = func.applyAsDouble(y);
             } else {
                 a = y;
+                if(abs(b - a) <= precision)
+                    break;
+                y = z;
+                fy = fz;
+                z = a + b - y;
+                fz = func.applyAsDouble(z);
             }
-
-            delta = abs(b - a);
-            k++;
         }
 
-        NO_OF_STEPS = k;
+        NO_OF_STEPS.set(k);
 
         return (a + b) / 2.0;
     }
 
     public static double extremaWithFibonacciMethod(Function<Double, Double> func, Interval searchInt, double eps, double sigma) {
+        return extremaWithFibonacciMethodPrimitive(ScalarObjective.of(func), searchInt, eps, sigma);
+    }
+
+    public static double extremaWithFibonacciMethodPrimitive(DoubleUnaryOperator func, Interval searchInt, double eps, double sigma) {
         double a0 = searchInt.start, b0 = searchInt.end;
-        List<Double> fibonacciList = findFibonacciNumbers(a0, b0, eps);
-        int n = fibonacciList.size(), k = 0;
+        double[] fibonacci = findFibonacciNumbers(a0, b0, eps);
+        int n = fibonacci.length, k = 0;
 
         if(n <= 3) {
             return (a0 + b0) / 2.0;
         }
 
         double a = a0, b = b0,
-                y = a0 + fibonacciList.get(n - 3) / fibonacciList.get(n - 1) * (b0 - a0),
-                z = a0 + fibonacciList.get(n - 2) / fibonacciList.get(n - 1) * (b0 - a0);
-
-        while(abs(b - a) > sigma || abs(func.apply(b) - func.apply(a)) > eps) {
-            if(func.apply(y) <= func.apply(z)) {
+                y = a0 + fibonacci[n - 3] / fibonacci[n - 1] * (b0 - a0),
+                z = a0 + fibonacci[n - 2] / fibonacci[n - 1] * (b0 - a0),
+                fa = func.applyAsDouble(a),
+                fb = func.applyAsDouble(b),
+                fy = func.applyAsDouble(y),
+                fz = func.applyAsDouble(z);
+        boolean shrinkRight;
+
+        // значения в границах и внутренних точках переносятся между итерациями
+        while(abs(b - a) > sigma || abs(fb - fa) > eps) {
+            shrinkRight = fy <= fz;
+            if(shrinkRight) {
                 b = z;
+                fb = fz;
                 z = y;
-                y = a + fibonacciList.get(n - k - 3) / fibonacciList.get(n - k - 1) * (b - a);
+                fz = fy;
             } else {
                 a = y;
+                fa = fy;
                 y = z;
-                z = a + fibonacciList.get(n - k -2) / fibonacciList.get(n - k - 1) * (b - a);
+                fy = fz;
             }
 
             if(k == n - 3) {
                 y = (a + b) / 2.0;
                 z = y + eps;
-                if(func.apply(y) <= func.apply(z)) {
+                if(func.applyAsDouble(y) <= func.applyAsDouble(z)) {
                     b = z;
                 } else {
                     a = y;
                 }
                 break;
+            }
+
+            if(shrinkRight) {
+                y = a + fibonacci[n - k - 3] / fibonacci[n - k - 1] * (b - a);
+                fy = func.applyAsDouble(y);
             } else {
-                k++;
+                z = a + fibonacci[n - k - 2] / fibonacci[n - k - 1] * (b - a);
+                fz = func.applyAsDouble(z);
             }
+            k++;
         }
 
-        NO_OF_STEPS = k;
+        NO_OF_STEPS.set(k);
 
         return (a + b) / 2.0;
     }
 
-    private static List<Double> findFibonacciNumbers(double a0, double b0, double precision) {
+    private static double[] findFibonacciNumbers(double a0, double b0, double precision) {
         double l = abs(a0 + b0), prev = 1, cur = 1, t;
-        ArrayList<Double> numbers = new ArrayList<>(Arrays.asList(prev, cur));
+        int count = 2;
 
         while(cur <  l / precision) {
             t = cur;
             cur += prev;
             prev = t;
+            count++;
+        }
 
-            numbers.add(cur);
+        double[] numbers = new double[count];
+        numbers[0] = numbers[1] = 1;
+        for (int i = 2; i < count; i++) {
+            numbers[i] = numbers[i - 1] + numbers[i - 2];
         }
 
         return numbers;
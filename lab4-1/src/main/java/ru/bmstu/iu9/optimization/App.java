@@ -3,8 +3,14 @@ package ru.bmstu.iu9.optimization;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.ConfigurationLoader;
 import ru.bmstu.iu9.optimization.hj.HookeJeevesMethod;
+import ru.bmstu.iu9.optimization.metrics.InMemoryMetricsRegistry;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
 import ru.bmstu.iu9.optimization.nm.NelderMeadMethod;
+import ru.bmstu.iu9.optimization.nm.ParallelNelderMeadMethod;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
 
+import java.util.List;
 import java.util.function.Function;
 
 import static java.lang.Math.pow;
@@ -19,6 +25,8 @@ public class App {
         return 50.0 * pow(pow(x, 2.0) - y, 2.0) + 2 * pow(x - 1.0, 2.0) + 300.0;
     };
 
+    private static final InMemoryMetricsRegistry METRICS = new InMemoryMetricsRegistry();
+
     public static void main(String[] args) {
         try {
             if (args.length == 0) {
@@ -26,6 +34,7 @@ public class App {
             }
 
             var properties = args[0];
+            Metrics.setSink(METRICS);
             var confLoader = new ConfigurationLoader(properties);
             RealVector sol;
 
@@ -35,6 +44,12 @@ public class App {
             System.out.printf("[info]\t\t-> Время выполнения: %dms%n", System.currentTimeMillis() - startTimeMs);
             printSolution(sol);
 
+            System.out.printf("[info] Запускаем параллельный метод Нелдера - Мида (потоков: %d)%n", confLoader.nelderMeadConf().parallelism);
+            startTimeMs = System.currentTimeMillis();
+            sol = ParallelNelderMeadMethod.optimize(FUNC, confLoader.nelderMeadConf().startVector, confLoader.nelderMeadConf());
+            System.out.printf("[info]\t\t-> Время выполнения: %dms%n", System.currentTimeMillis() - startTimeMs);
+            printSolution(sol);
+
             System.out.println("[info] Запускаем метод Хука - Дживса");
             for (var optimizationClass : ConfigurationLoader.AVAILABLE_ONE_DIM_OPTIMIZATIONS) {
                 System.out.printf("[info] \t Одномерная оптимизация - %s:%n", optimizationClass.getSimpleName());
@@ -44,14 +59,48 @@ public class App {
                 System.out.printf("[info]\t\t-> Время выполнения: %dms%n", System.currentTimeMillis() - startTimeMs);
                 printSolution(sol);
             }
+
+            if (confLoader.objective() != null) {
+                System.out.println("[info] Запускаем метод Нелдера - Мида (функция из файла настроек)");
+                startTimeMs = System.currentTimeMillis();
+                sol = NelderMeadMethod.optimizePrimitive(confLoader.objective(), confLoader.nelderMeadConf().startVector, confLoader.nelderMeadConf());
+                System.out.printf("[info]\t\t-> Время выполнения: %dms%n", System.currentTimeMillis() - startTimeMs);
+                printSolution(sol, confLoader.objective());
+            }
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
     private static void printSolution(RealVector sol) {
+        printSolution(sol, VectorObjective.of(FUNC));
+    }
+
+    /**
+     * @param objective функция, которую минимизировал метод
+     */
+    private static void printSolution(RealVector sol, VectorObjective objective) {
+        printStats();
         System.out.println("[info] \t\t-> Точка экстремума: " + sol);
-        System.out.println("[info] \t\t-> Значение функции: " + FUNC.apply(sol));
+        System.out.println("[info] \t\t-> Значение функции: " + objective.value(sol.toArray()));
+    }
+
+    /**
+     * Выводит статистику запуска из реестра и очищает его перед следующим запуском.
+     */
+    private static void printStats() {
+        for (List<SolverStats> runs : METRICS.snapshot().values()) {
+            for (SolverStats stats : runs) {
+                System.out.printf("[info] \t\t-> Число итераций: %d%n", stats.getIterations());
+                if (stats.getLineSearchEvaluations() > 0) {
+                    System.out.printf("[info] \t\t-> Вычислений функции при одномерном поиске: %d%n", stats.getLineSearchEvaluations());
+                }
+                if (stats.getCacheHits() + stats.getCacheMisses() > 0) {
+                    System.out.printf("[info] \t\t-> Кэш значений функции: hits=%d, misses=%d%n", stats.getCacheHits(), stats.getCacheMisses());
+                }
+            }
+        }
+        METRICS.clear();
     }
 
 }
@@ -2,16 +2,21 @@ package ru.bmstu.iu9.optimization.conf;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.expr.ExpressionCompiler;
 import ru.bmstu.iu9.optimization.hj.HookeJeevesConf;
 import ru.bmstu.iu9.optimization.nm.NelderMeadConf;
+import ru.bmstu.iu9.optimization.onedim.BrentMethod;
 import ru.bmstu.iu9.optimization.onedim.DichotomyMethod;
 import ru.bmstu.iu9.optimization.onedim.FibonacciMethod;
 import ru.bmstu.iu9.optimization.onedim.GoldenSectionMethod;
 import ru.bmstu.iu9.optimization.onedim.OneDimOptimizationMethod;
 import ru.bmstu.iu9.optimization.onedim.conf.BaseOneDimConfiguration;
+import ru.bmstu.iu9.optimization.onedim.conf.BrentMethodConf;
 import ru.bmstu.iu9.optimization.onedim.conf.DichotomyMethodConf;
 import ru.bmstu.iu9.optimization.onedim.conf.FibonacciMethodConf;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
 import ru.bmstu.iu9.optimization.onedim.conf.GoldenSectionConf;
+import ru.bmstu.iu9.optimization.poll.PollMode;
 
 import java.io.File;
 import java.io.FileInputStream;
@@ -29,13 +34,15 @@ public class ConfigurationLoader {
         AVAILABLE_ONE_DIM_OPTIMIZATIONS = Arrays.asList(
                 DichotomyMethod.class,
                 GoldenSectionMethod.class,
-                FibonacciMethod.class
+                FibonacciMethod.class,
+                BrentMethod.class
         );
     }
 
     private HookeJeevesConf hjConf;
     private NelderMeadConf nmConf;
     private Map<Class<? extends OneDimOptimizationMethod>, BaseOneDimConfiguration> oneDimConfigurations = new HashMap<>();
+    private VectorObjective objective;
     private Properties prop;
 
     public ConfigurationLoader(String filePath) throws Exception {
@@ -52,6 +59,13 @@ public class ConfigurationLoader {
         return nmConf;
     }
 
+    /**
+     * Целевая функция из файла настроек, скомпилированная при загрузке; null, если она не задана.
+     */
+    public VectorObjective objective() {
+        return objective;
+    }
+
     public void setOneDimOptimizationMethod(Class<? extends OneDimOptimizationMethod> clazz) throws Exception {
         hjConf.oneDimOptimization = clazz.getConstructor().newInstance();
         hjConf.oneDimOptimizationConf = oneDimConfigurations.get(clazz);
@@ -69,6 +83,8 @@ public class ConfigurationLoader {
         hjConf.beta = getDouble("optimization.hookeJeeves.beta", 0.1);
         hjConf.steps = getListProp("optimization.hookeJeeves.steps");
         hjConf.startVector = getRealVector("optimization.hookeJeeves.startVector");
+        hjConf.cacheCapacity = getInt("optimization.hookeJeeves.cacheCapacity", 0);
+        hjConf.pollMode = PollMode.valueOf(((String) prop.getOrDefault("optimization.hookeJeeves.pollMode", "SEQUENTIAL")).trim().toUpperCase());
 
 
         for (var clazz : AVAILABLE_ONE_DIM_OPTIMIZATIONS) {
@@ -83,6 +99,17 @@ public class ConfigurationLoader {
         nmConf.repairStep = getInt("optimization.nelderMead.repairStep", 10);
         nmConf.edgeLen = getDouble("optimization.nelderMead.edgeLen", 10);
         nmConf.startVector = getRealVector("optimization.nelderMead.startVector");
+        nmConf.cacheCapacity = getInt("optimization.nelderMead.cacheCapacity", 0);
+        nmConf.parallelism = getInt("optimization.nelderMead.parallelism", 1);
+
+        String objectiveExpr = prop.getProperty("optimization.problem.objective");
+        if (objectiveExpr != null) {
+            String[] variables = prop.getProperty("optimization.problem.variables", "x, y").split(",");
+            for (int i = 0; i < variables.length; i++) {
+                variables[i] = variables[i].trim();
+            }
+            objective = new ExpressionCompiler(variables).objective(objectiveExpr);
+        }
     }
 
     private RealVector getRealVector(String key) {
@@ -129,6 +156,9 @@ public class ConfigurationLoader {
         } else if (oneDimOptimizationClass == FibonacciMethod.class) {
             oneDimConf = new FibonacciMethodConf();
             ((FibonacciMethodConf) oneDimConf).sigma = getDouble("optimization.onedim.fibonacci.sigma", 0.01);
+        } else if (oneDimOptimizationClass == BrentMethod.class) {
+            oneDimConf = new BrentMethodConf();
+            ((BrentMethodConf) oneDimConf).maxIterations = getInt("optimization.onedim.brent.maxIterations", 100);
         } else {
             throw new RuntimeException("Unknown one dim optimization method: " + oneDimOptimizationClass);
         }
@@ -3,6 +3,10 @@ package ru.bmstu.iu9.optimization.hj;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
 import ru.bmstu.iu9.optimization.onedim.OneDimOptimizationMethod;
+import ru.bmstu.iu9.optimization.poll.PollMode;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+
+import java.util.concurrent.Executor;
 
 public class HookeJeevesConf implements OptimizationConfig {
 
@@ -12,8 +16,14 @@ public class HookeJeevesConf implements OptimizationConfig {
 
     public double[] steps;
 
+    public int cacheCapacity;
+
     public RealVector startVector;
     public OneDimOptimizationMethod oneDimOptimization;
     public OptimizationConfig oneDimOptimizationConf;
+    public IterationListener listener = IterationListener.NONE;
+    public PollMode pollMode = PollMode.SEQUENTIAL;
+    // пул для параллельного опроса; если не задан, используется ForkJoinPool.commonPool()
+    public Executor executor;
 
 }
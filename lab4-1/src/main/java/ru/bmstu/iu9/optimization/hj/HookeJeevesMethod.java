@@ -1,37 +1,77 @@
 package ru.bmstu.iu9.optimization.hj;
 
-import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.poll.ExploratoryPoll;
+import ru.bmstu.iu9.optimization.poll.PollMode;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.distance;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.subtract;
+
 public class HookeJeevesMethod {
 
     public static RealVector optimize(Function<RealVector, Double> objectiveFunc, RealVector x, HookeJeevesConf c) {
-        RealVector x1 = MatrixUtils.createRealVector(x.toArray()), x2;
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), x, c);
+    }
+
+    public static RealVector optimizePrimitive(VectorObjective objective, RealVector x, HookeJeevesConf c) {
+        SolverStats stats = Metrics.newStats();
+        VectorObjective objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(objective), c.cacheCapacity);
+        VectorWorkspace ws = new VectorWorkspace(x.getDimension(), 4);
+        double[] x1 = ws.buffer(0), x2 = ws.buffer(1), d = ws.buffer(2), probe = ws.buffer(3), t;
         double[] steps = Arrays.copyOf(c.steps, c.steps.length);
+        IterationState state = c.listener == IterationListener.NONE ? null : new IterationState();
+        ExploratoryPoll poll = c.pollMode == PollMode.SEQUENTIAL ? null : new ExploratoryPoll(
+                x.getDimension(),
+                c.pollMode,
+                c.executor != null ? c.executor : ForkJoinPool.commonPool(),
+                objective instanceof BatchObjective ? stats.batch((BatchObjective) objective) : null
+        );
         boolean terminate;
-        int k = 0;
+        int k = 0, lineSearchEvaluations = 0;
+
+        System.arraycopy(x.toArray(), 0, x1, 0, x1.length);
 
         do {
             k++;
             terminate = true;
-            ExploringSearchRes esRes = exploringSearch(objectiveFunc, x1, steps);
-            x2 = esRes.x;
-            if (esRes.succeed) {
-                RealVector d = x2.subtract(x1);
-                RealVector startVec = x1;
-                double lambda = c.oneDimOptimization.optimize(
-                        t -> objectiveFunc.apply(startVec.add(d.mapMultiply(t))),
+            boolean improved = poll == null
+                    ? exploringSearch(objectiveFunc, x1, x2, steps)
+                    : poll.search(objectiveFunc, x1, x2, steps);
+            if (improved) {
+                subtract(x2, x1, d);
+                long lineSearchStart = stats.start();
+                LineSearchResult lineSearch = c.oneDimOptimization.search(
+                        objectiveFunc.alongRay(x1, d, probe),
                         c.lambda,
                         c.oneDimOptimizationConf
                 );
+                stats.stop(Phase.LINE_SEARCH, lineSearchStart);
+                double lambda = lineSearch.getX();
+                lineSearchEvaluations += lineSearch.getEvaluations();
 
                 if (lambda >= c.eps) {
                     terminate = false;
                 }
-                x2 = x1.add(d.mapMultiply(lambda));
+                linearCombination(x1, lambda, d, x2);
+                if (poll != null) {
+                    poll.moved(x1, x2);
+                }
             } else {
                 for (int i = 0; i < steps.length; i++) {
                     if (steps[i] >= c.eps) {
@@ -41,52 +81,54 @@ public class HookeJeevesMethod {
                 }
             }
 
+            t = x1;
             x1 = x2;
+            x2 = t;
+            // без слушателя значение в x1 не вычисляется, чтобы не менять число вычислений функции
+            if (state != null && !c.listener.onIteration(
+                    state.update(k, x1, objectiveFunc.value(x1), Double.NaN, distance(x1, x2), Double.NaN))) {
+                terminate = true;
+            }
         } while (!terminate);
 
-        System.out.printf("[info]\t\t-> Число итераций: %d%n", k);
-
-        return x1;
+        stats.iterations(k);
+        stats.lineSearch(lineSearchEvaluations);
+        stats.cache(objectiveFunc);
+        Metrics.publish(HookeJeevesMethod.class.getSimpleName(), stats);
+        return new ArrayRealVector(x1);
     }
 
 
-    private static ExploringSearchRes exploringSearch(
-            Function<RealVector, Double> objectiveFunc,
-            RealVector x,
+    /**
+     * Исследующий поиск из точки x, результат записывается в x1.
+     *
+     * @return true, если значение функции в x1 меньше, чем в x
+     */
+    private static boolean exploringSearch(
+            VectorObjective objectiveFunc,
+            double[] x,
+            double[] x1,
             double[] steps
     ) {
-        int n = x.getDimension();
-        RealVector x1 = MatrixUtils.createRealVector(x.toArray());
+        int n = x.length;
+        double fx = objectiveFunc.value(x);
+        System.arraycopy(x, 0, x1, 0, n);
 
         for (int i = 0; i < n; i++) {
-            x1.setEntry(i, x.getEntry(i) + steps[i]);
-            if (objectiveFunc.apply(x1) < objectiveFunc.apply(x)) {
+            x1[i] = x[i] + steps[i];
+            if (objectiveFunc.value(x1) < fx) {
                 continue;
             }
 
-            x1.setEntry(i, x.getEntry(i) - steps[i]);
-            if (objectiveFunc.apply(x1) < objectiveFunc.apply(x)) {
+            x1[i] = x[i] - steps[i];
+            if (objectiveFunc.value(x1) < fx) {
                 continue;
             }
 
-            x1.setEntry(i, x.getEntry(i));
-        }
-
-        ExploringSearchRes res = new ExploringSearchRes(x1);
-        res.succeed = objectiveFunc.apply(x1) < objectiveFunc.apply(x);
-
-        return res;
-    }
-
-    private static class ExploringSearchRes {
-
-        RealVector x;
-        boolean succeed;
-
-        ExploringSearchRes(RealVector x) {
-            this.x = x;
+            x1[i] = x[i];
         }
 
+        return objectiveFunc.value(x1) < fx;
     }
 
 }
@@ -2,6 +2,7 @@ package ru.bmstu.iu9.optimization.nm;
 
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
 
 public class NelderMeadConf implements OptimizationConfig {
 
@@ -15,7 +16,10 @@ public class NelderMeadConf implements OptimizationConfig {
     public double eps;
     public int repairStep;
     public int maxIterationsCount;
+    public int cacheCapacity;
+    public int parallelism = 1;
 
     public RealVector startVector;
+    public IterationListener listener = IterationListener.NONE;
 
 }
@@ -2,62 +2,107 @@ package ru.bmstu.iu9.optimization.nm;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
-
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.trace.IterationState;
+
+import java.util.Arrays;
 import java.util.function.Function;
 
 import static java.lang.Math.*;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.axpy;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.distance;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
 
 public class NelderMeadMethod {
 
     public static RealVector optimize(Function<RealVector, Double> objectiveFunc, RealVector x, NelderMeadConf c) {
-        RealVector x0 = new ArrayRealVector(x.toArray());
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), x, c);
+    }
+
+    public static RealVector optimizePrimitive(VectorObjective objective, RealVector x, NelderMeadConf c) {
+        SolverStats stats = Metrics.newStats();
+        VectorObjective objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(objective), c.cacheCapacity);
+        // вершины при редукции и восстановлении вычисляются одной партией, если функция это умеет
+        BatchObjective batch = objective instanceof BatchObjective ? stats.batch((BatchObjective) objective) : null;
         int n, hi, gi, li, k = 0;
-        n = x0.getDimension();
-        boolean shrinkRequired;
-        double fr, fe, fs, maxEdgeLen, deviation;
-        int[] sortedSimplexIndexes;
-        RealVector xc, xr, xe, xs;
+        n = x.getDimension();
+        boolean shrinkRequired, reduced, stopped;
+        double fr, fe, fs, size, deviation;
+        IterationState state = new IterationState();
+        double[][] edges = new double[n][n];
+        VectorWorkspace ws = new VectorWorkspace(n, 7);
+        double[] xc = ws.buffer(0), xr = ws.buffer(1), xe = ws.buffer(2), xs = ws.buffer(3),
+                xh = ws.buffer(4), sum = ws.buffer(5), edgeNorms = ws.buffer(6), t;
+        double[] packed = batch != null ? new double[n * (n + 1)] : null,
+                packedValues = batch != null ? new double[n + 1] : null;
         // формируем симплекс: задаем начальную точку,
         // остальные n вершин вычисляем:
-        var simplexVectors = createSimplex(x0, c.edgeLen, n);
+        var simplexVectors = createSimplex(x.toArray(), c.edgeLen, n);
         // находим значаение функции в каждой вершине симплекса
-        var fValues = getFuncValues(objectiveFunc, simplexVectors);
+        var fValues = new double[n + 1];
+        evaluateVertices(objectiveFunc, batch, simplexVectors, fValues, -1, packed, packedValues);
+        // сумма вершин обновляется при замене одной вершины и пересчитывается целиком
+        // только после редукции и восстановления симплекса
+        sumOf(simplexVectors, sum);
+        VertexHeap order = new VertexHeap(fValues);
+        li = indexOfMin(fValues);
 
         do {
             shrinkRequired = false;
-            // сортируем точки:
-            // выбираем наихудшую по значению, следующую после нее и наилучшую
-            sortedSimplexIndexes = getSortedDotsIndexes(fValues);
-            li = sortedSimplexIndexes[0];
-            gi = sortedSimplexIndexes[1];
-            hi = sortedSimplexIndexes[2];
-
-            // находим центр масс
-            xc = getCenterOfMass(simplexVectors, hi);
+            reduced = false;
+            long phaseStart = stats.start();
+            // выбираем наихудшую точку и следующую после нее, наилучшая известна
+            hi = order.worst();
+            gi = order.secondWorst();
+            System.arraycopy(simplexVectors[hi], 0, xh, 0, n);
+
+            // находим центр масс всех вершин, кроме наихудшей
+            for (int j = 0; j < n; j++) {
+                xc[j] = (sum[j] - xh[j]) / n;
+            }
+            stats.stop(Phase.DIRECTION, phaseStart);
             // отражение
-            xr = xc.add(xc.subtract(simplexVectors[hi]).mapMultiply(c.alpha));
-            fr = objectiveFunc.apply(xr);
+            for (int j = 0; j < n; j++) {
+                xr[j] = xc[j] + c.alpha * (xc[j] - simplexVectors[hi][j]);
+            }
+            fr = objectiveFunc.value(xr);
 
             if (fr < fValues[li]) {
                 // расширение
-                xe = xc.subtract(xc.subtract(xr).mapMultiply(c.gamma));
-                fe = objectiveFunc.apply(xe);
+                for (int j = 0; j < n; j++) {
+                    xe[j] = xc[j] - c.gamma * (xc[j] - xr[j]);
+                }
+                fe = objectiveFunc.value(xe);
 
                 if (fe < fValues[li]) {
+                    t = simplexVectors[hi];
                     simplexVectors[hi] = xe;
+                    xe = t;
                     fValues[hi] = fe;
                 } else {
+                    t = simplexVectors[hi];
                     simplexVectors[hi] = xr;
+                    xr = t;
                     fValues[hi] = fr;
                 }
             }
             if (fValues[li] < fr && fr < fValues[gi]) {
+                t = simplexVectors[hi];
                 simplexVectors[hi] = xr;
+                xr = t;
                 fValues[hi] = fr;
             }
             if (fValues[gi] < fr && fr < fValues[hi]) {
                 // меняем местами xr и xh, fr и fh
-                simplexVectors[hi] = swap(xr, xr = simplexVectors[hi]);
+                t = simplexVectors[hi];
+                simplexVectors[hi] = xr;
+                xr = t;
                 fValues[hi] = swap(fr, fr = fValues[hi]);
                 shrinkRequired = true;
             }
@@ -67,133 +112,208 @@ public class NelderMeadMethod {
 
             if (shrinkRequired) {
                 // сжатие
-                xs = xc
-                        .add(simplexVectors[hi].subtract(xc)
-                                .mapMultiply(c.beta));
-                fs = objectiveFunc.apply(xs);
+                for (int j = 0; j < n; j++) {
+                    xs[j] = xc[j] + c.beta * (simplexVectors[hi][j] - xc[j]);
+                }
+                fs = objectiveFunc.value(xs);
 
                 if (fs < fValues[hi]) {
+                    t = simplexVectors[hi];
                     simplexVectors[hi] = xs;
+                    xs = t;
                     fValues[hi] = fs;
                 } else {
                     for (int i = 0; i < n + 1; i++) {
                         if (i != li) {
                             // редукция
-                            simplexVectors[i] = simplexVectors[li]
-                                    .add(simplexVectors[i].subtract(simplexVectors[li])
-                                            .mapMultiply(c.mu));
-                            fValues[i] = objectiveFunc.apply(simplexVectors[i]);
+                            for (int j = 0; j < n; j++) {
+                                simplexVectors[i][j] = simplexVectors[li][j]
+                                        + c.mu * (simplexVectors[i][j] - simplexVectors[li][j]);
+                            }
                         }
                     }
+                    evaluateVertices(objectiveFunc, batch, simplexVectors, fValues, li, packed, packedValues);
+                    reduced = true;
                 }
             }
 
             // восстановление симплекса
             if (k > 0 && k % c.repairStep == 0) {
-                double minAngle = findMinAngleBetweenAdjacentEdges(simplexVectors);
-                if (minAngle < c.psi) {
+                if (minEdgeSine(simplexVectors, li, edges, edgeNorms) < c.psi) {
                     simplexVectors = createSimplex(
                             simplexVectors[li],
-                            simplexVectors[li].getDistance(simplexVectors[gi]),
+                            distance(simplexVectors[li], simplexVectors[gi]),
                             n
                     );
-                    for (int i = 0; i < n + 1; i++) {
-                        fValues[i] = objectiveFunc.apply(simplexVectors[i]);
-                    }
+                    evaluateVertices(objectiveFunc, batch, simplexVectors, fValues, -1, packed, packedValues);
+                    reduced = true;
+                }
+            }
+
+            if (reduced) {
+                sumOf(simplexVectors, sum);
+                order.rebuild();
+                li = indexOfMin(fValues);
+            } else {
+                // изменилась только вершина hi
+                for (int j = 0; j < n; j++) {
+                    sum[j] += simplexVectors[hi][j] - xh[j];
+                }
+                order.update(hi);
+                if (hi == li) {
+                    li = indexOfMin(fValues);
+                } else if (fValues[hi] < fValues[li]) {
+                    li = hi;
                 }
             }
 
             k++;
-            maxEdgeLen = getMaxEdgeLen(simplexVectors);
+            // размер симплекса - наибольшее расстояние от наилучшей вершины
+            size = maxDistanceFrom(simplexVectors, li);
             // в качестве условия окончания будем
             // проверять среднеквадратичное отклонение всех точек кроме наилучшей
             // на достижение предельного значения
             deviation = standardDeviationOf(fValues, li);
-        } while (k < c.maxIterationsCount && maxEdgeLen > c.sigma && deviation > c.eps);
-
-        System.out.println("[info] \t\t-> Число итераций: " + k);
-        return simplexVectors[li];
+            stopped = !c.listener.onIteration(
+                    state.update(k, simplexVectors[li], fValues[li], Double.NaN, size, Double.NaN));
+        } while (!stopped && k < c.maxIterationsCount && size > c.sigma && deviation > c.eps);
+
+        stats.iterations(k);
+        stats.cache(objectiveFunc);
+        Metrics.publish(NelderMeadMethod.class.getSimpleName(), stats);
+        return new ArrayRealVector(simplexVectors[li]);
     }
 
-    private static int[] getSortedDotsIndexes(double[] fValues) {
-        int hi = 0, li = 1, gi = 2;
+    static void sumOf(double[][] vectors, double[] sum) {
+        Arrays.fill(sum, 0.0);
 
+        for (double[] v : vectors) {
+            axpy(1.0, v, sum);
+        }
+    }
 
-        for (int i = 0; i < fValues.length; i++) {
-            if (fValues[i] > fValues[hi]) {
-                gi = hi;
-                hi = i;
-            }
+    static int indexOfMin(double[] values) {
+        int li = 0;
 
-            if (fValues[i] < fValues[li]) {
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] < values[li]) {
                 li = i;
             }
         }
 
-        return new int[]{li, gi, hi};
+        return li;
     }
 
-    private static RealVector getCenterOfMass(RealVector[] vectors, int skipIndex) {
-        int n = vectors.length;
-        RealVector xc = new ArrayRealVector(vectors[0].getDimension(), 0.0);
+    static double maxDistanceFrom(double[][] vectors, int center) {
+        double dist, maxDist = 0.0;
 
-        for (int i = 0; i < n; i++) {
-            if (i != skipIndex)
-                xc = xc.add(vectors[i]);
+        for (int i = 0; i < vectors.length; i++) {
+            if (i != center) {
+                dist = distance(vectors[i], vectors[center]);
+                if (dist > maxDist) {
+                    maxDist = dist;
+                }
+            }
         }
 
-        return xc.mapMultiply(1.0 / (n - 1));
+        return maxDist;
     }
 
-    private static double getMaxEdgeLen(RealVector[] vectors) {
-        double dist, maxEdgeLen = 0.0;
-
-        for (int i = 0; i < vectors.length; i++) {
-            for (int j = i + 1; j < vectors.length; j++) {
-                dist = vectors[i].getDistance(vectors[j]);
-                if (dist > maxEdgeLen) {
-                    maxEdgeLen = dist;
+    /**
+     * Вычисляет значения во всех вершинах, кроме skip. Если batch не null, вершины
+     * укладываются подряд в packed (n * (n + 1)) и вычисляются одним вызовом.
+     */
+    static void evaluateVertices(
+            VectorObjective func,
+            BatchObjective batch,
+            double[][] vectors,
+            double[] values,
+            int skip,
+            double[] packed,
+            double[] packedValues
+    ) {
+        if (batch == null) {
+            for (int i = 0; i < vectors.length; i++) {
+                if (i != skip) {
+                    values[i] = func.value(vectors[i]);
                 }
             }
+            return;
         }
 
-        return maxEdgeLen;
+        int n = vectors[0].length, count = 0;
+        for (int i = 0; i < vectors.length; i++) {
+            if (i != skip) {
+                System.arraycopy(vectors[i], 0, packed, count++ * n, n);
+            }
+        }
+        batch.values(packed, n, count, packedValues);
+        count = 0;
+        for (int i = 0; i < vectors.length; i++) {
+            if (i != skip) {
+                values[i] = packedValues[count++];
+            }
+        }
     }
 
-    private static double[] getFuncValues(Function<RealVector, Double> func, RealVector[] vectors) {
-        var funcValues = new double[vectors.length];
+    /**
+     * Мера вырожденности симплекса по QR-разложению матрицы ребер, выходящих из наилучшей вершины.
+     * <p>
+     * |r_jj| / |e_j| - синус угла между j-м ребром и линейной оболочкой предыдущих ребер,
+     * возвращается наименьший из них: близкое к нулю значение означает, что вершины почти
+     * лежат в одной гиперплоскости. Разложение отражениями Хаусхолдера выполняется на месте
+     * в edges (n x n, ребра хранятся по строкам) за O(n^3) операций без выделения памяти.
+     */
+    static double minEdgeSine(double[][] vectors, int best, double[][] edges, double[] edgeNorms) {
+        int n = edges.length, e = 0;
 
         for (int i = 0; i < vectors.length; i++) {
-            funcValues[i] = func.apply(vectors[i]);
+            if (i != best) {
+                for (int j = 0; j < n; j++) {
+                    edges[e][j] = vectors[i][j] - vectors[best][j];
+                }
+                edgeNorms[e] = norm(edges[e]);
+                e++;
+            }
         }
 
-        return funcValues;
-    }
-
-    private static double findMinAngleBetweenAdjacentEdges(RealVector[] vectors) {
-        int n = vectors.length;
-        double minAngle = Double.MAX_VALUE, angle;
-
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < n; j++) {
-                for (int k = 0; k < n; k++) {
-                    if (i != j && j != k && k != i) {
-                        angle = acos(
-                                vectors[j].subtract(vectors[k]).dotProduct(vectors[j].subtract(vectors[k]))
-                                        / (vectors[i].getDistance(vectors[k]) * vectors[j].getDistance(vectors[k]))
-                        );
-                        if (angle < minAngle) {
-                            minAngle = angle;
-                        }
-                    }
+        double minSine = 1.0;
+        for (int col = 0; col < n; col++) {
+            double[] a = edges[col];
+            double tailNorm = 0.0;
+            for (int j = col; j < n; j++) {
+                tailNorm += a[j] * a[j];
+            }
+            tailNorm = sqrt(tailNorm);
+            if (edgeNorms[col] == 0.0 || tailNorm == 0.0) {
+                return 0.0;
+            }
+            minSine = min(minSine, tailNorm / edgeNorms[col]);
+
+            // отражение переводит хвост столбца в (r_jj, 0, ..., 0), вектор v хранится на месте хвоста
+            double rjj = a[col] > 0 ? -tailNorm : tailNorm;
+            a[col] -= rjj;
+            double vv = 0.0;
+            for (int j = col; j < n; j++) {
+                vv += a[j] * a[j];
+            }
+            for (int other = col + 1; other < n; other++) {
+                double[] b = edges[other];
+                double vb = 0.0;
+                for (int j = col; j < n; j++) {
+                    vb += a[j] * b[j];
+                }
+                double f = 2.0 * vb / vv;
+                for (int j = col; j < n; j++) {
+                    b[j] -= f * a[j];
                 }
             }
         }
 
-        return minAngle;
+        return minSine;
     }
 
-    private static double standardDeviationOf(double[] values, int skipIndex) {
+    static double standardDeviationOf(double[] values, int skipIndex) {
         int n = values.length;
         double sumOfSquares = 0.0;
         double fl = values[skipIndex];
@@ -207,18 +327,17 @@ public class NelderMeadMethod {
         return sqrt(sumOfSquares / (n + 1));
     }
 
-    private static RealVector[] createSimplex(RealVector x0, double edgeLen, int dim) {
+    static double[][] createSimplex(double[] x0, double edgeLen, int dim) {
         double l1 = edgeLen / (dim * sqrt(2.0)) * (sqrt(dim + 1) + dim - 1.0);
         double l2 = edgeLen / (dim * sqrt(2.0)) * (sqrt(dim + 1) - 1.0);
-        var vectors = new RealVector[dim + 1];
-        RealVector lVec;
-        vectors[0] = x0;
+        var vectors = new double[dim + 1][];
+        vectors[0] = Arrays.copyOf(x0, dim);
 
         for (int i = 1; i < dim + 1; i++) {
-            lVec = new ArrayRealVector(dim, l2);
-            lVec.setEntry(i - 1, l1);
-
-            vectors[i] = x0.add(lVec);
+            vectors[i] = new double[dim];
+            for (int j = 0; j < dim; j++) {
+                vectors[i][j] = x0[j] + (j == i - 1 ? l1 : l2);
+            }
         }
 
         return vectors;
@@ -0,0 +1,313 @@
+package ru.bmstu.iu9.optimization.nm;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.trace.IterationState;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Function;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.distance;
+
+/**
+ * Параллельный вариант метода Нелдера - Мида (Lee, Wiswall): на каждой итерации p наихудших
+ * вершин независимо отражаются относительно центра масс остальных n + 1 - p вершин, каждая
+ * в своем потоке. Если ни одну из них улучшить не удалось, симплекс сжимается к наилучшей
+ * вершине, а значения в новых вершинах вычисляются параллельно.
+ * <p>
+ * Число p задается {@link NelderMeadConf#parallelism} и не превышает n - 1: при p = n центр масс
+ * совпадает с наилучшей вершиной, отражение принимается, только если оно лучше нее, и симплекс
+ * стягивается к наилучшей вершине вне минимума (функция Розенброка из (-1.2, 1) останавливается
+ * в (-0.74, 0.56)).
+ * При p = 1 вычисления выполняются в вызывающем потоке. Если функция реализует
+ * {@link BatchObjective}, вершины после сжатия вычисляются одной партией вместо распределения по потокам.
+ */
+public class ParallelNelderMeadMethod {
+
+    public static RealVector optimize(Function<RealVector, Double> objectiveFunc, RealVector x, NelderMeadConf c) {
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), x, c);
+    }
+
+    public static RealVector optimizePrimitive(VectorObjective objective, RealVector x, NelderMeadConf c) {
+        ForkJoinPool pool = new ForkJoinPool(workersCount(x.getDimension(), c));
+        try {
+            return optimizePrimitive(objective, x, c, pool);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * @param pool пул, в котором выполняются шаги потоков; не закрывается методом
+     */
+    public static RealVector optimizePrimitive(VectorObjective objective, RealVector x, NelderMeadConf c, ForkJoinPool pool) {
+        SolverStats stats = Metrics.newStats();
+        int n = x.getDimension(), p = workersCount(n, c), k = 0, li;
+        boolean stopped;
+        double size, deviation;
+        IterationState state = new IterationState();
+        double[][] edges = new double[n][n];
+        VectorWorkspace ws = new VectorWorkspace(n, 2);
+        double[] xc = ws.buffer(0), edgeNorms = ws.buffer(1), sum = new double[n];
+        BatchObjective batch = objective instanceof BatchObjective ? stats.batch((BatchObjective) objective) : null;
+        double[] packed = batch != null ? new double[n * (n + 1)] : null,
+                packedValues = batch != null ? new double[n + 1] : null;
+        // кэш значений не потокобезопасен, поэтому у каждого потока свой кэш; своя статистика
+        // нужна, чтобы учесть попадания в кэш потока, в конце она добавляется к общей
+        Worker[] workers = new Worker[p];
+        for (int w = 0; w < p; w++) {
+            workers[w] = new Worker(objective, n, c, stats.isEnabled());
+        }
+
+        double[][] simplexVectors = NelderMeadMethod.createSimplex(x.toArray(), c.edgeLen, n);
+        double[] fValues = new double[n + 1];
+        int[] order = new int[n + 1];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        if (batch != null) {
+            NelderMeadMethod.evaluateVertices(null, batch, simplexVectors, fValues, -1, packed, packedValues);
+        } else {
+            evaluateVertices(pool, workers, simplexVectors, fValues, -1);
+        }
+        NelderMeadMethod.sumOf(simplexVectors, sum);
+        sortByValue(order, fValues);
+
+        do {
+            double[][] simplex = simplexVectors;
+            long phaseStart = stats.start();
+            li = order[0];
+            // центр масс вершин, остающихся на месте
+            System.arraycopy(sum, 0, xc, 0, n);
+            for (int w = 0; w < p; w++) {
+                double[] xh = simplex[order[n + 1 - p + w]];
+                for (int j = 0; j < n; j++) {
+                    xc[j] -= xh[j];
+                }
+            }
+            for (int j = 0; j < n; j++) {
+                xc[j] /= n + 1 - p;
+            }
+            stats.stop(Phase.DIRECTION, phaseStart);
+
+            double fBest = fValues[li], fKept = fValues[order[n - p]];
+            if (p == 1) {
+                workers[0].improve(simplex[order[n]], fValues[order[n]], xc, fBest, fKept);
+            } else {
+                ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[p];
+                for (int w = 0; w < p; w++) {
+                    Worker worker = workers[w];
+                    int vertex = order[n + 1 - p + w];
+                    tasks[w] = pool.submit(() -> worker.improve(simplex[vertex], fValues[vertex], xc, fBest, fKept));
+                }
+                join(tasks);
+            }
+
+            boolean improved = false;
+            for (int w = 0; w < p; w++) {
+                Worker worker = workers[w];
+                if (worker.accepted != null) {
+                    int vertex = order[n + 1 - p + w];
+                    double[] xNew = worker.accepted;
+                    for (int j = 0; j < n; j++) {
+                        sum[j] += xNew[j] - simplex[vertex][j];
+                    }
+                    simplex[vertex] = worker.swapAccepted(simplex[vertex]);
+                    fValues[vertex] = worker.acceptedValue;
+                    improved = true;
+                }
+            }
+
+            if (!improved) {
+                // редукция к наилучшей вершине
+                for (int i = 0; i < n + 1; i++) {
+                    if (i != li) {
+                        for (int j = 0; j < n; j++) {
+                            simplex[i][j] = simplex[li][j] + c.mu * (simplex[i][j] - simplex[li][j]);
+                        }
+                    }
+                }
+                if (batch != null) {
+                    NelderMeadMethod.evaluateVertices(null, batch, simplex, fValues, li, packed, packedValues);
+                } else {
+                    evaluateVertices(pool, workers, simplex, fValues, li);
+                }
+                NelderMeadMethod.sumOf(simplex, sum);
+            }
+            sortByValue(order, fValues);
+            li = order[0];
+
+            // восстановление симплекса
+            if (k > 0 && k % c.repairStep == 0
+                    && NelderMeadMethod.minEdgeSine(simplex, li, edges, edgeNorms) < c.psi) {
+                simplexVectors = NelderMeadMethod.createSimplex(simplex[li], distance(simplex[li], simplex[order[n - 1]]), n);
+                if (batch != null) {
+                    NelderMeadMethod.evaluateVertices(null, batch, simplexVectors, fValues, -1, packed, packedValues);
+                } else {
+                    evaluateVertices(pool, workers, simplexVectors, fValues, -1);
+                }
+                NelderMeadMethod.sumOf(simplexVectors, sum);
+                sortByValue(order, fValues);
+                li = order[0];
+            }
+
+            k++;
+            size = NelderMeadMethod.maxDistanceFrom(simplexVectors, li);
+            deviation = NelderMeadMethod.standardDeviationOf(fValues, li);
+            stopped = !c.listener.onIteration(
+                    state.update(k, simplexVectors[li], fValues[li], Double.NaN, size, Double.NaN));
+        } while (!stopped && k < c.maxIterationsCount && size > c.sigma && deviation > c.eps);
+
+        for (Worker worker : workers) {
+            worker.stats.cache(worker.objectiveFunc);
+            stats.add(worker.stats);
+        }
+        stats.iterations(k);
+        Metrics.publish(ParallelNelderMeadMethod.class.getSimpleName(), stats);
+        return new ArrayRealVector(simplexVectors[li]);
+    }
+
+    private static int workersCount(int n, NelderMeadConf c) {
+        return max(1, min(c.parallelism, n - 1));
+    }
+
+    /**
+     * Вычисляет значения во всех вершинах, кроме skip; вершины распределяются между потоками по кругу.
+     */
+    private static void evaluateVertices(ForkJoinPool pool, Worker[] workers, double[][] simplex, double[] fValues, int skip) {
+        int p = workers.length;
+        if (p == 1) {
+            workers[0].evaluate(simplex, fValues, skip, 0, 1);
+            return;
+        }
+
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[p];
+        for (int w = 0; w < p; w++) {
+            Worker worker = workers[w];
+            int first = w;
+            tasks[w] = pool.submit(() -> worker.evaluate(simplex, fValues, skip, first, p));
+        }
+        join(tasks);
+    }
+
+    private static void join(ForkJoinTask<?>[] tasks) {
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
+        }
+    }
+
+    /**
+     * Сортировка индексов вставками по возрастанию значения: между итерациями порядок меняется
+     * лишь у нескольких вершин, поэтому обычно требуется O(n) сравнений.
+     */
+    private static void sortByValue(int[] order, double[] values) {
+        for (int i = 1; i < order.length; i++) {
+            int idx = order[i], j = i - 1;
+            while (j >= 0 && values[order[j]] > values[idx]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = idx;
+        }
+    }
+
+    /**
+     * Шаг одного потока. Поток пишет только в собственные буферы; вершины симплекса
+     * заменяет вызывающий поток после завершения всех шагов.
+     */
+    private static final class Worker {
+
+        private final SolverStats stats;
+        private final VectorObjective objectiveFunc;
+        private final NelderMeadConf c;
+        private double[] xr, xe, xs;
+        private double[] accepted;
+        private double acceptedValue;
+
+        Worker(VectorObjective objective, int n, NelderMeadConf c, boolean statsEnabled) {
+            this.stats = statsEnabled ? SolverStats.enabled() : SolverStats.disabled();
+            this.objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(objective), c.cacheCapacity);
+            this.c = c;
+            this.xr = new double[n];
+            this.xe = new double[n];
+            this.xs = new double[n];
+        }
+
+        /**
+         * Отражение, растяжение или сжатие вершины xh; при успехе новая вершина
+         * остается в accepted, иначе accepted равен null.
+         */
+        void improve(double[] xh, double fh, double[] xc, double fBest, double fKept) {
+            int n = xh.length;
+            accepted = null;
+
+            // отражение
+            for (int j = 0; j < n; j++) {
+                xr[j] = xc[j] + c.alpha * (xc[j] - xh[j]);
+            }
+            double fr = objectiveFunc.value(xr);
+
+            if (fr < fBest) {
+                // растяжение
+                for (int j = 0; j < n; j++) {
+                    xe[j] = xc[j] - c.gamma * (xc[j] - xr[j]);
+                }
+                double fe = objectiveFunc.value(xe);
+                accept(fe < fr ? xe : xr, min(fe, fr));
+            } else if (fr < fKept) {
+                accept(xr, fr);
+            } else {
+                // сжатие: внешнее, если отражение лучше xh, иначе внутреннее
+                double[] from = fr < fh ? xr : xh;
+                for (int j = 0; j < n; j++) {
+                    xs[j] = xc[j] + c.beta * (from[j] - xc[j]);
+                }
+                double fs = objectiveFunc.value(xs);
+                if (fs < min(fr, fh)) {
+                    accept(xs, fs);
+                }
+            }
+        }
+
+        void evaluate(double[][] simplex, double[] fValues, int skip, int first, int stride) {
+            for (int i = first; i < simplex.length; i += stride) {
+                if (i != skip) {
+                    fValues[i] = objectiveFunc.value(simplex[i]);
+                }
+            }
+        }
+
+        /**
+         * Отдает буфер принятой вершины и забирает вместо него буфер замененной.
+         */
+        double[] swapAccepted(double[] replaced) {
+            double[] result = accepted;
+            if (accepted == xr) {
+                xr = replaced;
+            } else if (accepted == xe) {
+                xe = replaced;
+            } else {
+                xs = replaced;
+            }
+            accepted = null;
+            return result;
+        }
+
+        private void accept(double[] x, double value) {
+            accepted = x;
+            acceptedValue = value;
+        }
+
+    }
+
+}
@@ -0,0 +1,85 @@
+package ru.bmstu.iu9.optimization.nm;
+
+/**
+ * Двоичная куча индексов вершин симплекса, упорядоченная по убыванию значения функции:
+ * наихудшая вершина лежит в корне, следующая за ней - среди потомков корня.
+ * <p>
+ * Массив значений не копируется: после изменения значения одной вершины
+ * достаточно вызвать {@link #update(int)}, после изменения всех - {@link #rebuild()}.
+ */
+final class VertexHeap {
+
+    private final double[] values;
+    private final int[] heap;
+    private final int[] positions;
+
+    VertexHeap(double[] values) {
+        this.values = values;
+        this.heap = new int[values.length];
+        this.positions = new int[values.length];
+        rebuild();
+    }
+
+    void rebuild() {
+        for (int i = 0; i < heap.length; i++) {
+            heap[i] = i;
+            positions[i] = i;
+        }
+        for (int p = heap.length / 2 - 1; p >= 0; p--) {
+            siftDown(p);
+        }
+    }
+
+    int worst() {
+        return heap[0];
+    }
+
+    int secondWorst() {
+        if (heap.length < 3 || values[heap[1]] >= values[heap[2]]) {
+            return heap[1];
+        }
+        return heap[2];
+    }
+
+    void update(int vertex) {
+        siftUp(positions[vertex]);
+        siftDown(positions[vertex]);
+    }
+
+    private void siftUp(int p) {
+        while (p > 0) {
+            int parent = (p - 1) / 2;
+            if (values[heap[parent]] >= values[heap[p]]) {
+                return;
+            }
+            swap(p, parent);
+            p = parent;
+        }
+    }
+
+    private void siftDown(int p) {
+        for (; ; ) {
+            int largest = p, left = 2 * p + 1, right = left + 1;
+            if (left < heap.length && values[heap[left]] > values[heap[largest]]) {
+                largest = left;
+            }
+            if (right < heap.length && values[heap[right]] > values[heap[largest]]) {
+                largest = right;
+            }
+            if (largest == p) {
+                return;
+            }
+            swap(p, largest);
+            p = largest;
+        }
+    }
+
+    private void swap(int i, int j) {
+        int t = heap[i];
+        heap[i] = heap[j];
+        heap[j] = t;
+        positions[heap[i]] = i;
+        positions[heap[j]] = j;
+    }
+
+}
@@ -0,0 +1,19 @@
+package ru.bmstu.iu9.optimization.onedim;
+
+import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.onedim.conf.BrentMethodConf;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Метод Брента, см. {@link BrentSearch}.
+ */
+public class BrentMethod implements OneDimOptimizationMethod {
+
+    @Override
+    public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x0, OptimizationConfig conf) {
+        BrentMethodConf c = (BrentMethodConf) conf;
+        return BrentSearch.brentMethodPrimitive(objectiveFunc, c.start, c.end, c.eps, c.maxIterations);
+    }
+
+}
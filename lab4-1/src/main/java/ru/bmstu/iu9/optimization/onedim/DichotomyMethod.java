@@ -3,30 +3,45 @@ package ru.bmstu.iu9.optimization.onedim;
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
 import ru.bmstu.iu9.optimization.onedim.conf.DichotomyMethodConf;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 
 public class DichotomyMethod implements OneDimOptimizationMethod {
 
     @Override
-    public double optimize(Function<Double, Double> objectiveFunc, double x, OptimizationConfig conf) {
+    public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig conf) {
         DichotomyMethodConf c = (DichotomyMethodConf) conf;
         double a = c.start, b = c.end,
                 xMiddle = (a + b) / 2.0,
                 l = abs(b - a),
-                y, z;
+                y, z, fy, fz, fMiddle;
+        int evaluations = 0;
+
+        if (l <= c.eps) {
+            return new LineSearchResult(xMiddle, evaluations);
+        }
+
+        fMiddle = objectiveFunc.applyAsDouble(xMiddle);
+        evaluations++;
+
         while(l > c.eps) {
             y = a + l / 4.0;
             z = b - l / 4.0;
+            fy = objectiveFunc.applyAsDouble(y);
+            evaluations++;
 
-            if(objectiveFunc.apply(y) < objectiveFunc.apply(xMiddle)) {
+            if(fy < fMiddle) {
                 b = xMiddle;
                 xMiddle = y;
+                fMiddle = fy;
             } else {
-                if(objectiveFunc.apply(z) < objectiveFunc.apply(xMiddle)) {
+                fz = objectiveFunc.applyAsDouble(z);
+                evaluations++;
+                if(fz < fMiddle) {
                     a = xMiddle;
                     xMiddle = z;
+                    fMiddle = fz;
                 } else {
                     a = y;
                     b = z;
@@ -36,6 +51,6 @@ public class DichotomyMethod implements OneDimOptimizationMethod {
             l = abs(b - a);
         }
 
-        return (a + b) / 2.0;
+        return new LineSearchResult((a + b) / 2.0, evaluations);
     }
 }
@@ -3,68 +3,90 @@ package ru.bmstu.iu9.optimization.onedim;
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
 import ru.bmstu.iu9.optimization.onedim.conf.FibonacciMethodConf;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 
 public class FibonacciMethod implements OneDimOptimizationMethod {
 
     @Override
-    public double optimize(Function<Double, Double> objectiveFunc, double x, OptimizationConfig conf) {
+    public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig conf) {
         FibonacciMethodConf c = (FibonacciMethodConf) conf;
         double a0 = c.start, b0 = c.end;
-        List<Double> fibonacciList = findFibonacciNumbers(a0, b0, c.eps);
-        int n = fibonacciList.size(), k = 0;
+        double[] fibonacci = findFibonacciNumbers(a0, b0, c.eps);
+        int n = fibonacci.length, k = 0;
 
         if(n <= 3) {
-            return (a0 + b0) / 2.0;
+            return new LineSearchResult((a0 + b0) / 2.0, 0);
         }
 
         double a = a0, b = b0,
-                y = a0 + fibonacciList.get(n - 3) / fibonacciList.get(n - 1) * (b0 - a0),
-                z = a0 + fibonacciList.get(n - 2) / fibonacciList.get(n - 1) * (b0 - a0);
+                y = a0 + fibonacci[n - 3] / fibonacci[n - 1] * (b0 - a0),
+                z = a0 + fibonacci[n - 2] / fibonacci[n - 1] * (b0 - a0),
+                fa = objectiveFunc.applyAsDouble(a),
+                fb = objectiveFunc.applyAsDouble(b),
+                fy = objectiveFunc.applyAsDouble(y),
+                fz = objectiveFunc.applyAsDouble(z);
+        int evaluations = 4;
+        boolean shrinkRight;
 
-        while(abs(b - a) > c.sigma || abs(objectiveFunc.apply(b) - objectiveFunc.apply(a)) > c.eps) {
-            if(objectiveFunc.apply(y) <= objectiveFunc.apply(z)) {
+        // значения в границах и внутренних точках переносятся между итерациями,
+        // на каждой итерации вычисляется только одна новая точка
+        while(abs(b - a) > c.sigma || abs(fb - fa) > c.eps) {
+            shrinkRight = fy <= fz;
+            if(shrinkRight) {
                 b = z;
+                fb = fz;
                 z = y;
-                y = a + fibonacciList.get(n - k - 3) / fibonacciList.get(n - k - 1) * (b - a);
+                fz = fy;
             } else {
                 a = y;
+                fa = fy;
                 y = z;
-                z = a + fibonacciList.get(n - k -2) / fibonacciList.get(n - k - 1) * (b - a);
+                fy = fz;
             }
 
             if(k == n - 3) {
                 y = (a + b) / 2.0;
                 z = y + c.eps;
-                if(objectiveFunc.apply(y) <= objectiveFunc.apply(z)) {
+                if(objectiveFunc.applyAsDouble(y) <= objectiveFunc.applyAsDouble(z)) {
                     b = z;
                 } else {
                     a = y;
                 }
+                evaluations += 2;
                 break;
+            }
+
+            if(shrinkRight) {
+                y = a + fibonacci[n - k - 3] / fibonacci[n - k - 1] * (b - a);
+                fy = objectiveFunc.applyAsDouble(y);
             } else {
-                k++;
+                z = a + fibonacci[n - k - 2] / fibonacci[n - k - 1] * (b - a);
+                fz = objectiveFunc.applyAsDouble(z);
             }
+            evaluations++;
+            k++;
         }
 
-        return (a + b) / 2.0;
+        return new LineSearchResult((a + b) / 2.0, evaluations);
     }
 
-    private static List<Double> findFibonacciNumbers(double a0, double b0, double precision) {
+    private static double[] findFibonacciNumbers(double a0, double b0, double precision) {
         double l = abs(a0 - b0), prev = 1, cur = 1, t;
-        ArrayList<Double> numbers = new ArrayList<>(Arrays.asList(prev, cur));
+        int count = 2;
 
         while(cur <  l / precision) {
             t = cur;
             cur += prev;
             prev = t;
+            count++;
+        }
 
-            numbers.add(cur);
+        double[] numbers = new double[count];
+        numbers[0] = numbers[1] = 1;
+        for (int i = 2; i < count; i++) {
+            numbers[i] = numbers[i - 1] + numbers[i - 2];
         }
 
         return numbers;
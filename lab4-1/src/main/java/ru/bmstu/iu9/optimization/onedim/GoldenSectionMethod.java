@@ -3,7 +3,7 @@ package ru.bmstu.iu9.optimization.onedim;
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
 import ru.bmstu.iu9.optimization.onedim.conf.GoldenSectionConf;
 
-import java.util.function.Function;
+import java.util.function.DoubleUnaryOperator;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.sqrt;
@@ -13,27 +13,46 @@ public class GoldenSectionMethod implements OneDimOptimizationMethod {
     private static final double CONST_GS = (3 - sqrt(5)) / 2.0;
 
     @Override
-    public double optimize(Function<Double, Double> objectiveFunc, double x, OptimizationConfig conf) {
+    public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig conf) {
         GoldenSectionConf c = (GoldenSectionConf) conf;
-        double y, z,
-                a = c.start, b = c.end,
-                delta = abs(b - a);
+        double a = c.start, b = c.end;
 
-        while(delta > c.eps) {
-            y = a + CONST_GS * (b - a);
-            z = a + b - y;
+        if (abs(b - a) <= c.eps) {
+            return new LineSearchResult((a + b) / 2.0, 0);
+        }
+
+        // на каждом шаге одна из внутренних точек переходит в новый интервал
+        // вместе со своим значением, поэтому вычисляется только одна новая точка
+        double y = a + CONST_GS * (b - a),
+                z = a + b - y,
+                fy = objectiveFunc.applyAsDouble(y),
+                fz = objectiveFunc.applyAsDouble(z);
+        int evaluations = 2;
 
-            if(objectiveFunc.apply(y) <= objectiveFunc.apply(z)) {
+        for (; ; ) {
+            if (fy <= fz) {
                 b = z;
+                if (abs(b - a) <= c.eps) {
+                    break;
+                }
+                z = y;
+                fz = fy;
+                y = a + b - z;
+                fy = objectiveFunc.applyAsDouble(y);
             } else {
                 a = y;
+                if (abs(b - a) <= c.eps) {
+                    break;
+                }
+                y = z;
+                fy = fz;
+                z = a + b - y;
+                fz = objectiveFunc.applyAsDouble(z);
             }
-
-            delta = abs(b - a);
+            evaluations++;
         }
 
-
-        return (a + b) / 2.0;
+        return new LineSearchResult((a + b) / 2.0, evaluations);
     }
 
 }
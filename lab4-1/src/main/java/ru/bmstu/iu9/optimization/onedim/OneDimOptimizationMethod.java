@@ -1,9 +1,21 @@
 package ru.bmstu.iu9.optimization.onedim;
 
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.objective.ScalarObjective;
 
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 public interface OneDimOptimizationMethod {
-    double optimize(Function<Double, Double> objectiveFunc, double x, OptimizationConfig c);
+
+    LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig c);
+
+    default double optimizePrimitive(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig c) {
+        return search(objectiveFunc, x, c).getX();
+    }
+
+    default double optimize(Function<Double, Double> objectiveFunc, double x, OptimizationConfig c) {
+        return optimizePrimitive(ScalarObjective.of(objectiveFunc), x, c);
+    }
+
 }
@@ -0,0 +1,7 @@
+package ru.bmstu.iu9.optimization.onedim.conf;
+
+public class BrentMethodConf extends BaseOneDimConfiguration {
+
+    public int maxIterations;
+
+}
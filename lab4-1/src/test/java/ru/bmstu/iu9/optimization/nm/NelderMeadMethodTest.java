@@ -0,0 +1,49 @@
+package ru.bmstu.iu9.optimization.nm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class NelderMeadMethodTest {
+
+    @Test
+    public void testMinEdgeSineOfRegularTriangle() {
+        double[][] vertices = {{0.0, 0.0}, {1.0, 0.0}, {0.5, Math.sqrt(3.0) / 2.0}};
+
+        // угол между ребрами из любой вершины равен 60 градусам
+        for (int best = 0; best < vertices.length; best++) {
+            assertEquals(Math.sin(Math.PI / 3.0), minEdgeSine(vertices, best), 1e-12);
+        }
+    }
+
+    @Test
+    public void testMinEdgeSineOfNearlyCollinearTriangle() {
+        double[][] vertices = {{0.0, 0.0}, {1.0, 0.0}, {1.0, 5e-7}};
+
+        assertEquals(5e-7, minEdgeSine(vertices, 0), 1e-12);
+    }
+
+    @Test
+    public void testMinEdgeSineOfDegenerateSimplex() {
+        double[][] vertices = {{0.0, 0.0, 0.0}, {1.0, 0.0, 0.0}, {0.0, 1.0, 0.0}, {1.0, 1.0, 0.0}};
+
+        assertEquals(0.0, minEdgeSine(vertices, 0), 1e-12);
+    }
+
+    @Test
+    public void testMinEdgeSineOfRightSimplex() {
+        int n = 5;
+        double[][] vertices = new double[n + 1][n];
+        for (int i = 0; i < n; i++) {
+            vertices[i + 1][i] = 1.0 + i;
+        }
+
+        assertEquals(1.0, minEdgeSine(vertices, 0), 1e-12);
+    }
+
+    private static double minEdgeSine(double[][] vertices, int best) {
+        int n = vertices[0].length;
+        return NelderMeadMethod.minEdgeSine(vertices, best, new double[n][n], new double[n]);
+    }
+
+}
@@ -0,0 +1,101 @@
+package ru.bmstu.iu9.optimization.nm;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ParallelNelderMeadMethodTest {
+
+    // f(x) = sum (i + 1) * (x_i - 1)^2, минимум в (1, ..., 1)
+    private static final VectorObjective QUADRATIC = x -> {
+        double s = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            s += (i + 1) * (x[i] - 1.0) * (x[i] - 1.0);
+        }
+        return s;
+    };
+
+    @Test
+    public void testReachesMinimumForEveryParallelism() {
+        int n = 4;
+        ForkJoinPool pool = new ForkJoinPool(n);
+
+        try {
+            for (int p = 1; p <= n; p++) {
+                RealVector sol = ParallelNelderMeadMethod.optimizePrimitive(QUADRATIC, new ArrayRealVector(n), config(p), pool);
+                assertAtMinimum("parallelism " + p, sol);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void testReachesRosenbrockMinimum() {
+        VectorObjective rosenbrock = x -> 100 * Math.pow(x[1] - x[0] * x[0], 2) + Math.pow(1 - x[0], 2);
+
+        // p = n = 2 ограничивается одним потоком, иначе симплекс стягивается вне минимума
+        for (int p = 1; p <= 2; p++) {
+            RealVector sol = ParallelNelderMeadMethod.optimizePrimitive(
+                    rosenbrock, new ArrayRealVector(new double[]{-1.2, 1.0}), config(p));
+
+            assertEquals(1.0, sol.getEntry(0), 1e-2);
+            assertEquals(1.0, sol.getEntry(1), 1e-2);
+        }
+    }
+
+    @Test
+    public void testShrinkUsesBatchObjective() {
+        int n = 3;
+        AtomicInteger batches = new AtomicInteger();
+
+        class Quadratic implements VectorObjective, BatchObjective {
+            public double value(double[] x) {
+                return QUADRATIC.value(x);
+            }
+
+            public void values(double[] points, int dim, int count, double[] values) {
+                batches.incrementAndGet();
+                BatchObjective.pointwise(QUADRATIC).values(points, dim, count, values);
+            }
+        }
+
+        RealVector sol = ParallelNelderMeadMethod.optimizePrimitive(new Quadratic(), new ArrayRealVector(n), config(2));
+
+        // начальный симплекс вычисляется одной партией
+        assertTrue(batches.get() > 0);
+        assertAtMinimum("batch", sol);
+    }
+
+    private static void assertAtMinimum(String message, RealVector sol) {
+        for (int i = 0; i < sol.getDimension(); i++) {
+            assertEquals(message, 1.0, sol.getEntry(i), 1e-2);
+        }
+    }
+
+    private static NelderMeadConf config(int parallelism) {
+        NelderMeadConf c = new NelderMeadConf();
+        c.edgeLen = 1.0;
+        c.alpha = 1.0;
+        c.gamma = 2.0;
+        c.beta = 0.5;
+        c.mu = 0.5;
+        c.psi = 1e-3;
+        c.sigma = 1e-6;
+        c.eps = 1e-12;
+        c.repairStep = 10;
+        c.maxIterationsCount = 5000;
+        c.cacheCapacity = 64;
+        c.parallelism = parallelism;
+        return c;
+    }
+
+}
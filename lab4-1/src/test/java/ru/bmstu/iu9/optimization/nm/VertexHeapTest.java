@@ -0,0 +1,63 @@
+package ru.bmstu.iu9.optimization.nm;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class VertexHeapTest {
+
+    @Test
+    public void testOrderAfterRandomUpdates() {
+        Random random = new Random(42);
+
+        for (int n = 2; n <= 9; n++) {
+            double[] values = new double[n];
+            for (int i = 0; i < n; i++) {
+                values[i] = random.nextDouble();
+            }
+            VertexHeap heap = new VertexHeap(values);
+            assertOrder(values, heap);
+
+            for (int k = 0; k < 200; k++) {
+                int vertex = random.nextInt(n);
+                // как в методе: вершина заменяется лучшей или худшей точкой
+                values[vertex] = random.nextDouble();
+                heap.update(vertex);
+                assertOrder(values, heap);
+            }
+
+            // сжатие симплекса меняет все вершины
+            for (int i = 0; i < n; i++) {
+                values[i] *= 0.5;
+            }
+            values[random.nextInt(n)] = 2.0;
+            heap.rebuild();
+            assertOrder(values, heap);
+        }
+    }
+
+    @Test
+    public void testEqualValues() {
+        double[] values = {1.0, 1.0, 1.0, 1.0};
+        VertexHeap heap = new VertexHeap(values);
+
+        assertEquals(1.0, values[heap.worst()], 0.0);
+        assertEquals(1.0, values[heap.secondWorst()], 0.0);
+        assertNotEquals(heap.worst(), heap.secondWorst());
+    }
+
+    private static void assertOrder(double[] values, VertexHeap heap) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int n = values.length;
+
+        assertEquals(sorted[n - 1], values[heap.worst()], 0.0);
+        assertEquals(sorted[n - 2], values[heap.secondWorst()], 0.0);
+        assertNotEquals(heap.worst(), heap.secondWorst());
+    }
+
+}
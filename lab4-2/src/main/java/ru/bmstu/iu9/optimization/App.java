@@ -1,15 +1,28 @@
 package ru.bmstu.iu9.optimization;
 
+import org.apache.commons.math3.RealFieldElement;
 import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.ad.AutoDiff;
+import ru.bmstu.iu9.optimization.ad.DifferentiableObjective;
 import ru.bmstu.iu9.optimization.conf.*;
 import ru.bmstu.iu9.optimization.conf.loader.PropertiesLoader;
 import ru.bmstu.iu9.optimization.dfpm.DavidFletcherPaulMethod;
+import ru.bmstu.iu9.optimization.diff.DifferenceScheme;
+import ru.bmstu.iu9.optimization.diff.FiniteDifferences;
 import ru.bmstu.iu9.optimization.gdm.GradientDescendMethod;
+import ru.bmstu.iu9.optimization.lbfgsm.LimitedMemoryBfgsMethod;
 import ru.bmstu.iu9.optimization.lmm.LevenbergMarquardtMethod;
+import ru.bmstu.iu9.optimization.metrics.InMemoryMetricsRegistry;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
 import ru.bmstu.iu9.optimization.ncgm.NonlinearConjugateGradientMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+import ru.bmstu.iu9.optimization.onedim.brent.BrentMethod;
 
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
 import static java.lang.Math.pow;
@@ -44,6 +57,19 @@ public class App {
         });
     };
 
+    // та же функция, записанная один раз для автоматического дифференцирования
+    private static final DifferentiableObjective AD_FUNC = new DifferentiableObjective() {
+        @Override
+        public <T extends RealFieldElement<T>> T value(T[] vec) {
+            T x = vec[0], y = vec[1];
+            return x.multiply(x).subtract(y).pow(2).multiply(50.0)
+                    .add(x.subtract(1.0).pow(2).multiply(2.0))
+                    .add(300.0);
+        }
+    };
+
+    private static final InMemoryMetricsRegistry METRICS = new InMemoryMetricsRegistry();
+
     public static void main(String[] args) {
         try {
             if (args.length == 0) {
@@ -51,18 +77,25 @@ public class App {
             }
 
             var properties = args[0];
+            Metrics.setSink(METRICS);
             long startTimeMs = 0;
             PropertiesLoader<GradientDescendConf> gdmLoader = new PropertiesLoader<>();
             PropertiesLoader<GoldenSectionConf> gsmLoader = new PropertiesLoader<>();
+            PropertiesLoader<BrentConf> brentLoader = new PropertiesLoader<>();
             PropertiesLoader<NonlinearConjugateGradientConf> ncgLoader = new PropertiesLoader<>();
             PropertiesLoader<DavidFletcherPaulConf> dfpLoader = new PropertiesLoader<>();
             PropertiesLoader<LevenbergMarquardtConf> lmmLoader = new PropertiesLoader<>();
+            PropertiesLoader<LimitedMemoryBfgsConf> lbfgsLoader = new PropertiesLoader<>();
+            PropertiesLoader<ProblemConf> problemLoader = new PropertiesLoader<>();
 
             GradientDescendConf gdmConf = gdmLoader.load(GradientDescendConf.class, properties);
             GoldenSectionConf gsmConf = gsmLoader.load(GoldenSectionConf.class, properties);
+            BrentConf brentConf = brentLoader.load(BrentConf.class, properties);
             NonlinearConjugateGradientConf ncgConf = ncgLoader.load(NonlinearConjugateGradientConf.class, properties);
             DavidFletcherPaulConf dfpConf = dfpLoader.load(DavidFletcherPaulConf.class, properties);
             LevenbergMarquardtConf llmConf = lmmLoader.load(LevenbergMarquardtConf.class, properties);
+            LimitedMemoryBfgsConf lbfgsConf = lbfgsLoader.load(LimitedMemoryBfgsConf.class, properties);
+            ProblemConf problemConf = problemLoader.load(ProblemConf.class, properties);
 
             System.out.println("[info] Метод наискорейшего спуска:");
             startTimeMs = System.currentTimeMillis();
@@ -79,10 +112,75 @@ public class App {
             sol = DavidFletcherPaulMethod.optimize(FUNC, GRAD_FUNC, dfpConf.startVector, dfpConf, gsmConf);
             printSolution(sol, startTimeMs);
 
+            System.out.println("[info] Метод наискорейшего спуска (одномерный поиск методом Брента):");
+            startTimeMs = System.currentTimeMillis();
+            sol = GradientDescendMethod.optimize(FUNC, GRAD_FUNC, gdmConf.startVector, gdmConf, new BrentMethod(), brentConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод сопряженных градиентов (одномерный поиск методом Брента):");
+            startTimeMs = System.currentTimeMillis();
+            sol = NonlinearConjugateGradientMethod.optimize(FUNC, GRAD_FUNC, ncgConf.startVector, ncgConf, new BrentMethod(), brentConf);
+            printSolution(sol, startTimeMs);
+
+            gdmConf.lineSearch = LineSearchType.STRONG_WOLFE;
+            ncgConf.lineSearch = LineSearchType.STRONG_WOLFE;
+            dfpConf.lineSearch = LineSearchType.STRONG_WOLFE;
+
+            System.out.println("[info] Метод наискорейшего спуска (шаг по условиям Вольфе):");
+            startTimeMs = System.currentTimeMillis();
+            sol = GradientDescendMethod.optimize(FUNC, GRAD_FUNC, gdmConf.startVector, gdmConf, gsmConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод сопряженных градиентов (шаг по условиям Вольфе):");
+            startTimeMs = System.currentTimeMillis();
+            sol = NonlinearConjugateGradientMethod.optimize(FUNC, GRAD_FUNC, ncgConf.startVector, ncgConf, gsmConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод Дэфида-Флетчера-Паулла (шаг по условиям Вольфе):");
+            startTimeMs = System.currentTimeMillis();
+            sol = DavidFletcherPaulMethod.optimize(FUNC, GRAD_FUNC, dfpConf.startVector, dfpConf, gsmConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод BFGS с ограниченной памятью:");
+            startTimeMs = System.currentTimeMillis();
+            sol = LimitedMemoryBfgsMethod.optimize(FUNC, GRAD_FUNC, lbfgsConf.startVector, lbfgsConf);
+            printSolution(sol, startTimeMs);
+
             startTimeMs = System.currentTimeMillis();
             System.out.println("[info] Метод Левенберга-Марквардта:");
             sol = LevenbergMarquardtMethod.optimize(FUNC, GRAD_FUNC, HESSIAN_FUNC, llmConf.startVector, llmConf);
             printSolution(sol, startTimeMs);
+
+            FiniteDifferences differences = new FiniteDifferences(
+                    DifferenceScheme.CENTRAL,
+                    ForkJoinPool.commonPool(),
+                    ForkJoinPool.getCommonPoolParallelism()
+            );
+
+            System.out.println("[info] Метод BFGS с ограниченной памятью (численный градиент):");
+            startTimeMs = System.currentTimeMillis();
+            sol = LimitedMemoryBfgsMethod.optimize(FUNC, differences.gradient(FUNC), lbfgsConf.startVector, lbfgsConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод Левенберга-Марквардта (численные градиент и матрица Гессе):");
+            startTimeMs = System.currentTimeMillis();
+            sol = LevenbergMarquardtMethod.optimize(FUNC, differences.gradient(FUNC), differences.hessian(FUNC), llmConf.startVector, llmConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод Дэфида-Флетчера-Паулла (автоматическое дифференцирование):");
+            startTimeMs = System.currentTimeMillis();
+            sol = DavidFletcherPaulMethod.optimize(AutoDiff.value(AD_FUNC), AutoDiff.gradient(AD_FUNC), dfpConf.startVector, dfpConf, gsmConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод Левенберга-Марквардта (автоматическое дифференцирование):");
+            startTimeMs = System.currentTimeMillis();
+            sol = LevenbergMarquardtMethod.optimize(FUNC, AutoDiff.gradient(AD_FUNC), AutoDiff.hessian(AD_FUNC), llmConf.startVector, llmConf);
+            printSolution(sol, startTimeMs);
+
+            System.out.println("[info] Метод BFGS с ограниченной памятью (функция из файла настроек):");
+            startTimeMs = System.currentTimeMillis();
+            sol = LimitedMemoryBfgsMethod.optimize(problemConf.objective, problemConf.gradient, lbfgsConf.startVector, lbfgsConf);
+            printSolution(sol, startTimeMs);
         } catch (Exception e) {
             e.printStackTrace();
         }
@@ -90,8 +188,27 @@ public class App {
 
     private static void printSolution(RealVector sol, long startTime) {
         System.out.printf("[info] \t\t-> Время выполенения: %dms%n", System.currentTimeMillis() - startTime);
+        printStats();
         System.out.println("[info] \t\t-> Точка экстремума: " + sol);
         System.out.println("[info] \t\t-> Значение функции: " + FUNC.apply(sol));
     }
 
+    /**
+     * Выводит статистику запуска из реестра и очищает его перед следующим запуском.
+     */
+    private static void printStats() {
+        for (List<SolverStats> runs : METRICS.snapshot().values()) {
+            for (SolverStats stats : runs) {
+                System.out.printf("[info] \t\t-> Число итераций: %d%n", stats.getIterations());
+                if (stats.getLineSearchEvaluations() > 0) {
+                    System.out.printf("[info] \t\t-> Вычислений функции при одномерном поиске: %d%n", stats.getLineSearchEvaluations());
+                }
+                if (stats.getCacheHits() + stats.getCacheMisses() > 0) {
+                    System.out.printf("[info] \t\t-> Кэш значений функции: hits=%d, misses=%d%n", stats.getCacheHits(), stats.getCacheMisses());
+                }
+            }
+        }
+        METRICS.clear();
+    }
+
 }
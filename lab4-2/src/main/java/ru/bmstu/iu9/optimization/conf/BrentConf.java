@@ -0,0 +1,8 @@
+package ru.bmstu.iu9.optimization.conf;
+
+public class BrentConf implements OptimizationConfig {
+    public double start;
+    public double end;
+    public double eps;
+    public int maxIterations;
+}
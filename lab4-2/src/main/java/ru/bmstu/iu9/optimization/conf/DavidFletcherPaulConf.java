@@ -1,6 +1,8 @@
 package ru.bmstu.iu9.optimization.conf;
 
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
 
 public class DavidFletcherPaulConf implements OptimizationConfig {
 
@@ -11,5 +13,9 @@ public class DavidFletcherPaulConf implements OptimizationConfig {
     public double sigma;
     public int maxIterations;
     public int updateGMatrixIteration;
+    public int cacheCapacity;
+    public LineSearchType lineSearch = LineSearchType.EXACT;
+    public WolfeConf wolfeConf;
+    public IterationListener listener = IterationListener.NONE;
 
 }
@@ -1,6 +1,8 @@
 package ru.bmstu.iu9.optimization.conf;
 
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
 
 public class GradientDescendConf implements OptimizationConfig {
     public double sigma;
@@ -8,4 +10,8 @@ public class GradientDescendConf implements OptimizationConfig {
     public double startAlpha;
     public int maxIterations;
     public RealVector startVector;
+    public int cacheCapacity;
+    public LineSearchType lineSearch = LineSearchType.EXACT;
+    public WolfeConf wolfeConf;
+    public IterationListener listener = IterationListener.NONE;
 }
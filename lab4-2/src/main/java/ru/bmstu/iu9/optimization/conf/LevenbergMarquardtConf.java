@@ -1,6 +1,7 @@
 package ru.bmstu.iu9.optimization.conf;
 
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
 
 public class LevenbergMarquardtConf implements OptimizationConfig {
 
@@ -10,5 +11,7 @@ public class LevenbergMarquardtConf implements OptimizationConfig {
     public double funcEps;
     public double sigma;
     public int maxIterations;
+    public int cacheCapacity;
+    public IterationListener listener = IterationListener.NONE;
 
 }
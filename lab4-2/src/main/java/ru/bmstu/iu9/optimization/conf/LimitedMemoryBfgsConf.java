@@ -0,0 +1,18 @@
+package ru.bmstu.iu9.optimization.conf;
+
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+
+public class LimitedMemoryBfgsConf implements OptimizationConfig {
+
+    public RealVector startVector;
+    public int historySize;
+    public double gradEps;
+    public double funcEps;
+    public double sigma;
+    public int maxIterations;
+    public int cacheCapacity;
+    public WolfeConf wolfeConf;
+    public IterationListener listener = IterationListener.NONE;
+
+}
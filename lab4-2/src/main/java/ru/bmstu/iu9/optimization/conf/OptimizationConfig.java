@@ -1,5 +0,0 @@
-package ru.bmstu.iu9.optimization.conf;
-
-public interface OptimizationConfig {
-
-}
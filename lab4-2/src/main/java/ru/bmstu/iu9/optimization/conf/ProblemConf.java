@@ -0,0 +1,18 @@
+package ru.bmstu.iu9.optimization.conf;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Задача, заданная выражениями в файле настроек; функции скомпилированы при загрузке.
+ * Если градиент не задан, он вычисляется автоматическим дифференцированием выражения функции.
+ */
+public class ProblemConf implements OptimizationConfig {
+
+    public List<String> variables;
+    public Function<RealVector, Double> objective;
+    public Function<RealVector, RealVector> gradient;
+
+}
@@ -0,0 +1,8 @@
+package ru.bmstu.iu9.optimization.conf;
+
+public class WolfeConf implements OptimizationConfig {
+    public double c1;
+    public double c2;
+    public double maxAlpha;
+    public int maxIterations;
+}
@@ -2,13 +2,17 @@ package ru.bmstu.iu9.optimization.conf.loader;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.ad.AutoDiff;
 import ru.bmstu.iu9.optimization.conf.*;
+import ru.bmstu.iu9.optimization.expr.ExpressionCompiler;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
 
 import java.io.*;
 import java.util.*;
 import java.util.function.Function;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class PropertiesLoader<T extends OptimizationConfig> {
@@ -19,9 +23,13 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         SUPPORTED_CONF = new HashMap<>();
         SUPPORTED_CONF.put(GradientDescendConf.class, PropertiesLoader::loadGradientDescendConfig);
         SUPPORTED_CONF.put(GoldenSectionConf.class, PropertiesLoader::loadGoldenSectionConfig);
+        SUPPORTED_CONF.put(BrentConf.class, PropertiesLoader::loadBrentConfig);
+        SUPPORTED_CONF.put(WolfeConf.class, PropertiesLoader::loadWolfeConfig);
         SUPPORTED_CONF.put(NonlinearConjugateGradientConf.class, PropertiesLoader::loadNonlinearConjugateGradientConf);
         SUPPORTED_CONF.put(DavidFletcherPaulConf.class, PropertiesLoader::loadDavidFletcherPaulConf);
         SUPPORTED_CONF.put(LevenbergMarquardtConf.class, PropertiesLoader::loadLevenbergMarquardtConf);
+        SUPPORTED_CONF.put(LimitedMemoryBfgsConf.class, PropertiesLoader::loadLimitedMemoryBfgsConf);
+        SUPPORTED_CONF.put(ProblemConf.class, PropertiesLoader::loadProblemConf);
     }
 
     @SuppressWarnings("unchecked")
@@ -40,6 +48,24 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         return (T) SUPPORTED_CONF.get(configClass).apply(props);
     }
 
+    private static OptimizationConfig loadProblemConf(Properties props) {
+        ProblemConf conf = new ProblemConf();
+
+        conf.variables = Stream.of(((String) props.get("optimization.problem.variables")).split(","))
+                .map(String::trim)
+                .collect(Collectors.toList());
+        ExpressionCompiler compiler = new ExpressionCompiler(conf.variables);
+        String objective = (String) props.get("optimization.problem.objective");
+        Object gradient = props.get("optimization.problem.gradient");
+
+        conf.objective = compiler.function(objective);
+        conf.gradient = gradient != null
+                ? compiler.vectorFunction(ExpressionCompiler.split((String) gradient))
+                : AutoDiff.gradient(compiler.differentiable(objective));
+
+        return conf;
+    }
+
     private static OptimizationConfig loadLevenbergMarquardtConf(Properties properties) {
         LevenbergMarquardtConf conf = new LevenbergMarquardtConf();
 
@@ -49,6 +75,22 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         conf.funcEps = parseDouble(properties.get("optimization.order1.lmm.funcEps"));
         conf.sigma = parseDouble(properties.get("optimization.order1.lmm.sigma"));
         conf.maxIterations = parseInt(properties.get("optimization.order1.lmm.maxIterations"));
+        conf.cacheCapacity = parseInt(properties.get("optimization.order1.lmm.cacheCapacity"), 0);
+
+        return conf;
+    }
+
+    private static OptimizationConfig loadLimitedMemoryBfgsConf(Properties props) {
+        LimitedMemoryBfgsConf conf = new LimitedMemoryBfgsConf();
+
+        conf.startVector = parseVector(props.get("optimization.order1.lbfgs.startVector"));
+        conf.historySize = parseInt(props.get("optimization.order1.lbfgs.historySize"), 10);
+        conf.gradEps = parseDouble(props.get("optimization.order1.lbfgs.gradEps"));
+        conf.funcEps = parseDouble(props.get("optimization.order1.lbfgs.funcEps"));
+        conf.sigma = parseDouble(props.get("optimization.order1.lbfgs.sigma"));
+        conf.maxIterations = parseInt(props.get("optimization.order1.lbfgs.maxIterations"));
+        conf.cacheCapacity = parseInt(props.get("optimization.order1.lbfgs.cacheCapacity"), 0);
+        conf.wolfeConf = (WolfeConf) loadWolfeConfig(props);
 
         return conf;
     }
@@ -63,6 +105,9 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         conf.sigma = parseDouble(props.get("optimization.order1.dfp.sigma"));
         conf.maxIterations = parseInt(props.get("optimization.order1.dfp.maxIterations"));
         conf.updateGMatrixIteration = parseInt(props.get("optimization.order1.dfp.updateGMatrixIter"));
+        conf.cacheCapacity = parseInt(props.get("optimization.order1.dfp.cacheCapacity"), 0);
+        conf.lineSearch = parseLineSearchType(props.get("optimization.order1.dfp.lineSearch"));
+        conf.wolfeConf = (WolfeConf) loadWolfeConfig(props);
 
         return conf;
     }
@@ -75,6 +120,9 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         gdmConf.maxIterations = parseInt(props.get("optimization.order1.gdm.maxIterations"));
         gdmConf.startVector = parseVector(props.get("optimization.order1.gdm.startPoint"));
         gdmConf.startAlpha = parseDouble(props.get("optimization.order1.gdm.alpha0"));
+        gdmConf.cacheCapacity = parseInt(props.get("optimization.order1.gdm.cacheCapacity"), 0);
+        gdmConf.lineSearch = parseLineSearchType(props.get("optimization.order1.gdm.lineSearch"));
+        gdmConf.wolfeConf = (WolfeConf) loadWolfeConfig(props);
 
         return gdmConf;
     }
@@ -89,6 +137,28 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         return gsmConf;
     }
 
+    private static OptimizationConfig loadBrentConfig(Properties props) {
+        BrentConf brentConf = new BrentConf();
+
+        brentConf.start = parseDouble(props.get("optimization.od.brent.start"));
+        brentConf.end = parseDouble(props.get("optimization.od.brent.end"));
+        brentConf.eps = parseDouble(props.get("optimization.od.brent.eps"));
+        brentConf.maxIterations = parseInt(props.get("optimization.od.brent.maxIterations"), 100);
+
+        return brentConf;
+    }
+
+    private static OptimizationConfig loadWolfeConfig(Properties props) {
+        WolfeConf wolfeConf = new WolfeConf();
+
+        wolfeConf.c1 = parseDouble(props.get("optimization.od.wolfe.c1"), 1e-4);
+        wolfeConf.c2 = parseDouble(props.get("optimization.od.wolfe.c2"), 0.9);
+        wolfeConf.maxAlpha = parseDouble(props.get("optimization.od.wolfe.maxAlpha"), 10.0);
+        wolfeConf.maxIterations = parseInt(props.get("optimization.od.wolfe.maxIterations"), 20);
+
+        return wolfeConf;
+    }
+
     private static OptimizationConfig loadNonlinearConjugateGradientConf(Properties props) {
         NonlinearConjugateGradientConf ncgConf = new NonlinearConjugateGradientConf();
 
@@ -97,6 +167,9 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         ncgConf.sigma = parseDouble(props.get("optimization.order1.ncg.sigma"));
         ncgConf.maxIterations = parseInt(props.get("optimization.order1.ncg.maxIterations"));
         ncgConf.startAlpha = parseDouble(props.get("optimization.order1.ncg.startAlpha"));
+        ncgConf.cacheCapacity = parseInt(props.get("optimization.order1.ncg.cacheCapacity"), 0);
+        ncgConf.lineSearch = parseLineSearchType(props.get("optimization.order1.ncg.lineSearch"));
+        ncgConf.wolfeConf = (WolfeConf) loadWolfeConfig(props);
 
         return ncgConf;
     }
@@ -105,10 +178,22 @@ public class PropertiesLoader<T extends OptimizationConfig> {
         return Double.valueOf((String) propValue);
     }
 
+    private static double parseDouble(Object propValue, double defaultValue) {
+        return propValue == null ? defaultValue : parseDouble(propValue);
+    }
+
+    private static LineSearchType parseLineSearchType(Object propValue) {
+        return propValue == null ? LineSearchType.EXACT : LineSearchType.valueOf(((String) propValue).trim().toUpperCase());
+    }
+
     private static int parseInt(Object propValue) {
         return Integer.valueOf((String) propValue);
     }
 
+    private static int parseInt(Object propValue, int defaultValue) {
+        return propValue == null ? defaultValue : parseInt(propValue);
+    }
+
     private static RealVector parseVector(Object value) {
         String valuesStr = (String) value;
 
@@ -5,7 +5,19 @@ import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.DavidFletcherPaulConf;
 import ru.bmstu.iu9.optimization.conf.GoldenSectionConf;
+import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.onedim.LineSearchMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
 import ru.bmstu.iu9.optimization.onedim.gsm.GoldenSectionMethod;
+import ru.bmstu.iu9.optimization.onedim.wolfe.WolfeLineSearch;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.function.Function;
 
@@ -14,45 +26,88 @@ import static java.lang.Math.abs;
 public class DavidFletcherPaulMethod {
 
 
-    @SuppressWarnings("Duplicates")
     public static RealVector optimize(
-            Function<RealVector, Double> objectiveFunc,
-            Function<RealVector, RealVector> gradientFunc,
+            Function<RealVector, Double> objective,
+            Function<RealVector, RealVector> gradient,
             RealVector x0,
             DavidFletcherPaulConf c,
             GoldenSectionConf odConf
     ) {
+        return optimize(objective, gradient, x0, c, new GoldenSectionMethod(), odConf);
+    }
+
+    @SuppressWarnings("Duplicates")
+    public static RealVector optimize(
+            Function<RealVector, Double> objective,
+            Function<RealVector, RealVector> gradient,
+            RealVector x0,
+            DavidFletcherPaulConf c,
+            LineSearchMethod lineSearch,
+            OptimizationConfig lineSearchConf
+    ) {
+        SolverStats stats = Metrics.newStats();
+        Function<RealVector, Double> objectiveFunc = CachedFunction.wrap(stats.objective(objective), c.cacheCapacity);
+        Function<RealVector, RealVector> gradientFunc = CachedFunction.wrap(stats.gradient(gradient), c.cacheCapacity);
         RealMatrix gCur = MatrixUtils.createRealIdentityMatrix(x0.getDimension());
         RealVector dCur = gCur.preMultiply(gradientFunc.apply(x0).mapMultiply(-1));
         RealVector xCur = x0;
-        int k = 0;
+        VectorObjective lineObjective = VectorObjective.of(objectiveFunc);
+        double[] probe = new double[x0.getDimension()];
+        int k = 0, lineSearchEvaluations = 0;
+        IterationState state = c.listener == IterationListener.NONE ? null : new IterationState();
+        WolfeLineSearch wolfe = c.lineSearch == LineSearchType.EXACT ? null : new WolfeLineSearch(c.lineSearch, c.wolfeConf);
 
         for (; ; ) {
             RealVector xPrev = xCur;
             RealMatrix gPrev = (k % c.updateGMatrixIteration == 0) ? MatrixUtils.createRealIdentityMatrix(x0.getDimension()) : gCur;
             RealVector dPrev = dCur;
 
-            double alpha = new GoldenSectionMethod().optimize(
-                    a -> objectiveFunc.apply(xPrev.add(dPrev.mapMultiply(a))),
-                    c.startAlpha,
-                    odConf
-            );
+            long phaseStart = stats.start();
+            LineSearchResult step;
+            if (wolfe == null) {
+                step = lineSearch.search(lineObjective.alongRay(xPrev.toArray(), dPrev.toArray(), probe), c.startAlpha, lineSearchConf);
+            } else {
+                RealVector gradPrev = gradientFunc.apply(xPrev);
+                double slope = gradPrev.dotProduct(dPrev);
+                // при потере направления спуска шаг делается по антиградиенту
+                if (slope >= 0.0) {
+                    dPrev = gradPrev.mapMultiply(-1);
+                    slope = -gradPrev.dotProduct(gradPrev);
+                }
+                double[] x = xPrev.toArray(), d = dPrev.toArray();
+                step = wolfe.search(
+                        lineObjective.alongRay(x, d, probe),
+                        WolfeLineSearch.slopeAlongRay(gradientFunc, x, d, probe),
+                        objectiveFunc.apply(xPrev),
+                        slope,
+                        c.startAlpha
+                );
+            }
+            stats.stop(Phase.LINE_SEARCH, phaseStart);
+            double alpha = step.getX();
+            lineSearchEvaluations += step.getEvaluations();
 
             xCur = xPrev.add(dPrev.mapMultiply(alpha));
             RealVector deltaX = xCur.subtract(xPrev);
             RealVector deltaGrad = gradientFunc.apply(xCur).subtract(gradientFunc.apply(xPrev));
-            if(deltaX.getNorm() < c.sigma || gradientFunc.apply(xCur).getNorm() < c.gradEps) {
+            boolean stopped = state != null && !c.listener.onIteration(state.update(
+                    k + 1, xCur.toArray(), objectiveFunc.apply(xCur), gradientFunc.apply(xCur).getNorm(), deltaX.getNorm(), Double.NaN
+            ));
+            if(stopped || deltaX.getNorm() < c.sigma || gradientFunc.apply(xCur).getNorm() < c.gradEps) {
+                publish(stats, k, lineSearchEvaluations, objectiveFunc);
                 return xCur;
             }
 
 
+            phaseStart = stats.start();
             double deltaG = (deltaX.dotProduct(deltaX) / deltaX.dotProduct(deltaGrad)) -
                     ((gPrev.preMultiply(deltaGrad).dotProduct(gPrev.preMultiply(deltaGrad))) / (deltaGrad.dotProduct(gPrev.preMultiply(deltaGrad))));
             gCur = gPrev.scalarAdd(deltaG);
             dCur = gCur.scalarMultiply(-1).preMultiply(gradientFunc.apply(xCur));
+            stats.stop(Phase.DIRECTION, phaseStart);
 
             if(abs(objectiveFunc.apply(xCur) - objectiveFunc.apply(xPrev)) < c.funcEps || k >= c.maxIterations) {
-                System.out.printf("[info]\t\t-> Число итераций: %d%n", k);
+                publish(stats, k, lineSearchEvaluations, objectiveFunc);
                 return xCur;
             }
 
@@ -60,4 +115,11 @@ public class DavidFletcherPaulMethod {
         }
     }
 
+    private static void publish(SolverStats stats, int iterations, int lineSearchEvaluations, Function<RealVector, Double> objectiveFunc) {
+        stats.iterations(iterations);
+        stats.lineSearch(lineSearchEvaluations);
+        stats.cache(objectiveFunc);
+        Metrics.publish(DavidFletcherPaulMethod.class.getSimpleName(), stats);
+    }
+
 }
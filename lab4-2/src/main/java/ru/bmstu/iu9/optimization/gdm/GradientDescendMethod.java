@@ -4,12 +4,28 @@ import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.GoldenSectionConf;
 import ru.bmstu.iu9.optimization.conf.GradientDescendConf;
+import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.onedim.LineSearchMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
 import ru.bmstu.iu9.optimization.onedim.gsm.GoldenSectionMethod;
+import ru.bmstu.iu9.optimization.onedim.wolfe.WolfeLineSearch;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
-import java.util.function.BiPredicate;
 import java.util.function.Function;
 
 import static java.lang.Math.abs;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.distance;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.dot;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
 
 public class GradientDescendMethod {
 
@@ -20,30 +36,97 @@ public class GradientDescendMethod {
             GradientDescendConf c,
             GoldenSectionConf odConf
     ) {
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), gradientFunc, x0, c, odConf);
+    }
+
+    public static RealVector optimizePrimitive(
+            VectorObjective objective,
+            Function<RealVector, RealVector> gradient,
+            RealVector x0,
+            GradientDescendConf c,
+            GoldenSectionConf odConf
+    ) {
+        return optimizePrimitive(objective, gradient, x0, c, new GoldenSectionMethod(), odConf);
+    }
+
+    public static RealVector optimize(
+            Function<RealVector, Double> objectiveFunc,
+            Function<RealVector, RealVector> gradientFunc,
+            RealVector x0,
+            GradientDescendConf c,
+            LineSearchMethod lineSearch,
+            OptimizationConfig lineSearchConf
+    ) {
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), gradientFunc, x0, c, lineSearch, lineSearchConf);
+    }
+
+    public static RealVector optimizePrimitive(
+            VectorObjective objective,
+            Function<RealVector, RealVector> gradient,
+            RealVector x0,
+            GradientDescendConf c,
+            LineSearchMethod lineSearch,
+            OptimizationConfig lineSearchConf
+    ) {
+        SolverStats stats = Metrics.newStats();
+        VectorObjective objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(objective), c.cacheCapacity);
+        Function<RealVector, RealVector> gradientFunc = CachedFunction.wrap(stats.gradient(gradient), c.cacheCapacity);
+        IterationState state = c.listener == IterationListener.NONE ? null : new IterationState();
         boolean mustExit;
-        int k = 0;
-        RealVector curVec = new ArrayRealVector(x0.toArray());
-        BiPredicate<RealVector, RealVector> terminatePredicate = (prev, cur) ->
-                (cur.subtract(prev).getNorm() < c.sigma
-                        && abs(objectiveFunc.apply(cur) - objectiveFunc.apply(prev)) < c.eps)
-                        || (gradientFunc.apply(cur).getNorm() < c.sigma);
+        int k = 0, lineSearchEvaluations = 0;
+        WolfeLineSearch wolfe = c.lineSearch == LineSearchType.EXACT ? null : new WolfeLineSearch(c.lineSearch, c.wolfeConf);
+        VectorWorkspace ws = new VectorWorkspace(x0.getDimension(), 4);
+        double[] prevVec = ws.buffer(0), curVec = ws.buffer(1), antiGrad = ws.buffer(2), probe = ws.buffer(3), t;
+        System.arraycopy(x0.toArray(), 0, curVec, 0, curVec.length);
 
         do {
-            RealVector prevVec = curVec;
-            RealVector grad = gradientFunc.apply(curVec);
-            double optimalAlpha = new GoldenSectionMethod().optimize(
-                    alpha -> objectiveFunc.apply(prevVec.subtract(grad.mapMultiply(alpha))),
-                    c.startAlpha,
-                    odConf
-            );
-            curVec = prevVec.subtract(grad.mapMultiply(optimalAlpha));
+            t = prevVec;
+            prevVec = curVec;
+            curVec = t;
+
+            long phaseStart = stats.start();
+            RealVector grad = gradientFunc.apply(new ArrayRealVector(prevVec));
+            for (int i = 0; i < antiGrad.length; i++) {
+                antiGrad[i] = -grad.getEntry(i);
+            }
+            stats.stop(Phase.DIRECTION, phaseStart);
+            phaseStart = stats.start();
+            LineSearchResult step = wolfe == null
+                    ? lineSearch.search(objectiveFunc.alongRay(prevVec, antiGrad, probe), c.startAlpha, lineSearchConf)
+                    : wolfe.search(
+                            objectiveFunc.alongRay(prevVec, antiGrad, probe),
+                            WolfeLineSearch.slopeAlongRay(gradientFunc, prevVec, antiGrad, probe),
+                            objectiveFunc.value(prevVec),
+                            -dot(antiGrad, antiGrad),
+                            c.startAlpha
+                    );
+            stats.stop(Phase.LINE_SEARCH, phaseStart);
+            double optimalAlpha = step.getX();
+            lineSearchEvaluations += step.getEvaluations();
+            linearCombination(prevVec, optimalAlpha, antiGrad, curVec);
             k++;
-            mustExit = terminatePredicate.test(prevVec, curVec) || k >= c.maxIterations;
+            mustExit = (distance(curVec, prevVec) < c.sigma
+                    && abs(objectiveFunc.value(curVec) - objectiveFunc.value(prevVec)) < c.eps)
+                    || (gradientFunc.apply(new ArrayRealVector(curVec)).getNorm() < c.sigma)
+                    || k >= c.maxIterations;
+            if (state != null && !c.listener.onIteration(state.update(
+                    k,
+                    curVec,
+                    objectiveFunc.value(curVec),
+                    gradientFunc.apply(new ArrayRealVector(curVec)).getNorm(),
+                    distance(curVec, prevVec),
+                    Double.NaN
+            ))) {
+                mustExit = true;
+            }
         } while (!mustExit);
 
-        System.out.printf("[info]\t\t-> Число итераций: %d%n", k);
+        stats.iterations(k);
+        stats.lineSearch(lineSearchEvaluations);
+        stats.cache(objectiveFunc);
+        Metrics.publish(GradientDescendMethod.class.getSimpleName(), stats);
 
-        return curVec;
+        return new ArrayRealVector(curVec);
     }
 
 }
@@ -0,0 +1,201 @@
+package ru.bmstu.iu9.optimization.lbfgsm;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.conf.LimitedMemoryBfgsConf;
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+import ru.bmstu.iu9.optimization.onedim.wolfe.WolfeLineSearch;
+import ru.bmstu.iu9.optimization.trace.IterationState;
+
+import java.util.function.Function;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.min;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.axpy;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.dot;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.scale;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.subtract;
+
+/**
+ * Метод BFGS с ограниченной памятью. Вместо матрицы, обратной к гессиану, хранятся
+ * последние m пар s = x' - x, y = g' - g, а направление считается двухпроходной
+ * рекурсией, поэтому на итерацию тратится O(mn) памяти и времени.
+ */
+public class LimitedMemoryBfgsMethod {
+
+    public static RealVector optimize(
+            Function<RealVector, Double> objectiveFunc,
+            Function<RealVector, RealVector> gradientFunc,
+            RealVector x0,
+            LimitedMemoryBfgsConf c
+    ) {
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), gradientFunc, x0, c);
+    }
+
+    public static RealVector optimizePrimitive(
+            VectorObjective objective,
+            Function<RealVector, RealVector> gradient,
+            RealVector x0,
+            LimitedMemoryBfgsConf c
+    ) {
+        SolverStats stats = Metrics.newStats();
+        VectorObjective objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(objective), c.cacheCapacity);
+        Function<RealVector, RealVector> gradientFunc = CachedFunction.wrap(stats.gradient(gradient), c.cacheCapacity);
+        WolfeLineSearch wolfe = new WolfeLineSearch(LineSearchType.STRONG_WOLFE, c.wolfeConf, false);
+        int n = x0.getDimension(), m = c.historySize;
+
+        VectorWorkspace ws = new VectorWorkspace(n, 8);
+        double[] xPrev = ws.buffer(0), xCur = ws.buffer(1),
+                gPrev = ws.buffer(2), gCur = ws.buffer(3),
+                d = ws.buffer(4), probe = ws.buffer(5),
+                sNew = ws.buffer(6), yNew = ws.buffer(7), t;
+        // история пар (s, y) хранится в кольцевом буфере, newest - индекс последней пары
+        double[][] s = new double[m][n], y = new double[m][n];
+        double[] rho = new double[m], alpha = new double[m];
+        int historyLength = 0, newest = -1;
+
+        System.arraycopy(x0.toArray(), 0, xCur, 0, n);
+        copyGradient(gradientFunc, xCur, gCur);
+        double fCur = objectiveFunc.value(xCur), fPrev;
+        int k = 0, lineSearchEvaluations = 0;
+        IterationState state = new IterationState();
+
+        while (norm(gCur) >= c.gradEps && k < c.maxIterations) {
+            long phaseStart = stats.start();
+            historyLength = descentDirection(gCur, s, y, rho, alpha, historyLength, newest, d);
+            double slope = dot(gCur, d);
+            stats.stop(Phase.DIRECTION, phaseStart);
+
+            phaseStart = stats.start();
+            LineSearchResult step = wolfe.search(
+                    objectiveFunc.alongRay(xCur, d, probe),
+                    WolfeLineSearch.slopeAlongRay(gradientFunc, xCur, d, probe),
+                    fCur,
+                    slope,
+                    1.0
+            );
+            stats.stop(Phase.LINE_SEARCH, phaseStart);
+            lineSearchEvaluations += step.getEvaluations();
+
+            t = xPrev;
+            xPrev = xCur;
+            xCur = t;
+            t = gPrev;
+            gPrev = gCur;
+            gCur = t;
+            fPrev = fCur;
+
+            linearCombination(xPrev, step.getX(), d, xCur);
+            copyGradient(gradientFunc, xCur, gCur);
+            fCur = objectiveFunc.value(xCur);
+            k++;
+
+            subtract(xCur, xPrev, sNew);
+            subtract(gCur, gPrev, yNew);
+            double sy = dot(sNew, yNew), stepNorm = norm(sNew);
+            // пара сохраняется, только если сохраняет положительную определенность;
+            // буферы меняются местами с самой старой парой без копирования
+            if (sy > 0.0) {
+                newest = (newest + 1) % m;
+                t = s[newest];
+                s[newest] = sNew;
+                sNew = t;
+                t = y[newest];
+                y[newest] = yNew;
+                yNew = t;
+                rho[newest] = 1.0 / sy;
+                historyLength = min(historyLength + 1, m);
+            }
+
+            boolean stopped = !c.listener.onIteration(state.update(k, xCur, fCur, norm(gCur), stepNorm, Double.NaN));
+            if (stopped || stepNorm < c.sigma || abs(fCur - fPrev) < c.funcEps) {
+                break;
+            }
+        }
+
+        stats.iterations(k);
+        stats.lineSearch(lineSearchEvaluations);
+        stats.cache(objectiveFunc);
+        Metrics.publish(LimitedMemoryBfgsMethod.class.getSimpleName(), stats);
+
+        return new ArrayRealVector(xCur);
+    }
+
+    /**
+     * Записывает в d направление -H * g, а если накопленная кривизна дала направление
+     * подъема - антиградиент.
+     *
+     * @return длина истории: 0, если история сброшена
+     */
+    static int descentDirection(
+            double[] g,
+            double[][] s,
+            double[][] y,
+            double[] rho,
+            double[] alpha,
+            int historyLength,
+            int newest,
+            double[] d
+    ) {
+        twoLoopRecursion(g, s, y, rho, alpha, historyLength, newest, d);
+        if (dot(g, d) < 0.0) {
+            return historyLength;
+        }
+        for (int i = 0; i < d.length; i++) {
+            d[i] = -g[i];
+        }
+        return 0;
+    }
+
+    /**
+     * Записывает в d направление -H * g, где H - BFGS-приближение обратного гессиана
+     * по последним historyLength парам.
+     */
+    private static void twoLoopRecursion(
+            double[] g,
+            double[][] s,
+            double[][] y,
+            double[] rho,
+            double[] alpha,
+            int historyLength,
+            int newest,
+            double[] d
+    ) {
+        int m = s.length;
+        System.arraycopy(g, 0, d, 0, g.length);
+
+        for (int j = 0, i = newest; j < historyLength; j++, i = (i - 1 + m) % m) {
+            alpha[i] = rho[i] * dot(s[i], d);
+            axpy(-alpha[i], y[i], d);
+        }
+
+        if (historyLength > 0) {
+            scale(1.0 / (rho[newest] * dot(y[newest], y[newest])), d);
+        }
+
+        for (int j = 0, i = (newest - historyLength + 1 + m) % m; j < historyLength; j++, i = (i + 1) % m) {
+            double beta = rho[i] * dot(y[i], d);
+            axpy(alpha[i] - beta, s[i], d);
+        }
+
+        scale(-1.0, d);
+    }
+
+    private static void copyGradient(Function<RealVector, RealVector> gradientFunc, double[] x, double[] out) {
+        RealVector g = gradientFunc.apply(new ArrayRealVector(x));
+        for (int i = 0; i < out.length; i++) {
+            out[i] = g.getEntry(i);
+        }
+    }
+
+}
@@ -1,10 +1,17 @@
 package ru.bmstu.iu9.optimization.lmm;
 
-import org.apache.commons.math3.linear.LUDecomposition;
-import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.EigenDecomposition;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.LevenbergMarquardtConf;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.function.Function;
 
@@ -12,49 +19,133 @@ import static java.lang.Math.abs;
 
 public class LevenbergMarquardtMethod {
 
+    // после стольких удвоений mu шаг практически равен нулю: спуска из точки нет
+    private static final int MAX_DAMPING_TRIALS = 64;
+
     public static RealVector optimize(
-            Function<RealVector, Double> func,
-            Function<RealVector, RealVector> gradFunc,
-            Function<RealVector, RealMatrix> hessianFunc,
+            Function<RealVector, Double> objective,
+            Function<RealVector, RealVector> gradient,
+            Function<RealVector, RealMatrix> hessian,
             RealVector startVector,
             LevenbergMarquardtConf c
     ) {
-        RealMatrix identityMatrix = MatrixUtils.createRealIdentityMatrix(startVector.getDimension());
+        SolverStats stats = Metrics.newStats();
+        Function<RealVector, Double> func = CachedFunction.wrap(stats.objective(objective), c.cacheCapacity);
+        Function<RealVector, RealVector> gradFunc = CachedFunction.wrap(stats.gradient(gradient), c.cacheCapacity);
+        Function<RealVector, RealMatrix> hessianFunc = CachedFunction.wrap(stats.hessian(hessian), c.cacheCapacity);
         RealVector xPrev, xCur = startVector;
-        double muPrev, muCur = c.startMu;
+        double muCur = c.startMu;
         int k = 0;
+        boolean stopped = false;
+        IterationState state = c.listener == IterationListener.NONE ? null : new IterationState();
 
         do {
+            xPrev = xCur;
+            // гессиан, градиент и значение в xPrev не меняются, пока подбирается mu
+            RealMatrix hessianPrev = hessianFunc.apply(xPrev);
+            RealVector gradPrev = gradFunc.apply(xPrev);
+            double fPrev = func.apply(xPrev), fCur = fPrev;
+            long factorizationStart = stats.start();
+            DampedSystem system = new DampedSystem(hessianPrev, gradPrev);
+            stats.stop(Phase.FACTORIZATION, factorizationStart);
+            RealVector d;
+            int trials = 0;
 
             do {
-                xPrev = xCur;
-                muPrev = muCur;
-                RealVector d = inverseOf(hessianFunc.apply(xPrev).add(identityMatrix.scalarMultiply(muPrev)))
-                        .preMultiply(gradFunc.apply(xPrev));
-
+                if (trials++ == MAX_DAMPING_TRIALS || Double.isInfinite(muCur)) {
+                    // остаемся в xPrev, внешний цикл завершится по малому шагу
+                    xCur = xPrev;
+                    fCur = fPrev;
+                    break;
+                }
+                long phaseStart = stats.start();
+                d = system.solve(muCur);
+                stats.stop(Phase.FACTORIZATION, phaseStart);
+                muCur *= 2.0;
+                if (d == null) {
+                    continue;
+                }
+                if (d.getNorm() < c.sigma) {
+                    xCur = xPrev;
+                    break;
+                }
                 xCur = xPrev.subtract(d);
-                muCur = 2.0 * muPrev;
-            } while (func.apply(xCur) >= func.apply(xPrev));
+                fCur = func.apply(xCur);
+            } while (d == null || fCur >= fPrev);
 
             muCur /= 4.0;
 
             k++;
+            if (state != null) {
+                stopped = !c.listener.onIteration(state.update(
+                        k, xCur.toArray(), fCur, gradFunc.apply(xCur).getNorm(), xCur.getDistance(xPrev), Double.NaN
+                ));
+            }
 
         } while(
-                xCur.subtract(xPrev).getNorm() >= c.sigma
+                !stopped
+                && xCur.subtract(xPrev).getNorm() >= c.sigma
                 && abs(func.apply(xCur) - func.apply(xPrev)) >= c.funcEps
                 && gradFunc.apply(xCur).getNorm() >= c.gradEps
                 && k < c.maxIterations
         );
 
-        System.out.println("[info]\t\t-> Число итераций: " + k);
+        stats.iterations(k);
+        stats.cache(func);
+        Metrics.publish(LevenbergMarquardtMethod.class.getSimpleName(), stats);
 
         return xCur;
     }
 
 
-    private static RealMatrix inverseOf(RealMatrix matrix) {
-        return new LUDecomposition(matrix).getSolver().getInverse();
+    /**
+     * Система (H + mu * I) d = g для всех mu одной итерации. Симметричная часть
+     * (H + H^T) / 2 раскладывается один раз: H = Q * diag(lambda) * Q^T, после чего
+     * d = Q * diag(1 / (lambda + mu)) * Q^T * g вычисляется за O(n^2) для каждого mu.
+     * Численная матрица Гессе обычно немного несимметрична, а демпфирование
+     * несимметричность не устраняет.
+     */
+    private static class DampedSystem {
+
+        private final RealMatrix q;
+        private final double[] lambda;
+        private final double[] projectedGrad;
+        private final double minLambda;
+
+        DampedSystem(RealMatrix hessian, RealVector grad) {
+            int n = hessian.getRowDimension();
+            RealMatrix symmetric = new Array2DRowRealMatrix(n, n);
+            for (int i = 0; i < n; i++) {
+                for (int j = 0; j < n; j++) {
+                    symmetric.setEntry(i, j, 0.5 * (hessian.getEntry(i, j) + hessian.getEntry(j, i)));
+                }
+            }
+
+            EigenDecomposition eigen = new EigenDecomposition(symmetric);
+            q = eigen.getV();
+            lambda = eigen.getRealEigenvalues();
+            projectedGrad = q.preMultiply(grad.toArray());
+            double min = Double.POSITIVE_INFINITY;
+            for (double l : lambda) {
+                min = Math.min(min, l);
+            }
+            minLambda = min;
+        }
+
+        /**
+         * @return null, если матрица H + mu * I не положительно определена
+         */
+        RealVector solve(double mu) {
+            if (!(minLambda + mu > 0)) {
+                return null;
+            }
+            double[] scaled = new double[lambda.length];
+            for (int i = 0; i < scaled.length; i++) {
+                scaled[i] = projectedGrad[i] / (lambda[i] + mu);
+            }
+            return new ArrayRealVector(q.operate(scaled), false);
+        }
+
     }
 
 }
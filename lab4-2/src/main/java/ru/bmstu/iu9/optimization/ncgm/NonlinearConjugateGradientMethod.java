@@ -1,17 +1,35 @@
 package ru.bmstu.iu9.optimization.ncgm;
 
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.GoldenSectionConf;
 import ru.bmstu.iu9.optimization.conf.NonlinearConjugateGradientConf;
+import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.onedim.LineSearchMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
 import ru.bmstu.iu9.optimization.onedim.gsm.GoldenSectionMethod;
+import ru.bmstu.iu9.optimization.onedim.wolfe.WolfeLineSearch;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.function.Function;
 
 import static java.lang.Math.pow;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.distance;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.dot;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
 
 public class NonlinearConjugateGradientMethod {
 
-    @SuppressWarnings("Duplicates")
     public static RealVector optimize(
             Function<RealVector, Double> objectiveFunc,
             Function<RealVector, RealVector> gradientFunc,
@@ -19,30 +37,111 @@ public class NonlinearConjugateGradientMethod {
             NonlinearConjugateGradientConf c,
             GoldenSectionConf odConf
     ) {
-        RealVector dCur = gradientFunc.apply(x0).mapMultiply(-1);
-        RealVector xCur = x0;
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), gradientFunc, x0, c, odConf);
+    }
+
+    public static RealVector optimizePrimitive(
+            VectorObjective objective,
+            Function<RealVector, RealVector> gradient,
+            RealVector x0,
+            NonlinearConjugateGradientConf c,
+            GoldenSectionConf odConf
+    ) {
+        return optimizePrimitive(objective, gradient, x0, c, new GoldenSectionMethod(), odConf);
+    }
+
+    public static RealVector optimize(
+            Function<RealVector, Double> objectiveFunc,
+            Function<RealVector, RealVector> gradientFunc,
+            RealVector x0,
+            NonlinearConjugateGradientConf c,
+            LineSearchMethod lineSearch,
+            OptimizationConfig lineSearchConf
+    ) {
+        return optimizePrimitive(VectorObjective.of(objectiveFunc), gradientFunc, x0, c, lineSearch, lineSearchConf);
+    }
+
+    @SuppressWarnings("Duplicates")
+    public static RealVector optimizePrimitive(
+            VectorObjective objective,
+            Function<RealVector, RealVector> gradient,
+            RealVector x0,
+            NonlinearConjugateGradientConf c,
+            LineSearchMethod lineSearch,
+            OptimizationConfig lineSearchConf
+    ) {
+        SolverStats stats = Metrics.newStats();
+        VectorObjective objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(objective), c.cacheCapacity);
+        Function<RealVector, RealVector> gradientFunc = CachedFunction.wrap(stats.gradient(gradient), c.cacheCapacity);
+        VectorWorkspace ws = new VectorWorkspace(x0.getDimension(), 5);
+        double[] xPrev = ws.buffer(0), xCur = ws.buffer(1), dPrev = ws.buffer(2), dCur = ws.buffer(3), probe = ws.buffer(4), t;
+        RealVector gradCur = gradientFunc.apply(x0), gradPrev;
         double w;
-        int k = 0;
+        boolean stopped;
+        IterationState state = c.listener == IterationListener.NONE ? null : new IterationState();
+        int k = 0, lineSearchEvaluations = 0;
+        WolfeLineSearch wolfe = c.lineSearch == LineSearchType.EXACT ? null : new WolfeLineSearch(c.lineSearch, c.wolfeConf);
+
+        System.arraycopy(x0.toArray(), 0, xCur, 0, xCur.length);
+        for (int i = 0; i < dCur.length; i++) {
+            dCur[i] = -gradCur.getEntry(i);
+        }
 
         for (; ; ) {
-            RealVector xPrev = xCur;
-            RealVector dPrev = dCur;
-
-            double alpha = new GoldenSectionMethod().optimize(
-                    a -> objectiveFunc.apply(xPrev.add(dPrev.mapMultiply(a))),
-                    c.startAlpha,
-                    odConf
-            );
-
-            xCur = xPrev.add(dPrev.mapMultiply(alpha));
-            w = pow(gradientFunc.apply(xCur).getNorm(), 2.0) / pow(gradientFunc.apply(xPrev).getNorm(), 2.0);
-            dCur = gradientFunc.apply(xCur).mapMultiply(-1).add(dPrev.mapMultiply(w));
-            if (dCur.getNorm() < c.eps || xCur.subtract(xPrev).getNorm() < c.sigma || k >= c.maxIterations) {
-                System.out.printf("[info]\t\t-> Число итераций: %d%n", k);
-                return xCur;
+            t = xPrev;
+            xPrev = xCur;
+            xCur = t;
+            t = dPrev;
+            dPrev = dCur;
+            dCur = t;
+            gradPrev = gradCur;
+
+            long phaseStart = stats.start();
+            LineSearchResult step;
+            if (wolfe == null) {
+                step = lineSearch.search(objectiveFunc.alongRay(xPrev, dPrev, probe), c.startAlpha, lineSearchConf);
+            } else {
+                double slope = dot(gradPrev.toArray(), dPrev);
+                // неточный поиск ищет только положительный шаг, поэтому при потере направления спуска
+                // метод перезапускается с антиградиента
+                if (slope >= 0.0) {
+                    for (int i = 0; i < dPrev.length; i++) {
+                        dPrev[i] = -gradPrev.getEntry(i);
+                    }
+                    slope = -dot(dPrev, dPrev);
+                }
+                step = wolfe.search(
+                        objectiveFunc.alongRay(xPrev, dPrev, probe),
+                        WolfeLineSearch.slopeAlongRay(gradientFunc, xPrev, dPrev, probe),
+                        objectiveFunc.value(xPrev),
+                        slope,
+                        c.startAlpha
+                );
+            }
+            stats.stop(Phase.LINE_SEARCH, phaseStart);
+            double alpha = step.getX();
+            lineSearchEvaluations += step.getEvaluations();
+
+            phaseStart = stats.start();
+            linearCombination(xPrev, alpha, dPrev, xCur);
+            gradCur = gradientFunc.apply(new ArrayRealVector(xCur));
+            w = pow(gradCur.getNorm(), 2.0) / pow(gradPrev.getNorm(), 2.0);
+            for (int i = 0; i < dCur.length; i++) {
+                dCur[i] = -gradCur.getEntry(i) + w * dPrev[i];
+            }
+            stats.stop(Phase.DIRECTION, phaseStart);
+            stopped = state != null && !c.listener.onIteration(state.update(
+                    k + 1, xCur, objectiveFunc.value(xCur), gradCur.getNorm(), distance(xCur, xPrev), Double.NaN
+            ));
+            if (stopped || norm(dCur) < c.eps || distance(xCur, xPrev) < c.sigma || k >= c.maxIterations) {
+                stats.iterations(k);
+                stats.lineSearch(lineSearchEvaluations);
+                stats.cache(objectiveFunc);
+                Metrics.publish(NonlinearConjugateGradientMethod.class.getSimpleName(), stats);
+                return new ArrayRealVector(xCur);
             }
             k++;
         }
     }
 
-}
\ No newline at end of file
+}
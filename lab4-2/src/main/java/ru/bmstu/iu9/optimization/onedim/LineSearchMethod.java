@@ -0,0 +1,18 @@
+package ru.bmstu.iu9.optimization.onedim;
+
+import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Одномерный поиск шага вдоль направления спуска.
+ */
+public interface LineSearchMethod {
+
+    LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig conf);
+
+    default double optimizePrimitive(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig conf) {
+        return search(objectiveFunc, x, conf).getX();
+    }
+
+}
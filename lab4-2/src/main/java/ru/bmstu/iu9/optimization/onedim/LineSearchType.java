@@ -0,0 +1,13 @@
+package ru.bmstu.iu9.optimization.onedim;
+
+/**
+ * Способ выбора шага в методах первого порядка.
+ */
+public enum LineSearchType {
+    /** Точный одномерный поиск на отрезке (золотое сечение, метод Брента). */
+    EXACT,
+    /** Дробление шага до выполнения условия Армихо. */
+    ARMIJO,
+    /** Поиск шага, удовлетворяющего сильным условиям Вольфе. */
+    STRONG_WOLFE
+}
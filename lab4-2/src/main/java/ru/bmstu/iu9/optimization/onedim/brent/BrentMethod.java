@@ -0,0 +1,22 @@
+package ru.bmstu.iu9.optimization.onedim.brent;
+
+import ru.bmstu.iu9.optimization.conf.BrentConf;
+import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.onedim.BrentSearch;
+import ru.bmstu.iu9.optimization.onedim.LineSearchMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Метод Брента, см. {@link BrentSearch}.
+ */
+public class BrentMethod implements LineSearchMethod {
+
+    @Override
+    public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x0, OptimizationConfig conf) {
+        BrentConf c = (BrentConf) conf;
+        return BrentSearch.brentMethodPrimitive(objectiveFunc, c.start, c.end, c.eps, c.maxIterations);
+    }
+
+}
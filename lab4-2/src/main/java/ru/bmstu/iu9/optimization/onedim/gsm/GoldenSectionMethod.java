@@ -2,35 +2,63 @@ package ru.bmstu.iu9.optimization.onedim.gsm;
 
 import ru.bmstu.iu9.optimization.conf.GoldenSectionConf;
 import ru.bmstu.iu9.optimization.conf.OptimizationConfig;
+import ru.bmstu.iu9.optimization.objective.ScalarObjective;
+import ru.bmstu.iu9.optimization.onedim.LineSearchMethod;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
 
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 import static java.lang.Math.abs;
 import static java.lang.Math.sqrt;
 
-public class GoldenSectionMethod {
+public class GoldenSectionMethod implements LineSearchMethod {
     private static final double CONST_GS = (3 - sqrt(5)) / 2.0;
 
     public double optimize(Function<Double, Double> objectiveFunc, double x, OptimizationConfig conf) {
+        return optimizePrimitive(ScalarObjective.of(objectiveFunc), x, conf);
+    }
+
+    @Override
+    public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double x, OptimizationConfig conf) {
         GoldenSectionConf c = (GoldenSectionConf) conf;
-        double y, z,
-                a = c.start, b = c.end,
-                delta = abs(b - a);
+        double a = c.start, b = c.end;
+
+        if (abs(b - a) <= c.eps) {
+            return new LineSearchResult((a + b) / 2.0, 0);
+        }
 
-        while(delta > c.eps) {
-            y = a + CONST_GS * (b - a);
-            z = a + b - y;
+        // на каждом шаге одна из внутренних точек переходит в новый интервал
+        // вместе со своим значением, поэтому вычисляется только одна новая точка
+        double y = a + CONST_GS * (b - a),
+                z = a + b - y,
+                fy = objectiveFunc.applyAsDouble(y),
+                fz = objectiveFunc.applyAsDouble(z);
+        int evaluations = 2;
 
-            if(objectiveFunc.apply(y) <= objectiveFunc.apply(z)) {
+        for (; ; ) {
+            if (fy <= fz) {
                 b = z;
+                if (abs(b - a) <= c.eps) {
+                    break;
+                }
+                z = y;
+                fz = fy;
+                y = a + b - z;
+                fy = objectiveFunc.applyAsDouble(y);
             } else {
                 a = y;
+                if (abs(b - a) <= c.eps) {
+                    break;
+                }
+                y = z;
+                fy = fz;
+                z = a + b - y;
+                fz = objectiveFunc.applyAsDouble(z);
             }
-
-            delta = abs(b - a);
+            evaluations++;
         }
 
-
-        return (a + b) / 2.0;
+        return new LineSearchResult((a + b) / 2.0, evaluations);
     }
 }
@@ -0,0 +1,220 @@
+package ru.bmstu.iu9.optimization.onedim.wolfe;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.conf.WolfeConf;
+import ru.bmstu.iu9.optimization.geometry.DenseVectors;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+/**
+ * Неточный одномерный поиск для phi(alpha) = f(x + alpha * d).
+ * <p>
+ * В режиме {@link LineSearchType#ARMIJO} шаг дробится с квадратичной интерполяцией,
+ * пока не выполнится условие достаточного убывания. В режиме {@link LineSearchType#STRONG_WOLFE}
+ * используется схема "расширение + zoom" (Nocedal, Wright, алгоритмы 3.5 и 3.6).
+ * <p>
+ * Объект хранит принятый на прошлой итерации шаг и (по умолчанию) оценивает по нему
+ * начальный шаг следующего поиска, поэтому для каждого запуска метода создается свой экземпляр.
+ */
+public class WolfeLineSearch {
+
+    private final LineSearchType type;
+    private final WolfeConf c;
+    private final boolean scaleInitialStep;
+    private double lastAlpha;
+    private double lastSlope;
+
+    public WolfeLineSearch(LineSearchType type, WolfeConf c) {
+        this(type, c, true);
+    }
+
+    /**
+     * @param scaleInitialStep если false, каждый поиск начинается с переданного alpha0;
+     *                         так делают квазиньютоновские методы, для которых естественен единичный шаг
+     */
+    public WolfeLineSearch(LineSearchType type, WolfeConf c, boolean scaleInitialStep) {
+        if (type == LineSearchType.EXACT) {
+            throw new IllegalArgumentException("Exact line search is not supported: " + type);
+        }
+        this.type = type;
+        this.c = c;
+        this.scaleInitialStep = scaleInitialStep;
+    }
+
+    /**
+     * @param phi    значение функции вдоль направления
+     * @param dphi   производная функции вдоль направления
+     * @param phi0   phi(0)
+     * @param dphi0  phi'(0); если она неотрицательна, направление не является
+     *               направлением спуска и возвращается нулевой шаг
+     * @param alpha0 начальный шаг для первого поиска
+     */
+    public LineSearchResult search(
+            DoubleUnaryOperator phi,
+            DoubleUnaryOperator dphi,
+            double phi0,
+            double dphi0,
+            double alpha0
+    ) {
+        if (dphi0 >= 0.0) {
+            return new LineSearchResult(0.0, 0);
+        }
+
+        // шаг, при котором изменение функции в первом приближении совпадает с прошлой итерацией;
+        // после нулевого шага такая оценка тоже равна нулю, и поиск начинается заново с alpha0
+        double alpha = scaleInitialStep && lastSlope < 0.0 && lastAlpha > 0.0
+                ? min(lastAlpha * lastSlope / dphi0, c.maxAlpha)
+                : alpha0;
+        LineSearchResult res = type == LineSearchType.ARMIJO
+                ? backtracking(phi, phi0, dphi0, alpha)
+                : strongWolfe(phi, dphi, phi0, dphi0, alpha);
+
+        lastAlpha = res.getX();
+        lastSlope = dphi0;
+        return res;
+    }
+
+    /**
+     * Производная f(x + alpha * d) по alpha. Точка луча записывается в буфер probe.
+     */
+    public static DoubleUnaryOperator slopeAlongRay(
+            Function<RealVector, RealVector> gradientFunc,
+            double[] x,
+            double[] d,
+            double[] probe
+    ) {
+        return t -> {
+            DenseVectors.linearCombination(x, t, d, probe);
+            return DenseVectors.dot(gradientFunc.apply(new ArrayRealVector(probe)).toArray(), d);
+        };
+    }
+
+    /**
+     * Если за maxIterations шагов условие Армихо не выполнилось, возвращается лучшая
+     * из вычисленных точек, а если ни одна не лучше phi(0) - нулевой шаг.
+     */
+    private LineSearchResult backtracking(DoubleUnaryOperator phi, double phi0, double dphi0, double alpha) {
+        double bestAlpha = 0.0, bestF = phi0;
+        int evaluations = 0;
+
+        for (int i = 0; i < c.maxIterations; i++) {
+            double f = phi.applyAsDouble(alpha);
+            evaluations++;
+            if (f <= phi0 + c.c1 * alpha * dphi0) {
+                return new LineSearchResult(alpha, evaluations);
+            }
+            if (f < bestF) {
+                bestAlpha = alpha;
+                bestF = f;
+            }
+            // минимум параболы по phi(0), phi'(0) и phi(alpha), ограниченный отрезком [0.1, 0.5] * alpha
+            double alphaNext = -dphi0 * alpha * alpha / (2.0 * (f - phi0 - dphi0 * alpha));
+            alpha = max(0.1 * alpha, min(0.5 * alpha, alphaNext));
+        }
+
+        return new LineSearchResult(bestAlpha, evaluations);
+    }
+
+    private LineSearchResult strongWolfe(
+            DoubleUnaryOperator phi,
+            DoubleUnaryOperator dphi,
+            double phi0,
+            double dphi0,
+            double alpha
+    ) {
+        double alphaPrev = 0.0, fPrev = phi0, gPrev = dphi0;
+        int evaluations = 0;
+
+        for (int i = 0; i < c.maxIterations; i++) {
+            double f = phi.applyAsDouble(alpha);
+            evaluations++;
+
+            if (f > phi0 + c.c1 * alpha * dphi0 || (i > 0 && f >= fPrev)) {
+                return zoom(phi, dphi, phi0, dphi0, alphaPrev, alpha, fPrev, f, gPrev, evaluations);
+            }
+
+            double g = dphi.applyAsDouble(alpha);
+            if (abs(g) <= -c.c2 * dphi0) {
+                return new LineSearchResult(alpha, evaluations);
+            }
+            if (g >= 0.0) {
+                return zoom(phi, dphi, phi0, dphi0, alpha, alphaPrev, f, fPrev, g, evaluations);
+            }
+
+            // шаг уже равен maxAlpha и удовлетворяет условию Армихо: расширять отрезок некуда
+            if (alpha >= c.maxAlpha) {
+                return new LineSearchResult(alpha, evaluations);
+            }
+
+            alphaPrev = alpha;
+            fPrev = f;
+            gPrev = g;
+            alpha = min(2.0 * alpha, c.maxAlpha);
+        }
+
+        return new LineSearchResult(alphaPrev, evaluations);
+    }
+
+    /**
+     * Сужение отрезка между lo и hi, где lo - лучшая точка, удовлетворяющая условию Армихо,
+     * а производная в lo направлена в сторону hi.
+     */
+    private LineSearchResult zoom(
+            DoubleUnaryOperator phi,
+            DoubleUnaryOperator dphi,
+            double phi0,
+            double dphi0,
+            double lo,
+            double hi,
+            double fLo,
+            double fHi,
+            double gLo,
+            int evaluations
+    ) {
+        for (int i = 0; i < c.maxIterations; i++) {
+            // отрезок выродился в точку: интерполяция дала бы 0 / 0
+            if (lo == hi) {
+                break;
+            }
+            double delta = hi - lo,
+                    alpha = lo - gLo * delta * delta / (2.0 * (fHi - fLo - gLo * delta));
+
+            // интерполяция не должна подходить к краям отрезка ближе, чем на 10% его длины
+            double left = min(lo, hi) + 0.1 * abs(delta), right = max(lo, hi) - 0.1 * abs(delta);
+            if (Double.isNaN(alpha) || alpha < left || alpha > right) {
+                alpha = lo + delta / 2.0;
+            }
+
+            double f = phi.applyAsDouble(alpha);
+            evaluations++;
+
+            if (f > phi0 + c.c1 * alpha * dphi0 || f >= fLo) {
+                hi = alpha;
+                fHi = f;
+            } else {
+                double g = dphi.applyAsDouble(alpha);
+                if (abs(g) <= -c.c2 * dphi0) {
+                    return new LineSearchResult(alpha, evaluations);
+                }
+                if (g * (hi - lo) >= 0.0) {
+                    hi = lo;
+                    fHi = fLo;
+                }
+                lo = alpha;
+                fLo = f;
+                gLo = g;
+            }
+        }
+
+        return new LineSearchResult(lo, evaluations);
+    }
+
+}
@@ -0,0 +1,78 @@
+package ru.bmstu.iu9.optimization.lbfgsm;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.conf.LimitedMemoryBfgsConf;
+import ru.bmstu.iu9.optimization.conf.WolfeConf;
+
+import java.util.function.Function;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class LimitedMemoryBfgsMethodTest {
+
+    // f(x, y) = 100 * (y - x^2)^2 + (1 - x)^2, минимум в (1, 1)
+    private static final Function<RealVector, Double> ROSENBROCK = v -> {
+        double x = v.getEntry(0), y = v.getEntry(1);
+        return 100 * (y - x * x) * (y - x * x) + (1 - x) * (1 - x);
+    };
+
+    private static final Function<RealVector, RealVector> ROSENBROCK_GRADIENT = v -> {
+        double x = v.getEntry(0), y = v.getEntry(1);
+        return new ArrayRealVector(new double[]{-400 * x * (y - x * x) - 2 * (1 - x), 200 * (y - x * x)});
+    };
+
+    @Test
+    public void testReachesRosenbrockMinimum() {
+        LimitedMemoryBfgsConf c = config();
+        RealVector sol = LimitedMemoryBfgsMethod.optimize(ROSENBROCK, ROSENBROCK_GRADIENT, c.startVector, c);
+
+        assertEquals(1.0, sol.getEntry(0), 1e-4);
+        assertEquals(1.0, sol.getEntry(1), 1e-4);
+    }
+
+    @Test
+    public void testAscentDirectionResetsHistory() {
+        // rho < 0: пара (s, y) с отрицательной кривизной, двухпроходная рекурсия дает d = g
+        double[][] s = {{1.0, 0.0}}, y = {{-1.0, 0.0}};
+        double[] rho = {-1.0}, alpha = new double[1], g = {1.0, 1.0}, d = new double[2];
+
+        int historyLength = LimitedMemoryBfgsMethod.descentDirection(g, s, y, rho, alpha, 1, 0, d);
+
+        assertEquals(0, historyLength);
+        assertArrayEquals(new double[]{-1.0, -1.0}, d, 0.0);
+    }
+
+    @Test
+    public void testDescentDirectionKeepsHistory() {
+        // пара точной квадратичной функции f = x^2 + 2 y^2 вдоль первой координаты
+        double[][] s = {{1.0, 0.0}}, y = {{2.0, 0.0}};
+        double[] rho = {0.5}, alpha = new double[1], g = {2.0, 4.0}, d = new double[2];
+
+        int historyLength = LimitedMemoryBfgsMethod.descentDirection(g, s, y, rho, alpha, 1, 0, d);
+
+        assertEquals(1, historyLength);
+        assertEquals(-1.0, d[0], 1e-12);
+    }
+
+    private static LimitedMemoryBfgsConf config() {
+        WolfeConf wolfe = new WolfeConf();
+        wolfe.c1 = 1e-4;
+        wolfe.c2 = 0.9;
+        wolfe.maxAlpha = 10.0;
+        wolfe.maxIterations = 20;
+
+        LimitedMemoryBfgsConf c = new LimitedMemoryBfgsConf();
+        c.startVector = new ArrayRealVector(new double[]{-1.2, 1.0});
+        c.historySize = 5;
+        c.gradEps = 1e-6;
+        c.funcEps = 1e-12;
+        c.sigma = 1e-9;
+        c.maxIterations = 1000;
+        c.wolfeConf = wolfe;
+        return c;
+    }
+
+}
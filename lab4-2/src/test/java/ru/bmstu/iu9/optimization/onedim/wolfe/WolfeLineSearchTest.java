@@ -0,0 +1,97 @@
+package ru.bmstu.iu9.optimization.onedim.wolfe;
+
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.conf.WolfeConf;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.onedim.LineSearchType;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WolfeLineSearchTest {
+
+    private static final WolfeConf CONF = new WolfeConf();
+
+    static {
+        CONF.c1 = 1e-4;
+        CONF.c2 = 0.1;
+        CONF.maxAlpha = 100.0;
+        CONF.maxIterations = 20;
+    }
+
+    // функция Розенброка вдоль антиградиента из (-1.2, 1)
+    private static final double X = -1.2, Y = 1.0, DX = 215.6, DY = 88.0;
+
+    private static final DoubleUnaryOperator PHI = a -> {
+        double x = X + a * DX, y = Y + a * DY;
+        return 100 * (y - x * x) * (y - x * x) + (1 - x) * (1 - x);
+    };
+
+    private static final DoubleUnaryOperator DPHI = a -> {
+        double x = X + a * DX, y = Y + a * DY;
+        return (-400 * x * (y - x * x) - 2 * (1 - x)) * DX + 200 * (y - x * x) * DY;
+    };
+
+    @Test
+    public void testStrongWolfeZoomFromLongStep() {
+        // единичный шаг уводит далеко за минимум: отрезок сужается процедурой zoom
+        assertStrongWolfe(PHI, DPHI, 1.0);
+    }
+
+    @Test
+    public void testStrongWolfeAfterExpansion() {
+        DoubleUnaryOperator phi = a -> (a - 5.0) * (a - 5.0), dphi = a -> 2.0 * (a - 5.0);
+        // шаг удваивается 1, 2, 4, 8, после чего минимум внутри [4, 8]
+        double alpha = assertStrongWolfe(phi, dphi, 1.0);
+
+        assertTrue(alpha > 4.0 && alpha < 8.0);
+    }
+
+    @Test
+    public void testArmijoInterpolation() {
+        DoubleUnaryOperator phi = a -> (a - 1.0) * (a - 1.0);
+        WolfeLineSearch search = new WolfeLineSearch(LineSearchType.ARMIJO, CONF, false);
+
+        LineSearchResult res = search.search(phi, null, 1.0, -2.0, 4.0);
+
+        // парабола по phi(0), phi'(0) и phi(4) совпадает с phi: второй шаг - точный минимум
+        assertEquals(1.0, res.getX(), 1e-12);
+        assertEquals(2, res.getEvaluations());
+    }
+
+    @Test
+    public void testArmijoOnRosenbrock() {
+        WolfeLineSearch search = new WolfeLineSearch(LineSearchType.ARMIJO, CONF, false);
+        double phi0 = PHI.applyAsDouble(0.0), dphi0 = DPHI.applyAsDouble(0.0);
+
+        double alpha = search.search(PHI, DPHI, phi0, dphi0, 1.0).getX();
+
+        assertTrue(alpha > 0.0);
+        assertTrue(PHI.applyAsDouble(alpha) <= phi0 + CONF.c1 * alpha * dphi0);
+    }
+
+    @Test
+    public void testAscentDirectionGivesZeroStep() {
+        WolfeLineSearch search = new WolfeLineSearch(LineSearchType.STRONG_WOLFE, CONF, false);
+
+        LineSearchResult res = search.search(PHI, DPHI, PHI.applyAsDouble(0.0), 1.0, 1.0);
+
+        assertEquals(0.0, res.getX(), 0.0);
+        assertEquals(0, res.getEvaluations());
+    }
+
+    private static double assertStrongWolfe(DoubleUnaryOperator phi, DoubleUnaryOperator dphi, double alpha0) {
+        WolfeLineSearch search = new WolfeLineSearch(LineSearchType.STRONG_WOLFE, CONF, false);
+        double phi0 = phi.applyAsDouble(0.0), dphi0 = dphi.applyAsDouble(0.0);
+
+        double alpha = search.search(phi, dphi, phi0, dphi0, alpha0).getX();
+
+        assertTrue("alpha = " + alpha, alpha > 0.0);
+        assertTrue("sufficient decrease", phi.applyAsDouble(alpha) <= phi0 + CONF.c1 * alpha * dphi0);
+        assertTrue("curvature", Math.abs(dphi.applyAsDouble(alpha)) <= -CONF.c2 * dphi0);
+        return alpha;
+    }
+
+}
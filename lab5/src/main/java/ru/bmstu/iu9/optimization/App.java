@@ -1,30 +1,43 @@
 package ru.bmstu.iu9.optimization;
 
 
+import org.apache.commons.math3.RealFieldElement;
 import org.apache.commons.math3.linear.MatrixUtils;
-import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.ad.AutoDiff;
+import ru.bmstu.iu9.optimization.ad.DifferentiableObjective;
 import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.global.GlobalConfig;
 import ru.bmstu.iu9.optimization.conf.gpc.GradientProjectionConfig;
 import ru.bmstu.iu9.optimization.conf.mlc.ModifiedLagrangianConfig;
+import ru.bmstu.iu9.optimization.conf.msc.MultiStartConfig;
 import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.problem.ProblemConfig;
 import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+import ru.bmstu.iu9.optimization.diff.DifferenceScheme;
+import ru.bmstu.iu9.optimization.diff.FiniteDifferences;
+import ru.bmstu.iu9.optimization.expr.ExpressionCompiler;
 import ru.bmstu.iu9.optimization.loader.PropertiesLoader;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
 import ru.bmstu.iu9.optimization.md.gpm.GradientProjectionMethod;
 import ru.bmstu.iu9.optimization.md.ml.ModifiedLagrangianMethod;
+import ru.bmstu.iu9.optimization.md.ms.MultiStartMethod;
 import ru.bmstu.iu9.optimization.md.pm.CombinedPenaltyMethod;
 import ru.bmstu.iu9.optimization.md.pm.ExternalPenaltyMethod;
 import ru.bmstu.iu9.optimization.md.pm.InternalPenaltyMethod;
 import ru.bmstu.iu9.optimization.md.pm.PenaltyType;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.JacobianProvider;
+import ru.bmstu.iu9.optimization.objective.SparseJacobian;
 
 import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.util.List;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static java.lang.Math.pow;
 import static java.util.Arrays.asList;
@@ -39,6 +52,8 @@ public class App {
     private static DichotomyMethodConfig dichotomyMethodConfig;
     private static ModifiedLagrangianConfig modifiedLagrangianConfig;
     private static GradientProjectionConfig gradientProjectionConfig;
+    private static MultiStartConfig multiStartConfig;
+    private static ProblemConfig problemConfig;
 
     private static OptimizationMethod[] optimizationMethods;
 
@@ -55,6 +70,8 @@ public class App {
             File configFile = new File(configUrl.getFile());
             loadConfiguration(configFile);
             initOptimizationMethods();
+            // статистика запусков нужна только для вывода результатов, получатель ее не хранит
+            Metrics.setSink((solver, stats) -> { });
 
             for(OptimizationMethod optimization : optimizationMethods) {
                 System.out.println("[info] Starting optimization: " + optimization.name());
@@ -64,6 +81,7 @@ public class App {
                 System.out.printf("[info]\t x* = %s%n", res.getVector());
                 System.out.printf("[info]\t f(x*) = %.3f%n", res.getFunctionValue());
                 System.out.printf("[info]\t iterations: %d%n", res.getTotalIterations());
+                printStats(res.getStats());
                 System.out.printf("[info]\t execution time: %dms%n", end - start);
             }
 
@@ -72,14 +90,37 @@ public class App {
         }
     }
 
+    private static void printStats(SolverStats stats) {
+        System.out.printf("[info]\t function evaluations: %d%n", stats.getObjectiveEvaluations());
+        if (stats.getLineSearchEvaluations() > 0) {
+            System.out.printf("[info]\t line search evaluations: %d%n", stats.getLineSearchEvaluations());
+        }
+        if (stats.getCacheHits() + stats.getCacheMisses() > 0) {
+            System.out.printf("[info]\t cache: hits=%d, misses=%d%n", stats.getCacheHits(), stats.getCacheMisses());
+        }
+    }
+
     private static void initOptimizationMethods() {
         Function<RealVector, Double> objectiveFunc = getRosenbrock2Function();
         Function<RealVector, RealVector> gradientFunc = getRosenbrock2Gradient();
         List<Function<RealVector, Double>> constraints = getConstraints();
-        Function<RealVector, RealMatrix> activeConstraintsMatrix = getConstraintsDerivativeMatrix();
+        JacobianProvider constraintsJacobian = getConstraintsJacobian();
+        DifferentiableObjective differentiableObjective = getDifferentiableRosenbrock2Function();
+
+        GradientProjectionMethod gradientProjectionMethod = new GradientProjectionMethod(objectiveFunc, gradientFunc, constraints, constraintsJacobian, gradientProjectionConfig);
 
         optimizationMethods = new OptimizationMethod[]{
-                new GradientProjectionMethod(objectiveFunc, gradientFunc, constraints, activeConstraintsMatrix, gradientProjectionConfig),
+                gradientProjectionMethod,
+                new GradientProjectionMethod(objectiveFunc, constraints, new FiniteDifferences(DifferenceScheme.CENTRAL), gradientProjectionConfig),
+                new GradientProjectionMethod(
+                        AutoDiff.value(differentiableObjective),
+                        AutoDiff.gradient(differentiableObjective),
+                        constraints,
+                        AutoDiff.jacobian(getDifferentiableConstraints()),
+                        gradientProjectionConfig
+                ),
+                getConfiguredGradientProjectionMethod(),
+                new MultiStartMethod(gradientProjectionMethod, multiStartConfig, (x) -> constraints.stream().allMatch(g -> g.apply(x) <= 0)),
                 new ModifiedLagrangianMethod(objectiveFunc, constraints, patternSearchConfig, dichotomyMethodConfig, modifiedLagrangianConfig),
                 new ExternalPenaltyMethod(objectiveFunc, constraints, patternSearchConfig, dichotomyMethodConfig, penaltyMethodConfig),
                 new InternalPenaltyMethod(objectiveFunc, constraints, patternSearchConfig, dichotomyMethodConfig, penaltyMethodConfig, PenaltyType.HYPERBOLIC),
@@ -95,6 +136,28 @@ public class App {
         dichotomyMethodConfig = new PropertiesLoader<>(file, DichotomyMethodConfig.class).parse();
         modifiedLagrangianConfig = new PropertiesLoader<>(file, ModifiedLagrangianConfig.class).parse();
         gradientProjectionConfig = new PropertiesLoader<>(file, GradientProjectionConfig.class).parse();
+        multiStartConfig = new PropertiesLoader<>(file, MultiStartConfig.class).parse();
+        problemConfig = new PropertiesLoader<>(file, ProblemConfig.class).parse();
+    }
+
+    /**
+     * Метод проекции градиента для задачи из файла настроек: функции скомпилированы из выражений,
+     * недостающие производные вычисляются автоматическим дифференцированием.
+     */
+    private static GradientProjectionMethod getConfiguredGradientProjectionMethod() {
+        ExpressionCompiler compiler = new ExpressionCompiler(asList(problemConfig.variables().split(",")));
+        List<String> constraints = ExpressionCompiler.split(problemConfig.constraints());
+        List<String> gradient = ExpressionCompiler.split(problemConfig.gradient());
+
+        return new GradientProjectionMethod(
+                compiler.function(problemConfig.objective()),
+                gradient.isEmpty()
+                        ? AutoDiff.gradient(compiler.differentiable(problemConfig.objective()))
+                        : compiler.vectorFunction(gradient),
+                compiler.constraints(constraints),
+                JacobianProvider.dense(AutoDiff.jacobian(constraints.stream().map(compiler::differentiable).collect(Collectors.toList()))),
+                gradientProjectionConfig
+        );
     }
 
     private static Function<RealVector, Double> getRosenbrock2Function() {
@@ -108,6 +171,22 @@ public class App {
         };
     }
 
+    private static DifferentiableObjective getDifferentiableRosenbrock2Function() {
+        double a = globalConfig.rosenbrockA();
+        double b = globalConfig.rosenbrockB();
+        double f0 = globalConfig.rosenbrockF0();
+
+        return new DifferentiableObjective() {
+            @Override
+            public <T extends RealFieldElement<T>> T value(T[] vec) {
+                T x = vec[0], y = vec[1];
+                return x.multiply(x).subtract(y).pow(2).multiply(a)
+                        .add(x.subtract(1.0).pow(2).multiply(b))
+                        .add(f0);
+            }
+        };
+    }
+
     private static Function<RealVector, RealVector> getRosenbrock2Gradient() {
         double a = globalConfig.rosenbrockA();
         double b = globalConfig.rosenbrockB();
@@ -129,12 +208,38 @@ public class App {
         );
     }
 
-    private static Function<RealVector, RealMatrix> getConstraintsDerivativeMatrix() {
-        return (vec) -> MatrixUtils.createRealMatrix(new double[][] {
-                {2 * vec.getEntry(0), 2 * vec.getEntry(1)},
-                {-1, 0},
-                {0, -1}
-        });
+    private static List<DifferentiableObjective> getDifferentiableConstraints() {
+        return asList(
+                new DifferentiableObjective() {
+                    @Override
+                    public <T extends RealFieldElement<T>> T value(T[] x) {
+                        return x[0].multiply(x[0]).add(x[1].multiply(x[1])).subtract(0.8);
+                    }
+                },
+                new DifferentiableObjective() {
+                    @Override
+                    public <T extends RealFieldElement<T>> T value(T[] x) {
+                        return x[0].negate();
+                    }
+                },
+                new DifferentiableObjective() {
+                    @Override
+                    public <T extends RealFieldElement<T>> T value(T[] x) {
+                        return x[1].negate();
+                    }
+                }
+        );
+    }
+
+    private static JacobianProvider getConstraintsJacobian() {
+        return SparseJacobian.builder(2)
+                .row(new int[]{0, 1}, (x, out, offset) -> {
+                    out[offset] = 2 * x[0];
+                    out[offset + 1] = 2 * x[1];
+                })
+                .row(new int[]{0}, (x, out, offset) -> out[offset] = -1)
+                .row(new int[]{1}, (x, out, offset) -> out[offset] = -1)
+                .build();
     }
 
 }
@@ -4,4 +4,11 @@ public interface DichotomyMethodConfig {
     double start();
     double end();
     double eps();
+
+    /**
+     * Ограничение числа итераций одномерного поиска (метод Брента).
+     */
+    default int maxIterations() {
+        return 100;
+    }
 }
@@ -18,4 +18,8 @@ public interface GradientProjectionConfig {
 
     double alpha0();
 
+    default int cacheCapacity() {
+        return 0;
+    }
+
 }
@@ -9,4 +9,19 @@ public interface ModifiedLagrangianConfig {
     double r0();
     double beta();
     double eps();
-}
\ No newline at end of file
+
+    /**
+     * Переносить шаги и последнее направление поиска по образцу между внешними итерациями.
+     */
+    default boolean warmStart() {
+        return false;
+    }
+
+    /**
+     * Подзадача решается с точностью innerTolerance * |штраф предыдущей итерации|
+     * (не точнее psc.eps); 0 - каждая подзадача решается с точностью psc.eps.
+     */
+    default double innerTolerance() {
+        return 0.0;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.bmstu.iu9.optimization.conf.msc;
+
+import ru.bmstu.iu9.optimization.md.ms.StartPointsType;
+
+public interface MultiStartConfig {
+
+    int startsCount();
+
+    double[] lowerBounds();
+
+    double[] upperBounds();
+
+    default StartPointsType startPoints() {
+        return StartPointsType.LATIN_HYPERCUBE;
+    }
+
+    default int parallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Как только найдено значение не больше этого, еще не начатые запуски отменяются, а идущие
+     * останавливаются на следующей итерации, если локальный метод поддерживает слушатель итераций.
+     */
+    default double targetValue() {
+        return Double.NEGATIVE_INFINITY;
+    }
+
+    /**
+     * Локальные минимумы, расстояние между которыми меньше этого значения, считаются одним.
+     */
+    default double distinctTolerance() {
+        return 1e-3;
+    }
+
+    default int seed() {
+        return 0;
+    }
+
+}
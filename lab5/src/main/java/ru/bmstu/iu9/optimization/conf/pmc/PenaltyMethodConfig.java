@@ -20,4 +20,21 @@ public interface PenaltyMethodConfig {
 
     RealVector combinedPenaltyPoint();
 
+    /**
+     * Переносить шаги и последнее направление поиска по образцу между внешними итерациями
+     * (кроме комбинированного метода штрафов).
+     */
+    default boolean warmStart() {
+        return false;
+    }
+
+    /**
+     * Подзадача решается с точностью innerTolerance * |штраф предыдущей итерации|
+     * (не точнее psc.eps); 0 - каждая подзадача решается с точностью psc.eps.
+     * Комбинированный метод штрафов всегда решает подзадачи точно и без теплого старта.
+     */
+    default double innerTolerance() {
+        return 0.0;
+    }
+
 }
@@ -0,0 +1,30 @@
+package ru.bmstu.iu9.optimization.conf.problem;
+
+/**
+ * Задача, заданная выражениями (см. {@link ru.bmstu.iu9.optimization.expr.ExpressionCompiler}).
+ * Списки выражений разделяются ';'.
+ */
+public interface ProblemConfig {
+
+    /**
+     * Имена переменных через запятую в порядке координат точки.
+     */
+    String variables();
+
+    String objective();
+
+    /**
+     * Компоненты градиента; если не заданы, градиент вычисляется автоматическим дифференцированием.
+     */
+    default String gradient() {
+        return "";
+    }
+
+    /**
+     * Ограничения g_i(x) <= 0.
+     */
+    default String constraints() {
+        return "";
+    }
+
+}
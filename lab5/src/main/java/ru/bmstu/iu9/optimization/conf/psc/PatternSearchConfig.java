@@ -1,7 +1,22 @@
 package ru.bmstu.iu9.optimization.conf.psc;
 
+import ru.bmstu.iu9.optimization.od.LineSearch;
+import ru.bmstu.iu9.optimization.poll.PollMode;
+
 public interface PatternSearchConfig {
     double[] steps();
     double eps();
     double beta();
+
+    default int cacheCapacity() {
+        return 0;
+    }
+
+    default LineSearch lineSearch() {
+        return LineSearch.DICHOTOMY;
+    }
+
+    default PollMode pollMode() {
+        return PollMode.SEQUENTIAL;
+    }
 }
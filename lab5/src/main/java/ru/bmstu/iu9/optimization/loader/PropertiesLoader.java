@@ -7,7 +7,10 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Proxy;
 import java.util.*;
 import java.util.regex.Matcher;
@@ -17,6 +20,7 @@ import java.util.stream.Stream;
 public class PropertiesLoader<T> {
 
     private static Pattern GETTER_PATTERN = Pattern.compile("get([A-Z0-9].*?)");
+    private static Pattern LIST_PATTERN = Pattern.compile("\\[(.*?)]");
     private Properties properties;
     private Class<T> configClass;
 
@@ -32,52 +36,116 @@ public class PropertiesLoader<T> {
         return this.parse(getDefaultMapping(configClass));
     }
 
+    /**
+     * Разбирает все значения сразу и возвращает конфигурацию, геттеры которой только читают готовые значения.
+     * Значения default-методов, для которых нет ключа, вычисляются один раз здесь же.
+     * Векторы возвращаются в виде неизменяемого представления, массивы - в виде копии при каждом
+     * вызове (неизменяемого представления у массива нет), поэтому геттер массива выносится из циклов.
+     *
+     * @throws IllegalArgumentException если значение какого-либо ключа не удается разобрать
+     * @throws IllegalStateException если для методов без значения по умолчанию нет ключей;
+     * в сообщении перечислены все отсутствующие ключи
+     */
     @SuppressWarnings("unchecked")
     public T parse(Map<String, String> configFieldsToKeysMapping) {
-        return (T) Proxy.newProxyInstance(
+        Map<Method, Object> values = new HashMap<>();
+        SortedSet<String> missingKeys = new TreeSet<>();
+        List<Method> defaultMethods = new ArrayList<>();
+
+        for (Method method : configClass.getMethods()) {
+            Optional<String> propNameOpt = propertyNameFromGetter(method);
+            if (!propNameOpt.isPresent() || method.getParameterCount() > 0 || Modifier.isStatic(method.getModifiers())) {
+                continue;
+            }
+
+            String key = configFieldsToKeysMapping.getOrDefault(propNameOpt.get(), propNameOpt.get());
+            Object value = configFieldsToKeysMapping.containsKey(propNameOpt.get())
+                    ? parseProperty(key, method.getReturnType())
+                    : null;
+
+            if (value != null) {
+                values.put(method, freeze(value));
+            } else if (method.isDefault()) {
+                defaultMethods.add(method);
+            } else {
+                missingKeys.add(key);
+            }
+        }
+
+        if (!missingKeys.isEmpty()) {
+            throw new IllegalStateException("Properties are not set: " + String.join(", ", missingKeys));
+        }
+
+        T config = (T) Proxy.newProxyInstance(
                 configClass.getClassLoader(),
                 new Class[]{configClass},
-                (proxy, method, methodArgs) -> {
-                    Optional<String> propNameOpt = propertyNameFromGetter(method);
+                new FrozenConfigHandler(configClass, values)
+        );
 
-                    if (propNameOpt.isPresent()) {
-                        String propertyName = propNameOpt.get();
-                        if (configFieldsToKeysMapping.containsKey(propertyName)) {
-                            return parseProperty(configFieldsToKeysMapping.get(propertyName), method.getReturnType());
-                        }
-                    }
+        // значение по умолчанию задается default-методом интерфейса
+        for (Method method : defaultMethods) {
+            values.put(method, freeze(invokeDefault(config, method)));
+        }
 
-                    return null;
-                }
-        );
+        return config;
     }
 
-    @SuppressWarnings("unchecked")
     private <K> K parseProperty(String key, Class<K> keyType) {
         Object propValue = properties.get(key);
 
         if(propValue == null)
             return null;
 
+        try {
+            return parseValue((String) propValue, keyType);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value of property " + key + ": " + propValue, e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <K> K parseValue(String propValue, Class<K> keyType) {
         if (keyType == Double.TYPE) {
-            return (K) Double.valueOf((String)propValue);
+            return (K) Double.valueOf(propValue);
         } else if (keyType == Float.TYPE) {
-            return (K) Float.valueOf((String)propValue);
+            return (K) Float.valueOf(propValue);
         } else if (keyType == Integer.TYPE) {
-            return (K) Integer.valueOf((String)propValue);
+            return (K) Integer.valueOf(propValue.trim());
         } else if (keyType == Boolean.TYPE) {
-            return (K) Boolean.valueOf((String)propValue);
+            return (K) Boolean.valueOf(propValue);
+        } else if (keyType.isEnum()) {
+            return (K) parseEnum(keyType, propValue);
         } else if (keyType == String.class) {
-            return (K) properties.get(key);
+            return (K) propValue;
         } else if (keyType == double[].class) {
-            return (K) parseDoubleArray((String)propValue);
+            return (K) parseDoubleArray(propValue);
         } else if (inheritedFrom(keyType, RealVector.class)) {
-            return (K) new ArrayRealVector(parseDoubleArray((String)propValue));
+            return (K) new ArrayRealVector(parseDoubleArray(propValue));
         } else {
             throw new UnsupportedOperationException("Unable to parse properties key for type: " + keyType);
         }
     }
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Object parseEnum(Class<?> enumType, String value) {
+        return Enum.valueOf((Class<? extends Enum>) enumType, value.trim().toUpperCase());
+    }
+
+    private Object invokeDefault(Object proxy, Method method) {
+        try {
+            return MethodHandles.privateLookupIn(configClass, MethodHandles.lookup())
+                    .unreflectSpecial(method, configClass)
+                    .bindTo(proxy)
+                    .invokeWithArguments();
+        } catch (Throwable e) {
+            throw new IllegalStateException("Failed to evaluate default value of " + method.getName(), e);
+        }
+    }
+
+    private static Object freeze(Object value) {
+        return value instanceof RealVector ? RealVector.unmodifiableRealVector((RealVector) value) : value;
+    }
+
     private static String toCamelCase(String str) {
         return str.substring(0, 1).toLowerCase() + str.substring(1);
     }
@@ -106,10 +174,10 @@ public class PropertiesLoader<T> {
     }
 
     private static double[] parseDoubleArray(String value) {
-        Matcher listMatcher = Pattern.compile("\\[(.*?)]").matcher(value);
+        Matcher listMatcher = LIST_PATTERN.matcher(value.trim());
 
         if (!listMatcher.matches()) {
-            throw new RuntimeException("Failed to parse property: " + value);
+            throw new IllegalArgumentException("Failed to parse property: " + value);
         }
 
         String listValuesStr = listMatcher.group(1);
@@ -133,4 +201,42 @@ public class PropertiesLoader<T> {
         return Optional.of(propertyName);
     }
 
+    /**
+     * Обработчик вызовов, возвращающий заранее разобранные значения.
+     */
+    private static final class FrozenConfigHandler implements InvocationHandler {
+
+        private final Class<?> configClass;
+        private final Map<Method, Object> values;
+
+        FrozenConfigHandler(Class<?> configClass, Map<Method, Object> values) {
+            this.configClass = configClass;
+            this.values = values;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            Object value = values.get(method);
+
+            if (value != null) {
+                // копия: разобранный массив общий для всех вызывающих
+                return value instanceof double[] ? ((double[]) value).clone() : value;
+            }
+
+            if (method.getDeclaringClass() == Object.class) {
+                switch (method.getName()) {
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    default:
+                        return configClass.getSimpleName() + values.values();
+                }
+            }
+
+            throw new IllegalStateException("Property is not set: " + method.getName());
+        }
+
+    }
+
 }
@@ -1,6 +1,7 @@
 package ru.bmstu.iu9.optimization.md;
 
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
 
 public interface OptimizationMethod {
 
@@ -12,4 +13,11 @@ public interface OptimizationMethod {
         return this.getClass().getSimpleName();
     }
 
+    /**
+     * Слушатель вызывается после каждой итерации и может остановить метод.
+     * Методы без поддержки слушателя его игнорируют.
+     */
+    default void setIterationListener(IterationListener listener) {
+    }
+
 }
@@ -1,11 +1,13 @@
 package ru.bmstu.iu9.optimization.md;
 
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
 
 public class OptimizationResult {
     private RealVector vector;
     private double functionValue;
     private int totalIterations = -1;
+    private SolverStats stats = SolverStats.disabled();
 
     public OptimizationResult(RealVector vector, double functionValue) {
         this.vector = vector;
@@ -18,6 +20,11 @@ public class OptimizationResult {
         this.totalIterations = totalIterations;
     }
 
+    public OptimizationResult(RealVector vector, double functionValue, int totalIterations, SolverStats stats) {
+        this(vector, functionValue, totalIterations);
+        this.stats = stats;
+    }
+
     public RealVector getVector() {
         return vector;
     }
@@ -30,4 +37,11 @@ public class OptimizationResult {
         return totalIterations;
     }
 
+    /**
+     * Статистика запуска; выключена, если получатель метрик не задан.
+     */
+    public SolverStats getStats() {
+        return stats;
+    }
+
 }
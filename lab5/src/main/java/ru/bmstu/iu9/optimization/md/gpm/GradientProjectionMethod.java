@@ -1,28 +1,41 @@
 package ru.bmstu.iu9.optimization.md.gpm;
 
 import org.apache.commons.math3.linear.ArrayRealVector;
-import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealMatrix;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.gpc.GradientProjectionConfig;
-import ru.bmstu.iu9.optimization.geometry.VectorUtils;
+import ru.bmstu.iu9.optimization.diff.FiniteDifferences;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.CachedFunction;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
+import ru.bmstu.iu9.optimization.objective.JacobianProvider;
 import ru.bmstu.iu9.optimization.od.DichotomyMethod;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Function;
 
 import static java.lang.Math.*;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
 
 public class GradientProjectionMethod implements OptimizationMethod {
 
+    private static final double ROOT_TOLERANCE = 1e-12;
+    private static final int MAX_ROOT_ITERATIONS = 64;
+
     private Function<RealVector, Double> objectiveFunc;
     private Function<RealVector, RealVector> gradient;
-    private List<Function<RealVector, Double>> constraints;
-    private Function<RealVector, RealMatrix> matAFullFunc;
+    private ConstraintSet constraints;
+    private JacobianProvider jacobian;
     private GradientProjectionConfig c;
+    private IterationListener listener = IterationListener.NONE;
 
     public GradientProjectionMethod(
             Function<RealVector, Double> objectiveFunc,
@@ -30,17 +43,60 @@ public class GradientProjectionMethod implements OptimizationMethod {
             List<Function<RealVector, Double>> constraints,
             Function<RealVector, RealMatrix> constraintsDerivativesMatrix,
             GradientProjectionConfig c) {
+        this(objectiveFunc, gradient, ConstraintSet.of(constraints), JacobianProvider.dense(constraintsDerivativesMatrix), c);
+    }
+
+    public GradientProjectionMethod(
+            Function<RealVector, Double> objectiveFunc,
+            Function<RealVector, RealVector> gradient,
+            List<Function<RealVector, Double>> constraints,
+            JacobianProvider jacobian,
+            GradientProjectionConfig c) {
+        this(objectiveFunc, gradient, ConstraintSet.of(constraints), jacobian, c);
+    }
+
+    public GradientProjectionMethod(
+            Function<RealVector, Double> objectiveFunc,
+            Function<RealVector, RealVector> gradient,
+            ConstraintSet constraints,
+            JacobianProvider jacobian,
+            GradientProjectionConfig c) {
         this.objectiveFunc = objectiveFunc;
         this.gradient = gradient;
         this.constraints = constraints;
-        this.matAFullFunc = constraintsDerivativesMatrix;
+        this.jacobian = jacobian;
         this.c = c;
     }
 
+    /**
+     * Градиент целевой функции и матрица производных ограничений вычисляются численно.
+     */
+    public GradientProjectionMethod(
+            Function<RealVector, Double> objectiveFunc,
+            List<Function<RealVector, Double>> constraints,
+            FiniteDifferences differences,
+            GradientProjectionConfig c) {
+        this(objectiveFunc, differences.gradient(objectiveFunc), constraints, differences.jacobian(constraints), c);
+    }
+
+    /**
+     * Слушатель вызывается после каждой итерации и может остановить метод.
+     */
+    @Override
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
     @Override
     public OptimizationResult optimize(RealVector x0) {
+        SolverStats stats = Metrics.newStats();
+        Function<RealVector, Double> objectiveFunc = CachedFunction.wrap(stats.objective(this.objectiveFunc), c.cacheCapacity());
+        Function<RealVector, RealVector> gradient = stats.gradient(this.gradient);
         RealVector x = new ArrayRealVector(x0);
         RealVector vecDir = null;
+        double[] g = new double[constraints.size()];
+        WorkingSet workingSet = new WorkingSet(x0.getDimension());
+        IterationState state = listener == IterationListener.NONE ? null : new IterationState();
         boolean shouldUseGradDir;
         int k;
 
@@ -50,49 +106,50 @@ public class GradientProjectionMethod implements OptimizationMethod {
 
             // если норма градиента стала слишком маленькой, выходим
             if ((gradF.getNorm() < c.eps2())) {
-                return new OptimizationResult(x, objectiveFunc.apply(x), k);
+                return result(x, objectiveFunc, k, stats);
             }
 
             gradF.unitize();
 
-            List<Integer> activeConstraintsIdxes = getActiveConstraints(x);
+            List<Integer> activeConstraintsIdxes = getActiveConstraints(x, g);
 
             // Попали на границу
             // антиградиент направлен за пределы допустимой области, проецируем градиент
             if (activeConstraintsIdxes.size() > 0 && satisfiesConstraints(x.subtract(gradF)) < 0) {
-                RealMatrix matA = buildMatAWithConstraints(activeConstraintsIdxes, x);
+                long phaseStart = stats.start();
+                workingSet.sync(activeConstraintsIdxes, jacobian, x.toArray());
+                double[] grad = gradF.toArray();
                 do {
-                    RealVector deltaX = gradientProjection(matA, gradF);
-                    if (deltaX.getNorm() > c.eps2()) {
-                        vecDir = deltaX;
+                    // z - решение задачи наименьших квадратов A^T * z = gradF, оба результата
+                    // дает QR-разложение A^T, обновляемое при изменении рабочего множества
+                    double[] deltaX = workingSet.negativeProjection(grad);
+                    if (norm(deltaX) > c.eps2()) {
+                        vecDir = new ArrayRealVector(deltaX, false);
                         shouldUseGradDir = false;
                         break;
                     }
 
-                    RealVector lambda = MatrixUtils.inverse(matA.multiply(matA.transpose()))
-                            .multiply(matA)
-                            .operate(gradF)
-                            .mapMultiply(-1);
+                    double[] z = workingSet.multipliers(grad);
 
-                    // Все элементы больше либо равны нулю - Ура!
+                    // все множители lambda = -z неотрицательны - Ура!
                     // Похоже искомая точка найдена, следует проверить достаточные условия экстремума
-                    if (VectorUtils.elementsAreGreaterOrEqualsZero(lambda)) {
-                        return new OptimizationResult(x, objectiveFunc.apply(x), k);
-                    }
-
-                    // найдем индекс с минимальным лямбда
                     int minLambdaIdx = 0;
-                    for (int i = 1; i < lambda.getDimension(); i++) {
-                        if (lambda.getEntry(i) < lambda.getEntry(minLambdaIdx)) {
+                    for (int i = 1; i < z.length; i++) {
+                        if (-z[i] < -z[minLambdaIdx]) {
                             minLambdaIdx = i;
                         }
                     }
+                    if (z.length == 0 || -z[minLambdaIdx] >= 0) {
+                        stats.stop(Phase.FACTORIZATION, phaseStart);
+                        return result(x, objectiveFunc, k, stats);
+                    }
 
-                    // удалим ограничение с найденным индексом из числа активных
-                    activeConstraintsIdxes.remove(minLambdaIdx);
-                } while (activeConstraintsIdxes.size() > 0);
+                    // удалим ограничение с минимальным lambda из рабочего множества
+                    workingSet.remove(minLambdaIdx);
+                } while (workingSet.size() > 0);
+                stats.stop(Phase.FACTORIZATION, phaseStart);
 
-                shouldUseGradDir = activeConstraintsIdxes.size() == 0;
+                shouldUseGradDir = workingSet.size() == 0;
             }
 
             if (shouldUseGradDir) {
@@ -102,29 +159,50 @@ public class GradientProjectionMethod implements OptimizationMethod {
             RealVector vecDirFinal = vecDir;
             RealVector xFinal = x;
 
-            double alphaConstr = findMaxAlphaSatisfyingConstraints(x, vecDir);
+            long lineSearchStart = stats.start();
+            double alphaConstr = maxFeasibleStep(x.toArray(), vecDir.toArray(), g);
             double alphaOptimal = DichotomyMethod.dichotomyMethod(
                     (alpha) -> objectiveFunc.apply(xFinal.add(vecDirFinal.mapMultiply(alpha))),
                     c.alpha0(),
                     alphaConstr,
                     c.sigma()
             );
+            stats.stop(Phase.LINE_SEARCH, lineSearchStart);
             x = x.add(vecDirFinal.mapMultiply(alphaOptimal));
 
+            if (state != null && !listener.onIteration(state.update(
+                    k + 1,
+                    x.toArray(),
+                    objectiveFunc.apply(x),
+                    gradient.apply(x).getNorm(),
+                    x.getDistance(xFinal),
+                    Double.NaN
+            ))) {
+                return result(x, objectiveFunc, k, stats);
+            }
+
             if(xFinal.subtract(x).getNorm() < c.sigma() || abs(objectiveFunc.apply(x) - objectiveFunc.apply(xFinal)) < c.eps2())
-                return new OptimizationResult(x, objectiveFunc.apply(x), k);
+                return result(x, objectiveFunc, k, stats);
 
         }
 
-        return new OptimizationResult(x, objectiveFunc.apply(x), k);
+        return result(x, objectiveFunc, k, stats);
     }
 
-    private List<Integer> getActiveConstraints(RealVector x) {
+    private OptimizationResult result(RealVector x, Function<RealVector, Double> objectiveFunc, int k, SolverStats stats) {
+        double fx = objectiveFunc.apply(x);
+        stats.iterations(k);
+        stats.cache(objectiveFunc);
+        Metrics.publish(name(), stats);
+        return new OptimizationResult(x, fx, k, stats);
+    }
+
+    private List<Integer> getActiveConstraints(RealVector x, double[] g) {
         List<Integer> activeConstraintsIdxes = new ArrayList<>();
 
-        for (int i = 0; i < constraints.size(); i++) {
-            double constraintValue = constraints.get(i).apply(x);
-            if (c.eps1() <= constraintValue && constraintValue <= 0) {
+        constraints.values(x.toArray(), g);
+        for (int i = 0; i < g.length; i++) {
+            if (c.eps1() <= g[i] && g[i] <= 0) {
                 activeConstraintsIdxes.add(i);
             }
         }
@@ -132,60 +210,94 @@ public class GradientProjectionMethod implements OptimizationMethod {
         return activeConstraintsIdxes;
     }
 
-    private RealVector gradientProjection(RealMatrix matA, RealVector gradF) {
-        RealMatrix identity = MatrixUtils.createRealIdentityMatrix(gradF.getDimension());
-        return identity
-                .subtract(
-                        matA.transpose()
-                                .multiply(
-                                        MatrixUtils.inverse(matA.multiply(matA.transpose()))
-                                )
-                                .multiply(matA)
-                )
-                .operate(gradF)
-                .mapMultiply(-1);
-    }
-
-    private double findMaxAlphaSatisfyingConstraints(RealVector x0, RealVector d) {
-        double alpha = 0.0, alphaPrev;
-        int k = 0;
-        RealVector x;
+    /**
+     * Наибольший шаг alpha, при котором x + alpha * d остается допустимой (тест отношений).
+     * <p>
+     * По значению g_i ограничения в x и его производной s_i вдоль d шаг до границы равен
+     * -g_i / s_i (шаг Ньютона из alpha = 0); для линейных ограничений он точен, и наименьший
+     * из них проверяется одним вычислением всех ограничений. Для нелинейных ограничений
+     * граница уточняется методом секущих, сохраняющим отрезок с корнем (Illinois), до длины
+     * отрезка alphaPrecision; как и при делении пополам, возвращается его середина.
+     * Ограничения, нарушенные уже в x, не должны нарушаться сильнее.
+     */
+    private double maxFeasibleStep(double[] x, double[] d, double[] g0) {
+        int m = g0.length;
+        double[] shift = new double[m], g = new double[m], probe = new double[x.length];
+        double[] slopes = new double[m];
+        double alpha = Double.POSITIVE_INFINITY;
+
+        jacobian.directional(x, d, slopes);
+        for (int i = 0; i < m; i++) {
+            shift[i] = max(g0[i], 0.0);
+            if (slopes[i] > 0) {
+                alpha = min(alpha, (shift[i] - g0[i]) / slopes[i]);
+            }
+        }
 
-        do {
-            alphaPrev = alpha;
-            alpha = pow(2.0, k);
-            x = x0.add(d.mapMultiply(alpha));
-            k++;
-        } while (satisfiesConstraints(x) > 0);
+        // без оценки, как и прежде, начинаем с единичного шага
+        double lo = 0.0, psiLo = violation(x, 0.0, d, shift, g, probe);
+        double hi = Double.isInfinite(alpha) ? 1.0 : alpha;
+        double psiHi = violation(x, hi, d, shift, g, probe);
 
-        double minAlpha = alphaPrev, maxAlpha = alpha;
+        // точка еще допустима: для вогнутых ограничений граница дальше линейной оценки
+        for (int expansion = 0; psiHi < -ROOT_TOLERANCE; expansion++) {
+            if (expansion == MAX_ROOT_ITERATIONS) {
+                return hi;
+            }
+            lo = hi;
+            psiLo = psiHi;
+            hi *= 2.0;
+            psiHi = violation(x, hi, d, shift, g, probe);
+        }
+        if (psiHi <= ROOT_TOLERANCE) {
+            return hi;
+        }
 
-        while (abs(minAlpha - maxAlpha) > c.alphaPrecision()) {
-            double mid = (minAlpha + maxAlpha) / 2.0;
-            if (satisfiesConstraints(x0.add(d.mapMultiply(minAlpha))) * satisfiesConstraints(x0.add(d.mapMultiply(mid))) < 0) {
-                maxAlpha = mid;
+        int side = 0;
+        for (int iteration = 0; hi - lo > c.alphaPrecision() && iteration < MAX_ROOT_ITERATIONS; iteration++) {
+            double a = (lo * psiHi - hi * psiLo) / (psiHi - psiLo);
+            if (!(a > lo && a < hi)) {
+                a = (lo + hi) / 2.0;
+            }
+            double psi = violation(x, a, d, shift, g, probe);
+            if (abs(psi) <= ROOT_TOLERANCE) {
+                return a;
+            }
+            if (psi < 0) {
+                lo = a;
+                psiLo = psi;
+                if (side < 0) {
+                    psiHi /= 2.0;
+                }
+                side = -1;
             } else {
-                minAlpha = mid;
+                hi = a;
+                psiHi = psi;
+                if (side > 0) {
+                    psiLo /= 2.0;
+                }
+                side = 1;
             }
         }
 
-        return (minAlpha + maxAlpha) / 2.0;
+        return (lo + hi) / 2.0;
     }
 
-    private RealMatrix buildMatAWithConstraints(List<Integer> activeIdxes, RealVector x) {
-        RealMatrix matA = MatrixUtils.createRealMatrix(activeIdxes.size(), x.getDimension());
-
-        for (int i = 0; i < activeIdxes.size(); i++) {
-            matA.setRowVector(i, matAFullFunc.apply(x).getRowVector(activeIdxes.get(i)));
+    /**
+     * max_i (g_i(x + alpha * d) - shift_i): неположительна, пока точка допустима.
+     */
+    private double violation(double[] x, double alpha, double[] d, double[] shift, double[] g, double[] probe) {
+        linearCombination(x, alpha, d, probe);
+        constraints.values(probe, g);
+        double psi = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < g.length; i++) {
+            psi = max(psi, g[i] - shift[i]);
         }
-
-        return matA;
+        return psi;
     }
 
     private int satisfiesConstraints(RealVector x) {
-        return constraints.stream()
-                .map(g -> g.apply(x))
-                .allMatch(val -> val <= 0) ? 1 : -1;
+        return constraints.isFeasible(x.toArray()) ? 1 : -1;
     }
 
     @Override
@@ -0,0 +1,203 @@
+package ru.bmstu.iu9.optimization.md.gpm;
+
+import ru.bmstu.iu9.optimization.objective.JacobianProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
+
+/**
+ * Рабочее множество ограничений вместе с QR-разложением A^T = Q * R, где строки A - градиенты
+ * ограничений множества. Q хранится полностью (n x n): первые k столбцов - базис образа A^T,
+ * остальные - базис касательного подпространства, на которое проецируется градиент.
+ * <p>
+ * Ограничение добавляется и удаляется вращениями Гивенса за O(n^2) вместо нового
+ * разложения. Строки линейных ограничений между итерациями не меняются, поэтому при
+ * {@link #sync(List, JacobianProvider, double[])} пересчитываются только ограничения,
+ * у которых изменились градиенты, и вошедшие в активное множество. Экземпляр используется
+ * одним запуском метода.
+ */
+final class WorkingSet {
+
+    private static final double DEPENDENCE_TOLERANCE = 1e-12;
+
+    private final int n;
+    private final double[][] q;
+    private final List<double[]> r = new ArrayList<>();
+    private final List<double[]> rows = new ArrayList<>();
+    private final List<Integer> ids = new ArrayList<>();
+    private final double[] work;
+
+    WorkingSet(int n) {
+        this.n = n;
+        this.q = new double[n][n];
+        this.work = new double[n];
+        for (int i = 0; i < n; i++) {
+            q[i][i] = 1.0;
+        }
+    }
+
+    int size() {
+        return ids.size();
+    }
+
+    /**
+     * @return номер ограничения в столбце j
+     */
+    int id(int j) {
+        return ids.get(j);
+    }
+
+    /**
+     * Приводит множество к активным ограничениям в точке x: удаляет ушедшие и те, у которых
+     * изменился градиент, добавляет новые. Вычисляются только строки активных ограничений.
+     * Ограничение, градиент которого линейно зависит от уже добавленных, в множество не входит.
+     */
+    void sync(List<Integer> active, JacobianProvider jacobian, double[] x) {
+        for (int j = ids.size() - 1; j >= 0; j--) {
+            int id = ids.get(j);
+            if (!active.contains(id)) {
+                remove(j);
+                continue;
+            }
+            jacobian.row(id, x, work);
+            if (!Arrays.equals(rows.get(j), work)) {
+                remove(j);
+            }
+        }
+        for (int id : active) {
+            if (!ids.contains(id)) {
+                double[] a = new double[n];
+                jacobian.row(id, x, a);
+                add(id, a);
+            }
+        }
+    }
+
+    /**
+     * Добавляет столбец a к A^T: w = Q^T * a, поддиагональная часть w обнуляется вращениями.
+     *
+     * @return false, если a линейно зависит от столбцов множества
+     */
+    boolean add(int id, double[] a) {
+        int k = ids.size();
+        if (k == n) {
+            return false;
+        }
+
+        double[] w = new double[n];
+        for (int i = 0; i < n; i++) {
+            double s = 0.0;
+            for (int j = 0; j < n; j++) {
+                s += q[j][i] * a[j];
+            }
+            w[i] = s;
+        }
+        for (int i = n - 1; i > k; i--) {
+            rotate(w, i - 1, i);
+        }
+        if (Math.abs(w[k]) <= DEPENDENCE_TOLERANCE * norm(a)) {
+            return false;
+        }
+
+        r.add(w);
+        rows.add(a);
+        ids.add(id);
+        return true;
+    }
+
+    /**
+     * Удаляет столбец j: R становится верхней хессенберговой, поддиагональ обнуляется вращениями.
+     */
+    void remove(int j) {
+        r.remove(j);
+        rows.remove(j);
+        ids.remove(j);
+        for (int c = j; c < r.size(); c++) {
+            double[] col = r.get(c);
+            double a = col[c], b = col[c + 1], h = Math.hypot(a, b);
+            if (h == 0.0) {
+                continue;
+            }
+            double cs = a / h, sn = b / h;
+            for (int l = c; l < r.size(); l++) {
+                double[] v = r.get(l);
+                double vc = v[c], vn = v[c + 1];
+                v[c] = cs * vc + sn * vn;
+                v[c + 1] = -sn * vc + cs * vn;
+            }
+            rotateQ(c, cs, sn);
+        }
+    }
+
+    /**
+     * Множители z задачи наименьших квадратов A^T * z = g: R * z = (Q^T * g)[0..k).
+     */
+    double[] multipliers(double[] g) {
+        int k = ids.size();
+        double[] y = qtMultiply(g);
+        double[] z = new double[k];
+        for (int i = k - 1; i >= 0; i--) {
+            double s = y[i];
+            for (int j = i + 1; j < k; j++) {
+                s -= r.get(j)[i] * z[j];
+            }
+            z[i] = s / r.get(i)[i];
+        }
+        return z;
+    }
+
+    /**
+     * -(I - A^T * (A * A^T)^-1 * A) * g = -Q2 * Q2^T * g, где Q2 - последние n - k столбцов Q.
+     */
+    double[] negativeProjection(double[] g) {
+        int k = ids.size();
+        double[] y = qtMultiply(g);
+        double[] p = new double[n];
+        for (int i = 0; i < n; i++) {
+            double s = 0.0;
+            for (int j = k; j < n; j++) {
+                s += q[i][j] * y[j];
+            }
+            p[i] = -s;
+        }
+        return p;
+    }
+
+    private double[] qtMultiply(double[] g) {
+        double[] y = work;
+        for (int i = 0; i < n; i++) {
+            double s = 0.0;
+            for (int j = 0; j < n; j++) {
+                s += q[j][i] * g[j];
+            }
+            y[i] = s;
+        }
+        return y;
+    }
+
+    /**
+     * Обнуляет w[p2] вращением строк p1 = p2 - 1 и p2, то же вращение применяется к Q.
+     */
+    private void rotate(double[] w, int p1, int p2) {
+        double a = w[p1], b = w[p2], h = Math.hypot(a, b);
+        if (h == 0.0) {
+            return;
+        }
+        double cs = a / h, sn = b / h;
+        w[p1] = h;
+        w[p2] = 0.0;
+        rotateQ(p1, cs, sn);
+    }
+
+    private void rotateQ(int p, double cs, double sn) {
+        for (int i = 0; i < n; i++) {
+            double a = q[i][p], b = q[i][p + 1];
+            q[i][p] = cs * a + sn * b;
+            q[i][p + 1] = -sn * a + cs * b;
+        }
+    }
+
+}
@@ -8,6 +8,14 @@ import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
 import ru.bmstu.iu9.optimization.md.ps.PatternSearch;
+import ru.bmstu.iu9.optimization.md.ps.PatternSearchState;
+import ru.bmstu.iu9.optimization.md.ps.ToleranceSchedule;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.List;
 import java.util.function.Function;
@@ -17,10 +25,11 @@ import static java.lang.Math.*;
 public class ModifiedLagrangianMethod implements OptimizationMethod {
 
     private Function<RealVector, Double> objectiveFunc;
-    private List<Function<RealVector, Double>> constraints;
+    private ConstraintSet constraints;
     private PatternSearchConfig psc;
     private DichotomyMethodConfig dmc;
     private ModifiedLagrangianConfig c;
+    private IterationListener listener = IterationListener.NONE;
 
     public ModifiedLagrangianMethod(
             Function<RealVector, Double> objectiveFunc,
@@ -28,6 +37,16 @@ public class ModifiedLagrangianMethod implements OptimizationMethod {
             PatternSearchConfig psc,
             DichotomyMethodConfig dmc,
             ModifiedLagrangianConfig c
+    ) {
+        this(objectiveFunc, ConstraintSet.of(constraints), psc, dmc, c);
+    }
+
+    public ModifiedLagrangianMethod(
+            Function<RealVector, Double> objectiveFunc,
+            ConstraintSet constraints,
+            PatternSearchConfig psc,
+            DichotomyMethodConfig dmc,
+            ModifiedLagrangianConfig c
     ) {
         this.objectiveFunc = objectiveFunc;
         this.constraints = constraints;
@@ -36,44 +55,80 @@ public class ModifiedLagrangianMethod implements OptimizationMethod {
         this.c = c;
     }
 
+    /**
+     * Слушатель вызывается после каждой итерации и может остановить метод.
+     */
+    @Override
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
     @Override
     public OptimizationResult optimize(RealVector x0) {
+        SolverStats stats = Metrics.newStats();
+        IterationState state = listener == IterationListener.NONE ? null : new IterationState();
         int k = 0;
         double r = c.r0(), penalty;
         var mu = c.muVector();
         var xOptimal = x0;
+        PatternSearchState warmStart = c.warmStart() ? new PatternSearchState() : null;
+        ToleranceSchedule tolerance = new ToleranceSchedule(c.innerTolerance(), psc);
+        VectorObjective objective = VectorObjective.of(objectiveFunc);
+        double[] g = new double[constraints.size()];
+        double residual = abs(getPenaltyFunc(mu, r).value(x0.toArray()));
 
         do {
             var penaltyFunc = getPenaltyFunc(mu, r);
-            Function<RealVector, Double> lagrangian = (x) ->
-                    objectiveFunc.apply(x) + penaltyFunc.apply(x);
-
-            xOptimal = new PatternSearch(lagrangian, psc, dmc).optimize(xOptimal).getVector();
-            penalty = penaltyFunc.apply(xOptimal);
+            VectorObjective lagrangian = (x) ->
+                    objective.value(x) + penaltyFunc.value(x);
+
+            RealVector xPrev = xOptimal;
+            double rk = r;
+            PatternSearch search = PatternSearch.primitive(lagrangian, psc, dmc);
+            search.setWarmStart(warmStart);
+            search.setTolerance(tolerance.next(residual));
+            OptimizationResult inner = search.optimize(xOptimal);
+            stats.add(inner.getStats());
+            xOptimal = inner.getVector();
+            penalty = penaltyFunc.value(xOptimal.toArray());
+            residual = abs(penalty);
             r *= c.beta();
-            mu = calcMuVector(xOptimal, mu, r);
+            mu = calcMuVector(xOptimal, mu, r, g);
             k++;
-        } while (abs(penalty) >= c.eps());
+            if (state != null && !listener.onIteration(state.update(
+                    k, xOptimal.toArray(), objectiveFunc.apply(xOptimal), Double.NaN, xOptimal.getDistance(xPrev), rk
+            ))) {
+                break;
+            }
+        } while (abs(penalty) >= c.eps() || !tolerance.isExact());
 
-        return new OptimizationResult(xOptimal, objectiveFunc.apply(xOptimal), k);
+        stats.iterations(k);
+        Metrics.publish(name(), stats);
+        return new OptimizationResult(xOptimal, objectiveFunc.apply(xOptimal), k, stats);
     }
 
-    private RealVector calcMuVector(RealVector x, RealVector mu, double r) {
+    private RealVector calcMuVector(RealVector x, RealVector mu, double r, double[] g) {
         RealVector newMuVector = new ArrayRealVector(mu.getDimension());
 
-        for (int i = 0; i < constraints.size(); i++) {
-            newMuVector.setEntry(i, max(0, mu.getEntry(i) + r * constraints.get(i).apply(x)));
+        constraints.values(x.toArray(), g);
+        for (int i = 0; i < g.length; i++) {
+            newMuVector.setEntry(i, max(0, mu.getEntry(i) + r * g[i]));
         }
 
         return newMuVector;
     }
 
-    private Function<RealVector, Double> getPenaltyFunc(RealVector muVector, double r) {
+    private VectorObjective getPenaltyFunc(RealVector muVector, double r) {
+        RealVector weights = c.weights();
+        // у каждого потока свой буфер: в режимах COMPLETE и SPECULATIVE поиск по образцу параллелен
+        ThreadLocal<double[]> values = ThreadLocal.withInitial(() -> new double[constraints.size()]);
         return (x) -> {
+            double[] g = values.get();
             double penalty = 0.0;
 
-            for (int i = 0; i < constraints.size(); i++) {
-                penalty += max(0, muVector.getEntry(i) + r * c.weights().getEntry(i) * constraints.get(i).apply(x))
+            constraints.values(x, g);
+            for (int i = 0; i < g.length; i++) {
+                penalty += max(0, muVector.getEntry(i) + r * weights.getEntry(i) * g[i])
                         - pow(muVector.getEntry(i), 2.0);
             }
 
@@ -0,0 +1,58 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Латинский гиперкуб: каждая координата делится на count равных слоев,
+ * и в каждый слой по каждой координате попадает ровно одна точка.
+ */
+public class LatinHypercubeGenerator implements StartPointGenerator {
+
+    private final double[] lower;
+    private final double[] upper;
+    private final Random random;
+
+    public LatinHypercubeGenerator(double[] lower, double[] upper, long seed) {
+        if (lower.length != upper.length) {
+            throw new IllegalArgumentException("Bounds dimensions differ: " + lower.length + " != " + upper.length);
+        }
+        this.lower = lower.clone();
+        this.upper = upper.clone();
+        this.random = new Random(seed);
+    }
+
+    @Override
+    public synchronized List<RealVector> generate(int count) {
+        int n = lower.length;
+        double[][] points = new double[count][n];
+        int[] strata = new int[count];
+
+        for (int j = 0; j < n; j++) {
+            for (int i = 0; i < count; i++) {
+                strata[i] = i;
+            }
+            // перестановка Фишера - Йетса
+            for (int i = count - 1; i > 0; i--) {
+                int r = random.nextInt(i + 1), t = strata[i];
+                strata[i] = strata[r];
+                strata[r] = t;
+            }
+            for (int i = 0; i < count; i++) {
+                double u = (strata[i] + random.nextDouble()) / count;
+                points[i][j] = lower[j] + u * (upper[j] - lower[j]);
+            }
+        }
+
+        List<RealVector> res = new ArrayList<>(count);
+        for (double[] p : points) {
+            res.add(new ArrayRealVector(p, false));
+        }
+        return res;
+    }
+
+}
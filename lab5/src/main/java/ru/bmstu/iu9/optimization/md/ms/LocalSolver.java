@@ -0,0 +1,52 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.md.OptimizationMethod;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+
+import java.util.function.Function;
+
+/**
+ * Локальный метод, запускаемый мультистартом из одной начальной точки.
+ * Реализация вызывается из нескольких потоков одновременно.
+ */
+@FunctionalInterface
+public interface LocalSolver {
+
+    OptimizationResult solve(RealVector x0);
+
+    /**
+     * Слушатель, через который мультистарт останавливает идущие запуски. Он общий для всех
+     * запусков и вызывается из нескольких потоков. По умолчанию не поддерживается: тогда
+     * отменяются только еще не начатые запуски.
+     */
+    default void setIterationListener(IterationListener listener) {
+    }
+
+    static LocalSolver of(OptimizationMethod method) {
+        return new LocalSolver() {
+            @Override
+            public OptimizationResult solve(RealVector x0) {
+                return method.optimize(x0);
+            }
+
+            @Override
+            public void setIterationListener(IterationListener listener) {
+                method.setIterationListener(listener);
+            }
+        };
+    }
+
+    /**
+     * Адаптер для методов, возвращающих только точку минимума,
+     * например {@code x0 -> NelderMeadMethod.optimize(func, x0, conf)}.
+     */
+    static LocalSolver of(Function<RealVector, RealVector> solver, Function<RealVector, Double> objectiveFunc) {
+        return x0 -> {
+            RealVector x = solver.apply(x0);
+            return new OptimizationResult(x, objectiveFunc.apply(x));
+        };
+    }
+
+}
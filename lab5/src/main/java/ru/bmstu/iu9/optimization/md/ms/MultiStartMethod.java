@@ -0,0 +1,206 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.conf.msc.MultiStartConfig;
+import ru.bmstu.iu9.optimization.md.OptimizationMethod;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+/**
+ * Мультистарт: локальный метод независимо запускается из набора начальных точек
+ * в пуле потоков, результатом считается лучший из найденных минимумов.
+ */
+public class MultiStartMethod implements OptimizationMethod {
+
+    private final LocalSolver localSolver;
+    private final String localSolverName;
+    private final StartPointGenerator startPoints;
+    private final MultiStartConfig c;
+    private final Predicate<RealVector> acceptance;
+    private final ForkJoinPool pool;
+    private BatchObjective startScreening;
+
+    public MultiStartMethod(OptimizationMethod localMethod, MultiStartConfig c) {
+        this(localMethod, c, x -> true);
+    }
+
+    /**
+     * Если задано c.targetValue(), на время optimize слушатель итераций localMethod заменяется
+     * проверкой достижения целевого значения, а после сбрасывается в {@link IterationListener#NONE}.
+     */
+    public MultiStartMethod(OptimizationMethod localMethod, MultiStartConfig c, Predicate<RealVector> acceptance) {
+        this(LocalSolver.of(localMethod), localMethod.name(), defaultStartPoints(c), c, acceptance, null);
+    }
+
+    public MultiStartMethod(LocalSolver localSolver, StartPointGenerator startPoints, MultiStartConfig c) {
+        this(localSolver, "LocalSolver", startPoints, c, x -> true, null);
+    }
+
+    /**
+     * @param acceptance проверка найденной точки (например, допустимости); отвергнутые
+     *                   результаты не участвуют в выборе лучшего и не считаются минимумами
+     * @param pool       пул, в котором выполняются запуски; если null, на каждый вызов
+     *                   optimize создается пул из c.parallelism() потоков
+     */
+    public MultiStartMethod(
+            LocalSolver localSolver,
+            String localSolverName,
+            StartPointGenerator startPoints,
+            MultiStartConfig c,
+            Predicate<RealVector> acceptance,
+            ForkJoinPool pool
+    ) {
+        this.localSolver = localSolver;
+        this.localSolverName = localSolverName;
+        this.startPoints = startPoints;
+        this.c = c;
+        this.acceptance = acceptance;
+        this.pool = pool;
+    }
+
+    /**
+     * Перед запусками значения функции во всех начальных точках вычисляются одной партией,
+     * и запуски ставятся в очередь по возрастанию значения: целевое значение, как правило,
+     * достигается раньше, и больше запусков пропускается. null отключает отбор.
+     */
+    public void setStartScreening(BatchObjective startScreening) {
+        this.startScreening = startScreening;
+    }
+
+    @Override
+    public OptimizationResult optimize() {
+        return run(startPoints.generate(c.startsCount()));
+    }
+
+    /**
+     * Мультистарт, в котором x0 добавлен к сгенерированным начальным точкам первым.
+     */
+    @Override
+    public OptimizationResult optimize(RealVector x0) {
+        List<RealVector> points = new ArrayList<>();
+        points.add(x0);
+        points.addAll(startPoints.generate(c.startsCount() - 1));
+        return run(points);
+    }
+
+    @Override
+    public String name() {
+        return "MultiStart(" + localSolverName + ")";
+    }
+
+    private MultiStartResult run(List<RealVector> points) {
+        ForkJoinPool executor = pool != null ? pool : new ForkJoinPool(c.parallelism());
+        AtomicBoolean targetReached = new AtomicBoolean(false);
+        double targetValue = c.targetValue();
+        List<ForkJoinTask<OptimizationResult>> tasks = new ArrayList<>(points.size());
+        SolverStats stats = Metrics.newStats();
+        if (startScreening != null && !points.isEmpty()) {
+            points = screen(points, stats.batch(startScreening));
+        }
+
+        boolean cancellable = targetValue > Double.NEGATIVE_INFINITY;
+        if (cancellable) {
+            // идущие запуски останавливаются на следующей итерации
+            localSolver.setIterationListener(state -> !targetReached.get());
+        }
+
+        try {
+            for (RealVector x0 : points) {
+                tasks.add(executor.submit(() -> {
+                    // после достижения целевого значения еще не начатые запуски пропускаются
+                    if (targetReached.get()) {
+                        return null;
+                    }
+                    OptimizationResult res = localSolver.solve(x0);
+                    if (res.getFunctionValue() <= targetValue && acceptance.test(res.getVector())) {
+                        targetReached.set(true);
+                    }
+                    return res;
+                }));
+            }
+
+            List<OptimizationResult> results = new ArrayList<>(points.size());
+            for (ForkJoinTask<OptimizationResult> task : tasks) {
+                OptimizationResult res = task.join();
+                if (res == null) {
+                    continue;
+                }
+                // вычисления отклоненных запусков тоже учитываются в статистике
+                stats.add(res.getStats());
+                if (acceptance.test(res.getVector())) {
+                    results.add(res);
+                }
+            }
+
+            MultiStartResult result = collect(results, stats);
+            stats.iterations(result.getTotalIterations());
+            Metrics.publish(name(), stats);
+            return result;
+        } finally {
+            if (cancellable) {
+                localSolver.setIterationListener(IterationListener.NONE);
+            }
+            if (pool == null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    private static List<RealVector> screen(List<RealVector> points, BatchObjective batch) {
+        int n = points.get(0).getDimension(), count = points.size();
+        double[] packed = new double[count * n], values = new double[count];
+        Integer[] order = new Integer[count];
+
+        for (int i = 0; i < count; i++) {
+            double[] x = points.get(i).toArray();
+            System.arraycopy(x, 0, packed, i * n, n);
+            order[i] = i;
+        }
+        batch.values(packed, n, count, values);
+        Arrays.sort(order, Comparator.comparingDouble(i -> values[i]));
+
+        List<RealVector> sorted = new ArrayList<>(count);
+        for (int i : order) {
+            sorted.add(points.get(i));
+        }
+        return sorted;
+    }
+
+    private MultiStartResult collect(List<OptimizationResult> results, SolverStats stats) {
+        if (results.isEmpty()) {
+            throw new IllegalStateException("No local solve has produced an acceptable point");
+        }
+
+        results.sort(Comparator.comparingDouble(OptimizationResult::getFunctionValue));
+        List<OptimizationResult> localMinima = new ArrayList<>();
+        int totalIterations = 0;
+
+        for (OptimizationResult res : results) {
+            totalIterations += Math.max(res.getTotalIterations(), 0);
+            boolean distinct = localMinima.stream()
+                    .allMatch(min -> min.getVector().getDistance(res.getVector()) >= c.distinctTolerance());
+            if (distinct) {
+                localMinima.add(res);
+            }
+        }
+
+        return new MultiStartResult(results.get(0), totalIterations, localMinima, results.size(), stats);
+    }
+
+    private static StartPointGenerator defaultStartPoints(MultiStartConfig c) {
+        return StartPointGenerator.of(c.startPoints(), c.lowerBounds(), c.upperBounds(), c.seed());
+    }
+
+}
@@ -0,0 +1,38 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Лучший результат мультистарта вместе со списком найденных различных локальных минимумов,
+ * упорядоченных по возрастанию значения функции.
+ */
+public class MultiStartResult extends OptimizationResult {
+
+    private final List<OptimizationResult> localMinima;
+    private final int completedStarts;
+
+    public MultiStartResult(
+            OptimizationResult best,
+            int totalIterations,
+            List<OptimizationResult> localMinima,
+            int completedStarts,
+            SolverStats stats
+    ) {
+        super(best.getVector(), best.getFunctionValue(), totalIterations, stats);
+        this.localMinima = Collections.unmodifiableList(localMinima);
+        this.completedStarts = completedStarts;
+    }
+
+    public List<OptimizationResult> getLocalMinima() {
+        return localMinima;
+    }
+
+    public int getCompletedStarts() {
+        return completedStarts;
+    }
+
+}
@@ -0,0 +1,45 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.apache.commons.math3.random.SobolSequenceGenerator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Точки последовательности Соболя, отображенные на прямоугольник [lower, upper].
+ * Первая точка последовательности (нулевой угол) пропускается.
+ */
+public class SobolGenerator implements StartPointGenerator {
+
+    private final double[] lower;
+    private final double[] upper;
+    private final SobolSequenceGenerator sequence;
+
+    public SobolGenerator(double[] lower, double[] upper) {
+        if (lower.length != upper.length) {
+            throw new IllegalArgumentException("Bounds dimensions differ: " + lower.length + " != " + upper.length);
+        }
+        this.lower = lower.clone();
+        this.upper = upper.clone();
+        this.sequence = new SobolSequenceGenerator(lower.length);
+        this.sequence.nextVector();
+    }
+
+    @Override
+    public synchronized List<RealVector> generate(int count) {
+        List<RealVector> res = new ArrayList<>(count);
+
+        for (int i = 0; i < count; i++) {
+            double[] u = sequence.nextVector();
+            for (int j = 0; j < u.length; j++) {
+                u[j] = lower[j] + u[j] * (upper[j] - lower[j]);
+            }
+            res.add(new ArrayRealVector(u, false));
+        }
+
+        return res;
+    }
+
+}
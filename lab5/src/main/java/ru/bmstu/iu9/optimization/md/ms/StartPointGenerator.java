@@ -0,0 +1,35 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import org.apache.commons.math3.linear.RealVector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Генератор начальных точек для мультистарта.
+ */
+@FunctionalInterface
+public interface StartPointGenerator {
+
+    List<RealVector> generate(int count);
+
+    /**
+     * Заданные пользователем точки; если запрошено больше точек, чем передано, возвращаются все.
+     */
+    static StartPointGenerator of(List<RealVector> points) {
+        List<RealVector> copy = new ArrayList<>(points);
+        return count -> copy.subList(0, Math.min(count, copy.size()));
+    }
+
+    static StartPointGenerator of(StartPointsType type, double[] lower, double[] upper, long seed) {
+        switch (type) {
+            case LATIN_HYPERCUBE:
+                return new LatinHypercubeGenerator(lower, upper, seed);
+            case SOBOL:
+                return new SobolGenerator(lower, upper);
+            default:
+                throw new IllegalArgumentException("Unsupported start points type: " + type);
+        }
+    }
+
+}
@@ -0,0 +1,6 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+public enum StartPointsType {
+    LATIN_HYPERCUBE,
+    SOBOL
+}
@@ -5,30 +5,41 @@ import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
 import ru.bmstu.iu9.optimization.md.ps.PatternSearch;
+import ru.bmstu.iu9.optimization.md.ps.PatternSearchState;
+import ru.bmstu.iu9.optimization.md.ps.ToleranceSchedule;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
 
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 import static java.lang.Math.*;
 
 public class BasePenaltyMethod {
 
-    protected static Function<Double, Double> POSITIVE_SQUARE_FUNC = (x) -> pow(max(0, x), 2.0);
+    protected static DoubleUnaryOperator POSITIVE_SQUARE_FUNC = (x) -> pow(max(0, x), 2.0);
 
-    protected static Function<Double, Double> HYPERBOLIC_FUNC = (x) -> -1 / x;
+    protected static DoubleUnaryOperator HYPERBOLIC_FUNC = (x) -> -1 / x;
 
-    protected static Function<Double, Double> LOG_NEG_ARG_FUNC = (x) -> -log(-x);
+    protected static DoubleUnaryOperator LOG_NEG_ARG_FUNC = (x) -> -log(-x);
 
-    protected static Function<Double, Double> COMBINED_PENALTY_FUNC = (x) ->
-            (x <= 0) ? LOG_NEG_ARG_FUNC.apply(x) : POSITIVE_SQUARE_FUNC.apply(x);
+    protected static DoubleUnaryOperator COMBINED_PENALTY_FUNC = (x) ->
+            (x <= 0) ? LOG_NEG_ARG_FUNC.applyAsDouble(x) : POSITIVE_SQUARE_FUNC.applyAsDouble(x);
 
     protected Function<RealVector, Double> objectiveFunc;
-    protected List<Function<RealVector, Double>> constraints;
+    protected ConstraintSet constraints;
     protected PatternSearchConfig psc;
     protected DichotomyMethodConfig dmc;
     protected PenaltyMethodConfig c;
+    protected IterationListener listener = IterationListener.NONE;
 
     public BasePenaltyMethod(
             Function<RealVector, Double> objectiveFunc,
@@ -36,6 +47,16 @@ public class BasePenaltyMethod {
             PatternSearchConfig psc,
             DichotomyMethodConfig dmc,
             PenaltyMethodConfig c
+    ) {
+        this(objectiveFunc, ConstraintSet.of(constraints), psc, dmc, c);
+    }
+
+    public BasePenaltyMethod(
+            Function<RealVector, Double> objectiveFunc,
+            ConstraintSet constraints,
+            PatternSearchConfig psc,
+            DichotomyMethodConfig dmc,
+            PenaltyMethodConfig c
     ) {
         this.objectiveFunc = objectiveFunc;
         this.constraints = constraints;
@@ -44,47 +65,102 @@ public class BasePenaltyMethod {
         this.c = c;
     }
 
+    /**
+     * Слушатель вызывается после каждой итерации и может остановить метод.
+     */
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
     protected OptimizationResult optimize(
-            Function<Double, Double> constraintFunc,
+            DoubleUnaryOperator constraintFunc,
             RealVector x0,
             double beta
     ) {
-        Function<RealVector, Double> penaltyFunc = getPenaltyFunc(constraints, constraintFunc, c.weights());
+        VectorObjective objective = VectorObjective.of(objectiveFunc);
+        VectorObjective penaltyFunc = getPenaltyFunc(constraints, constraintFunc, c.weights());
         RealVector x = new ArrayRealVector(x0);
+        SolverStats stats = Metrics.newStats();
+        IterationState state = listener == IterationListener.NONE ? null : new IterationState();
+        PatternSearchState warmStart = warmStart() ? new PatternSearchState() : null;
+        ToleranceSchedule tolerance = new ToleranceSchedule(innerTolerance(), psc);
         int k = 0;
         double penalty, r = c.r0();
+        double residual = abs(r * penaltyFunc.value(x.toArray()));
+        boolean refine = false;
 
         try {
             do {
                 double finalR = r;
-                Function<RealVector, Double> func = (vec) -> {
-                    double funcVal = objectiveFunc.apply(vec);
-                    double penaltyFuncVal = penaltyFunc.apply(vec);
+                VectorObjective func = (vec) -> {
+                    double funcVal = objective.value(vec);
+                    double penaltyFuncVal = penaltyFunc.value(vec);
                     return funcVal + finalR * penaltyFuncVal;
                 };
 
-                x = new PatternSearch(func, psc, dmc).optimize(x).getVector();
-                penalty = r * penaltyFunc.apply(x);
-                r *= beta;
+                RealVector xPrev = x;
+                PatternSearch search = PatternSearch.primitive(func, psc, dmc);
+                search.setWarmStart(warmStart);
+                search.setTolerance(refine ? tolerance.exact() : tolerance.next(residual));
+                OptimizationResult inner = search.optimize(x);
+                stats.add(inner.getStats());
+                x = inner.getVector();
+                penalty = r * penaltyFunc.value(x.toArray());
+                residual = abs(penalty);
+                // штраф мал, но подзадача решена грубо: та же подзадача решается точно,
+                // иначе лишняя внешняя итерация с меньшим r уводит решение
+                refine = abs(penalty) <= c.eps() && !tolerance.isExact();
+                if (!refine) {
+                    r *= beta;
+                }
                 k++;
-            } while (abs(penalty) > c.eps());
+                if (state != null && !listener.onIteration(state.update(
+                        k, x.toArray(), objectiveFunc.apply(x), Double.NaN, x.getDistance(xPrev), finalR
+                ))) {
+                    break;
+                }
+            } while (abs(penalty) > c.eps() || !tolerance.isExact());
 
         } catch (Exception e) {
             e.printStackTrace();
         }
 
-        return new OptimizationResult(x, objectiveFunc.apply(x), k);
+        stats.iterations(k);
+        Metrics.publish(metricsName(), stats);
+        return new OptimizationResult(x, objectiveFunc.apply(x), k, stats);
     }
 
-    private static Function<RealVector, Double> getPenaltyFunc(
-            List<Function<RealVector, Double>> constraints,
-            Function<Double, Double> constraintFunc,
+    protected boolean warmStart() {
+        return c.warmStart();
+    }
+
+    /**
+     * Множитель точности подзадач, см. {@link ToleranceSchedule}.
+     */
+    protected double innerTolerance() {
+        return c.innerTolerance();
+    }
+
+    private String metricsName() {
+        return this instanceof OptimizationMethod ? ((OptimizationMethod) this).name() : getClass().getSimpleName();
+    }
+
+    /**
+     * Все ограничения вычисляются одним вызовом в буфер потока: при параллельном
+     * исследующем поиске штраф вычисляется из нескольких потоков.
+     */
+    private static VectorObjective getPenaltyFunc(
+            ConstraintSet constraints,
+            DoubleUnaryOperator constraintFunc,
             double[] weights) {
+        ThreadLocal<double[]> values = ThreadLocal.withInitial(() -> new double[constraints.size()]);
         return (x) -> {
+            double[] g = values.get();
             double penalty = 0.0;
 
-            for (int i = 0; i < constraints.size(); i++) {
-                penalty += weights[i] * constraints.get(i).andThen(constraintFunc).apply(x);
+            constraints.values(x, g);
+            for (int i = 0; i < g.length; i++) {
+                penalty += weights[i] * constraintFunc.applyAsDouble(g[i]);
             }
 
             return penalty;
@@ -6,6 +6,7 @@ import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
 
 import java.util.List;
 import java.util.function.Function;
@@ -16,11 +17,31 @@ public class CombinedPenaltyMethod extends BasePenaltyMethod implements Optimiza
         super(objectiveFunc, constraints, psc, dmc, c);
     }
 
+    public CombinedPenaltyMethod(Function<RealVector, Double> objectiveFunc, ConstraintSet constraints, PatternSearchConfig psc, DichotomyMethodConfig dmc, PenaltyMethodConfig c) {
+        super(objectiveFunc, constraints, psc, dmc, c);
+    }
+
     @Override
     public OptimizationResult optimize(RealVector x0) {
         return super.optimize(COMBINED_PENALTY_FUNC, x0, c.betaInternal());
     }
 
+    /**
+     * Подзадачи решаются точно и с начальных шагов из конфигурации: r уменьшается,
+     * квадратичный штраф за нарушение ограничений с каждой итерацией слабеет, и решение,
+     * не доведенное на первых подзадачах, последующие уводят дальше от допустимой области.
+     * Поэтому настройки warmStart и innerTolerance для этого метода не действуют.
+     */
+    @Override
+    protected boolean warmStart() {
+        return false;
+    }
+
+    @Override
+    protected double innerTolerance() {
+        return 0.0;
+    }
+
     @Override
     public OptimizationResult optimize() {
         return optimize(c.externalPoint());
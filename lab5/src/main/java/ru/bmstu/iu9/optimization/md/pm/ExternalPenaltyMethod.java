@@ -6,6 +6,7 @@ import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
 
 import java.util.List;
 import java.util.function.Function;
@@ -22,6 +23,16 @@ public class ExternalPenaltyMethod extends BasePenaltyMethod implements Optimiza
         super(objectiveFunc, constraints, psc, dmc, c);
     }
 
+    public ExternalPenaltyMethod(
+            Function<RealVector, Double> objectiveFunc,
+            ConstraintSet constraints,
+            PatternSearchConfig psc,
+            DichotomyMethodConfig dmc,
+            PenaltyMethodConfig c
+    ) {
+        super(objectiveFunc, constraints, psc, dmc, c);
+    }
+
     @Override
     public OptimizationResult optimize(RealVector x0) {
         return super.optimize(POSITIVE_SQUARE_FUNC, x0, c.betaExternal());
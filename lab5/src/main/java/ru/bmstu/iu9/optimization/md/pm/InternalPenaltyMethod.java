@@ -6,8 +6,10 @@ import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.objective.ConstraintSet;
 
 import java.util.List;
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 public class InternalPenaltyMethod extends BasePenaltyMethod implements OptimizationMethod {
@@ -26,9 +28,21 @@ public class InternalPenaltyMethod extends BasePenaltyMethod implements Optimiza
         this.penaltyType = penaltyType;
     }
 
+    public InternalPenaltyMethod(
+            Function<RealVector, Double> objectiveFunc,
+            ConstraintSet constraints,
+            PatternSearchConfig psc,
+            DichotomyMethodConfig dmc,
+            PenaltyMethodConfig c,
+            PenaltyType penaltyType
+    ) {
+        super(objectiveFunc, constraints, psc, dmc, c);
+        this.penaltyType = penaltyType;
+    }
+
     @Override
     public OptimizationResult optimize(RealVector x0) {
-        Function<Double, Double> penaltyFunc = penaltyType == PenaltyType.HYPERBOLIC ? HYPERBOLIC_FUNC : LOG_NEG_ARG_FUNC;
+        DoubleUnaryOperator penaltyFunc = penaltyType == PenaltyType.HYPERBOLIC ? HYPERBOLIC_FUNC : LOG_NEG_ARG_FUNC;
         return super.optimize(penaltyFunc, x0, c.betaInternal());
     }
 
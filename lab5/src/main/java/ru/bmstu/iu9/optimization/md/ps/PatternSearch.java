@@ -1,70 +1,185 @@
 package ru.bmstu.iu9.optimization.md.ps;
 
+import org.apache.commons.math3.linear.ArrayRealVector;
 import org.apache.commons.math3.linear.MatrixUtils;
 import org.apache.commons.math3.linear.RealVector;
 import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
 import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+import ru.bmstu.iu9.optimization.geometry.VectorWorkspace;
 import ru.bmstu.iu9.optimization.md.OptimizationMethod;
 import ru.bmstu.iu9.optimization.md.OptimizationResult;
-
-import java.util.Arrays;
+import ru.bmstu.iu9.optimization.metrics.Metrics;
+import ru.bmstu.iu9.optimization.metrics.Phase;
+import ru.bmstu.iu9.optimization.metrics.SolverStats;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.od.LineSearch;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+import ru.bmstu.iu9.optimization.poll.ExploratoryPoll;
+import ru.bmstu.iu9.optimization.poll.PollMode;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
 
-import static ru.bmstu.iu9.optimization.od.DichotomyMethod.dichotomyMethod;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.distance;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.linearCombination;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.subtract;
 
 public class PatternSearch implements OptimizationMethod {
 
     private PatternSearchConfig c;
     private DichotomyMethodConfig dmc;
-    private Function<RealVector, Double> objectiveFunc;
+    private VectorObjective objectiveFunc;
+    private IterationListener listener = IterationListener.NONE;
+    private Executor executor = ForkJoinPool.commonPool();
+    private PatternSearchState warmStart;
+    private double tolerance = Double.NaN;
 
     public PatternSearch(Function<RealVector, Double> objectiveFunc, PatternSearchConfig c, DichotomyMethodConfig dmc) {
+        this(VectorObjective.of(objectiveFunc), c, dmc);
+    }
+
+    /**
+     * Поиск по целевой функции, вычисляемой над double[] без упаковки в RealVector.
+     */
+    public static PatternSearch primitive(VectorObjective objectiveFunc, PatternSearchConfig c, DichotomyMethodConfig dmc) {
+        return new PatternSearch(objectiveFunc, c, dmc);
+    }
+
+    private PatternSearch(VectorObjective objectiveFunc, PatternSearchConfig c, DichotomyMethodConfig dmc) {
         this.objectiveFunc = objectiveFunc;
         this.c = c;
         this.dmc = dmc;
     }
 
+    /**
+     * Слушатель вызывается после каждой итерации и может остановить метод.
+     */
+    @Override
+    public void setIterationListener(IterationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Пул для параллельного исследующего поиска (режимы COMPLETE и SPECULATIVE).
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Состояние, с которого начинается запуск и в которое он сохраняет свои шаги
+     * и последнее удачное направление.
+     */
+    public void setWarmStart(PatternSearchState warmStart) {
+        this.warmStart = warmStart;
+    }
+
+    /**
+     * Точность запуска вместо {@code psc.eps()}: не меньше нее и не больше наибольшего
+     * начального шага. Позволяет внешнему методу решать подзадачи грубо, пока он далек
+     * от сходимости.
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = tolerance;
+    }
+
     @Override
     public OptimizationResult optimize(RealVector x0) {
-        RealVector x1 = MatrixUtils.createRealVector(x0.toArray()), x2;
-        double[] steps = Arrays.copyOf(c.steps(), c.steps().length);
+        SolverStats stats = Metrics.newStats();
+        VectorObjective objectiveFunc = CachedObjective.wrap(stats.objectivePrimitive(this.objectiveFunc), c.cacheCapacity());
+        VectorWorkspace ws = new VectorWorkspace(x0.getDimension(), 4);
+        double[] x1 = ws.buffer(0), x2 = ws.buffer(1), d = ws.buffer(2), probe = ws.buffer(3), t;
+        double beta = c.beta();
+        double eps = tolerance(c.eps(), c.steps());
+        double[] steps = warmStart != null ? warmStart.steps(c.steps(), eps) : c.steps().clone();
+        double start = dmc.start(), end = dmc.end(), lineSearchEps = dmc.eps();
+        int lineSearchIterations = dmc.maxIterations();
+        LineSearch lineSearch = c.lineSearch();
+        PollMode pollMode = c.pollMode();
+        ExploratoryPoll poll = pollMode == PollMode.SEQUENTIAL ? null : new ExploratoryPoll(
+                x0.getDimension(),
+                pollMode,
+                executor,
+                this.objectiveFunc instanceof BatchObjective ? stats.batch((BatchObjective) this.objectiveFunc) : null
+        );
+        IterationState state = listener == IterationListener.NONE ? null : new IterationState();
         boolean terminate;
         int k = 0;
 
+        double[] origin = x0.toArray();
+        System.arraycopy(origin, 0, x1, 0, x1.length);
+
+        double[] warmDirection = warmStart != null ? warmStart.direction() : null;
+        if (warmDirection != null) {
+            // предыдущий запуск сместил точку в этом направлении, вероятно, решение сдвинется так же
+            linearCombination(x1, 1.0, warmDirection, x2);
+            double fx2 = objectiveFunc.value(x2);
+            if (fx2 < objectiveFunc.value(x1)) {
+                long lineSearchStart = stats.start();
+                LineSearchResult step = lineSearch.search(
+                        objectiveFunc.alongRay(x1, warmDirection, probe), start, end, lineSearchEps, lineSearchIterations);
+                stats.stop(Phase.LINE_SEARCH, lineSearchStart);
+                stats.lineSearch(step.getEvaluations());
+                double lambda = step.getX();
+                linearCombination(x1, lambda, warmDirection, probe);
+                System.arraycopy(objectiveFunc.value(probe) < fx2 ? probe : x2, 0, x1, 0, x1.length);
+            }
+        }
+
         do {
             k++;
             terminate = true;
-            ExploringSearchRes esRes = exploringSearch(x1, steps);
-            x2 = esRes.x;
-            if (esRes.succeed) {
-                RealVector d = x2.subtract(x1);
-                RealVector startVec = x1;
-                double lambda = dichotomyMethod(
-                        t -> objectiveFunc.apply(startVec.add(d.mapMultiply(t))),
-                        dmc.start(),
-                        dmc.end(),
-                        dmc.eps()
-                );
-
-                if (lambda >= c.eps()) {
+            boolean improved = poll == null
+                    ? exploringSearch(objectiveFunc, x1, x2, steps)
+                    : poll.search(objectiveFunc, x1, x2, steps);
+            if (improved) {
+                subtract(x2, x1, d);
+                long lineSearchStart = stats.start();
+                LineSearchResult step = lineSearch.search(
+                        objectiveFunc.alongRay(x1, d, probe), start, end, lineSearchEps, lineSearchIterations);
+                stats.stop(Phase.LINE_SEARCH, lineSearchStart);
+                stats.lineSearch(step.getEvaluations());
+                double lambda = step.getX();
+
+                if (lambda >= eps) {
                     terminate = false;
                 }
-                x2 = x1.add(d.mapMultiply(lambda));
+                linearCombination(x1, lambda, d, x2);
+                if (poll != null) {
+                    poll.moved(x1, x2);
+                }
             } else {
                 for (int i = 0; i < steps.length; i++) {
-                    if (steps[i] >= c.eps()) {
+                    if (steps[i] >= eps) {
                         terminate = false;
-                        steps[i] *= c.beta();
+                        steps[i] *= beta;
                     }
                 }
             }
 
+            t = x1;
             x1 = x2;
+            x2 = t;
+            if (state != null && !listener.onIteration(
+                    state.update(k, x1, objectiveFunc.value(x1), Double.NaN, distance(x1, x2), Double.NaN))) {
+                terminate = true;
+            }
         } while (!terminate);
 
-        System.out.printf("[info]\t\t-> Число итераций: %d%n", k);
+        if (warmStart != null) {
+            warmStart.save(origin, x1, eps);
+        }
 
-        return new OptimizationResult(x1, objectiveFunc.apply(x1), k);
+        double fx = objectiveFunc.value(x1);
+        stats.iterations(k);
+        stats.cache(objectiveFunc);
+        Metrics.publish(name(), stats);
+        return new OptimizationResult(new ArrayRealVector(x1), fx, k, stats);
     }
 
     @Override
@@ -72,39 +187,42 @@ public class PatternSearch implements OptimizationMethod {
         return optimize(MatrixUtils.createRealVector(new double[]{0.0, 0.0}));
     }
 
-    private ExploringSearchRes exploringSearch(RealVector x, double[] steps) {
-        int n = x.getDimension();
-        RealVector x1 = MatrixUtils.createRealVector(x.toArray());
+    private double tolerance(double eps, double[] initialSteps) {
+        if (Double.isNaN(tolerance) || tolerance <= eps) {
+            return eps;
+        }
+        double maxStep = eps;
+        for (double step : initialSteps) {
+            maxStep = Math.max(maxStep, step);
+        }
+        return Math.min(tolerance, maxStep);
+    }
+
+    /**
+     * Исследующий поиск из точки x, результат записывается в x1.
+     *
+     * @return true, если значение функции в x1 меньше, чем в x
+     */
+    private static boolean exploringSearch(VectorObjective objectiveFunc, double[] x, double[] x1, double[] steps) {
+        int n = x.length;
+        double fx = objectiveFunc.value(x);
+        System.arraycopy(x, 0, x1, 0, n);
 
         for (int i = 0; i < n; i++) {
-            x1.setEntry(i, x.getEntry(i) + steps[i]);
-            if (objectiveFunc.apply(x1) < objectiveFunc.apply(x)) {
+            x1[i] = x[i] + steps[i];
+            if (objectiveFunc.value(x1) < fx) {
                 continue;
             }
 
-            x1.setEntry(i, x.getEntry(i) - steps[i]);
-            if (objectiveFunc.apply(x1) < objectiveFunc.apply(x)) {
+            x1[i] = x[i] - steps[i];
+            if (objectiveFunc.value(x1) < fx) {
                 continue;
             }
 
-            x1.setEntry(i, x.getEntry(i));
-        }
-
-        ExploringSearchRes res = new ExploringSearchRes(x1);
-        res.succeed = objectiveFunc.apply(x1) < objectiveFunc.apply(x);
-
-        return res;
-    }
-
-    private static class ExploringSearchRes {
-
-        RealVector x;
-        boolean succeed;
-
-        ExploringSearchRes(RealVector x) {
-            this.x = x;
+            x1[i] = x[i];
         }
 
+        return objectiveFunc.value(x1) < fx;
     }
 
 }
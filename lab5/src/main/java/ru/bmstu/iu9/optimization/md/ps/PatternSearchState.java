@@ -0,0 +1,49 @@
+package ru.bmstu.iu9.optimization.md.ps;
+
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.norm;
+import static ru.bmstu.iu9.optimization.geometry.DenseVectors.subtract;
+
+/**
+ * Состояние поиска по образцу, переносимое между последовательными запусками на близких
+ * задачах (подзадачах методов штрафов и модифицированной функции Лагранжа).
+ * <p>
+ * Запоминается смещение решения за предыдущий запуск. Решения подзадач внешнего метода
+ * сдвигаются все меньше, поэтому следующий запуск сначала ищет минимум вдоль этого смещения,
+ * а начальные шаги берет равными его длине (не больше шагов из конфигурации и не меньше
+ * точности): шагам не нужно заново уменьшаться от начальных.
+ * <p>
+ * Если предыдущий запуск решал подзадачу грубее текущего, шаги берутся из конфигурации:
+ * иначе точное решение остается вблизи грубого.
+ */
+public class PatternSearchState {
+
+    private double[] direction;
+    private double tolerance;
+
+    double[] steps(double[] initialSteps, double eps) {
+        double[] result = initialSteps.clone();
+        if (direction != null && tolerance <= eps) {
+            double length = Math.max(norm(direction), eps);
+            for (int i = 0; i < result.length; i++) {
+                result[i] = Math.min(result[i], length);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return смещение решения за предыдущий запуск или null
+     */
+    double[] direction() {
+        return direction;
+    }
+
+    void save(double[] start, double[] solution, double eps) {
+        tolerance = eps;
+        if (direction == null) {
+            direction = new double[start.length];
+        }
+        subtract(solution, start, direction);
+    }
+
+}
@@ -0,0 +1,64 @@
+package ru.bmstu.iu9.optimization.md.ps;
+
+import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+
+/**
+ * Точность подзадач внешнего метода (штрафов, модифицированной функции Лагранжа).
+ * <p>
+ * Точность очередной подзадачи равна factor * невязка, но не меньше {@code psc.eps()},
+ * не больше наибольшего начального шага и уменьшается не более чем в 10 раз за внешнюю
+ * итерацию: малая невязка вдали от решения не должна сразу требовать точного решения.
+ * При factor = 0 все подзадачи решаются с точностью {@code psc.eps()}.
+ */
+public class ToleranceSchedule {
+
+    private static final double MAX_DECREASE = 0.1;
+
+    private final double factor;
+    private final double eps;
+    private final double maxTolerance;
+    private double tolerance;
+
+    public ToleranceSchedule(double factor, PatternSearchConfig psc) {
+        this.factor = factor;
+        this.eps = psc.eps();
+        double maxStep = eps;
+        for (double step : psc.steps()) {
+            maxStep = Math.max(maxStep, step);
+        }
+        this.maxTolerance = maxStep;
+        this.tolerance = maxStep;
+    }
+
+    /**
+     * @param residual невязка (штраф) после предыдущей внешней итерации
+     * @return точность следующей подзадачи
+     */
+    public double next(double residual) {
+        if (factor <= 0 || Double.isNaN(residual)) {
+            tolerance = eps;
+        } else {
+            double target = Math.max(factor * residual, tolerance * MAX_DECREASE);
+            tolerance = Math.max(eps, Math.min(maxTolerance, target));
+        }
+        return tolerance;
+    }
+
+    /**
+     * @return точность {@code psc.eps()} для повторного точного решения подзадачи
+     */
+    public double exact() {
+        tolerance = eps;
+        return tolerance;
+    }
+
+    /**
+     * По грубо решенной подзадаче о сходимости внешнего метода судить нельзя.
+     *
+     * @return true, если последняя подзадача решена с точностью {@code psc.eps()}
+     */
+    public boolean isExact() {
+        return tolerance <= eps;
+    }
+
+}
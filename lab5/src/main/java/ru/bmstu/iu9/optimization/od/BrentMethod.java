@@ -0,0 +1,23 @@
+package ru.bmstu.iu9.optimization.od;
+
+import ru.bmstu.iu9.optimization.objective.ScalarObjective;
+import ru.bmstu.iu9.optimization.onedim.BrentSearch;
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
+
+/**
+ * Метод Брента, см. {@link BrentSearch}.
+ */
+public class BrentMethod {
+
+    public static LineSearchResult brentMethod(Function<Double, Double> objectiveFunc, double start, double end, double eps, int maxIterations) {
+        return brentMethodPrimitive(ScalarObjective.of(objectiveFunc), start, end, eps, maxIterations);
+    }
+
+    public static LineSearchResult brentMethodPrimitive(DoubleUnaryOperator objectiveFunc, double start, double end, double eps, int maxIterations) {
+        return BrentSearch.brentMethodPrimitive(objectiveFunc, start, end, eps, maxIterations);
+    }
+
+}
@@ -1,5 +1,8 @@
 package ru.bmstu.iu9.optimization.od;
 
+import ru.bmstu.iu9.optimization.objective.ScalarObjective;
+
+import java.util.function.DoubleUnaryOperator;
 import java.util.function.Function;
 
 import static java.lang.Math.abs;
@@ -7,21 +10,28 @@ import static java.lang.Math.abs;
 public class DichotomyMethod {
 
     public static double dichotomyMethod(Function<Double, Double> objectiveFunc, double start, double end, double eps) {
+        return dichotomyMethodPrimitive(ScalarObjective.of(objectiveFunc), start, end, eps);
+    }
+
+    public static double dichotomyMethodPrimitive(DoubleUnaryOperator objectiveFunc, double start, double end, double eps) {
         double a = start, b = end,
                 xMiddle = (a + b) / 2.0,
                 l = abs(b - a),
-                y, z;
+                fMiddle = objectiveFunc.applyAsDouble(xMiddle),
+                fy, fz, y, z;
         while (l > eps) {
             y = a + l / 4.0;
             z = b - l / 4.0;
 
-            if (objectiveFunc.apply(y) < objectiveFunc.apply(xMiddle)) {
+            if ((fy = objectiveFunc.applyAsDouble(y)) < fMiddle) {
                 b = xMiddle;
                 xMiddle = y;
+                fMiddle = fy;
             } else {
-                if (objectiveFunc.apply(z) < objectiveFunc.apply(xMiddle)) {
+                if ((fz = objectiveFunc.applyAsDouble(z)) < fMiddle) {
                     a = xMiddle;
                     xMiddle = z;
+                    fMiddle = fz;
                 } else {
                     a = y;
                     b = z;
@@ -0,0 +1,33 @@
+package ru.bmstu.iu9.optimization.od;
+
+import ru.bmstu.iu9.optimization.onedim.LineSearchResult;
+
+import java.util.function.DoubleUnaryOperator;
+
+public enum LineSearch {
+
+    DICHOTOMY {
+        @Override
+        public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double start, double end, double eps, int maxIterations) {
+            int[] evaluations = {0};
+            double x = DichotomyMethod.dichotomyMethodPrimitive(t -> {
+                evaluations[0]++;
+                return objectiveFunc.applyAsDouble(t);
+            }, start, end, eps);
+            return new LineSearchResult(x, evaluations[0]);
+        }
+    },
+
+    BRENT {
+        @Override
+        public LineSearchResult search(DoubleUnaryOperator objectiveFunc, double start, double end, double eps, int maxIterations) {
+            return BrentMethod.brentMethodPrimitive(objectiveFunc, start, end, eps, maxIterations);
+        }
+    };
+
+    /**
+     * @param maxIterations ограничение числа итераций; метод дихотомии останавливается только по eps
+     */
+    public abstract LineSearchResult search(DoubleUnaryOperator objectiveFunc, double start, double end, double eps, int maxIterations);
+
+}
@@ -1,6 +1,7 @@
 package ru.bmstu.iu9.optimization.loader;
 
 import org.junit.Test;
+import ru.bmstu.iu9.optimization.od.LineSearch;
 
 import java.io.File;
 import java.io.IOException;
@@ -28,6 +29,7 @@ public class PropertiesLoaderTest {
         fieldsMapping.put("r0", "ru.bmstu.iu9.optimization.loader.r0");
         fieldsMapping.put("coordSteps", "ru.bmstu.iu9.optimization.loader.coordSteps");
         fieldsMapping.put("delta", "ru.bmstu.iu9.optimization.loader.delta");
+        fieldsMapping.put("lineSearch", "ru.bmstu.iu9.optimization.loader.lineSearch");
 
 
         TestConfInterface conf = loader.parse(fieldsMapping);
@@ -122,4 +124,65 @@ public class PropertiesLoaderTest {
         );
     }
 
-}
\ No newline at end of file
+    @Test
+    public void testMissingPropertyFallsBackToDefaultMethod() throws IOException {
+        URL resUrl = PropertiesLoader.class.getClassLoader().getResource("test.properties");
+        assertNotNull(resUrl);
+        PropertiesLoader<TestConfInterface> loader = new PropertiesLoader<>(new File(resUrl.getFile()), TestConfInterface.class);
+
+        TestConfInterface conf = loader.parse();
+
+        assertEquals(16, conf.getCapacity());
+    }
+
+    @Test
+    public void testParseEnumProperty() throws IOException {
+        URL resUrl = PropertiesLoader.class.getClassLoader().getResource("test.properties");
+        assertNotNull(resUrl);
+        PropertiesLoader<TestConfInterface> loader = new PropertiesLoader<>(new File(resUrl.getFile()), TestConfInterface.class);
+
+        TestConfInterface conf = loader.parse();
+
+        assertEquals(LineSearch.BRENT, conf.getLineSearch());
+    }
+
+    @Test
+    public void testValuesAreParsedOnce() throws IOException {
+        URL resUrl = PropertiesLoader.class.getClassLoader().getResource("test.properties");
+        assertNotNull(resUrl);
+        PropertiesLoader<TestConfInterface> loader = new PropertiesLoader<>(new File(resUrl.getFile()), TestConfInterface.class);
+
+        TestConfInterface conf = loader.parse();
+
+        assertSame(conf.getStartPoint(), conf.getStartPoint());
+        conf.getCoordSteps()[0] = 100.0;
+        assertArrayEquals(new double[]{0.5, 0.5}, conf.getCoordSteps(), 0.0001);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMalformedPropertyFailsOnParse() throws IOException {
+        URL resUrl = PropertiesLoader.class.getClassLoader().getResource("malformed.properties");
+        assertNotNull(resUrl);
+        PropertiesLoader<TestConfInterface> loader = new PropertiesLoader<>(new File(resUrl.getFile()), TestConfInterface.class);
+
+        loader.parse();
+    }
+
+    @Test
+    public void testMissingPropertiesFailOnParse() throws IOException {
+        URL resUrl = PropertiesLoader.class.getClassLoader().getResource("missing.properties");
+        assertNotNull(resUrl);
+        PropertiesLoader<TestConfInterface> loader = new PropertiesLoader<>(new File(resUrl.getFile()), TestConfInterface.class);
+
+        try {
+            loader.parse();
+            fail("parse must fail on missing properties");
+        } catch (IllegalStateException e) {
+            assertEquals(
+                    "Properties are not set: ru.bmstu.iu9.optimization.loader.beta, ru.bmstu.iu9.optimization.loader.delta",
+                    e.getMessage()
+            );
+        }
+    }
+
+}
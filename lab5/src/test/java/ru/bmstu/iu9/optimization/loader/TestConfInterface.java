@@ -1,6 +1,7 @@
 package ru.bmstu.iu9.optimization.loader;
 
 import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.od.LineSearch;
 
 public interface TestConfInterface {
     RealVector getConstraintsWeights();
@@ -10,4 +11,9 @@ public interface TestConfInterface {
     double getR0();
     double[] getCoordSteps();
     double delta();
+    LineSearch getLineSearch();
+
+    default int getCapacity() {
+        return 16;
+    }
 }
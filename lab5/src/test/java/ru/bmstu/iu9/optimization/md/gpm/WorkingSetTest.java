@@ -0,0 +1,76 @@
+package ru.bmstu.iu9.optimization.md.gpm;
+
+import org.apache.commons.math3.linear.Array2DRowRealMatrix;
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.objective.JacobianProvider;
+
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class WorkingSetTest {
+
+    private static final RealMatrix JACOBIAN = new Array2DRowRealMatrix(new double[][]{
+            {1.0, 2.0, 0.0, -1.0},
+            {0.0, 1.0, 1.0, 0.5},
+            {2.0, 0.0, -1.0, 1.0},
+            {1.0, 3.0, 1.0, -0.5}
+    });
+    private static final JacobianProvider PROVIDER = JacobianProvider.dense((x) -> JACOBIAN);
+    private static final double[] X = new double[4];
+    private static final double[] GRADIENT = {0.3, -1.2, 0.7, 2.0};
+
+    @Test
+    public void testUpdatesMatchFreshFactorization() {
+        WorkingSet set = new WorkingSet(4);
+        set.sync(asList(0, 1, 2), PROVIDER, X);
+        assertSolution(set, asList(0, 1, 2));
+
+        set.remove(1);
+        assertSolution(set, asList(0, 2));
+
+        // ограничение 0 ушло, 2 осталось в разложении, 1 добавлено заново
+        set.sync(asList(2, 1), PROVIDER, X);
+        assertSolution(set, asList(2, 1));
+    }
+
+    @Test
+    public void testDependentConstraintIsSkipped() {
+        WorkingSet set = new WorkingSet(4);
+        // строка 3 - сумма строк 0 и 1
+        set.sync(asList(0, 1, 3), PROVIDER, X);
+
+        assertEquals(asList(0, 1), ids(set));
+        assertSolution(set, asList(0, 1));
+    }
+
+    private static void assertSolution(WorkingSet set, List<Integer> expectedIds) {
+        assertEquals(expectedIds, ids(set));
+
+        RealMatrix at = MatrixUtils.createRealMatrix(4, expectedIds.size());
+        for (int j = 0; j < expectedIds.size(); j++) {
+            at.setColumn(j, JACOBIAN.getRow(expectedIds.get(j)));
+        }
+        RealVector g = new ArrayRealVector(GRADIENT);
+        RealVector z = new QRDecomposition(at).getSolver().solve(g);
+        RealVector projection = at.operate(z).subtract(g);
+
+        assertArrayEquals(z.toArray(), set.multipliers(GRADIENT), 1e-12);
+        assertArrayEquals(projection.toArray(), set.negativeProjection(GRADIENT), 1e-12);
+    }
+
+    private static List<Integer> ids(WorkingSet set) {
+        Integer[] ids = new Integer[set.size()];
+        for (int j = 0; j < ids.length; j++) {
+            ids[j] = set.id(j);
+        }
+        return asList(ids);
+    }
+
+}
@@ -0,0 +1,116 @@
+package ru.bmstu.iu9.optimization.md.ms;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.conf.msc.MultiStartConfig;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.od.DichotomyMethod;
+import ru.bmstu.iu9.optimization.trace.IterationListener;
+import ru.bmstu.iu9.optimization.trace.IterationState;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class MultiStartMethodTest {
+
+    @Test
+    public void testLatinHypercubeCoversEveryStratum() {
+        int count = 8;
+        List<RealVector> points = new LatinHypercubeGenerator(new double[]{0.0, -1.0}, new double[]{1.0, 1.0}, 42).generate(count);
+
+        assertEquals(count, points.size());
+        for (int j = 0; j < 2; j++) {
+            boolean[] covered = new boolean[count];
+            for (RealVector p : points) {
+                double u = j == 0 ? p.getEntry(0) : (p.getEntry(1) + 1.0) / 2.0;
+                covered[(int) (u * count)] = true;
+            }
+            for (boolean stratum : covered) {
+                assertTrue(stratum);
+            }
+        }
+    }
+
+    @Test
+    public void testFindsBothMinimaOfDoubleWell() {
+        // f(x) = (x^2 - 1)^2 + 0.1 * x: глобальный минимум около -1, локальный около 1
+        LocalSolver solver = x0 -> {
+            double start = x0.getEntry(0), x = start < 0
+                    ? DichotomyMethod.dichotomyMethod(t -> doubleWell(t), -2.0, 0.0, 1e-6)
+                    : DichotomyMethod.dichotomyMethod(t -> doubleWell(t), 0.0, 2.0, 1e-6);
+            return new OptimizationResult(new ArrayRealVector(new double[]{x}), doubleWell(x), 1);
+        };
+        MultiStartConfig c = new MultiStartConfig() {
+            public int startsCount() { return 8; }
+            public double[] lowerBounds() { return new double[]{-2.0}; }
+            public double[] upperBounds() { return new double[]{2.0}; }
+            public int parallelism() { return 2; }
+        };
+
+        MultiStartResult res = (MultiStartResult) new MultiStartMethod(
+                solver,
+                StartPointGenerator.of(StartPointsType.SOBOL, c.lowerBounds(), c.upperBounds(), 0),
+                c
+        ).optimize();
+
+        assertEquals(-1.0, res.getVector().getEntry(0), 0.05);
+        assertEquals(2, res.getLocalMinima().size());
+        assertEquals(8, res.getCompletedStarts());
+    }
+
+    @Test
+    public void testTargetValueStopsRunningSolves() {
+        int maxIterations = 10_000;
+        // запуск из 0 сразу достигает цели, запуск из 1 итерирует, пока его не остановят
+        LocalSolver solver = new LocalSolver() {
+            private volatile IterationListener listener = IterationListener.NONE;
+
+            @Override
+            public OptimizationResult solve(RealVector x0) {
+                if (x0.getEntry(0) == 0.0) {
+                    return new OptimizationResult(x0, -1.0, 1);
+                }
+                IterationState state = new IterationState();
+                int k = 0;
+                while (k < maxIterations && listener.onIteration(state.update(k, x0.toArray(), 1.0, Double.NaN, Double.NaN, Double.NaN))) {
+                    k++;
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+                return new OptimizationResult(x0, 1.0, k);
+            }
+
+            @Override
+            public void setIterationListener(IterationListener listener) {
+                this.listener = listener;
+            }
+        };
+        MultiStartConfig c = new MultiStartConfig() {
+            public int startsCount() { return 2; }
+            public double[] lowerBounds() { return new double[]{0.0}; }
+            public double[] upperBounds() { return new double[]{1.0}; }
+            public int parallelism() { return 2; }
+            public double targetValue() { return 0.0; }
+        };
+        StartPointGenerator points = count -> Arrays.asList(
+                new ArrayRealVector(new double[]{1.0}),
+                new ArrayRealVector(new double[]{0.0})
+        );
+
+        MultiStartResult res = (MultiStartResult) new MultiStartMethod(solver, points, c).optimize();
+
+        assertEquals(-1.0, res.getFunctionValue(), 0.0);
+        assertTrue(res.getTotalIterations() < maxIterations);
+    }
+
+    private static double doubleWell(double x) {
+        return (x * x - 1) * (x * x - 1) + 0.1 * x;
+    }
+
+}
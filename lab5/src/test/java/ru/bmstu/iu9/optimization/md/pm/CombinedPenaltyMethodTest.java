@@ -0,0 +1,75 @@
+package ru.bmstu.iu9.optimization.md.pm;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.apache.commons.math3.linear.RealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.pmc.PenaltyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CombinedPenaltyMethodTest {
+
+    private static final DichotomyMethodConfig DMC = new DichotomyMethodConfig() {
+        public double start() { return -20.0; }
+        public double end() { return 20.0; }
+        public double eps() { return 0.001; }
+    };
+
+    private static final PatternSearchConfig PSC = new PatternSearchConfig() {
+        public double[] steps() { return new double[]{1.0, 1.0}; }
+        public double eps() { return 0.001; }
+        public double beta() { return 0.5; }
+        public int cacheCapacity() { return 1024; }
+    };
+
+    // задача из optimization.properties
+    private static final Function<RealVector, Double> OBJECTIVE = v -> {
+        double x = v.getEntry(0), y = v.getEntry(1);
+        return 250 * (x * x - y) * (x * x - y) + 2 * (x - 1) * (x - 1) + 300;
+    };
+
+    private static final List<Function<RealVector, Double>> CONSTRAINTS = Arrays.asList(
+            v -> v.getEntry(0) * v.getEntry(0) + v.getEntry(1) * v.getEntry(1) - 0.8,
+            v -> -v.getEntry(0),
+            v -> -v.getEntry(1)
+    );
+
+    @Test
+    public void testWarmStartAndToleranceKeepAnswer() {
+        OptimizationResult exact = new CombinedPenaltyMethod(OBJECTIVE, CONSTRAINTS, PSC, DMC, config(false, 0.0)).optimize();
+        OptimizationResult warm = new CombinedPenaltyMethod(OBJECTIVE, CONSTRAINTS, PSC, DMC, config(true, 0.1)).optimize();
+
+        assertEquals(0.8708, exact.getVector().getEntry(0), 1e-3);
+        assertEquals(0.7582, exact.getVector().getEntry(1), 1e-3);
+        assertEquals(300.033, exact.getFunctionValue(), 1e-3);
+
+        assertEquals(exact.getVector().getEntry(0), warm.getVector().getEntry(0), 1e-3);
+        assertEquals(exact.getVector().getEntry(1), warm.getVector().getEntry(1), 1e-3);
+        double violation = CONSTRAINTS.get(0).apply(exact.getVector());
+        assertTrue(CONSTRAINTS.get(0).apply(warm.getVector()) <= violation + 1e-3);
+    }
+
+    private static PenaltyMethodConfig config(boolean warmStart, double innerTolerance) {
+        return new PenaltyMethodConfig() {
+            public double[] weights() { return new double[]{1.0, 1.0, 1.0}; }
+            public RealVector internalPoint() { return new ArrayRealVector(new double[]{1.0, 1.5}); }
+            public RealVector externalPoint() { return new ArrayRealVector(new double[]{-1.0, -1.0}); }
+            public double r0() { return 1.0; }
+            public double betaInternal() { return 0.1; }
+            public double betaExternal() { return 5.0; }
+            public double eps() { return 0.0001; }
+            public RealVector combinedPenaltyPoint() { return new ArrayRealVector(new double[]{-1.0, -1.0}); }
+            public boolean warmStart() { return warmStart; }
+            public double innerTolerance() { return innerTolerance; }
+        };
+    }
+
+}
@@ -0,0 +1,42 @@
+package ru.bmstu.iu9.optimization.md.ps;
+
+import org.apache.commons.math3.linear.RealVector;
+import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+
+import java.util.function.Function;
+
+/**
+ * Общие для тестов задача и конфигурации поиска по образцу.
+ */
+public final class PatternSearchFixtures {
+
+    public static final DichotomyMethodConfig DMC = new DichotomyMethodConfig() {
+        public double start() { return -2.0; }
+        public double end() { return 2.0; }
+        public double eps() { return 1e-5; }
+    };
+
+    // минимум в (1, -0.5)
+    public static final Function<RealVector, Double> PARABOLOID = (x) ->
+            Math.pow(x.getEntry(0) - 1.0, 2.0) + Math.pow(x.getEntry(1) + 0.5, 2.0);
+
+    private PatternSearchFixtures() {
+    }
+
+    /**
+     * Двумерный поиск с начальными шагами 0.5 и заданной точностью.
+     */
+    public static PatternSearchConfig config(double eps) {
+        return new PatternSearchConfig() {
+            public double[] steps() { return new double[]{0.5, 0.5}; }
+            public double eps() { return eps; }
+            public double beta() { return 0.5; }
+        };
+    }
+
+    public static PatternSearch paraboloidSearch(double eps) {
+        return new PatternSearch(PARABOLOID, config(eps), DMC);
+    }
+
+}
@@ -0,0 +1,163 @@
+package ru.bmstu.iu9.optimization.md.ps;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.conf.dmc.DichotomyMethodConfig;
+import ru.bmstu.iu9.optimization.conf.psc.PatternSearchConfig;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.objective.BatchObjective;
+import ru.bmstu.iu9.optimization.objective.VectorObjective;
+import ru.bmstu.iu9.optimization.poll.PollMode;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PatternSearchTest {
+
+    private static final DichotomyMethodConfig DMC = new DichotomyMethodConfig() {
+        public double start() { return -2.0; }
+        public double end() { return 2.0; }
+        public double eps() { return 1e-6; }
+    };
+
+    // f(x) = sum (i + 1) * (x_i - 1)^2, минимум в (1, ..., 1)
+    private static final VectorObjective QUADRATIC = x -> {
+        double s = 0.0;
+        for (int i = 0; i < x.length; i++) {
+            s += (i + 1) * (x[i] - 1.0) * (x[i] - 1.0);
+        }
+        return s;
+    };
+
+    @Test
+    public void testParallelPollsReachSameMinimum() {
+        int n = 6;
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            for (PollMode mode : PollMode.values()) {
+                PatternSearch ps = PatternSearch.primitive(QUADRATIC, config(n, mode), DMC);
+                ps.setExecutor(executor);
+                OptimizationResult res = ps.optimize(new ArrayRealVector(n));
+
+                for (int i = 0; i < n; i++) {
+                    assertEquals(mode.name(), 1.0, res.getVector().getEntry(i), 1e-3);
+                }
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testCompletePollUsesBatchObjective() {
+        int n = 4;
+        AtomicInteger batches = new AtomicInteger();
+
+        class Quadratic implements VectorObjective, BatchObjective {
+            public double value(double[] x) {
+                return QUADRATIC.value(x);
+            }
+
+            public void values(double[] points, int dim, int count, double[] values) {
+                batches.incrementAndGet();
+                BatchObjective.pointwise(QUADRATIC).values(points, dim, count, values);
+            }
+        }
+
+        PatternSearch ps = PatternSearch.primitive(new Quadratic(), config(n, PollMode.COMPLETE), DMC);
+        // партия вычисляется без executor
+        ps.setExecutor(command -> fail("executor must not be used for a batch objective"));
+        OptimizationResult res = ps.optimize(new ArrayRealVector(n));
+
+        assertTrue(batches.get() > 0);
+        for (int i = 0; i < n; i++) {
+            assertEquals(1.0, res.getVector().getEntry(i), 1e-3);
+        }
+    }
+
+    @Test
+    public void testWarmStartSolvesSequenceCheaper() {
+        int n = 4;
+        PatternSearchState state = new PatternSearchState();
+        AtomicInteger cold = new AtomicInteger(), warm = new AtomicInteger();
+        ArrayRealVector coldX = new ArrayRealVector(n), warmX = new ArrayRealVector(n);
+
+        // как у подзадач метода штрафов: минимум (c, ..., c) сдвигается все меньше
+        for (int k = 0; k < 8; k++) {
+            double center = 1.0 + 0.5 * (1.0 - Math.pow(0.5, k));
+            VectorObjective shifted = x -> {
+                double[] y = x.clone();
+                for (int i = 0; i < y.length; i++) {
+                    y[i] += 1.0 - center;
+                }
+                return QUADRATIC.value(y);
+            };
+
+            coldX = (ArrayRealVector) PatternSearch.primitive(counting(shifted, cold), config(n, PollMode.SEQUENTIAL), DMC)
+                    .optimize(coldX).getVector();
+            PatternSearch warmSearch = PatternSearch.primitive(counting(shifted, warm), config(n, PollMode.SEQUENTIAL), DMC);
+            warmSearch.setWarmStart(state);
+            warmX = (ArrayRealVector) warmSearch.optimize(warmX).getVector();
+
+            for (int i = 0; i < n; i++) {
+                assertEquals(center, coldX.getEntry(i), 1e-3);
+                assertEquals(center, warmX.getEntry(i), 1e-3);
+            }
+        }
+
+        assertTrue(warm.get() + " >= " + cold.get(), warm.get() < cold.get());
+    }
+
+    @Test
+    public void testToleranceSchedule() {
+        ToleranceSchedule schedule = new ToleranceSchedule(0.1, config(2, PollMode.SEQUENTIAL));
+
+        // не больше начального шага
+        assertEquals(0.5, schedule.next(100.0), 0.0);
+        // уменьшается не более чем в 10 раз за итерацию
+        assertEquals(0.05, schedule.next(1e-8), 1e-15);
+        assertEquals(0.02, schedule.next(0.2), 1e-15);
+        assertFalse(schedule.isExact());
+        for (int i = 0; i < 4; i++) {
+            schedule.next(0.0);
+        }
+        assertEquals(1e-5, schedule.next(0.0), 0.0);
+        assertTrue(schedule.isExact());
+
+        ToleranceSchedule refined = new ToleranceSchedule(0.1, config(2, PollMode.SEQUENTIAL));
+        refined.next(100.0);
+        assertEquals(1e-5, refined.exact(), 0.0);
+        assertTrue(refined.isExact());
+
+        ToleranceSchedule exact = new ToleranceSchedule(0.0, config(2, PollMode.SEQUENTIAL));
+        assertEquals(1e-5, exact.next(100.0), 0.0);
+        assertTrue(exact.isExact());
+    }
+
+    private static VectorObjective counting(VectorObjective objective, AtomicInteger counter) {
+        return x -> {
+            counter.incrementAndGet();
+            return objective.value(x);
+        };
+    }
+
+    private static PatternSearchConfig config(int n, PollMode mode) {
+        return new PatternSearchConfig() {
+            public double[] steps() {
+                double[] steps = new double[n];
+                Arrays.fill(steps, 0.5);
+                return steps;
+            }
+            public double eps() { return 1e-5; }
+            public double beta() { return 0.5; }
+            public int cacheCapacity() { return 256; }
+            public PollMode pollMode() { return mode; }
+        };
+    }
+
+}
@@ -0,0 +1,66 @@
+package ru.bmstu.iu9.optimization.metrics;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.junit.After;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.md.ps.PatternSearch;
+import ru.bmstu.iu9.optimization.objective.CachedObjective;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static ru.bmstu.iu9.optimization.md.ps.PatternSearchFixtures.paraboloidSearch;
+
+public class MetricsTest {
+
+    @After
+    public void resetSink() {
+        Metrics.setSink(null);
+    }
+
+    @Test
+    public void testStatsAreDisabledWithoutSink() {
+        OptimizationResult res = paraboloidSearch(1e-4).optimize(new ArrayRealVector(2));
+
+        assertFalse(res.getStats().isEnabled());
+        assertEquals(0, res.getStats().getObjectiveEvaluations());
+        // выключенная статистика общая для всех запусков и не должна накапливать счетчики
+        assertEquals(0, res.getStats().getIterations());
+        assertEquals(0, res.getStats().getLineSearchEvaluations());
+        assertEquals(0, Metrics.newStats().getIterations());
+    }
+
+    @Test
+    public void testPatternSearchPublishesToRegistry() {
+        InMemoryMetricsRegistry registry = new InMemoryMetricsRegistry();
+        Metrics.setSink(registry);
+
+        OptimizationResult res = paraboloidSearch(1e-4).optimize(new ArrayRealVector(2));
+        List<SolverStats> runs = registry.runs(PatternSearch.class.getSimpleName());
+
+        assertEquals(1, runs.size());
+        assertSame(res.getStats(), runs.get(0));
+        assertTrue(res.getStats().getObjectiveEvaluations() > 0);
+        assertEquals(res.getTotalIterations(), res.getStats().getIterations());
+        assertTrue(res.getStats().getNanos(Phase.LINE_SEARCH) > 0);
+    }
+
+    @Test
+    public void testCacheCountersAreRecorded() {
+        CachedObjective objective = new CachedObjective((x) -> x[0] * x[0], 4);
+        objective.value(new double[]{1.0});
+        objective.value(new double[]{1.0});
+        objective.value(new double[]{2.0});
+
+        SolverStats stats = SolverStats.enabled();
+        stats.cache(objective);
+        assertEquals(1, stats.getCacheHits());
+        assertEquals(2, stats.getCacheMisses());
+
+        SolverStats disabled = SolverStats.disabled();
+        disabled.cache(objective);
+        assertEquals(0, disabled.getCacheHits());
+    }
+
+}
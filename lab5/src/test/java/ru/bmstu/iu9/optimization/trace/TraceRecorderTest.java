@@ -0,0 +1,48 @@
+package ru.bmstu.iu9.optimization.trace;
+
+import org.apache.commons.math3.linear.ArrayRealVector;
+import org.junit.Test;
+import ru.bmstu.iu9.optimization.md.OptimizationResult;
+import ru.bmstu.iu9.optimization.md.ps.PatternSearch;
+
+import static org.junit.Assert.*;
+import static ru.bmstu.iu9.optimization.md.ps.PatternSearchFixtures.paraboloidSearch;
+
+public class TraceRecorderTest {
+
+    @Test
+    public void testKeepsLastStatesInOrder() {
+        TraceRecorder recorder = new TraceRecorder(3, 2);
+        IterationState state = new IterationState();
+        double[] x = new double[2];
+
+        for (int k = 1; k <= 5; k++) {
+            x[0] = k;
+            x[1] = -k;
+            recorder.onIteration(state.update(k, x, 10.0 * k, Double.NaN, 1.0, Double.NaN));
+        }
+
+        assertEquals(3, recorder.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i + 3, recorder.iteration(i));
+            assertEquals(10.0 * (i + 3), recorder.value(i), 0.0);
+            assertEquals(-(i + 3), recorder.point(i).getEntry(1), 0.0);
+        }
+    }
+
+    @Test
+    public void testListenerStopsPatternSearch() {
+        PatternSearch ps = paraboloidSearch(1e-6);
+        OptimizationResult full = ps.optimize(new ArrayRealVector(2));
+
+        TraceRecorder recorder = new TraceRecorder(8, 2);
+        ps.setIterationListener(recorder.and(state -> state.getIteration() < 2));
+        OptimizationResult stopped = ps.optimize(new ArrayRealVector(2));
+
+        assertTrue(full.getTotalIterations() > 2);
+        assertEquals(2, stopped.getTotalIterations());
+        assertEquals(2, recorder.size());
+        assertEquals(stopped.getFunctionValue(), recorder.value(1), 1e-12);
+    }
+
+}